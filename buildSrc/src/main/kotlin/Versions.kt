@@ -65,4 +65,8 @@ object Versions {
         const val commonsIO = "2.7"
         const val guava = "31.0.1-jre"
     }
+    
+    object Benchmarks {
+        const val jmh = "1.36"
+    }
 }
\ No newline at end of file
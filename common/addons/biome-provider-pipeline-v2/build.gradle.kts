@@ -5,6 +5,7 @@ dependencies {
     
     implementation("net.jafama", "jafama", Versions.Libraries.Internal.jafama)
     testImplementation("net.jafama", "jafama", Versions.Libraries.Internal.jafama)
+    testImplementation("org.slf4j", "slf4j-api", Versions.Libraries.slf4j)
 }
 
 tasks.named<com.github.jengelman.gradle.plugins.shadow.tasks.ShadowJar>("shadowJar") {
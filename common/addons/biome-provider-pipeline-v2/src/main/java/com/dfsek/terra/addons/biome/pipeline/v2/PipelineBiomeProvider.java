@@ -5,40 +5,61 @@ import com.dfsek.terra.addons.biome.pipeline.v2.api.Pipeline;
 import com.dfsek.terra.addons.biome.pipeline.v2.api.SeededVector;
 import com.dfsek.terra.addons.biome.pipeline.v2.api.Stage;
 import com.dfsek.terra.addons.biome.pipeline.v2.api.biome.PipelineBiome;
-import com.github.benmanes.caffeine.cache.Caffeine;
-import com.github.benmanes.caffeine.cache.LoadingCache;
 import net.jafama.FastMath;
 
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.StreamSupport;
 
 import com.dfsek.terra.api.noise.NoiseSampler;
 import com.dfsek.terra.api.registry.key.StringIdentifiable;
 import com.dfsek.terra.api.util.Column;
+import com.dfsek.terra.api.util.cache.SeededLongCache;
+import com.dfsek.terra.api.util.function.IntIntObjConsumer;
 import com.dfsek.terra.api.world.biome.Biome;
 import com.dfsek.terra.api.world.biome.generation.BiomeProvider;
 
 
+/**
+ * Biome provider generating biomes in chunks with a {@link Pipeline}.
+ * <p>
+ * Generated chunks are cached by seed and chunk position. When prefetching is enabled, a thread moving into a
+ * neighbouring chunk queues the next chunk in the same direction to be generated in the background, so chunk
+ * generation moving steadily across the world rarely waits for the pipeline. Each thread keeps track of the chunk it last
+ * sampled, and only works out which way it is moving when a sample lands in a different chunk.
+ */
 public class PipelineBiomeProvider implements BiomeProvider {
-    
-    private final LoadingCache<SeededVector, BiomeChunk> biomeChunkCache;
+    private final SeededLongCache<BiomeChunk> biomeChunkCache;
+    private final boolean prefetch;
+    private final ThreadPoolExecutor prefetchExecutor;
+    private final ThreadLocal<Cursor> cursors = ThreadLocal.withInitial(Cursor::new);
     private final int chunkSize;
     private final int resolution;
     private final NoiseSampler mutator;
     private final double noiseAmp;
     private final Set<Biome> biomes;
     
-    public PipelineBiomeProvider(Pipeline pipeline, int resolution, NoiseSampler mutator, double noiseAmp) {
+    /**
+     * @param cacheSize Number of pipeline chunks to cache
+     * @param prefetch  Whether to generate chunks ahead of the direction threads are moving in
+     */
+    public PipelineBiomeProvider(Pipeline pipeline, int resolution, NoiseSampler mutator, double noiseAmp, int cacheSize,
+                                 boolean prefetch) {
         this.resolution = resolution;
         this.mutator = mutator;
         this.noiseAmp = noiseAmp;
         this.chunkSize = pipeline.getChunkSize();
-        this.biomeChunkCache = Caffeine.newBuilder()
-                                       .maximumSize(64)
-                                       .build(pipeline::generateChunk);
+        this.prefetch = prefetch;
+        this.biomeChunkCache = new SeededLongCache<>("pipeline_v2.biome_chunk", cacheSize, (long) chunkSize * chunkSize * 4,
+                                                     (key, seed) -> pipeline.generateChunk(
+                                                             new SeededVector(seed, unpackX(key) * chunkSize,
+                                                                              unpackZ(key) * chunkSize)));
+        this.prefetchExecutor = prefetch ? createPrefetchExecutor() : null;
     
         Set<PipelineBiome> biomeSet = new HashSet<>();
         pipeline.getSource().getBiomes().forEach(biomeSet::add);
@@ -84,13 +105,57 @@ public class PipelineBiomeProvider implements BiomeProvider {
         int chunkX = FastMath.floorDiv(x, chunkSize);
         int chunkZ = FastMath.floorDiv(z, chunkSize);
         
-        int chunkWorldX = chunkX * chunkSize;
-        int chunkWorldZ = chunkZ * chunkSize;
+        int xInChunk = x - chunkX * chunkSize;
+        int zInChunk = z - chunkZ * chunkSize;
+        
+        if(prefetch) prefetch(chunkX, chunkZ, seed);
+        return biomeChunkCache.get(pack(chunkX, chunkZ), seed).get(xInChunk, zInChunk).getBiome();
+    }
+    
+    /*
+     * Each provider has its own prefetch thread, so one busy world cannot crowd out the prefetches of another. The thread
+     * exits once it has been idle for a moment, so a provider which is no longer used, such as after a pack reload, holds
+     * no thread and is collected along with its executor and queue.
+     */
+    private static ThreadPoolExecutor createPrefetchExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 5, TimeUnit.SECONDS, new ArrayBlockingQueue<>(64), runnable -> {
+            Thread thread = new Thread(runnable, "Terra Biome Pipeline Prefetch");
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.DiscardOldestPolicy()); // The oldest requests are the least likely to still be useful
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+    
+    private static long pack(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+    
+    private static int unpackX(long key) {
+        return (int) (key >> 32);
+    }
+    
+    private static int unpackZ(long key) {
+        return (int) key;
+    }
+    
+    /**
+     * Queues the chunk after this one to be generated, if the current thread has just moved here from a neighbouring chunk.
+     */
+    private void prefetch(int chunkX, int chunkZ, long seed) {
+        Cursor cursor = cursors.get();
+        if(cursor.valid && cursor.chunkX == chunkX && cursor.chunkZ == chunkZ && cursor.seed == seed) return;
         
-        int xInChunk = x - chunkWorldX;
-        int zInChunk = z - chunkWorldZ;
+        int dx = chunkX - cursor.chunkX;
+        int dz = chunkZ - cursor.chunkZ;
+        boolean adjacent = cursor.valid && cursor.seed == seed && dx >= -1 && dx <= 1 && dz >= -1 && dz <= 1;
+        cursor.moveTo(chunkX, chunkZ, seed);
+        if(!adjacent) return;
         
-        return biomeChunkCache.get(new SeededVector(seed, chunkWorldX, chunkWorldZ)).get(xInChunk, zInChunk).getBiome();
+        long next = pack(chunkX + dx, chunkZ + dz);
+        if(!biomeChunkCache.contains(next, seed)) {
+            prefetchExecutor.execute(() -> biomeChunkCache.preload(next, seed));
+        }
     }
     
     @Override
@@ -108,8 +173,30 @@ public class PipelineBiomeProvider implements BiomeProvider {
         return new BiomePipelineColumn(this, min, max, x, z, seed);
     }
     
+    @Override
+    public void forBiomeRuns(int x, int z, long seed, int min, int max, IntIntObjConsumer<Biome> consumer) {
+        consumer.accept(min, max, getBiome(x, z, seed));
+    }
+    
     @Override
     public int resolution() {
         return resolution;
     }
+    
+    /**
+     * The pipeline chunk a thread last sampled.
+     */
+    private static final class Cursor {
+        private boolean valid;
+        private int chunkX;
+        private int chunkZ;
+        private long seed;
+        
+        private void moveTo(int chunkX, int chunkZ, long seed) {
+            this.valid = true;
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+            this.seed = seed;
+        }
+    }
 }
@@ -18,6 +18,7 @@ import com.dfsek.terra.addons.biome.pipeline.v2.PipelineBiomeProvider;
 import com.dfsek.terra.addons.biome.pipeline.v2.pipeline.PipelineImpl;
 import com.dfsek.terra.addons.biome.pipeline.v2.api.Source;
 import com.dfsek.terra.addons.biome.pipeline.v2.api.Stage;
+import com.dfsek.terra.api.Platform;
 import com.dfsek.terra.api.config.meta.Meta;
 import com.dfsek.terra.api.noise.NoiseSampler;
 import com.dfsek.terra.api.world.biome.generation.BiomeProvider;
@@ -25,6 +26,8 @@ import com.dfsek.terra.api.world.biome.generation.BiomeProvider;
 
 @SuppressWarnings({ "FieldMayBeFinal", "unused" })
 public class BiomePipelineTemplate implements ObjectTemplate<BiomeProvider> {
+    private final Platform platform;
+    
     @Value("resolution")
     @Default
     @Description("""
@@ -52,8 +55,14 @@ public class BiomePipelineTemplate implements ObjectTemplate<BiomeProvider> {
     @Description("The amplitude at which to perform blending.")
     protected @Meta double blendAmplitude = 0d;
     
+    public BiomePipelineTemplate(Platform platform) {
+        this.platform = platform;
+    }
+    
     @Override
     public BiomeProvider get() {
-        return new PipelineBiomeProvider(new PipelineImpl(source, stages, resolution, 128), resolution, blendSampler, blendAmplitude);
+        return new PipelineBiomeProvider(new PipelineImpl(source, stages, resolution, 128), resolution, blendSampler, blendAmplitude,
+                                         platform.getTerraConfig().getPipelineChunkCache(),
+                                         platform.getTerraConfig().isPipelineChunkPrefetch());
     }
 }
@@ -7,12 +7,23 @@ import com.dfsek.terra.addons.biome.pipeline.v2.api.Stage;
 import com.dfsek.terra.addons.biome.pipeline.v2.api.biome.PipelineBiome;
 import net.jafama.FastMath;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 
 
+/**
+ * Biomes of a pipeline chunk, stored as a flat grid of indices into a palette of the biomes the chunk contains.
+ * <p>
+ * Stages are applied through a single {@link ViewPoint} which is moved from cell to cell, so running the pipeline does
+ * not create any objects per cell.
+ */
 public class BiomeChunkImpl implements BiomeChunk {
     
-    private PipelineBiome[][] biomes;
+    private int[] biomes;
+    private PipelineBiome[] palette = new PipelineBiome[8]; // Index 0 is null, so new grids start out empty
+    private int paletteSize = 1;
+    private final int size;
     private final SeededVector worldOrigin;
     private final int chunkOriginArrayIndex;
     private final int worldCoordinateScale;
@@ -24,13 +35,14 @@ public class BiomeChunkImpl implements BiomeChunk {
         this.worldCoordinateScale = pipeline.getResolution();
         
         int size = pipeline.getArraySize();
+        this.size = size;
         
         int expanderCount = pipeline.getExpanderCount();
         int expansionsApplied = 0;
         
         // Allocate working arrays
-        this.biomes = new PipelineBiome[size][size];
-        PipelineBiome[][] lookupArray = new PipelineBiome[size][size];
+        this.biomes = new int[size * size];
+        int[] lookupArray = new int[size * size];
         // A second lookup array is required such that stage application doesn't affect lookups, otherwise application may cascade
         
         // Construct working grid
@@ -44,10 +56,13 @@ public class BiomeChunkImpl implements BiomeChunk {
             for(int gridZ = 0; gridZ < gridSize; gridZ++) {
                 int xIndex = gridOrigin + gridX * gridInterval;
                 int zIndex = gridOrigin + gridZ * gridInterval;
-                biomes[xIndex][zIndex] = pipeline.getSource().get(worldOrigin.seed(), xIndexToWorldCoordinate(xIndex), zIndexToWorldCoordinate(zIndex));
+                PipelineBiome biome = pipeline.getSource().get(worldOrigin.seed(), xIndexToWorldCoordinate(xIndex),
+                                                               zIndexToWorldCoordinate(zIndex));
+                biomes[xIndex * size + zIndex] = paletteIndex(biome);
             }
         }
         
+        ViewPoint viewPoint = new ViewPoint(this);
         for(Stage stage : pipeline.getStages()) {
             if(stage instanceof Expander) {
                 // Shrink working grid size, the expander will fill in null cells (as a result of shrinking the grid) during mutation
@@ -65,16 +80,22 @@ public class BiomeChunkImpl implements BiomeChunk {
             
             // Cycle arrays, the previously populated array is swapped to be used for lookups, and the result of the stage application
             // overwrites the previous lookup array. This saves having to allocate a new array copy each time
-            PipelineBiome[][] tempArray = biomes;
+            int[] tempArray = biomes;
             biomes = lookupArray;
             lookupArray = tempArray;
+            viewPoint.lookupArray = lookupArray;
+            viewPoint.gridInterval = gridInterval;
             
             // Apply stage to working grid
             for(int gridZ = 0; gridZ < gridSize; gridZ = gridZ + 1) {
                 for(int gridX = 0; gridX < gridSize; gridX = gridX + 1) {
                     int xIndex = gridOrigin + gridX * gridInterval;
                     int zIndex = gridOrigin + gridZ * gridInterval;
-                    biomes[xIndex][zIndex] = stage.apply(new ViewPoint(this, gridInterval, gridX, gridZ, xIndex, zIndex, lookupArray));
+                    int index = xIndex * size + zIndex;
+                    viewPoint.moveTo(gridX, gridZ, xIndex, zIndex, index);
+                    PipelineBiome biome = stage.apply(viewPoint);
+                    // Most cells are left as they are, which saves searching the palette
+                    biomes[index] = biome == viewPoint.biome ? lookupArray[index] : paletteIndex(biome);
                 }
             }
         }
@@ -84,7 +105,21 @@ public class BiomeChunkImpl implements BiomeChunk {
     public PipelineBiome get(int xInChunk, int zInChunk) {
         int xIndex = xInChunk + chunkOriginArrayIndex;
         int zIndex = zInChunk + chunkOriginArrayIndex;
-        return biomes[xIndex][zIndex];
+        return palette[biomes[xIndex * size + zIndex]];
+    }
+    
+    /**
+     * @return Index of the biome in the palette, adding it if it is not there yet
+     */
+    private int paletteIndex(PipelineBiome biome) {
+        for(int i = 0; i < paletteSize; i++) {
+            if(palette[i] == biome) return i;
+        }
+        if(paletteSize == palette.length) {
+            palette = Arrays.copyOf(palette, paletteSize * 2);
+        }
+        palette[paletteSize] = biome;
+        return paletteSize++;
     }
     
     private int xIndexToWorldCoordinate(int xIndex) {
@@ -149,33 +184,41 @@ public class BiomeChunkImpl implements BiomeChunk {
     }
     
     /**
-     * Represents a point on the operating grid within the biomes array
+     * Represents a point on the operating grid within the biomes array. A chunk moves a single view point over every
+     * cell it applies a stage to, so stages must not keep hold of it.
      */
     public static class ViewPoint {
         private final BiomeChunkImpl chunk;
-        private final PipelineBiome biome;
-        private final int gridInterval;
-        private final int gridX;
-        private final int gridZ;
-        private final int xIndex;
-        private final int zIndex;
-        private final PipelineBiome[][] lookupArray;
-        
-        private ViewPoint(BiomeChunkImpl chunk, int gridInterval, int gridX, int gridZ, int xIndex, int zIndex, PipelineBiome[][] lookupArray) {
+        private PipelineBiome biome;
+        private int gridInterval;
+        private int gridX;
+        private int gridZ;
+        private int xIndex;
+        private int zIndex;
+        private int index;
+        private int[] lookupArray;
+        
+        private ViewPoint(BiomeChunkImpl chunk) {
             this.chunk = chunk;
-            this.gridInterval = gridInterval;
+        }
+        
+        private void moveTo(int gridX, int gridZ, int xIndex, int zIndex, int index) {
             this.gridX = gridX;
             this.gridZ = gridZ;
             this.xIndex = xIndex;
             this.zIndex = zIndex;
-            this.lookupArray = lookupArray;
-            this.biome = lookupArray[xIndex][zIndex];
+            this.index = index;
+            this.biome = chunk.palette[lookupArray[index]];
         }
         
+        /**
+         * @throws IndexOutOfBoundsException If the cell is outside the chunk's grid
+         */
         public PipelineBiome getRelativeBiome(int x, int z) {
-            int lookupXIndex = this.xIndex + x * gridInterval;
-            int lookupZIndex = this.zIndex + z * gridInterval;
-            return lookupArray[lookupXIndex][lookupZIndex];
+            // Check each axis, the flat index of a cell past the end of a row would otherwise wrap into the next row
+            Objects.checkIndex(xIndex + x * gridInterval, chunk.size);
+            Objects.checkIndex(zIndex + z * gridInterval, chunk.size);
+            return chunk.palette[lookupArray[index + (x * chunk.size + z) * gridInterval]];
         }
         
         public PipelineBiome getBiome() {
@@ -0,0 +1,221 @@
+package pipeline;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.dfsek.terra.addons.biome.pipeline.v2.api.BiomeChunk;
+import com.dfsek.terra.addons.biome.pipeline.v2.api.SeededVector;
+import com.dfsek.terra.addons.biome.pipeline.v2.api.Source;
+import com.dfsek.terra.addons.biome.pipeline.v2.api.Stage;
+import com.dfsek.terra.addons.biome.pipeline.v2.api.biome.PipelineBiome;
+import com.dfsek.terra.addons.biome.pipeline.v2.pipeline.BiomeChunkImpl.ViewPoint;
+import com.dfsek.terra.addons.biome.pipeline.v2.pipeline.PipelineImpl;
+import com.dfsek.terra.addons.biome.pipeline.v2.source.SamplerSource;
+import com.dfsek.terra.addons.biome.pipeline.v2.stage.expander.FractalExpander;
+import com.dfsek.terra.addons.biome.pipeline.v2.stage.mutators.BorderStage;
+import com.dfsek.terra.addons.biome.pipeline.v2.stage.mutators.ReplaceStage;
+import com.dfsek.terra.addons.biome.pipeline.v2.stage.mutators.SmoothStage;
+import com.dfsek.terra.api.noise.NoiseSampler;
+import com.dfsek.terra.api.util.collection.ProbabilityCollection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+
+public class BiomeChunkImplTest {
+    private static final int RESOLUTION = 4;
+    
+    /*
+     * Deterministic hash noise, so the test does not depend on a noise addon.
+     */
+    private static NoiseSampler noise(long salt) {
+        return new NoiseSampler() {
+            @Override
+            public double noise(long seed, double x, double y) {
+                long hash = (Double.doubleToLongBits(x) * 31 + Double.doubleToLongBits(y)) * 0x9E3779B97F4A7C15L + seed + salt;
+                hash ^= hash >>> 29;
+                hash *= 0xBF58476D1CE4E5B9L;
+                hash ^= hash >>> 32;
+                return (hash >>> 11) * 0x1.0p-52 - 1;
+            }
+            
+            @Override
+            public double noise(long seed, double x, double y, double z) {
+                return noise(seed, x + z, y);
+            }
+        };
+    }
+    
+    @Test
+    public void testMatchesOriginalImplementation() {
+        PipelineBiome[] biomes = new PipelineBiome[6];
+        for(int i = 0; i < biomes.length; i++) {
+            biomes[i] = PipelineBiome.placeholder("B" + i);
+        }
+        ProbabilityCollection<PipelineBiome> source = new ProbabilityCollection<>();
+        for(int i = 0; i < 4; i++) {
+            source.add(biomes[i], 1);
+        }
+        ProbabilityCollection<PipelineBiome> replace = new ProbabilityCollection<>();
+        replace.add(biomes[4], 1);
+        replace.add(PipelineBiome.self(), 1);
+        ProbabilityCollection<PipelineBiome> border = new ProbabilityCollection<>();
+        border.add(biomes[5], 1);
+        
+        // Replacing with self leaves cells as they are, the other stages mostly change cells or read their neighbours
+        List<Stage> stages = List.of(new FractalExpander(noise(1)),
+                                     new ReplaceStage("B1", replace, noise(2)),
+                                     new FractalExpander(noise(3)),
+                                     new BorderStage("B2", "B0", noise(4), border),
+                                     new SmoothStage(noise(5)),
+                                     new FractalExpander(noise(6)),
+                                     new SmoothStage(noise(7)));
+        PipelineImpl pipeline = new PipelineImpl(new SamplerSource(source, noise(0)), stages, RESOLUTION, 90);
+        
+        int chunkSize = pipeline.getChunkSize();
+        long hash = 0;
+        for(int chunk = 0; chunk < 200; chunk++) {
+            BiomeChunk biomeChunk = pipeline.generateChunk(new SeededVector(chunk * 7L, (chunk % 10) * chunkSize,
+                                                                            (chunk / 10) * chunkSize));
+            for(int x = 0; x < chunkSize; x++) {
+                for(int z = 0; z < chunkSize; z++) {
+                    hash = hash * 31 + biomeChunk.get(x, z).getID().hashCode();
+                }
+            }
+        }
+        assertEquals(80, chunkSize);
+        assertEquals(6743625830079352712L, hash); // as generated before chunks were stored as palette indices
+    }
+    
+    @Test
+    public void testRelativeReads() {
+        CoordinateSource source = new CoordinateSource();
+        // Before the expander, cells are every other index apart
+        List<Stage> stages = List.of(new CheckingStage(source, 2 * RESOLUTION), new FractalExpander(noise(0)));
+        PipelineImpl expanding = new PipelineImpl(source, stages, RESOLUTION, 30);
+        PipelineImpl flat = new PipelineImpl(source, List.of(new CheckingStage(source, RESOLUTION), new CheckingStage(source, RESOLUTION),
+                                                             new CheckingStage(source, RESOLUTION)), RESOLUTION, 30);
+        for(SeededVector origin : List.of(new SeededVector(0, 0, 0), new SeededVector(1, -37, 112), new SeededVector(2, 5, -9))) {
+            expanding.generateChunk(origin);
+            
+            BiomeChunk chunk = flat.generateChunk(origin);
+            int chunkSize = flat.getChunkSize();
+            for(int x = 0; x < chunkSize; x++) {
+                for(int z = 0; z < chunkSize; z++) {
+                    assertSame(source.get(0, (origin.x() + x) * RESOLUTION, (origin.z() + z) * RESOLUTION), chunk.get(x, z));
+                }
+            }
+        }
+    }
+    
+    @Test
+    public void testChangedCells() {
+        CoordinateSource source = new CoordinateSource();
+        PipelineBiome changed = PipelineBiome.placeholder("changed");
+        Stage checkerboard = new Stage() {
+            @Override
+            public PipelineBiome apply(ViewPoint viewPoint) {
+                return ((viewPoint.worldX() + viewPoint.worldZ()) / RESOLUTION & 1) == 0 ? changed : viewPoint.getBiome();
+            }
+            
+            @Override
+            public int maxRelativeReadDistance() {
+                return 0;
+            }
+        };
+        Stage keep = new Stage() {
+            @Override
+            public PipelineBiome apply(ViewPoint viewPoint) {
+                return viewPoint.getRelativeBiome(0, 0);
+            }
+            
+            @Override
+            public int maxRelativeReadDistance() {
+                return 1;
+            }
+        };
+        PipelineImpl pipeline = new PipelineImpl(source, List.of(checkerboard, keep, checkerboard), RESOLUTION, 30);
+        BiomeChunk chunk = pipeline.generateChunk(new SeededVector(0, 3, -20));
+        for(int x = 0; x < pipeline.getChunkSize(); x++) {
+            for(int z = 0; z < pipeline.getChunkSize(); z++) {
+                PipelineBiome expected = ((x + 3 + z - 20) & 1) == 0
+                                         ? changed
+                                         : source.get(0, (x + 3) * RESOLUTION, (z - 20) * RESOLUTION);
+                assertSame(expected, chunk.get(x, z), "at " + x + ", " + z);
+            }
+        }
+    }
+    
+    @Test
+    public void testReadsOutsideGridThrow() {
+        CoordinateSource source = new CoordinateSource();
+        for(int[] offset : new int[][]{ { 0, -2 }, { 0, 2 }, { -2, 0 }, { 2, 0 } }) {
+            Stage stage = new Stage() {
+                @Override
+                public PipelineBiome apply(ViewPoint viewPoint) {
+                    return viewPoint.getRelativeBiome(offset[0], offset[1]); // further than the declared distance
+                }
+                
+                @Override
+                public int maxRelativeReadDistance() {
+                    return 1;
+                }
+            };
+            PipelineImpl pipeline = new PipelineImpl(source, List.of(stage), RESOLUTION, 30);
+            assertThrows(IndexOutOfBoundsException.class, () -> pipeline.generateChunk(new SeededVector(0, 0, 0)));
+        }
+    }
+    
+    /*
+     * A distinct biome at every world coordinate.
+     */
+    private static final class CoordinateSource implements Source {
+        private final Map<Long, PipelineBiome> biomes = new HashMap<>();
+        
+        @Override
+        public PipelineBiome get(long seed, int x, int z) {
+            return biomes.computeIfAbsent(((long) x << 32) | (z & 0xFFFFFFFFL), key -> PipelineBiome.placeholder(x + "," + z));
+        }
+        
+        @Override
+        public Iterable<PipelineBiome> getBiomes() {
+            return Set.of();
+        }
+    }
+    
+    
+    /*
+     * Checks that every neighbour a stage may read is the source biome at that neighbour's coordinates.
+     */
+    private static class CheckingStage implements Stage {
+        private final CoordinateSource source;
+        private final int step;
+        
+        private CheckingStage(CoordinateSource source, int step) {
+            this.source = source;
+            this.step = step;
+        }
+        
+        @Override
+        public PipelineBiome apply(ViewPoint viewPoint) {
+            for(int x = -1; x <= 1; x++) {
+                for(int z = -1; z <= 1; z++) {
+                    PipelineBiome expected = source.get(0, viewPoint.worldX() + x * step, viewPoint.worldZ() + z * step);
+                    assertSame(expected, viewPoint.getRelativeBiome(x, z),
+                               "neighbour " + x + ", " + z + " of " + viewPoint.worldX() + ", " + viewPoint.worldZ());
+                }
+            }
+            return viewPoint.getBiome();
+        }
+        
+        @Override
+        public int maxRelativeReadDistance() {
+            return 1;
+        }
+    }
+}
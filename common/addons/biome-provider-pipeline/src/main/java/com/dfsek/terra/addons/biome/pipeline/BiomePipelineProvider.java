@@ -23,6 +23,8 @@ import com.dfsek.terra.addons.biome.pipeline.api.stage.Stage;
 import com.dfsek.terra.api.noise.NoiseSampler;
 import com.dfsek.terra.api.registry.key.StringIdentifiable;
 import com.dfsek.terra.api.util.Column;
+import com.dfsek.terra.api.util.cache.CacheMetrics;
+import com.dfsek.terra.api.util.function.IntIntObjConsumer;
 import com.dfsek.terra.api.world.biome.Biome;
 import com.dfsek.terra.api.world.biome.generation.BiomeProvider;
 
@@ -42,7 +44,9 @@ public class BiomePipelineProvider implements BiomeProvider {
         this.noiseAmp = noiseAmp;
         holderCache = Caffeine.newBuilder()
                               .maximumSize(1024)
+                              .recordStats()
                               .build(key -> pipeline.getBiomes(key.x, key.z, key.seed));
+        CacheMetrics.register("pipeline.biome_holder", holderCache, (long) pipeline.getSize() * pipeline.getSize() * 4);
         this.pipeline = pipeline;
         
         Set<BiomeDelegate> biomeSet = new HashSet<>();
@@ -107,6 +111,11 @@ public class BiomePipelineProvider implements BiomeProvider {
         return new BiomePipelineColumn(this, min, max, x, z, seed);
     }
     
+    @Override
+    public void forBiomeRuns(int x, int z, long seed, int min, int max, IntIntObjConsumer<Biome> consumer) {
+        consumer.accept(min, max, getBiome(x, z, seed));
+    }
+    
     @Override
     public int resolution() {
         return resolution;
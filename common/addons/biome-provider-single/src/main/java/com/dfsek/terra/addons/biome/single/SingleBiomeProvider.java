@@ -10,6 +10,7 @@ package com.dfsek.terra.addons.biome.single;
 import java.util.Collections;
 import java.util.Optional;
 
+import com.dfsek.terra.api.util.function.IntIntObjConsumer;
 import com.dfsek.terra.api.world.biome.Biome;
 import com.dfsek.terra.api.world.biome.generation.BiomeProvider;
 
@@ -31,6 +32,11 @@ public class SingleBiomeProvider implements BiomeProvider {
         return Optional.of(biome);
     }
     
+    @Override
+    public void forBiomeRuns(int x, int z, long seed, int min, int max, IntIntObjConsumer<Biome> consumer) {
+        consumer.accept(min, max, biome);
+    }
+    
     @Override
     public Iterable<Biome> getBiomes() {
         return Collections.singleton(biome);
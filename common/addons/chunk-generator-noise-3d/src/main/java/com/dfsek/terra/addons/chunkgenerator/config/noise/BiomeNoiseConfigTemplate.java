@@ -39,6 +39,6 @@ public class BiomeNoiseConfigTemplate implements ObjectTemplate<BiomeNoiseProper
     @Override
     public BiomeNoiseProperties get() {
         return new BiomeNoiseProperties(baseSampler, elevationSampler, carvingSampler, blendDistance, blendStep, blendWeight,
-                                        elevationWeight, new ThreadLocalNoiseHolder());
+                                        elevationWeight);
     }
 }
@@ -10,6 +10,5 @@ public record BiomeNoiseProperties(NoiseSampler base,
                                    int blendDistance,
                                    int blendStep,
                                    double blendWeight,
-                                   double elevationWeight,
-                                   ThreadLocalNoiseHolder noiseHolder) implements Properties {
+                                   double elevationWeight) implements Properties {
 }
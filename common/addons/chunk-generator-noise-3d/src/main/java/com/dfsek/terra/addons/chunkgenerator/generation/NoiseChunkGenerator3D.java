@@ -10,6 +10,9 @@ package com.dfsek.terra.addons.chunkgenerator.generation;
 
 import net.jafama.FastMath;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.function.Predicate;
 
 import com.dfsek.terra.addons.chunkgenerator.config.noise.BiomeNoiseProperties;
 import com.dfsek.terra.addons.chunkgenerator.palette.BiomePaletteInfo;
@@ -23,15 +26,23 @@ import com.dfsek.terra.api.config.ConfigPack;
 import com.dfsek.terra.api.properties.PropertyKey;
 import com.dfsek.terra.api.util.Column;
 import com.dfsek.terra.api.world.biome.Biome;
+import com.dfsek.terra.api.world.biome.generation.BiomeChunkSnapshot;
 import com.dfsek.terra.api.world.biome.generation.BiomeProvider;
 import com.dfsek.terra.api.world.chunk.generation.ChunkGenerator;
 import com.dfsek.terra.api.world.chunk.generation.ProtoChunk;
 import com.dfsek.terra.api.world.chunk.generation.util.Palette;
 import com.dfsek.terra.api.world.info.WorldProperties;
 
+import static com.dfsek.terra.addons.chunkgenerator.generation.math.interpolation.ChunkInterpolator.CELL_BOUND_MARGIN;
+
 
 public class NoiseChunkGenerator3D implements ChunkGenerator {
+    private static final byte MIXED_CELL = 0; // needs sampling per block
+    private static final byte EMPTY_CELL = 1; // no terrain anywhere in the cell
+    private static final byte SOLID_CELL = 2; // terrain everywhere in the cell, and none of it carved
+    
     private final Platform platform;
+    private final int profile;
     
     private final SamplerProvider samplerCache;
     
@@ -43,11 +54,14 @@ public class NoiseChunkGenerator3D implements ChunkGenerator {
     private final PropertyKey<BiomePaletteInfo> paletteInfoPropertyKey;
     private final PropertyKey<BiomeNoiseProperties> noisePropertiesKey;
     
+    private final int maxSeaLevel;
+    
     public NoiseChunkGenerator3D(ConfigPack pack, Platform platform, int elevationBlend, int carverHorizontalResolution,
                                  int carverVerticalResolution,
                                  PropertyKey<BiomeNoiseProperties> noisePropertiesKey,
                                  PropertyKey<BiomePaletteInfo> paletteInfoPropertyKey) {
         this.platform = platform;
+        this.profile = platform.getProfiler().register("chunk_base_3d");
         this.air = platform.getWorldHandle().air();
         this.carverHorizontalResolution = carverHorizontalResolution;
         this.carverVerticalResolution = carverVerticalResolution;
@@ -61,6 +75,14 @@ public class NoiseChunkGenerator3D implements ChunkGenerator {
                 .max()
                 .orElse(0);
         
+        this.maxSeaLevel = pack
+                .getBiomeProvider()
+                .stream()
+                .map(biome -> biome.getContext().get(paletteInfoPropertyKey))
+                .mapToInt(BiomePaletteInfo::seaLevel)
+                .max()
+                .orElse(Integer.MIN_VALUE);
+        
         this.samplerCache = new SamplerProvider(platform, elevationBlend, noisePropertiesKey, maxBlend);
     }
     
@@ -69,15 +91,18 @@ public class NoiseChunkGenerator3D implements ChunkGenerator {
     public void generateChunkData(@NotNull ProtoChunk chunk, @NotNull WorldProperties world,
                                   @NotNull BiomeProvider biomeProvider,
                                   int chunkX, int chunkZ) {
-        platform.getProfiler().push("chunk_base_3d");
+        platform.getProfiler().push(profile);
         int xOrig = (chunkX << 4);
         int zOrig = (chunkZ << 4);
         
-        Sampler3D sampler = samplerCache.getChunk(chunkX, chunkZ, world, biomeProvider);
-        
         long seed = world.getSeed();
         
-        LazilyEvaluatedInterpolator carver = new LazilyEvaluatedInterpolator(biomeProvider,
+        BiomeChunkSnapshot biomes = biomeProvider.getChunkSnapshot(chunkX, chunkZ, seed, world.getMinHeight(), world.getMaxHeight(),
+                                                                   samplerCache.getBorder());
+        
+        Sampler3D sampler = samplerCache.getChunk(chunkX, chunkZ, world, biomes);
+        
+        LazilyEvaluatedInterpolator carver = new LazilyEvaluatedInterpolator(biomes,
                                                                              chunkX,
                                                                              chunkZ,
                                                                              world.getMaxHeight(),
@@ -85,6 +110,19 @@ public class NoiseChunkGenerator3D implements ChunkGenerator {
                                                                              carverHorizontalResolution,
                                                                              carverVerticalResolution,
                                                                              seed);
+        // Carving is only sampled where terrain is solid, so only evaluate the lattice up to where it can be.
+        int maxPositiveY = sampler.getMaxPositiveY();
+        carver.evaluate(world.getMinHeight(), maxPositiveY);
+        
+        int minHeight = world.getMinHeight();
+        // Everything above this is air above sea level, which is left untouched.
+        int top = FastMath.min(FastMath.max(maxPositiveY, maxSeaLevel), world.getMaxHeight() - 1);
+        
+        int cells = (world.getMaxHeight() - minHeight + 3) >> 2;
+        byte[] cellTypes = classifyCells(sampler, carver, minHeight, top, cells);
+        
+        double[] column = new double[world.getMaxHeight() - minHeight];
+        
         for(int x = 0; x < 16; x++) {
             for(int z = 0; z < 16; z++) {
                 int paletteLevel = 0;
@@ -92,9 +130,29 @@ public class NoiseChunkGenerator3D implements ChunkGenerator {
                 int cx = xOrig + x;
                 int cz = zOrig + z;
                 
+                int cellOffset = ((x >> 2) * 4 + (z >> 2)) * cells;
+                
                 BlockState data;
-                Column<Biome> biomeColumn = biomeProvider.getColumn(cx, cz, world);
-                for(int y = world.getMaxHeight() - 1; y >= world.getMinHeight(); y--) {
+                Column<Biome> biomeColumn = biomes.getColumn(cx, cz);
+                sampler.sampleColumn(x, z, minHeight, top, column);
+                for(int y = top; y >= minHeight; y--) {
+                    int relative = y - minHeight;
+                    byte cellType = cellTypes[cellOffset + (relative >> 2)];
+                    
+                    if(cellType == EMPTY_CELL && (relative & ~3) + minHeight > maxSeaLevel) {
+                        // Skip the rest of the cell.
+                        y = (relative & ~3) + minHeight;
+                        paletteLevel = 0;
+                        continue;
+                    }
+                    
+                    double noise = column[relative];
+                    
+                    if(noise <= 0 && y > maxSeaLevel) {
+                        paletteLevel = 0;
+                        continue;
+                    }
+                    
                     Biome biome = biomeColumn.get(y);
                     
                     BiomePaletteInfo paletteInfo = biome.getContext().get(paletteInfoPropertyKey);
@@ -102,8 +160,8 @@ public class NoiseChunkGenerator3D implements ChunkGenerator {
                     int sea = paletteInfo.seaLevel();
                     Palette seaPalette = paletteInfo.ocean();
                     
-                    if(sampler.sample(x, y, z) > 0) {
-                        if(carver.sample(x, y, z) <= 0) {
+                    if(noise > 0) {
+                        if(cellType == SOLID_CELL || carver.sample(x, y, z) <= 0) {
                             data = PaletteUtil
                                     .getPalette(x, y, z, sampler, paletteInfo, paletteLevel)
                                     .get(paletteLevel, cx, y, cz, seed);
@@ -123,7 +181,34 @@ public class NoiseChunkGenerator3D implements ChunkGenerator {
                 }
             }
         }
-        platform.getProfiler().pop("chunk_base_3d");
+        platform.getProfiler().pop(profile);
+    }
+    
+    /**
+     * Classifies each 4x4x4 cell of the chunk up to {@code top} from the bounds of its interpolation lattice, so uniform
+     * cells can skip per-block sampling.
+     */
+    private static byte[] classifyCells(Sampler3D sampler, LazilyEvaluatedInterpolator carver, int minHeight, int top, int cells) {
+        byte[] cellTypes = new byte[16 * cells];
+        int topCell = (top - minHeight) >> 2;
+        for(int cellX = 0; cellX < 4; cellX++) {
+            for(int cellZ = 0; cellZ < 4; cellZ++) {
+                int offset = (cellX * 4 + cellZ) * cells;
+                for(int cellY = 0; cellY <= topCell; cellY++) {
+                    if(sampler.getCellMax(cellX, cellY, cellZ) < -CELL_BOUND_MARGIN) {
+                        cellTypes[offset + cellY] = EMPTY_CELL;
+                    } else if(sampler.getCellMin(cellX, cellY, cellZ) > CELL_BOUND_MARGIN) {
+                        int bottom = (cellY << 2) + minHeight;
+                        int cellTop = FastMath.min(bottom + 3, top);
+                        if(carver.getMax(cellX << 2, bottom, cellZ << 2, (cellX << 2) + 3, cellTop, (cellZ << 2) + 3) <
+                           -CELL_BOUND_MARGIN) {
+                            cellTypes[offset + cellY] = SOLID_CELL;
+                        }
+                    }
+                }
+            }
+        }
+        return cellTypes;
     }
     
     @Override
@@ -150,6 +235,67 @@ public class NoiseChunkGenerator3D implements ChunkGenerator {
         } else return air;
     }
     
+    @Override
+    public BlockState[] getColumn(WorldProperties world, int x, int z, BiomeProvider biomeProvider) {
+        BlockState[] column = new BlockState[world.getMaxHeight() - world.getMinHeight()];
+        walkColumn(world, x, z, biomeProvider, column, null);
+        return column;
+    }
+    
+    @Override
+    public int getSurfaceHeight(WorldProperties world, int x, int z, BiomeProvider biomeProvider, Predicate<BlockState> predicate) {
+        return walkColumn(world, x, z, biomeProvider, null, predicate);
+    }
+    
+    /**
+     * Computes the blocks of a column from the top of the world down, as {@link #getBlock} would, tracking palette depth
+     * as it goes rather than re-walking the column above each block.
+     *
+     * @param column    Array to store blocks in, indexed by {@code y - world.getMinHeight()}. May be null.
+     * @param predicate Predicate to stop at the first block matching. May be null.
+     *
+     * @return The Y coordinate above the first block matching {@code predicate}, or the world's minimum height.
+     */
+    private int walkColumn(WorldProperties world, int x, int z, BiomeProvider biomeProvider, @Nullable BlockState[] column,
+                           @Nullable Predicate<BlockState> predicate) {
+        long seed = world.getSeed();
+        int minHeight = world.getMinHeight();
+        Sampler3D sampler = samplerCache.get(x, z, world, biomeProvider);
+        
+        int fdX = FastMath.floorMod(x, 16);
+        int fdZ = FastMath.floorMod(z, 16);
+        
+        double[] noise = new double[world.getMaxHeight() - minHeight];
+        sampler.sampleColumn(fdX, fdZ, minHeight, world.getMaxHeight() - 1, noise);
+        
+        Column<Biome> biomeColumn = biomeProvider.getColumn(x, z, world);
+        
+        int level = 0;
+        for(int y = world.getMaxHeight() - 1; y >= minHeight; y--) {
+            double sample = noise[y - minHeight];
+            BlockState data;
+            if(sample <= 0 && y > maxSeaLevel) {
+                data = air;
+                level = 0;
+            } else {
+                BiomePaletteInfo paletteInfo = biomeColumn.get(y).getContext().get(paletteInfoPropertyKey);
+                if(sample > 0) {
+                    data = PaletteUtil.getPalette(fdX, y, fdZ, sampler, paletteInfo, 0).get(level, x, y, z, seed);
+                    level++;
+                } else {
+                    data = y <= paletteInfo.seaLevel()
+                           ? paletteInfo.ocean().get(paletteInfo.seaLevel() - y, x, y, z, seed)
+                           : air;
+                    level = 0;
+                }
+            }
+            
+            if(column != null) column[y - minHeight] = data;
+            if(predicate != null && predicate.test(data)) return y + 1;
+        }
+        return minHeight;
+    }
+    
     @Override
     public Palette getPalette(int x, int y, int z, WorldProperties world, BiomeProvider biomeProvider) {
         return biomeProvider.getBiome(x, y, z, world.getSeed()).getContext().get(paletteInfoPropertyKey).paletteHolder().getPalette(y);
@@ -9,19 +9,37 @@ package com.dfsek.terra.addons.chunkgenerator.generation.math.interpolation;
 
 import net.jafama.FastMath;
 
+import java.util.IdentityHashMap;
+import java.util.Map;
+
 import com.dfsek.terra.addons.chunkgenerator.config.noise.BiomeNoiseProperties;
 import com.dfsek.terra.api.properties.PropertyKey;
 import com.dfsek.terra.api.util.Column;
 import com.dfsek.terra.api.world.biome.Biome;
-import com.dfsek.terra.api.world.biome.generation.BiomeProvider;
+import com.dfsek.terra.api.world.biome.generation.BiomeChunkSnapshot;
+
+import static com.dfsek.terra.addons.chunkgenerator.generation.math.interpolation.Interpolator.lerp;
 
 
 /**
- * Class to abstract away the Interpolators needed to generate a chunk.<br>
+ * Class to abstract away the interpolation needed to generate a chunk.<br>
  * Contains method to get interpolated noise at a coordinate within the chunk.
+ * <p>
+ * Noise is sampled on a 5x5 lattice of columns spaced 4 blocks apart, with lattice levels every 4 blocks vertically. The
+ * lattice is stored in a single array, with each column's levels contiguous.
  */
 public class ChunkInterpolator {
-    private final Interpolator3[][][] interpGrid;
+    /**
+     * Interpolation may overshoot lattice values by a few ULPs, so bounds derived from the lattice are only trusted when
+     * clear of zero by this much.
+     */
+    public static final double CELL_BOUND_MARGIN = 1.0E-9;
+    
+    private final double[] lattice;
+    
+    private final double[] levelMax;
+    
+    private final int levels;
     
     private final int min;
     private final int max;
@@ -31,11 +49,11 @@ public class ChunkInterpolator {
      *
      * @param chunkX   X coordinate of the chunk.
      * @param chunkZ   Z coordinate of the chunk.
-     * @param provider Biome Provider to use for biome fetching.
+     * @param biomes   Biomes of the chunk and its surroundings.
      * @param min
      * @param max
      */
-    public ChunkInterpolator(long seed, int chunkX, int chunkZ, BiomeProvider provider, int min, int max,
+    public ChunkInterpolator(long seed, int chunkX, int chunkZ, BiomeChunkSnapshot biomes, int min, int max,
                              PropertyKey<BiomeNoiseProperties> noisePropertiesKey, int maxBlend) {
         this.min = min;
         this.max = max;
@@ -47,14 +65,16 @@ public class ChunkInterpolator {
         
         int size = range >> 2;
         
-        interpGrid = new Interpolator3[4][size][4];
+        this.levels = size + 1;
         
-        double[][][] noiseStorage = new double[5][5][size + 1];
+        this.lattice = new double[25 * levels];
         
         int maxBlendAndChunk = 17 + 2 * maxBlend;
         
-        @SuppressWarnings("unchecked")
-        Column<Biome>[] columns = new Column[maxBlendAndChunk * maxBlendAndChunk];
+        // Noise properties of each column touched by blending, resolved once per lattice Y level.
+        BiomeNoiseProperties[][] columns = new BiomeNoiseProperties[maxBlendAndChunk * maxBlendAndChunk][];
+        
+        Map<BiomeNoiseProperties, ColumnSamples> samples = new IdentityHashMap<>();
         
         for(int x = 0; x < 5; x++) {
             int scaledX = x << 2;
@@ -64,18 +84,46 @@ public class ChunkInterpolator {
                 int absoluteZ = zOrigin + scaledZ;
                 
                 int index = (scaledX + maxBlend) + maxBlendAndChunk * (scaledZ + maxBlend);
-                Column<Biome> biomeColumn = columns[index];
+                BiomeNoiseProperties[] center = getColumn(columns, index, biomes, absoluteX, absoluteZ, size, noisePropertiesKey);
+                
+                samples.clear();
                 
-                if(biomeColumn == null) {
-                    biomeColumn = provider.getColumn(absoluteX, absoluteZ, seed, min, max);
-                    columns[index] = biomeColumn;
+                // Find the Y range each distinct sampler is needed over, so each can be evaluated as a single column.
+                for(int y = 0; y < size; y++) {
+                    BiomeNoiseProperties generationSettings = center[y];
+                    
+                    int step = generationSettings.blendStep();
+                    int blend = generationSettings.blendDistance();
+                    
+                    for(int xi = -blend; xi <= blend; xi++) {
+                        for(int zi = -blend; zi <= blend; zi++) {
+                            int blendX = (xi * step);
+                            int blendZ = (zi * step);
+                            
+                            int localIndex = (scaledX + maxBlend + blendX) + maxBlendAndChunk * (scaledZ + maxBlend + blendZ);
+                            BiomeNoiseProperties properties = getColumn(columns, localIndex, biomes, absoluteX + blendX,
+                                                                        absoluteZ + blendZ, size, noisePropertiesKey)[y];
+                            
+                            ColumnSamples columnSamples = samples.get(properties);
+                            if(columnSamples == null) {
+                                columnSamples = new ColumnSamples(y);
+                                samples.put(properties, columnSamples);
+                            } else {
+                                columnSamples.max = y;
+                            }
+                        }
+                    }
                 }
                 
+                samples.forEach((properties, columnSamples) -> {
+                    int count = columnSamples.max - columnSamples.min + 1;
+                    columnSamples.values = new double[size];
+                    properties.base().noiseColumn(seed, absoluteX, absoluteZ, (columnSamples.min << 2) + min, 4,
+                                                  columnSamples.values, columnSamples.min, count);
+                });
+                
                 for(int y = 0; y < size; y++) {
-                    int scaledY = (y << 2) + min;
-                    BiomeNoiseProperties generationSettings = biomeColumn.get(scaledY)
-                                                                         .getContext()
-                                                                         .get(noisePropertiesKey);
+                    BiomeNoiseProperties generationSettings = center[y];
                     
                     int step = generationSettings.blendStep();
                     int blend = generationSettings.blendDistance();
@@ -89,18 +137,9 @@ public class ChunkInterpolator {
                             int blendZ = (zi * step);
                             
                             int localIndex = (scaledX + maxBlend + blendX) + maxBlendAndChunk * (scaledZ + maxBlend + blendZ);
-                            Column<Biome> column = columns[localIndex];
-                            
-                            if(column == null) {
-                                column = provider.getColumn(absoluteX + blendX, absoluteZ + blendZ, seed, min, max);
-                                columns[localIndex] = column;
-                            }
+                            BiomeNoiseProperties properties = columns[localIndex][y];
                             
-                            BiomeNoiseProperties properties = column
-                                    .get(scaledY)
-                                    .getContext()
-                                    .get(noisePropertiesKey);
-                            double sample = properties.noiseHolder().getNoise(properties.base(), absoluteX, scaledY, absoluteZ, seed);
+                            double sample = samples.get(properties).values[y];
                             runningNoise += sample * properties.blendWeight();
                             runningDiv += properties.blendWeight();
                         }
@@ -108,29 +147,43 @@ public class ChunkInterpolator {
                     
                     double noise = runningNoise / runningDiv;
                     
-                    noiseStorage[x][z][y] = noise;
+                    int latticeIndex = latticeIndex(x, z);
+                    lattice[latticeIndex + y] = noise;
                     if(y == size - 1) {
-                        noiseStorage[x][z][size] = noise;
+                        lattice[latticeIndex + size] = noise;
                     }
                 }
             }
         }
         
-        for(int x = 0; x < 4; x++) {
-            for(int z = 0; z < 4; z++) {
-                for(int y = 0; y < size; y++) {
-                    interpGrid[x][y][z] = new Interpolator3(
-                            noiseStorage[x][z][y],
-                            noiseStorage[x + 1][z][y],
-                            noiseStorage[x][z][y + 1],
-                            noiseStorage[x + 1][z][y + 1],
-                            noiseStorage[x][z + 1][y],
-                            noiseStorage[x + 1][z + 1][y],
-                            noiseStorage[x][z + 1][y + 1],
-                            noiseStorage[x + 1][z + 1][y + 1]);
+        levelMax = new double[size + 1];
+        for(int y = 0; y <= size; y++) {
+            double levelMaxNoise = Double.NEGATIVE_INFINITY;
+            for(int x = 0; x < 5; x++) {
+                for(int z = 0; z < 5; z++) {
+                    levelMaxNoise = FastMath.max(levelMaxNoise, lattice[latticeIndex(x, z) + y]);
                 }
             }
+            levelMax[y] = levelMaxNoise;
+        }
+    }
+    
+    private int latticeIndex(int x, int z) {
+        return (x * 5 + z) * levels;
+    }
+    
+    private BiomeNoiseProperties[] getColumn(BiomeNoiseProperties[][] columns, int index, BiomeChunkSnapshot biomes, int x, int z,
+                                             int size, PropertyKey<BiomeNoiseProperties> noisePropertiesKey) {
+        BiomeNoiseProperties[] column = columns[index];
+        if(column == null) {
+            Column<Biome> biomeColumn = biomes.getColumn(x, z);
+            column = new BiomeNoiseProperties[size];
+            for(int y = 0; y < size; y++) {
+                column[y] = biomeColumn.get((y << 2) + min).getContext().get(noisePropertiesKey);
+            }
+            columns[index] = column;
         }
+        return column;
     }
     
     private static int reRange(int value, int high) {
@@ -146,16 +199,131 @@ public class ChunkInterpolator {
      * @return double - The interpolated noise at the coordinates.
      */
     public double getNoise(double x, double y, double z) {
-        return interpGrid[reRange(((int) x) / 4, 3)][(FastMath.max(FastMath.min(((int) y), max), min) - min) / 4][reRange(((int) z) / 4,
-                                                                                                                          3)].trilerp(
-                (x % 4) / 4, (y % 4) / 4, (z % 4) / 4);
+        int cellX = reRange(((int) x) / 4, 3);
+        int cellY = FastMath.min((FastMath.max(FastMath.min(((int) y), max), min) - min) / 4, levels - 2);
+        int cellZ = reRange(((int) z) / 4, 3);
+        return trilerp(cellX, cellY, cellZ, (x % 4) / 4, (y % 4) / 4, (z % 4) / 4);
+    }
+    
+    /**
+     * Gets an upper bound on the highest Y coordinate at which the interpolated noise, plus {@code offset}, is positive.
+     * <p>
+     * Interpolated values never exceed the corners of their cell by more than {@link #CELL_BOUND_MARGIN}, so this only needs
+     * to look at lattice levels.
+     *
+     * @param offset Offset to add to noise values.
+     *
+     * @return The bound, or {@code min - 1} if noise is never positive.
+     */
+    public int getMaxPositiveY(double offset) {
+        for(int y = levelMax.length - 2; y >= 0; y--) {
+            if(FastMath.max(levelMax[y], levelMax[y + 1]) + offset > -CELL_BOUND_MARGIN) {
+                return FastMath.min((y << 2) + 3 + min, max - 1);
+            }
+        }
+        return min - 1;
+    }
+    
+    /**
+     * Gets the highest lattice value at the corners of a cell. Noise interpolated within the cell never exceeds it.
+     *
+     * @param cellX Cell X index (0-3).
+     * @param cellY Cell Y index, counted in 4 block steps from the bottom of the world.
+     * @param cellZ Cell Z index (0-3).
+     */
+    public double getCellMax(int cellX, int cellY, int cellZ) {
+        int column00 = latticeIndex(cellX, cellZ) + cellY;
+        int column10 = column00 + 5 * levels;
+        return FastMath.max(FastMath.max(FastMath.max(lattice[column00], lattice[column00 + 1]),
+                                         FastMath.max(lattice[column00 + levels], lattice[column00 + levels + 1])),
+                            FastMath.max(FastMath.max(lattice[column10], lattice[column10 + 1]),
+                                         FastMath.max(lattice[column10 + levels], lattice[column10 + levels + 1])));
+    }
+    
+    /**
+     * Gets the lowest lattice value at the corners of a cell. Noise interpolated within the cell is never below it.
+     *
+     * @param cellX Cell X index (0-3).
+     * @param cellY Cell Y index, counted in 4 block steps from the bottom of the world.
+     * @param cellZ Cell Z index (0-3).
+     */
+    public double getCellMin(int cellX, int cellY, int cellZ) {
+        int column00 = latticeIndex(cellX, cellZ) + cellY;
+        int column10 = column00 + 5 * levels;
+        return FastMath.min(FastMath.min(FastMath.min(lattice[column00], lattice[column00 + 1]),
+                                         FastMath.min(lattice[column00 + levels], lattice[column00 + levels + 1])),
+                            FastMath.min(FastMath.min(lattice[column10], lattice[column10 + 1]),
+                                         FastMath.min(lattice[column10 + levels], lattice[column10 + levels + 1])));
     }
     
     public double getNoise(int x, int y, int z) {
-        return interpGrid[x / 4][(y - min) / 4][z / 4].trilerp(
-                (double) (x & 3) / 4, // x & 3 == x % 4
-                (double) (y & 3) / 4, // x & 3 == x % 4
-                (double) (z & 3) / 4  // x & 3 == x % 4
-                                                              );
+        return trilerp(x >> 2, (y - min) >> 2, z >> 2,
+                       (double) (x & 3) / 4,
+                       (double) ((y - min) & 3) / 4,
+                       (double) (z & 3) / 4);
+    }
+    
+    /**
+     * Gets the noise for every block of a column between {@code minY} and {@code maxY}. Each lattice level is bilinearly
+     * interpolated once and shared by the 4 blocks of each cell, rather than re-interpolating all 8 corners per block.
+     * <p>
+     * Values are identical to those returned by {@link #getNoise(int, int, int)}.
+     *
+     * @param x       The internal X coordinate (0-15).
+     * @param z       The internal Z coordinate (0-15).
+     * @param minY    Minimum Y coordinate (inclusive).
+     * @param maxY    Maximum Y coordinate (inclusive).
+     * @param results Array to store noise in, indexed by {@code y - minY}.
+     */
+    public void getNoiseColumn(int x, int z, int minY, int maxY, double[] results) {
+        if(maxY < minY) return;
+        
+        int column00 = latticeIndex(x >> 2, z >> 2);
+        int column01 = column00 + levels;
+        int column10 = column00 + 5 * levels;
+        int column11 = column10 + levels;
+        
+        double tx = (double) (x & 3) / 4;
+        double tz = (double) (z & 3) / 4;
+        
+        int cellY = (minY - min) >> 2;
+        double lower = bilerp(column00, column01, column10, column11, cellY, tx, tz);
+        double upper = bilerp(column00, column01, column10, column11, cellY + 1, tx, tz);
+        for(int y = minY; y <= maxY; y++) {
+            int relative = y - min;
+            if(relative >> 2 != cellY) {
+                cellY = relative >> 2;
+                lower = upper;
+                upper = bilerp(column00, column01, column10, column11, cellY + 1, tx, tz);
+            }
+            results[y - minY] = lerp((double) (relative & 3) / 4, lower, upper);
+        }
+    }
+    
+    private double trilerp(int cellX, int cellY, int cellZ, double tx, double ty, double tz) {
+        int column00 = latticeIndex(cellX, cellZ);
+        int column01 = column00 + levels;
+        int column10 = column00 + 5 * levels;
+        int column11 = column10 + levels;
+        return lerp(ty,
+                    bilerp(column00, column01, column10, column11, cellY, tx, tz),
+                    bilerp(column00, column01, column10, column11, cellY + 1, tx, tz));
+    }
+    
+    private double bilerp(int column00, int column01, int column10, int column11, int y, double tx, double tz) {
+        return lerp(tx,
+                    lerp(tz, lattice[column00 + y], lattice[column01 + y]),
+                    lerp(tz, lattice[column10 + y], lattice[column11 + y]));
+    }
+    
+    private static final class ColumnSamples {
+        private final int min;
+        private int max;
+        private double[] values;
+        
+        private ColumnSamples(int y) {
+            this.min = y;
+            this.max = y;
+        }
     }
 }
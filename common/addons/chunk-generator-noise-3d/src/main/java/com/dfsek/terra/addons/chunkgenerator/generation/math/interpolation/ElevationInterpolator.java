@@ -7,15 +7,17 @@
 
 package com.dfsek.terra.addons.chunkgenerator.generation.math.interpolation;
 
+import net.jafama.FastMath;
+
 import com.dfsek.terra.addons.chunkgenerator.config.noise.BiomeNoiseProperties;
 import com.dfsek.terra.api.properties.PropertyKey;
-import com.dfsek.terra.api.world.biome.generation.BiomeProvider;
+import com.dfsek.terra.api.world.biome.generation.BiomeChunkSnapshot;
 
 
 public class ElevationInterpolator {
     private final double[][] values = new double[18][18];
     
-    public ElevationInterpolator(long seed, int chunkX, int chunkZ, BiomeProvider provider, int smooth,
+    public ElevationInterpolator(long seed, int chunkX, int chunkZ, BiomeChunkSnapshot biomes, int smooth,
                                  PropertyKey<BiomeNoiseProperties> noisePropertiesKey) {
         int xOrigin = chunkX << 4;
         int zOrigin = chunkZ << 4;
@@ -28,9 +30,9 @@ public class ElevationInterpolator {
                 int bx = xOrigin + x;
                 int bz = zOrigin + z;
                 gens[x + 1 + smooth][z + 1 + smooth] =
-                        provider
-                                .getBaseBiome(bx, bz, seed)
-                                .orElseGet(() -> provider.getBiome(bx, 0, bz, seed)) // kind of a hack
+                        biomes
+                                .getBaseBiome(bx, bz)
+                                .orElseGet(() -> biomes.getBiome(bx, 0, bz)) // kind of a hack
                                 .getContext()
                                 .get(noisePropertiesKey);
             }
@@ -70,6 +72,47 @@ public class ElevationInterpolator {
         }
     }
     
+    /**
+     * Gets the highest elevation within the chunk.
+     */
+    public double getMaxElevation() {
+        return getMaxElevation(0, 0, 16);
+    }
+    
+    /**
+     * Gets the highest elevation within a square area of the chunk.
+     *
+     * @param x    Internal X coordinate of the area's corner.
+     * @param z    Internal Z coordinate of the area's corner.
+     * @param size Width of the area.
+     */
+    public double getMaxElevation(int x, int z, int size) {
+        double max = Double.NEGATIVE_INFINITY;
+        for(int xi = x + 1; xi <= x + size; xi++) {
+            for(int zi = z + 1; zi <= z + size; zi++) {
+                max = FastMath.max(max, values[xi][zi]);
+            }
+        }
+        return max;
+    }
+    
+    /**
+     * Gets the lowest elevation within a square area of the chunk.
+     *
+     * @param x    Internal X coordinate of the area's corner.
+     * @param z    Internal Z coordinate of the area's corner.
+     * @param size Width of the area.
+     */
+    public double getMinElevation(int x, int z, int size) {
+        double min = Double.POSITIVE_INFINITY;
+        for(int xi = x + 1; xi <= x + size; xi++) {
+            for(int zi = z + 1; zi <= z + size; zi++) {
+                min = FastMath.min(min, values[xi][zi]);
+            }
+        }
+        return min;
+    }
+    
     public double getElevation(int x, int z) {
         return values[x + 1][z + 1];
     }
@@ -3,14 +3,16 @@ package com.dfsek.terra.addons.chunkgenerator.generation.math.interpolation;
 import net.jafama.FastMath;
 
 import com.dfsek.terra.addons.chunkgenerator.config.noise.BiomeNoiseProperties;
+import com.dfsek.terra.api.noise.NoiseSampler;
 import com.dfsek.terra.api.properties.PropertyKey;
-import com.dfsek.terra.api.world.biome.generation.BiomeProvider;
+import com.dfsek.terra.api.world.biome.generation.BiomeChunkSnapshot;
 
 import static com.dfsek.terra.addons.chunkgenerator.generation.math.interpolation.Interpolator.lerp;
 
 
 public class LazilyEvaluatedInterpolator {
-    private final Double[] samples; //
+    private final double[] samples;
+    private final long[] computed; // bitset of lattice points which have been evaluated
     
     private final int chunkX;
     private final int chunkZ;
@@ -18,7 +20,10 @@ public class LazilyEvaluatedInterpolator {
     private final int horizontalRes;
     private final int verticalRes;
     
-    private final BiomeProvider biomeProvider;
+    private final int hSamples;
+    private final int vSamples;
+    
+    private final BiomeChunkSnapshot biomes;
     private final PropertyKey<BiomeNoiseProperties> noisePropertiesKey;
     
     private final long seed;
@@ -26,43 +31,129 @@ public class LazilyEvaluatedInterpolator {
     
     private final int zMul, yMul;
     
-    public LazilyEvaluatedInterpolator(BiomeProvider biomeProvider, int cx, int cz, int max,
+    public LazilyEvaluatedInterpolator(BiomeChunkSnapshot biomes, int cx, int cz, int max,
                                        PropertyKey<BiomeNoiseProperties> noisePropertiesKey, int min, int horizontalRes, int verticalRes,
                                        long seed) {
         this.noisePropertiesKey = noisePropertiesKey;
-        int hSamples = FastMath.ceilToInt(16.0 / horizontalRes);
-        int vSamples = FastMath.ceilToInt((double) (max - min) / verticalRes);
+        this.hSamples = FastMath.ceilToInt(16.0 / horizontalRes);
+        this.vSamples = FastMath.ceilToInt((double) (max - min) / verticalRes);
         this.zMul = (hSamples + 1);
         this.yMul = zMul * zMul;
-        samples = new Double[yMul * (vSamples + 1)];
+        int size = yMul * (vSamples + 1);
+        this.samples = new double[size];
+        this.computed = new long[(size + 63) >>> 6];
         this.chunkX = cx << 4;
         this.chunkZ = cz << 4;
         this.horizontalRes = horizontalRes;
         this.verticalRes = verticalRes;
-        this.biomeProvider = biomeProvider;
+        this.biomes = biomes;
         this.seed = seed;
         this.min = min;
         this.max = max - 1;
     }
     
-    private double sample(int xIndex, int yIndex, int zIndex, int ox, int oy, int oz) {
+    /**
+     * Evaluates every lattice point needed to interpolate between {@code minY} and {@code maxY} in one pass, a column
+     * at a time. Points outside of this range are still evaluated on demand.
+     *
+     * @param minY Minimum Y coordinate (inclusive)
+     * @param maxY Maximum Y coordinate (inclusive)
+     */
+    public void evaluate(int minY, int maxY) {
+        int minIndex = FastMath.max(FastMath.floorDiv(minY - min, verticalRes), 0);
+        int maxIndex = FastMath.min(FastMath.ceilToInt((double) (maxY - min) / verticalRes), vSamples);
+        if(maxIndex < minIndex) return;
+        
+        double[] column = new double[vSamples + 1];
+        
+        for(int xIndex = 0; xIndex <= hSamples; xIndex++) {
+            int x = chunkX + xIndex * horizontalRes;
+            for(int zIndex = 0; zIndex <= hSamples; zIndex++) {
+                int z = chunkZ + zIndex * horizontalRes;
+                
+                // Evaluate each run of lattice points sharing a carving sampler as a single column.
+                int runStart = minIndex;
+                NoiseSampler runSampler = getCarvingSampler(x, latticeY(minIndex), z);
+                for(int yIndex = minIndex + 1; yIndex <= maxIndex; yIndex++) {
+                    NoiseSampler sampler = getCarvingSampler(x, latticeY(yIndex), z);
+                    if(sampler != runSampler) {
+                        sampleRun(runSampler, x, z, runStart, yIndex, column);
+                        runStart = yIndex;
+                        runSampler = sampler;
+                    }
+                }
+                sampleRun(runSampler, x, z, runStart, maxIndex + 1, column);
+                
+                for(int yIndex = minIndex; yIndex <= maxIndex; yIndex++) {
+                    int index = xIndex + (zIndex * zMul) + (yIndex * yMul);
+                    samples[index] = column[yIndex];
+                    computed[index >>> 6] |= 1L << index;
+                }
+            }
+        }
+    }
+    
+    private void sampleRun(NoiseSampler sampler, int x, int z, int from, int to, double[] column) {
+        // Lattice points above the world are clamped to the top block, so they can't be part of the column.
+        int unclamped = FastMath.min(to, (max - min) / verticalRes + 1);
+        if(unclamped > from) {
+            sampler.noiseColumn(seed, x, z, min + from * verticalRes, verticalRes, column, from, unclamped - from);
+        }
+        for(int yIndex = FastMath.max(from, unclamped); yIndex < to; yIndex++) {
+            column[yIndex] = sampler.noise(seed, x, max, z);
+        }
+    }
+    
+    private NoiseSampler getCarvingSampler(int x, int y, int z) {
+        return biomes
+                .getBiome(x, y, z)
+                .getContext()
+                .get(noisePropertiesKey)
+                .carving();
+    }
+    
+    private int latticeY(int yIndex) {
+        return FastMath.min(max, min + yIndex * verticalRes);
+    }
+    
+    private double latticeSample(int xIndex, int yIndex, int zIndex) {
         int index = xIndex + (zIndex * zMul) + (yIndex * yMul);
-        Double sample = samples[index];
-        if(sample == null) {
-            int xi = ox + chunkX;
-            int zi = oz + chunkZ;
-            
-            int y = FastMath.min(max, oy);
+        if((computed[index >>> 6] & (1L << index)) == 0) {
+            int x = chunkX + xIndex * horizontalRes;
+            int y = latticeY(yIndex);
+            int z = chunkZ + zIndex * horizontalRes;
             
-            sample = biomeProvider
-                    .getBiome(xi, y, zi, seed)
-                    .getContext()
-                    .get(noisePropertiesKey)
-                    .carving()
-                    .noise(seed, xi, y, zi);
-            samples[index] = sample;
+            samples[index] = getCarvingSampler(x, y, z).noise(seed, x, y, z);
+            computed[index >>> 6] |= 1L << index;
+        }
+        return samples[index];
+    }
+    
+    /**
+     * Gets the highest lattice value used to interpolate any block in a box. Values sampled within the box never exceed
+     * it.
+     *
+     * @param minX Minimum internal X coordinate (inclusive)
+     * @param minY Minimum Y coordinate (inclusive)
+     * @param minZ Minimum internal Z coordinate (inclusive)
+     * @param maxX Maximum internal X coordinate (inclusive)
+     * @param maxY Maximum Y coordinate (inclusive)
+     * @param maxZ Maximum internal Z coordinate (inclusive)
+     */
+    public double getMax(int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+        int maxXIndex = (maxX + horizontalRes - 1) / horizontalRes;
+        int maxYIndex = (maxY - min + verticalRes - 1) / verticalRes;
+        int maxZIndex = (maxZ + horizontalRes - 1) / horizontalRes;
+        
+        double highest = Double.NEGATIVE_INFINITY;
+        for(int xIndex = minX / horizontalRes; xIndex <= maxXIndex; xIndex++) {
+            for(int yIndex = (minY - min) / verticalRes; yIndex <= maxYIndex; yIndex++) {
+                for(int zIndex = minZ / horizontalRes; zIndex <= maxZIndex; zIndex++) {
+                    highest = FastMath.max(highest, latticeSample(xIndex, yIndex, zIndex));
+                }
+            }
         }
-        return sample;
+        return highest;
     }
     
     public double sample(int x, int y, int z) {
@@ -70,17 +161,17 @@ public class LazilyEvaluatedInterpolator {
         int yIndex = (y - min) / verticalRes;
         int zIndex = z / horizontalRes;
         
-        double sample_0_0_0 = sample(xIndex, yIndex, zIndex, x, y, z);
+        double sample_0_0_0 = latticeSample(xIndex, yIndex, zIndex);
         
-        boolean yRange = y % verticalRes == 0;
+        boolean yRange = (y - min) % verticalRes == 0;
         if(x % horizontalRes == 0 && yRange && z % horizontalRes == 0) { // we're at the sampling point
             return sample_0_0_0;
         }
         
-        double sample_0_0_1 = sample(xIndex, yIndex, zIndex + 1, x, y, z + horizontalRes);
+        double sample_0_0_1 = latticeSample(xIndex, yIndex, zIndex + 1);
         
-        double sample_1_0_0 = sample(xIndex + 1, yIndex, zIndex, x + horizontalRes, y, z);
-        double sample_1_0_1 = sample(xIndex + 1, yIndex, zIndex + 1, x + horizontalRes, y, z + horizontalRes);
+        double sample_1_0_0 = latticeSample(xIndex + 1, yIndex, zIndex);
+        double sample_1_0_1 = latticeSample(xIndex + 1, yIndex, zIndex + 1);
         
         double xFrac = (double) (x % horizontalRes) / horizontalRes;
         double zFrac = (double) (z % horizontalRes) / horizontalRes;
@@ -93,15 +184,15 @@ public class LazilyEvaluatedInterpolator {
             return lerp_bottom;
         }
         
-        double yFrac = (double) FastMath.floorMod(y, verticalRes) / verticalRes;
+        double yFrac = (double) ((y - min) % verticalRes) / verticalRes;
         
         
-        double sample_0_1_0 = sample(xIndex, yIndex + 1, zIndex, x, y + verticalRes, z);
-        double sample_0_1_1 = sample(xIndex, yIndex + 1, zIndex + 1, x, y + verticalRes, z + horizontalRes);
+        double sample_0_1_0 = latticeSample(xIndex, yIndex + 1, zIndex);
+        double sample_0_1_1 = latticeSample(xIndex, yIndex + 1, zIndex + 1);
         
         
-        double sample_1_1_0 = sample(xIndex + 1, yIndex + 1, zIndex, x + horizontalRes, y + verticalRes, z);
-        double sample_1_1_1 = sample(xIndex + 1, yIndex + 1, zIndex + 1, x + horizontalRes, y + verticalRes, z + horizontalRes);
+        double sample_1_1_0 = latticeSample(xIndex + 1, yIndex + 1, zIndex);
+        double sample_1_1_1 = latticeSample(xIndex + 1, yIndex + 1, zIndex + 1);
         
         double lerp_top_0 = lerp(zFrac, sample_0_1_0, sample_0_1_1);
         double lerp_top_1 = lerp(zFrac, sample_1_1_0, sample_1_1_1);
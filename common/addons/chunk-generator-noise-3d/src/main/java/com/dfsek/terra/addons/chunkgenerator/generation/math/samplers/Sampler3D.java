@@ -13,18 +13,47 @@ import com.dfsek.terra.addons.chunkgenerator.config.noise.BiomeNoiseProperties;
 import com.dfsek.terra.addons.chunkgenerator.generation.math.interpolation.ChunkInterpolator;
 import com.dfsek.terra.addons.chunkgenerator.generation.math.interpolation.ElevationInterpolator;
 import com.dfsek.terra.api.properties.PropertyKey;
-import com.dfsek.terra.api.world.biome.generation.BiomeProvider;
+import com.dfsek.terra.api.world.biome.generation.BiomeChunkSnapshot;
 
 
 public class Sampler3D {
     private final ChunkInterpolator interpolator;
     private final ElevationInterpolator elevationInterpolator;
     
-    public Sampler3D(int x, int z, long seed, int minHeight, int maxHeight, BiomeProvider provider, int elevationSmooth,
+    public Sampler3D(int x, int z, long seed, int minHeight, int maxHeight, BiomeChunkSnapshot biomes, int elevationSmooth,
                      PropertyKey<BiomeNoiseProperties> noisePropertiesKey, int maxBlend) {
-        this.interpolator = new ChunkInterpolator(seed, x, z, provider,
+        this.interpolator = new ChunkInterpolator(seed, x, z, biomes,
                                                   minHeight, maxHeight, noisePropertiesKey, maxBlend);
-        this.elevationInterpolator = new ElevationInterpolator(seed, x, z, provider, elevationSmooth, noisePropertiesKey);
+        this.elevationInterpolator = new ElevationInterpolator(seed, x, z, biomes, elevationSmooth, noisePropertiesKey);
+    }
+    
+    /**
+     * Gets an upper bound on the highest Y coordinate in the chunk at which the sampler can return a positive value.
+     */
+    public int getMaxPositiveY() {
+        return interpolator.getMaxPositiveY(elevationInterpolator.getMaxElevation());
+    }
+    
+    /**
+     * Gets an upper bound on the values sampled within a 4x4x4 cell of the chunk.
+     *
+     * @param cellX Cell X index (0-3).
+     * @param cellY Cell Y index, counted in 4 block steps from the bottom of the world.
+     * @param cellZ Cell Z index (0-3).
+     */
+    public double getCellMax(int cellX, int cellY, int cellZ) {
+        return interpolator.getCellMax(cellX, cellY, cellZ) + elevationInterpolator.getMaxElevation(cellX << 2, cellZ << 2, 4);
+    }
+    
+    /**
+     * Gets a lower bound on the values sampled within a 4x4x4 cell of the chunk.
+     *
+     * @param cellX Cell X index (0-3).
+     * @param cellY Cell Y index, counted in 4 block steps from the bottom of the world.
+     * @param cellZ Cell Z index (0-3).
+     */
+    public double getCellMin(int cellX, int cellY, int cellZ) {
+        return interpolator.getCellMin(cellX, cellY, cellZ) + elevationInterpolator.getMinElevation(cellX << 2, cellZ << 2, 4);
     }
     
     public double sample(double x, double y, double z) {
@@ -34,4 +63,16 @@ public class Sampler3D {
     public double sample(int x, int y, int z) {
         return interpolator.getNoise(x, y, z) + elevationInterpolator.getElevation(FastMath.roundToInt(x), FastMath.roundToInt(z));
     }
+    
+    /**
+     * Samples every block of a column between {@code minY} and {@code maxY} (inclusive), storing each value at
+     * {@code y - minY}. Equivalent to calling {@link #sample(int, int, int)} for each block.
+     */
+    public void sampleColumn(int x, int z, int minY, int maxY, double[] results) {
+        interpolator.getNoiseColumn(x, z, minY, maxY, results);
+        double elevation = elevationInterpolator.getElevation(x, z);
+        for(int i = 0, count = maxY - minY + 1; i < count; i++) {
+            results[i] += elevation;
+        }
+    }
 }
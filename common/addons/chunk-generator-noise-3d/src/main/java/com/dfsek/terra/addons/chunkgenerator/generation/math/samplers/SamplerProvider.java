@@ -24,24 +24,39 @@ import net.jafama.FastMath;
 import com.dfsek.terra.addons.chunkgenerator.config.noise.BiomeNoiseProperties;
 import com.dfsek.terra.api.Platform;
 import com.dfsek.terra.api.properties.PropertyKey;
+import com.dfsek.terra.api.util.cache.CacheMetrics;
+import com.dfsek.terra.api.world.biome.generation.BiomeChunkSnapshot;
 import com.dfsek.terra.api.world.biome.generation.BiomeProvider;
 import com.dfsek.terra.api.world.info.WorldProperties;
 
 
 public class SamplerProvider {
+    private static final long SAMPLER_BYTES = 24 * 1024; // interpolation lattice and elevation grid in a 384 block tall world
+    
     private final Cache<WorldContext, Sampler3D> cache;
     private final int elevationSmooth;
     private final PropertyKey<BiomeNoiseProperties> noisePropertiesKey;
     private final int maxBlend;
+    private final int border;
     
     public SamplerProvider(Platform platform, int elevationSmooth, PropertyKey<BiomeNoiseProperties> noisePropertiesKey, int maxBlend) {
         cache = Caffeine
                 .newBuilder()
                 .maximumSize(platform.getTerraConfig().getSamplerCache())
+                .recordStats()
                 .build();
+        CacheMetrics.register("noise_3d.sampler", cache, SAMPLER_BYTES);
         this.elevationSmooth = elevationSmooth;
         this.noisePropertiesKey = noisePropertiesKey;
         this.maxBlend = maxBlend;
+        this.border = FastMath.max(maxBlend, elevationSmooth + 1);
+    }
+    
+    /**
+     * Gets the number of columns around a chunk whose biomes are needed to sample it.
+     */
+    public int getBorder() {
+        return border;
     }
     
     public Sampler3D get(int x, int z, WorldProperties world, BiomeProvider provider) {
@@ -52,7 +67,19 @@ public class SamplerProvider {
     
     public Sampler3D getChunk(int cx, int cz, WorldProperties world, BiomeProvider provider) {
         WorldContext context = new WorldContext(cx, cz, world.getSeed(), world.getMinHeight(), world.getMaxHeight());
-        return cache.get(context, c -> new Sampler3D(c.cx, c.cz, c.seed, c.minHeight, c.maxHeight, provider,
+        return cache.get(context, c -> new Sampler3D(c.cx, c.cz, c.seed, c.minHeight, c.maxHeight,
+                                                     provider.getChunkSnapshot(c.cx, c.cz, c.seed, c.minHeight, c.maxHeight, border),
+                                                     elevationSmooth, noisePropertiesKey, maxBlend));
+    }
+    
+    /**
+     * Gets the sampler for a chunk, using an existing snapshot of its biomes if it must be created.
+     *
+     * @param biomes Biomes of the chunk, with at least {@link #getBorder()} columns around it.
+     */
+    public Sampler3D getChunk(int cx, int cz, WorldProperties world, BiomeChunkSnapshot biomes) {
+        WorldContext context = new WorldContext(cx, cz, world.getSeed(), world.getMinHeight(), world.getMaxHeight());
+        return cache.get(context, c -> new Sampler3D(c.cx, c.cz, c.seed, c.minHeight, c.maxHeight, biomes,
                                                      elevationSmooth, noisePropertiesKey, maxBlend));
     }
     
@@ -5,6 +5,14 @@ import cloud.commandframework.CommandManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
 import com.dfsek.terra.addons.manifest.api.AddonInitializer;
 import com.dfsek.terra.api.Platform;
 import com.dfsek.terra.api.addon.BaseAddon;
@@ -12,10 +20,13 @@ import com.dfsek.terra.api.command.CommandSender;
 import com.dfsek.terra.api.event.events.platform.CommandRegistrationEvent;
 import com.dfsek.terra.api.event.functional.FunctionalEventHandler;
 import com.dfsek.terra.api.inject.annotations.Inject;
+import com.dfsek.terra.api.profiler.Profiler;
+import com.dfsek.terra.api.util.cache.CacheMetrics;
 
 
 public class ProfilerCommandAddon implements AddonInitializer {
     private static final Logger logger = LoggerFactory.getLogger(ProfilerCommandAddon.class);
+    private static final DateTimeFormatter EXPORT_NAME = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss");
     
     @Inject
     private Platform platform;
@@ -61,6 +72,33 @@ public class ProfilerCommandAddon implements AddonInitializer {
                                                logger.info(data.toString());
                                                context.getSender().sendMessage("Profiling data dumped to console.");
                                            }))
+                            .command(
+                                    manager.commandBuilder("profiler", ArgumentDescription.of("Access the profiler"))
+                                           .literal("export", ArgumentDescription.of("Export profiler results to files"), "e")
+                                           .permission("terra.profiler.export")
+                                           .handler(context -> {
+                                               try {
+                                                   File directory = export(platform.getProfiler(),
+                                                                           new File(platform.getDataFolder(), "profiler"));
+                                                   context.getSender().sendMessage("Profiling data exported to " + directory + ".");
+                                               } catch(IOException e) {
+                                                   logger.error("Failed to export profiling data", e);
+                                                   context.getSender().sendMessage("Failed to export profiling data, see console.");
+                                               }
+                                           }))
+                            .command(
+                                    manager.commandBuilder("profiler", ArgumentDescription.of("Access the profiler"))
+                                           .literal("caches", ArgumentDescription.of("Query cache statistics"), "c")
+                                           .permission("terra.profiler.caches")
+                                           .handler(context -> {
+                                               StringBuilder data = new StringBuilder("Terra cache statistics: \n");
+                                               CacheMetrics.snapshot().forEach((name, stats) -> data.append(name)
+                                                                                                   .append(": ")
+                                                                                                   .append(stats)
+                                                                                                   .append('\n'));
+                                               logger.info(data.toString());
+                                               context.getSender().sendMessage("Cache statistics dumped to console.");
+                                           }))
                             .command(
                                     manager.commandBuilder("profiler", ArgumentDescription.of("Access the profiler"))
                                            .literal("reset", ArgumentDescription.of("Reset the profiler"), "r")
@@ -71,4 +109,21 @@ public class ProfilerCommandAddon implements AddonInitializer {
                                            }));
                 });
     }
+    
+    /**
+     * Writes profiler data to a collapsed stack file for flame graphs and a JSON report, named after the current time.
+     *
+     * @return The directory written to.
+     */
+    private static File export(Profiler profiler, File directory) throws IOException {
+        Files.createDirectories(directory.toPath());
+        String name = LocalDateTime.now().format(EXPORT_NAME);
+        try(Writer writer = Files.newBufferedWriter(new File(directory, name + ".collapsed").toPath(), StandardCharsets.UTF_8)) {
+            profiler.writeCollapsedStacks(writer);
+        }
+        try(Writer writer = Files.newBufferedWriter(new File(directory, name + ".json").toPath(), StandardCharsets.UTF_8)) {
+            profiler.writeJson(writer);
+        }
+        return directory;
+    }
 }
@@ -9,6 +9,17 @@ dependencies {
     testImplementation("net.jafama", "jafama", Versions.Libraries.Internal.jafama)
 }
 
+// Vectorized bulk kernels. At runtime they are only used if the server is also started with
+// --add-modules jdk.incubator.vector, otherwise samplers fall back to scalar loops (see VectorSupport).
+tasks.withType<JavaCompile> {
+    // javac prints "using incubating module(s): jdk.incubator.vector" once per compile. The module is used on purpose,
+    // and the warning has no lint category to turn it off with, so it is expected.
+    options.compilerArgs.addAll(listOf("--add-modules", "jdk.incubator.vector"))
+}
+
+tasks.withType<Test> {
+    jvmArgs("--add-modules", "jdk.incubator.vector")
+}
 
 tasks.named<ShadowJar>("shadowJar") {
     relocate("com.dfsek.paralithic", "com.dfsek.terra.addons.noise.lib.paralithic")
@@ -8,6 +8,8 @@
 package com.dfsek.terra.addons.noise;
 
 import com.dfsek.tectonic.api.config.template.object.ObjectTemplate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -15,12 +17,14 @@ import java.util.function.Supplier;
 
 import com.dfsek.terra.addons.manifest.api.AddonInitializer;
 import com.dfsek.terra.addons.noise.config.DimensionApplicableNoiseSampler;
+import com.dfsek.terra.addons.noise.config.PackSamplerLoader;
 import com.dfsek.terra.addons.noise.config.templates.BinaryArithmeticTemplate;
 import com.dfsek.terra.addons.noise.config.templates.DomainWarpTemplate;
 import com.dfsek.terra.addons.noise.config.templates.FunctionTemplate;
 import com.dfsek.terra.addons.noise.config.templates.ImageSamplerTemplate;
 import com.dfsek.terra.addons.noise.config.templates.KernelTemplate;
 import com.dfsek.terra.addons.noise.config.templates.LinearHeightmapSamplerTemplate;
+import com.dfsek.terra.addons.noise.config.templates.MemoizedSamplerTemplate;
 import com.dfsek.terra.addons.noise.config.templates.TranslateSamplerTemplate;
 import com.dfsek.terra.addons.noise.config.templates.noise.CellularNoiseTemplate;
 import com.dfsek.terra.addons.noise.config.templates.noise.ConstantNoiseTemplate;
@@ -38,6 +42,7 @@ import com.dfsek.terra.addons.noise.config.templates.normalizer.NormalNormalizer
 import com.dfsek.terra.addons.noise.config.templates.normalizer.PosterizationNormalizerTemplate;
 import com.dfsek.terra.addons.noise.config.templates.normalizer.ProbabilityNormalizerTemplate;
 import com.dfsek.terra.addons.noise.config.templates.normalizer.ScaleNormalizerTemplate;
+import com.dfsek.terra.addons.noise.paralithic.defined.UserDefinedFunctionCache;
 import com.dfsek.terra.addons.noise.samplers.arithmetic.AdditionSampler;
 import com.dfsek.terra.addons.noise.samplers.arithmetic.DivisionSampler;
 import com.dfsek.terra.addons.noise.samplers.arithmetic.MaxSampler;
@@ -57,6 +62,7 @@ import com.dfsek.terra.addons.noise.samplers.noise.value.ValueCubicSampler;
 import com.dfsek.terra.addons.noise.samplers.noise.value.ValueSampler;
 import com.dfsek.terra.api.Platform;
 import com.dfsek.terra.api.addon.BaseAddon;
+import com.dfsek.terra.api.event.events.config.pack.ConfigPackPostLoadEvent;
 import com.dfsek.terra.api.event.events.config.pack.ConfigPackPreLoadEvent;
 import com.dfsek.terra.api.event.functional.FunctionalEventHandler;
 import com.dfsek.terra.api.inject.annotations.Inject;
@@ -66,6 +72,7 @@ import com.dfsek.terra.api.util.reflection.TypeKey;
 
 
 public class NoiseAddon implements AddonInitializer {
+    private static final Logger logger = LoggerFactory.getLogger(NoiseAddon.class);
     public static final TypeKey<Supplier<ObjectTemplate<NoiseSampler>>> NOISE_SAMPLER_TOKEN = new TypeKey<>() {
     };
     @Inject
@@ -131,6 +138,7 @@ public class NoiseAddon implements AddonInitializer {
             
                   noiseRegistry.register(addon.key("LINEAR_HEIGHTMAP"), LinearHeightmapSamplerTemplate::new);
                   noiseRegistry.register(addon.key("TRANSLATE"), TranslateSamplerTemplate::new);
+                  noiseRegistry.register(addon.key("MEMOIZED"), MemoizedSamplerTemplate::new);
             
                   noiseRegistry.register(addon.key("ADD"), () -> new BinaryArithmeticTemplate<>(AdditionSampler::new));
                   noiseRegistry.register(addon.key("SUB"), () -> new BinaryArithmeticTemplate<>(SubtractionSampler::new));
@@ -142,9 +150,17 @@ public class NoiseAddon implements AddonInitializer {
             
                   Map<String, DimensionApplicableNoiseSampler> packSamplers = new LinkedHashMap<>();
                   Map<String, FunctionTemplate> packFunctions = new LinkedHashMap<>();
-                  noiseRegistry.register(addon.key("EXPRESSION"), () -> new ExpressionFunctionTemplate(packSamplers, packFunctions));
-                  noiseRegistry.register(addon.key("EXPRESSION_NORMALIZER"), () -> new ExpressionNormalizerTemplate(packSamplers, packFunctions));
+                  UserDefinedFunctionCache functionCache = new UserDefinedFunctionCache();
+                  noiseRegistry.register(addon.key("EXPRESSION"),
+                                         () -> new ExpressionFunctionTemplate(packSamplers, packFunctions, functionCache));
+                  noiseRegistry.register(addon.key("EXPRESSION_NORMALIZER"),
+                                         () -> new ExpressionNormalizerTemplate(packSamplers, packFunctions, functionCache));
             
+                  SamplerLoadingTemplate loading = event.loadTemplate(new SamplerLoadingTemplate());
+                  PackSamplerLoader samplerLoader = new PackSamplerLoader(noiseRegistry, loading.isDeduplicate(), loading.isCompile());
+                  event.getPack().applyLoader(NoiseSampler.class, samplerLoader);
+                  event.getPack().getContext().put(samplerLoader);
+                  
                   NoiseConfigPackTemplate template = event.loadTemplate(new NoiseConfigPackTemplate());
                   packSamplers.putAll(template.getSamplers());
                   packFunctions.putAll(template.getFunctions());
@@ -152,5 +168,16 @@ public class NoiseAddon implements AddonInitializer {
               })
               .priority(50)
               .failThrough();
+        
+        plugin.getEventManager()
+              .getHandler(FunctionalEventHandler.class)
+              .register(addon, ConfigPackPostLoadEvent.class)
+              .then(event -> {
+                  PackSamplerLoader samplerLoader = event.getPack().getContext().get(PackSamplerLoader.class);
+                  if(samplerLoader.getRequested() > 0) {
+                      logger.debug("Loaded {} distinct samplers for {} sampler configs in pack {}", samplerLoader.getLoaded(),
+                                   samplerLoader.getRequested(), event.getPack().getID());
+                  }
+              });
     }
 }
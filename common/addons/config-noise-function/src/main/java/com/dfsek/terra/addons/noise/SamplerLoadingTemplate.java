@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2020-2021 Polyhedral Development
+ *
+ * The Terra Core Addons are licensed under the terms of the MIT License. For more details,
+ * reference the LICENSE file in this module's root directory.
+ */
+
+package com.dfsek.terra.addons.noise;
+
+import com.dfsek.tectonic.api.config.template.ConfigTemplate;
+import com.dfsek.tectonic.api.config.template.annotations.Default;
+import com.dfsek.tectonic.api.config.template.annotations.Value;
+
+
+/**
+ * Loaded before any sampler, since it decides how samplers are loaded.
+ */
+@SuppressWarnings("FieldMayBeFinal")
+public class SamplerLoadingTemplate implements ConfigTemplate {
+    @Value("noise.deduplicate")
+    @Default
+    private boolean deduplicate = true;
+    
+    @Value("noise.compile")
+    @Default
+    private boolean compile = false;
+    
+    public boolean isDeduplicate() {
+        return deduplicate;
+    }
+    
+    public boolean isCompile() {
+        return compile;
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2020-2021 Polyhedral Development
+ *
+ * The Terra Core Addons are licensed under the terms of the MIT License. For more details,
+ * reference the LICENSE file in this module's root directory.
+ */
+
+package com.dfsek.terra.addons.noise.compiler;
+
+import java.lang.invoke.MethodHandle;
+
+import com.dfsek.terra.api.noise.NoiseSampler;
+
+
+/**
+ * A sampler tree compiled by {@link SamplerCompiler}.
+ * <p>
+ * Single samples go through the compiled handles. Bulk samples go to the original tree, whose bulk paths already
+ * amortize dispatch over every value.
+ */
+public class CompiledSampler implements NoiseSampler {
+    private final NoiseSampler sampler;
+    private final MethodHandle noise2D;
+    private final MethodHandle noise3D;
+    
+    CompiledSampler(NoiseSampler sampler, MethodHandle noise2D, MethodHandle noise3D) {
+        this.sampler = sampler;
+        this.noise2D = noise2D;
+        this.noise3D = noise3D;
+    }
+    
+    private static RuntimeException rethrow(Throwable throwable) {
+        if(throwable instanceof RuntimeException runtimeException) return runtimeException;
+        if(throwable instanceof Error error) throw error;
+        return new IllegalStateException(throwable); // samplers do not throw checked exceptions
+    }
+    
+    /**
+     * @return The sampler this was compiled from.
+     */
+    public NoiseSampler getSampler() {
+        return sampler;
+    }
+    
+    @Override
+    public double noise(long seed, double x, double y) {
+        try {
+            return (double) noise2D.invokeExact(seed, x, y);
+        } catch(Throwable e) {
+            throw rethrow(e);
+        }
+    }
+    
+    @Override
+    public double noise(long seed, double x, double y, double z) {
+        try {
+            return (double) noise3D.invokeExact(seed, x, y, z);
+        } catch(Throwable e) {
+            throw rethrow(e);
+        }
+    }
+    
+    @Override
+    public void noise(long seed, double[] x, double[] y, double[] results, int count) {
+        sampler.noise(seed, x, y, results, count);
+    }
+    
+    @Override
+    public void noise(long seed, double[] x, double[] y, double[] z, double[] results, int count) {
+        sampler.noise(seed, x, y, z, results, count);
+    }
+    
+    @Override
+    public void noiseColumn(long seed, double x, double z, double minY, double stepY, double[] results, int offset, int count) {
+        sampler.noiseColumn(seed, x, z, minY, stepY, results, offset, count);
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2020-2021 Polyhedral Development
+ *
+ * The Terra Core Addons are licensed under the terms of the MIT License. For more details,
+ * reference the LICENSE file in this module's root directory.
+ */
+
+package com.dfsek.terra.addons.noise.compiler;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Modifier;
+
+import com.dfsek.terra.addons.noise.normalizer.Normalizer;
+import com.dfsek.terra.addons.noise.samplers.TranslateSampler;
+import com.dfsek.terra.addons.noise.samplers.arithmetic.BinaryArithmeticSampler;
+import com.dfsek.terra.addons.noise.samplers.arithmetic.MultiplicationSampler;
+import com.dfsek.terra.addons.noise.samplers.noise.ConstantSampler;
+import com.dfsek.terra.api.noise.NoiseSampler;
+
+
+/**
+ * Compiles a tree of {@link NoiseSampler}s into a single method handle per dimension.
+ * <p>
+ * Arithmetic, normalizers, translation and constants are composed into the handle directly, so once the handle is
+ * customized the JIT can inline the whole tree into one compiled method. Every other sampler is a leaf, called through
+ * its exact class rather than the {@link NoiseSampler} interface. Nodes whose inputs are all constant are folded.
+ */
+public final class SamplerCompiler {
+    static final MethodType TYPE_2D = MethodType.methodType(double.class, long.class, double.class, double.class);
+    static final MethodType TYPE_3D = MethodType.methodType(double.class, long.class, double.class, double.class, double.class);
+    
+    private static final MethodType OPERATE = MethodType.methodType(double.class, double.class, double.class);
+    private static final MethodType NORMALIZE = MethodType.methodType(double.class, double.class);
+    
+    private static final MethodHandle SUBTRACT;
+    
+    static {
+        try {
+            SUBTRACT = MethodHandles.lookup().findStatic(SamplerCompiler.class, "subtract", OPERATE);
+        } catch(NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    private SamplerCompiler() {
+        
+    }
+    
+    private static double subtract(double a, double b) {
+        return a - b;
+    }
+    
+    /**
+     * Compile a sampler. Samplers which are already compiled are returned as-is.
+     */
+    public static CompiledSampler compile(NoiseSampler sampler) {
+        if(sampler instanceof CompiledSampler compiled) return compiled;
+        return new CompiledSampler(sampler, compile(sampler, TYPE_2D).handle(), compile(sampler, TYPE_3D).handle());
+    }
+    
+    private static Node compile(NoiseSampler sampler, MethodType type) {
+        if(sampler instanceof CompiledSampler compiled) { // recompile rather than reuse the handle, so constants still fold
+            return compile(compiled.getSampler(), type);
+        }
+        if(sampler instanceof ConstantSampler constant) {
+            return Node.of(constant.getConstant(), type);
+        }
+        if(sampler instanceof BinaryArithmeticSampler arithmetic) {
+            return compileArithmetic(arithmetic, type);
+        }
+        if(sampler instanceof Normalizer normalizer) {
+            Node child = compile(normalizer.getSampler(), type);
+            if(child.constant()) return Node.of(normalizer.normalize(child.value()), type);
+            return new Node(MethodHandles.filterReturnValue(child.handle(), bind(normalizer, Normalizer.class, "normalize", NORMALIZE)));
+        }
+        if(sampler instanceof TranslateSampler translate) {
+            Node child = compile(translate.getSampler(), type);
+            if(child.constant()) return child;
+            MethodHandle[] offsets = type == TYPE_2D
+                                     ? new MethodHandle[]{ offset(translate.getDx()), offset(translate.getDz()) }
+                                     : new MethodHandle[]{ offset(translate.getDx()), offset(translate.getDy()), offset(translate.getDz()) };
+            return new Node(MethodHandles.filterArguments(child.handle(), 1, offsets));
+        }
+        return new Node(bind(sampler, NoiseSampler.class, "noise", type));
+    }
+    
+    private static Node compileArithmetic(BinaryArithmeticSampler sampler, MethodType type) {
+        Node left = compile(sampler.getLeft(), type);
+        Node right = compile(sampler.getRight(), type);
+        
+        if(left.constant() && right.constant()) {
+            return Node.of(sampler.operate(left.value(), right.value()), type);
+        }
+        if(sampler instanceof MultiplicationSampler) { // x * 1 is exactly x, including for NaN and -0
+            if(left.constant() && left.value() == 1) return right;
+            if(right.constant() && right.value() == 1) return left;
+        }
+        
+        MethodHandle operate = bind(sampler, BinaryArithmeticSampler.class, "operate", OPERATE);
+        MethodHandle combined = MethodHandles.collectArguments(operate, 1, right.handle()); // (left, seed, x, y[, z])
+        combined = MethodHandles.collectArguments(combined, 0, left.handle()); // (seed, x, y[, z], seed, x, y[, z])
+        
+        int arguments = type.parameterCount();
+        int[] reorder = new int[arguments * 2];
+        for(int i = 0; i < reorder.length; i++) {
+            reorder[i] = i % arguments;
+        }
+        return new Node(MethodHandles.permuteArguments(combined, type, reorder));
+    }
+    
+    private static MethodHandle offset(double amount) {
+        return MethodHandles.insertArguments(SUBTRACT, 1, amount);
+    }
+    
+    /**
+     * Bind a method of a sampler, looked up on its exact class so the call is not dispatched through an interface or
+     * abstract class. Falls back to looking it up on {@code declaring} if the exact class is not accessible.
+     */
+    private static MethodHandle bind(Object receiver, Class<?> declaring, String name, MethodType type) {
+        Class<?> clazz = receiver.getClass();
+        try {
+            if(Modifier.isPublic(clazz.getModifiers())) {
+                try {
+                    return MethodHandles.publicLookup().findVirtual(clazz, name, type).bindTo(receiver);
+                } catch(IllegalAccessException ignored) {
+                    // the class is in a package which is not exported, go through the declaring type instead
+                }
+            }
+            return MethodHandles.publicLookup().findVirtual(declaring, name, type).bindTo(receiver);
+        } catch(NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalStateException("Failed to compile sampler of type " + clazz.getName(), e);
+        }
+    }
+    
+    private record Node(MethodHandle handle, boolean constant, double value) {
+        private Node(MethodHandle handle) {
+            this(handle, false, 0);
+        }
+        
+        private static Node of(double value, MethodType type) {
+            return new Node(MethodHandles.dropArguments(MethodHandles.constant(double.class, value), 0, type.parameterList()),
+                            true, value);
+        }
+    }
+}
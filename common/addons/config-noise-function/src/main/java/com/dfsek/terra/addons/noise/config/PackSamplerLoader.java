@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2020-2021 Polyhedral Development
+ *
+ * The Terra Core Addons are licensed under the terms of the MIT License. For more details,
+ * reference the LICENSE file in this module's root directory.
+ */
+
+package com.dfsek.terra.addons.noise.config;
+
+import com.dfsek.tectonic.api.config.template.object.ObjectTemplate;
+import com.dfsek.tectonic.api.depth.DepthTracker;
+import com.dfsek.tectonic.api.exception.LoadException;
+import com.dfsek.tectonic.api.loader.ConfigLoader;
+import com.dfsek.tectonic.api.loader.type.TypeLoader;
+import com.dfsek.tectonic.impl.MapConfiguration;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.reflect.AnnotatedType;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import com.dfsek.terra.addons.noise.compiler.SamplerCompiler;
+import com.dfsek.terra.api.noise.NoiseSampler;
+import com.dfsek.terra.api.properties.Properties;
+import com.dfsek.terra.api.registry.Registry;
+
+
+/**
+ * Loads samplers from the sampler registry, like the default loader, for a single pack.
+ * <p>
+ * When deduplicating, samplers with equal configs are loaded once and shared, wherever in the pack they are defined.
+ * Samplers are built deterministically from their config, so a shared instance samples exactly like separate ones.
+ * Nested samplers are loaded through this loader too, so identical subtrees of different samplers are shared as well.
+ * <p>
+ * When compiling, every sampler is compiled with {@link SamplerCompiler}. The compiler looks through nested compiled
+ * samplers, so each sampler is still compiled as one tree.
+ */
+public class PackSamplerLoader implements TypeLoader<NoiseSampler>, Properties {
+    private final Registry<Supplier<ObjectTemplate<NoiseSampler>>> registry;
+    private final boolean deduplicate;
+    private final boolean compile;
+    
+    private final Map<Map<String, Object>, NoiseSampler> loaded = new ConcurrentHashMap<>();
+    private final AtomicInteger requests = new AtomicInteger();
+    
+    public PackSamplerLoader(Registry<Supplier<ObjectTemplate<NoiseSampler>>> registry, boolean deduplicate, boolean compile) {
+        this.registry = registry;
+        this.deduplicate = deduplicate;
+        this.compile = compile;
+    }
+    
+    @SuppressWarnings("unchecked")
+    @Override
+    public NoiseSampler load(@NotNull AnnotatedType t, @NotNull Object c, ConfigLoader loader, DepthTracker depthTracker)
+    throws LoadException {
+        Map<String, Object> map = (Map<String, Object>) c;
+        if(!deduplicate) return create(map, loader, depthTracker);
+        
+        requests.incrementAndGet();
+        NoiseSampler existing = loaded.get(map);
+        if(existing != null) return existing;
+        
+        // not computeIfAbsent, nested samplers are loaded recursively while creating this one
+        NoiseSampler sampler = create(map, loader, depthTracker);
+        existing = loaded.putIfAbsent(map, sampler);
+        return existing == null ? sampler : existing;
+    }
+    
+    private NoiseSampler create(Map<String, Object> map, ConfigLoader loader, DepthTracker depthTracker) throws LoadException {
+        String type = (String) map.get("type");
+        NoiseSampler sampler = loader
+                .load(registry.getByID(type)
+                              .orElseThrow(() -> new LoadException("No such entry: " + map.get("type"), depthTracker))
+                              .get(), new MapConfiguration(map), depthTracker.intrinsic("With type \"" + type + "\"")).get();
+        if(!compile) return sampler;
+        try {
+            return SamplerCompiler.compile(sampler);
+        } catch(IllegalStateException e) {
+            throw new LoadException("Failed to compile sampler of type \"" + type + "\"", e, depthTracker);
+        }
+    }
+    
+    /**
+     * @return Number of samplers requested from this loader while deduplicating.
+     */
+    public int getRequested() {
+        return requests.get();
+    }
+    
+    /**
+     * @return Number of distinct samplers loaded while deduplicating.
+     */
+    public int getLoaded() {
+        return loaded.size();
+    }
+}
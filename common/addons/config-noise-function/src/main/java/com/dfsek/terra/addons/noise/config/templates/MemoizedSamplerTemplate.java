@@ -0,0 +1,24 @@
+/*
+ * Copyright (c) 2020-2021 Polyhedral Development
+ *
+ * The Terra Core Addons are licensed under the terms of the MIT License. For more details,
+ * reference the LICENSE file in this module's root directory.
+ */
+
+package com.dfsek.terra.addons.noise.config.templates;
+
+import com.dfsek.tectonic.api.config.template.annotations.Value;
+
+import com.dfsek.terra.addons.noise.samplers.MemoizedSampler;
+import com.dfsek.terra.api.noise.NoiseSampler;
+
+
+public class MemoizedSamplerTemplate extends SamplerTemplate<MemoizedSampler> {
+    @Value("sampler")
+    private NoiseSampler sampler;
+    
+    @Override
+    public NoiseSampler get() {
+        return new MemoizedSampler(sampler);
+    }
+}
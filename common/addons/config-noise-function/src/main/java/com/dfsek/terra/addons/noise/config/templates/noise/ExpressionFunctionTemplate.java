@@ -18,6 +18,7 @@ import java.util.Map;
 import com.dfsek.terra.addons.noise.config.DimensionApplicableNoiseSampler;
 import com.dfsek.terra.addons.noise.config.templates.FunctionTemplate;
 import com.dfsek.terra.addons.noise.config.templates.SamplerTemplate;
+import com.dfsek.terra.addons.noise.paralithic.defined.UserDefinedFunctionCache;
 import com.dfsek.terra.addons.noise.samplers.noise.ExpressionFunction;
 import com.dfsek.terra.api.config.meta.Meta;
 import com.dfsek.terra.api.noise.NoiseSampler;
@@ -29,6 +30,7 @@ import static com.dfsek.terra.addons.noise.paralithic.FunctionUtil.convertFuncti
 public class ExpressionFunctionTemplate extends SamplerTemplate<ExpressionFunction> {
     private final Map<String, DimensionApplicableNoiseSampler> globalSamplers;
     private final Map<String, FunctionTemplate> globalFunctions;
+    private final UserDefinedFunctionCache functionCache;
     @Value("variables")
     @Default
     private @Meta Map<String, @Meta Double> vars = new HashMap<>();
@@ -41,9 +43,11 @@ public class ExpressionFunctionTemplate extends SamplerTemplate<ExpressionFuncti
     @Default
     private @Meta LinkedHashMap<String, @Meta FunctionTemplate> functions = new LinkedHashMap<>();
     
-    public ExpressionFunctionTemplate(Map<String, DimensionApplicableNoiseSampler> globalSamplers, Map<String, FunctionTemplate> globalFunctions) {
+    public ExpressionFunctionTemplate(Map<String, DimensionApplicableNoiseSampler> globalSamplers, Map<String, FunctionTemplate> globalFunctions,
+                                      UserDefinedFunctionCache functionCache) {
         this.globalSamplers = globalSamplers;
         this.globalFunctions = globalFunctions;
+        this.functionCache = functionCache;
     }
     
     @Override
@@ -51,7 +55,7 @@ public class ExpressionFunctionTemplate extends SamplerTemplate<ExpressionFuncti
         var mergedFunctions = new HashMap<>(globalFunctions); mergedFunctions.putAll(functions);
         var mergedSamplers = new HashMap<>(globalSamplers); mergedSamplers.putAll(samplers);
         try {
-            return new ExpressionFunction(convertFunctionsAndSamplers(mergedFunctions, mergedSamplers), expression, vars);
+            return new ExpressionFunction(convertFunctionsAndSamplers(mergedFunctions, mergedSamplers, functionCache), expression, vars);
         } catch(ParseException e) {
             throw new RuntimeException("Failed to parse expression.", e);
         }
@@ -37,6 +37,10 @@ public class GaborNoiseTemplate extends NoiseTemplate<GaborNoiseSampler> {
     @Default
     private @Meta double f0 = 0.625;
     
+    @Value("truncate")
+    @Default
+    private @Meta boolean truncate = false;
+    
     @Override
     public NoiseSampler get() {
         GaborNoiseSampler gaborNoiseSampler = new GaborNoiseSampler();
@@ -46,6 +50,7 @@ public class GaborNoiseTemplate extends NoiseTemplate<GaborNoiseSampler> {
         gaborNoiseSampler.setDeviation(deviation);
         gaborNoiseSampler.setImpulsesPerKernel(impulses);
         gaborNoiseSampler.setFrequency0(f0);
+        gaborNoiseSampler.setTruncate(truncate);
         gaborNoiseSampler.setSalt(salt);
         return gaborNoiseSampler;
     }
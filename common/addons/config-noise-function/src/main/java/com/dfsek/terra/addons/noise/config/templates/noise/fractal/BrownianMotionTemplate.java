@@ -19,6 +19,7 @@ public class BrownianMotionTemplate extends FractalTemplate<BrownianMotionSample
         sampler.setLacunarity(fractalLacunarity);
         sampler.setOctaves(octaves);
         sampler.setWeightedStrength(weightedStrength);
+        applyEarlyExit(sampler);
         return sampler;
     }
 }
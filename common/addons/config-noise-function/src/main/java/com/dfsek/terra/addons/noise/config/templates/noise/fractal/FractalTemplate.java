@@ -33,6 +33,18 @@ public abstract class FractalTemplate<T extends FractalNoiseFunction> extends Sa
     @Default
     protected @Meta double weightedStrength = 0.0D;
     
+    @Value("early-exit")
+    @Default
+    protected @Meta boolean earlyExit = false;
+    
+    @Value("early-exit-threshold")
+    @Default
+    protected @Meta double earlyExitThreshold = 0.0D;
+    
     @Value("sampler")
     protected @Meta NoiseSampler function;
+    
+    protected void applyEarlyExit(FractalNoiseFunction sampler) {
+        if(earlyExit) sampler.setEarlyExitThreshold(earlyExitThreshold);
+    }
 }
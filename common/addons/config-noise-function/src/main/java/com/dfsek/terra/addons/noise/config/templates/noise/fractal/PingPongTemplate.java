@@ -28,6 +28,7 @@ public class PingPongTemplate extends FractalTemplate<PingPongSampler> {
         sampler.setLacunarity(fractalLacunarity);
         sampler.setOctaves(octaves);
         sampler.setWeightedStrength(weightedStrength);
+        applyEarlyExit(sampler);
         sampler.setPingPongStrength(pingPong);
         return sampler;
     }
@@ -19,6 +19,7 @@ public class RidgedFractalTemplate extends FractalTemplate<RidgedFractalSampler>
         sampler.setLacunarity(fractalLacunarity);
         sampler.setOctaves(octaves);
         sampler.setWeightedStrength(weightedStrength);
+        applyEarlyExit(sampler);
         return sampler;
     }
 }
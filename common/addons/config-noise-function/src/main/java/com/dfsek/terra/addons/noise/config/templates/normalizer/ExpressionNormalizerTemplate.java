@@ -14,6 +14,7 @@ import com.dfsek.tectonic.api.config.template.annotations.Value;
 import com.dfsek.terra.addons.noise.config.DimensionApplicableNoiseSampler;
 import com.dfsek.terra.addons.noise.config.templates.FunctionTemplate;
 import com.dfsek.terra.addons.noise.normalizer.ExpressionNormalizer;
+import com.dfsek.terra.addons.noise.paralithic.defined.UserDefinedFunctionCache;
 import com.dfsek.terra.api.config.meta.Meta;
 import com.dfsek.terra.api.noise.NoiseSampler;
 
@@ -29,6 +30,7 @@ public class ExpressionNormalizerTemplate extends NormalizerTemplate<ExpressionN
     
     private final Map<String, DimensionApplicableNoiseSampler> globalSamplers;
     private final Map<String, FunctionTemplate> globalFunctions;
+    private final UserDefinedFunctionCache functionCache;
     
     @Value("expression")
     private @Meta String expression;
@@ -45,9 +47,11 @@ public class ExpressionNormalizerTemplate extends NormalizerTemplate<ExpressionN
     @Default
     private @Meta LinkedHashMap<String, @Meta FunctionTemplate> functions = new LinkedHashMap<>();
     
-    public ExpressionNormalizerTemplate(Map<String, DimensionApplicableNoiseSampler> globalSamplers, Map<String, FunctionTemplate> globalFunctions) {
+    public ExpressionNormalizerTemplate(Map<String, DimensionApplicableNoiseSampler> globalSamplers, Map<String, FunctionTemplate> globalFunctions,
+                                        UserDefinedFunctionCache functionCache) {
         this.globalSamplers = globalSamplers;
         this.globalFunctions = globalFunctions;
+        this.functionCache = functionCache;
     }
     
     @Override
@@ -55,7 +59,7 @@ public class ExpressionNormalizerTemplate extends NormalizerTemplate<ExpressionN
         var mergedFunctions = new HashMap<>(globalFunctions); mergedFunctions.putAll(functions);
         var mergedSamplers = new HashMap<>(globalSamplers); mergedSamplers.putAll(samplers);
         try {
-            return new ExpressionNormalizer(function, convertFunctionsAndSamplers(mergedFunctions, mergedSamplers), expression, vars);
+            return new ExpressionNormalizer(function, convertFunctionsAndSamplers(mergedFunctions, mergedSamplers, functionCache), expression, vars);
         } catch(ParseException e) {
             throw new RuntimeException("Failed to parse expression.", e);
         }
@@ -26,4 +26,11 @@ public class ClampNormalizer extends Normalizer {
     public double normalize(double in) {
         return FastMath.max(FastMath.min(in, max), min);
     }
+    
+    @Override
+    public void normalize(double[] values, int offset, int count) {
+        for(int i = offset; i < offset + count; i++) {
+            values[i] = FastMath.max(FastMath.min(values[i], max), min);
+        }
+    }
 }
@@ -14,6 +14,7 @@ import java.util.Map;
 public class ExpressionNormalizer extends Normalizer {
     
     private final Expression expression;
+    private final ThreadLocal<double[]> args = ThreadLocal.withInitial(() -> new double[1]);
     
     public ExpressionNormalizer(NoiseSampler sampler, Map<String, Function> functions, String eq, Map<String, Double> vars)
     throws ParseException {
@@ -28,6 +29,17 @@ public class ExpressionNormalizer extends Normalizer {
     
     @Override
     public double normalize(double in) {
-        return expression.evaluate(in);
+        double[] args = this.args.get(); // reused so evaluating does not allocate
+        args[0] = in;
+        return expression.evaluate(args);
+    }
+    
+    @Override
+    public void normalize(double[] values, int offset, int count) {
+        double[] args = this.args.get();
+        for(int i = offset; i < offset + count; i++) {
+            args[0] = values[i];
+            values[i] = expression.evaluate(args);
+        }
     }
 }
@@ -27,4 +27,12 @@ public class LinearNormalizer extends Normalizer {
     public double normalize(double in) {
         return (in - min) * (2 / (max - min)) - 1;
     }
+    
+    @Override
+    public void normalize(double[] values, int offset, int count) {
+        double scale = 2 / (max - min);
+        for(int i = offset; i < offset + count; i++) {
+            values[i] = (values[i] - min) * scale - 1;
+        }
+    }
 }
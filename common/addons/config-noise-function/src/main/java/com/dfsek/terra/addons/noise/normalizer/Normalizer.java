@@ -17,8 +17,23 @@ public abstract class Normalizer implements NoiseSampler {
         this.sampler = sampler;
     }
     
+    public NoiseSampler getSampler() {
+        return sampler;
+    }
+    
     public abstract double normalize(double in);
     
+    /**
+     * Normalize a range of values in place.
+     * <p>
+     * Cheap normalizers override this so the per-value call does not go through virtual dispatch.
+     */
+    public void normalize(double[] values, int offset, int count) {
+        for(int i = offset; i < offset + count; i++) {
+            values[i] = normalize(values[i]);
+        }
+    }
+    
     @Override
     public double noise(long seed, double x, double y) {
         return normalize(sampler.noise(seed, x, y));
@@ -28,4 +43,22 @@ public abstract class Normalizer implements NoiseSampler {
     public double noise(long seed, double x, double y, double z) {
         return normalize(sampler.noise(seed, x, y, z));
     }
+    
+    @Override
+    public void noise(long seed, double[] x, double[] y, double[] results, int count) {
+        sampler.noise(seed, x, y, results, count);
+        normalize(results, 0, count);
+    }
+    
+    @Override
+    public void noise(long seed, double[] x, double[] y, double[] z, double[] results, int count) {
+        sampler.noise(seed, x, y, z, results, count);
+        normalize(results, 0, count);
+    }
+    
+    @Override
+    public void noiseColumn(long seed, double x, double z, double minY, double stepY, double[] results, int offset, int count) {
+        sampler.noiseColumn(seed, x, z, minY, stepY, results, offset, count);
+        normalize(results, offset, count);
+    }
 }
@@ -12,4 +12,11 @@ public class ProbabilityNormalizer extends Normalizer {
     public double normalize(double in) {
         return (in + 1) / 2;
     }
+    
+    @Override
+    public void normalize(double[] values, int offset, int count) {
+        for(int i = offset; i < offset + count; i++) {
+            values[i] = (values[i] + 1) / 2;
+        }
+    }
 }
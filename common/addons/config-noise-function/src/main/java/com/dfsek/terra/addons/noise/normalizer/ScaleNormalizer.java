@@ -15,4 +15,11 @@ public class ScaleNormalizer extends Normalizer {
     public double normalize(double in) {
         return in * scale;
     }
+    
+    @Override
+    public void normalize(double[] values, int offset, int count) {
+        for(int i = offset; i < offset + count; i++) {
+            values[i] *= scale;
+        }
+    }
 }
@@ -5,7 +5,7 @@ import com.dfsek.paralithic.functions.Function;
 
 import com.dfsek.terra.addons.noise.config.DimensionApplicableNoiseSampler;
 import com.dfsek.terra.addons.noise.config.templates.FunctionTemplate;
-import com.dfsek.terra.addons.noise.paralithic.defined.UserDefinedFunction;
+import com.dfsek.terra.addons.noise.paralithic.defined.UserDefinedFunctionCache;
 import com.dfsek.terra.addons.noise.paralithic.noise.NoiseFunction2;
 import com.dfsek.terra.addons.noise.paralithic.noise.NoiseFunction3;
 
@@ -17,10 +17,11 @@ public class FunctionUtil {
     private FunctionUtil() {}
     
     public static Map<String, Function> convertFunctionsAndSamplers(Map<String, FunctionTemplate> functions,
-                                                                    Map<String, DimensionApplicableNoiseSampler> samplers) throws ParseException {
+                                                                    Map<String, DimensionApplicableNoiseSampler> samplers,
+                                                                    UserDefinedFunctionCache functionCache) throws ParseException {
         Map<String, Function> functionMap = new HashMap<>();
         for(Map.Entry<String, FunctionTemplate> entry : functions.entrySet()) {
-            functionMap.put(entry.getKey(), UserDefinedFunction.newInstance(entry.getValue()));
+            functionMap.put(entry.getKey(), functionCache.get(entry.getValue()));
         }
         samplers.forEach((id, sampler) -> functionMap.put(id,
                                                           sampler.getDimensions() == 2 ?
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2020-2021 Polyhedral Development
+ *
+ * The Terra Core Addons are licensed under the terms of the MIT License. For more details,
+ * reference the LICENSE file in this module's root directory.
+ */
+
+package com.dfsek.terra.addons.noise.paralithic.defined;
+
+import com.dfsek.paralithic.eval.parser.Parser;
+import com.dfsek.paralithic.eval.parser.Scope;
+import com.dfsek.paralithic.eval.tokenizer.ParseException;
+
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.dfsek.terra.addons.noise.config.templates.FunctionTemplate;
+import com.dfsek.terra.api.util.cache.CacheCounter;
+import com.dfsek.terra.api.util.cache.CacheMetrics;
+
+
+/**
+ * Parsed {@link UserDefinedFunction}s of a single config pack, so each distinct function is only compiled once per
+ * pack, and is released along with the pack.
+ */
+public class UserDefinedFunctionCache {
+    private static final long ENTRY_BYTES = 512; // map node and a small compiled expression
+    
+    private final Map<FunctionTemplate, UserDefinedFunction> functions = new ConcurrentHashMap<>();
+    private final CacheCounter counter = new CacheCounter();
+    
+    public UserDefinedFunctionCache() {
+        CacheMetrics.register("noise.user_defined_function", this,
+                              cache -> cache.counter.stats(cache.functions.size(), cache.functions.size() * ENTRY_BYTES));
+    }
+    
+    public UserDefinedFunction get(FunctionTemplate template) throws ParseException {
+        UserDefinedFunction function = functions.get(template);
+        if(function != null) {
+            counter.hit();
+            return function;
+        }
+        
+        counter.miss();
+        long start = System.nanoTime();
+        Parser parser = new Parser();
+        Scope parent = new Scope();
+        
+        Scope functionScope = new Scope().withParent(parent);
+        
+        template.getArgs().forEach(functionScope::addInvocationVariable);
+        
+        for(Entry<String, FunctionTemplate> entry : template.getFunctions().entrySet()) {
+            String id = entry.getKey();
+            FunctionTemplate nest = entry.getValue();
+            parser.registerFunction(id, get(nest)); // not computeIfAbsent, nested functions are added recursively
+        }
+        
+        function = new UserDefinedFunction(parser.parse(template.getFunction(), functionScope), template.getArgs().size());
+        UserDefinedFunction existing = functions.putIfAbsent(template, function);
+        counter.load(System.nanoTime() - start);
+        return existing == null ? function : existing;
+    }
+}
@@ -10,10 +10,17 @@ package com.dfsek.terra.addons.noise.samplers;
 import com.dfsek.terra.api.noise.NoiseSampler;
 
 
+/**
+ * Samples a function at coordinates offset by a warp sampler.
+ * <p>
+ * Bulk samples evaluate every warp offset in one bulk call per axis, then sample the function once at all warped
+ * coordinates, so both samplers get to use their own bulk paths.
+ */
 public class DomainWarpedSampler implements NoiseSampler {
     private final NoiseSampler function;
     private final NoiseSampler warp;
     private final double amplitude;
+    private final ThreadLocal<Warps> warps = ThreadLocal.withInitial(Warps::new);
     
     public DomainWarpedSampler(NoiseSampler function, NoiseSampler warp, double amplitude) {
         this.function = function;
@@ -37,4 +44,69 @@ public class DomainWarpedSampler implements NoiseSampler {
                               z + warp.noise(seed, x, y, z) * amplitude
                              );
     }
+    
+    @Override
+    public void noise(long seed, double[] x, double[] y, double[] results, int count) {
+        Warps warps = this.warps.get().reset(count);
+        warp.noise(seed + 1, x, y, warps.x, count);
+        warp.noise(seed + 2, x, y, warps.y, count);
+        for(int i = 0; i < count; i++) {
+            warps.x[i] = x[i] + warps.x[i] * amplitude;
+            warps.y[i] = y[i] + warps.y[i] * amplitude;
+        }
+        function.noise(seed, warps.x, warps.y, results, count);
+    }
+    
+    @Override
+    public void noise(long seed, double[] x, double[] y, double[] z, double[] results, int count) {
+        Warps warps = this.warps.get().reset(count);
+        warp.noise(seed + 1, x, y, z, warps.x, count);
+        warp.noise(seed + 2, x, y, z, warps.y, count);
+        warp.noise(seed + 3, x, y, z, warps.z, count);
+        for(int i = 0; i < count; i++) {
+            warps.x[i] = x[i] + warps.x[i] * amplitude;
+            warps.y[i] = y[i] + warps.y[i] * amplitude;
+            warps.z[i] = z[i] + warps.z[i] * amplitude;
+        }
+        function.noise(seed, warps.x, warps.y, warps.z, results, count);
+    }
+    
+    @Override
+    public void noiseColumn(long seed, double x, double z, double minY, double stepY, double[] results, int offset, int count) {
+        Warps warps = this.warps.get().reset(count);
+        warp.noiseColumn(seed + 1, x, z, minY, stepY, warps.x, 0, count);
+        warp.noiseColumn(seed + 2, x, z, minY, stepY, warps.y, 0, count);
+        warp.noiseColumn(seed + 3, x, z, minY, stepY, warps.z, 0, count);
+        for(int i = 0; i < count; i++) {
+            warps.x[i] = x + warps.x[i] * amplitude;
+            warps.y[i] = (minY + i * stepY) + warps.y[i] * amplitude;
+            warps.z[i] = z + warps.z[i] * amplitude;
+        }
+        if(offset == 0) {
+            function.noise(seed, warps.x, warps.y, warps.z, results, count);
+        } else {
+            function.noise(seed, warps.x, warps.y, warps.z, warps.values, count);
+            System.arraycopy(warps.values, 0, results, offset, count);
+        }
+    }
+    
+    /**
+     * Warp offsets of a bulk sample, overwritten in place with the warped coordinates.
+     */
+    private static final class Warps {
+        private double[] x = new double[0];
+        private double[] y = new double[0];
+        private double[] z = new double[0];
+        private double[] values = new double[0];
+        
+        private Warps reset(int count) {
+            if(x.length < count) {
+                x = new double[count];
+                y = new double[count];
+                z = new double[count];
+                values = new double[count];
+            }
+            return this;
+        }
+    }
 }
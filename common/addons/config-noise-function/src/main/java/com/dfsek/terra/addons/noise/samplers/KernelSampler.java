@@ -7,17 +7,53 @@
 
 package com.dfsek.terra.addons.noise.samplers;
 
+import java.util.Arrays;
+
 import com.dfsek.terra.api.noise.NoiseSampler;
 
 
+/**
+ * Convolves a sampler with a kernel, offsetting inner samples by whole units after scaling by the frequency.
+ * <p>
+ * Bulk samples collect the inner samples every point needs, sample each distinct position once in a single bulk call,
+ * and share it between the points which overlap there. Points a whole unit apart, like the blocks of a chunk at frequency
+ * 1, share almost all of their inner samples. Results are bit-identical to single samples.
+ */
 public class KernelSampler implements NoiseSampler {
-    private final double[][] kernel;
     private final NoiseSampler in;
     private double frequency = 1;
     
+    // Non-zero kernel cells, in the order they are accumulated
+    private final double[] weights;
+    private final int[] offsetX;
+    private final int[] offsetY;
+    
+    private final ThreadLocal<Samples> samples = ThreadLocal.withInitial(Samples::new);
+    
     public KernelSampler(double[][] kernel, NoiseSampler in) {
-        this.kernel = kernel;
         this.in = in;
+        
+        int cells = 0;
+        for(double[] row : kernel) {
+            for(double k : row) {
+                if(k != 0) cells++;
+            }
+        }
+        this.weights = new double[cells];
+        this.offsetX = new int[cells];
+        this.offsetY = new int[cells];
+        int cell = 0;
+        for(int kx = 0; kx < kernel.length; kx++) {
+            for(int ky = 0; ky < kernel[kx].length; ky++) {
+                double k = kernel[kx][ky];
+                if(k != 0) {
+                    weights[cell] = k;
+                    offsetX[cell] = kx;
+                    offsetY[cell] = ky;
+                    cell++;
+                }
+            }
+        }
     }
     
     public void setFrequency(double frequency) {
@@ -30,13 +66,8 @@ public class KernelSampler implements NoiseSampler {
         y *= frequency;
         double accumulator = 0;
         
-        for(int kx = 0; kx < kernel.length; kx++) {
-            for(int ky = 0; ky < kernel[kx].length; ky++) {
-                double k = kernel[kx][ky];
-                if(k != 0) {
-                    accumulator += in.noise(seed, x + kx, y + ky) * k;
-                }
-            }
+        for(int cell = 0; cell < weights.length; cell++) {
+            accumulator += in.noise(seed, x + offsetX[cell], y + offsetY[cell]) * weights[cell];
         }
         
         return accumulator;
@@ -49,15 +80,135 @@ public class KernelSampler implements NoiseSampler {
         z *= frequency;
         double accumulator = 0;
         
-        for(int kx = 0; kx < kernel.length; kx++) {
-            for(int ky = 0; ky < kernel[kx].length; ky++) {
-                double k = kernel[kx][ky];
-                if(k != 0) {
-                    accumulator += in.noise(seed, x + kx, y, z + ky) * k;
-                }
-            }
+        for(int cell = 0; cell < weights.length; cell++) {
+            accumulator += in.noise(seed, x + offsetX[cell], y, z + offsetY[cell]) * weights[cell];
         }
         
         return accumulator;
     }
+    
+    @Override
+    public void noise(long seed, double[] x, double[] y, double[] results, int count) {
+        Samples samples = this.samples.get().reset(count * weights.length, false);
+        for(int i = 0; i < count; i++) {
+            double xs = x[i] * frequency;
+            double ys = y[i] * frequency;
+            for(int cell = 0; cell < weights.length; cell++) {
+                samples.add(xs + offsetX[cell], ys + offsetY[cell], 0);
+            }
+        }
+        in.noise(seed, samples.x, samples.y, samples.values, samples.size);
+        accumulate(samples, results, 0, count);
+    }
+    
+    @Override
+    public void noise(long seed, double[] x, double[] y, double[] z, double[] results, int count) {
+        Samples samples = this.samples.get().reset(count * weights.length, true);
+        for(int i = 0; i < count; i++) {
+            double xs = x[i] * frequency;
+            double ys = y[i] * frequency;
+            double zs = z[i] * frequency;
+            for(int cell = 0; cell < weights.length; cell++) {
+                samples.add(xs + offsetX[cell], ys, zs + offsetY[cell]);
+            }
+        }
+        in.noise(seed, samples.x, samples.y, samples.z, samples.values, samples.size);
+        accumulate(samples, results, 0, count);
+    }
+    
+    @Override
+    public void noiseColumn(long seed, double x, double z, double minY, double stepY, double[] results, int offset, int count) {
+        Samples samples = this.samples.get().reset(count * weights.length, true);
+        double xs = x * frequency;
+        double zs = z * frequency;
+        for(int i = 0; i < count; i++) {
+            double ys = (minY + i * stepY) * frequency;
+            for(int cell = 0; cell < weights.length; cell++) {
+                samples.add(xs + offsetX[cell], ys, zs + offsetY[cell]);
+            }
+        }
+        in.noise(seed, samples.x, samples.y, samples.z, samples.values, samples.size);
+        accumulate(samples, results, offset, count);
+    }
+    
+    private void accumulate(Samples samples, double[] results, int offset, int count) {
+        int reference = 0;
+        for(int i = 0; i < count; i++) {
+            double accumulator = 0;
+            for(int cell = 0; cell < weights.length; cell++) {
+                accumulator += samples.values[samples.references[reference++]] * weights[cell];
+            }
+            results[offset + i] = accumulator;
+        }
+    }
+    
+    /**
+     * Distinct inner sample positions of a bulk sample, and which of them each point and kernel cell refers to.
+     * Positions are only shared if their coordinates are exactly equal, so sharing never changes a result.
+     */
+    private static final class Samples {
+        private double[] x = new double[0];
+        private double[] y = new double[0];
+        private double[] z = new double[0];
+        private double[] values = new double[0];
+        private int size;
+        
+        private int[] references = new int[0];
+        private int referenceCount;
+        
+        // Open addressing table of indices into the positions, -1 where empty
+        private int[] table = new int[0];
+        private int mask;
+        private boolean threeDimensional;
+        
+        private Samples reset(int capacity, boolean threeDimensional) {
+            if(references.length < capacity) {
+                x = new double[capacity];
+                y = new double[capacity];
+                z = new double[capacity];
+                values = new double[capacity];
+                references = new int[capacity];
+                table = new int[Integer.highestOneBit(Math.max(capacity, 1)) << 2]; // at most half full
+            }
+            Arrays.fill(table, -1);
+            mask = table.length - 1;
+            size = 0;
+            referenceCount = 0;
+            this.threeDimensional = threeDimensional;
+            return this;
+        }
+        
+        // Doubles holding small integers have no low bits set, so every bit has to be mixed down
+        private static long mix(long h) {
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            return h;
+        }
+        
+        private void add(double x, double y, double z) {
+            long xBits = Double.doubleToRawLongBits(x);
+            long yBits = Double.doubleToRawLongBits(y);
+            long zBits = threeDimensional ? Double.doubleToRawLongBits(z) : 0;
+            
+            int slot = (int) mix(mix(mix(xBits) ^ yBits) ^ zBits) & mask;
+            while(true) {
+                int index = table[slot];
+                if(index == -1) {
+                    this.x[size] = x;
+                    this.y[size] = y;
+                    this.z[size] = z;
+                    table[slot] = size;
+                    references[referenceCount++] = size++;
+                    return;
+                }
+                if(Double.doubleToRawLongBits(this.x[index]) == xBits && Double.doubleToRawLongBits(this.y[index]) == yBits &&
+                   Double.doubleToRawLongBits(this.z[index]) == zBits) {
+                    references[referenceCount++] = index;
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+    }
 }
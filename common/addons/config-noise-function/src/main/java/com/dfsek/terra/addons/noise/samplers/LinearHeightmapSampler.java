@@ -7,6 +7,7 @@ public class LinearHeightmapSampler implements NoiseSampler {
     private final NoiseSampler sampler;
     private final double scale;
     private final double base;
+    private final ThreadLocal<double[]> zeros = ThreadLocal.withInitial(() -> new double[0]);
     
     public LinearHeightmapSampler(NoiseSampler sampler, double scale, double base) {
         this.sampler = sampler;
@@ -24,4 +25,33 @@ public class LinearHeightmapSampler implements NoiseSampler {
     public double noise(long seed, double x, double y, double z) {
         return -y + base + sampler.noise(seed, x, y, z) * scale;
     }
+    
+    @Override
+    public void noise(long seed, double[] x, double[] y, double[] results, int count) {
+        double[] zeros = this.zeros.get();
+        if(zeros.length < count) {
+            zeros = new double[count];
+            this.zeros.set(zeros);
+        }
+        sampler.noise(seed, x, zeros, y, results, count);
+        for(int i = 0; i < count; i++) {
+            results[i] = base + results[i] * scale; // -y is -0.0, and -0.0 + base == base
+        }
+    }
+    
+    @Override
+    public void noise(long seed, double[] x, double[] y, double[] z, double[] results, int count) {
+        sampler.noise(seed, x, y, z, results, count);
+        for(int i = 0; i < count; i++) {
+            results[i] = -y[i] + base + results[i] * scale;
+        }
+    }
+    
+    @Override
+    public void noiseColumn(long seed, double x, double z, double minY, double stepY, double[] results, int offset, int count) {
+        sampler.noiseColumn(seed, x, z, minY, stepY, results, offset, count);
+        for(int i = 0; i < count; i++) {
+            results[offset + i] = -(minY + i * stepY) + base + results[offset + i] * scale;
+        }
+    }
 }
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2020-2021 Polyhedral Development
+ *
+ * The Terra Core Addons are licensed under the terms of the MIT License. For more details,
+ * reference the LICENSE file in this module's root directory.
+ */
+
+package com.dfsek.terra.addons.noise.samplers;
+
+import com.dfsek.terra.api.noise.NoiseSampler;
+
+
+/**
+ * Remembers 2D samples at whole-block positions within the chunk a thread most recently sampled.
+ * <p>
+ * Useful for expensive 2D samplers which are shared between several configs that sample the same columns of a chunk,
+ * such as terrain equations and feature distributors. Samples at fractional positions, 3D samples and bulk samples are
+ * passed straight through.
+ */
+public class MemoizedSampler implements NoiseSampler {
+    private final NoiseSampler sampler;
+    private final ThreadLocal<Memo> memo = ThreadLocal.withInitial(Memo::new);
+    
+    public MemoizedSampler(NoiseSampler sampler) {
+        this.sampler = sampler;
+    }
+    
+    @Override
+    public double noise(long seed, double x, double y) {
+        int blockX = (int) x;
+        int blockZ = (int) y;
+        if(blockX != x || blockZ != y) return sampler.noise(seed, x, y);
+        
+        Memo memo = this.memo.get();
+        long chunk = ((long) (blockX >> 4) << 32) | ((blockZ >> 4) & 0xFFFFFFFFL);
+        if(chunk != memo.chunk || seed != memo.seed) {
+            memo.reset(chunk, seed);
+        }
+        
+        int index = ((blockX & 15) << 4) | (blockZ & 15);
+        long bit = 1L << index;
+        int word = index >>> 6;
+        if((memo.filled[word] & bit) != 0) return memo.values[index];
+        
+        double value = sampler.noise(seed, x, y);
+        memo.values[index] = value;
+        memo.filled[word] |= bit;
+        return value;
+    }
+    
+    @Override
+    public double noise(long seed, double x, double y, double z) {
+        return sampler.noise(seed, x, y, z);
+    }
+    
+    @Override
+    public void noise(long seed, double[] x, double[] y, double[] results, int count) {
+        sampler.noise(seed, x, y, results, count);
+    }
+    
+    @Override
+    public void noise(long seed, double[] x, double[] y, double[] z, double[] results, int count) {
+        sampler.noise(seed, x, y, z, results, count);
+    }
+    
+    @Override
+    public void noiseColumn(long seed, double x, double z, double minY, double stepY, double[] results, int offset, int count) {
+        sampler.noiseColumn(seed, x, z, minY, stepY, results, offset, count);
+    }
+    
+    private static final class Memo {
+        private final double[] values = new double[256];
+        private final long[] filled = new long[4];
+        private long chunk = Long.MIN_VALUE;
+        private long seed;
+        
+        private void reset(long chunk, long seed) {
+            this.chunk = chunk;
+            this.seed = seed;
+            filled[0] = filled[1] = filled[2] = filled[3] = 0;
+        }
+    }
+}
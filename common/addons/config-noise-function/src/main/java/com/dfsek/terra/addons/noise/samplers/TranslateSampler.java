@@ -7,6 +7,7 @@ public class TranslateSampler implements NoiseSampler {
     
     private final NoiseSampler sampler;
     private final double dx, dy, dz;
+    private final ThreadLocal<Coordinates> coordinates = ThreadLocal.withInitial(Coordinates::new);
     
     public TranslateSampler(NoiseSampler sampler, double dx, double dy, double dz) {
         this.sampler = sampler;
@@ -15,6 +16,22 @@ public class TranslateSampler implements NoiseSampler {
         this.dz = dz;
     }
     
+    public NoiseSampler getSampler() {
+        return sampler;
+    }
+    
+    public double getDx() {
+        return dx;
+    }
+    
+    public double getDy() {
+        return dy;
+    }
+    
+    public double getDz() {
+        return dz;
+    }
+    
     @Override
     public double noise(long seed, double x, double y) {
         return sampler.noise(seed, x - dx, y - dz);
@@ -24,4 +41,66 @@ public class TranslateSampler implements NoiseSampler {
     public double noise(long seed, double x, double y, double z) {
         return sampler.noise(seed, x - dx, y - dy, z - dz);
     }
+    
+    @Override
+    public void noise(long seed, double[] x, double[] y, double[] results, int count) {
+        Coordinates coordinates = this.coordinates.get().reset(count);
+        for(int i = 0; i < count; i++) {
+            coordinates.x[i] = x[i] - dx;
+            coordinates.y[i] = y[i] - dz;
+        }
+        sampler.noise(seed, coordinates.x, coordinates.y, results, count);
+    }
+    
+    @Override
+    public void noise(long seed, double[] x, double[] y, double[] z, double[] results, int count) {
+        Coordinates coordinates = this.coordinates.get().reset(count);
+        for(int i = 0; i < count; i++) {
+            coordinates.x[i] = x[i] - dx;
+            coordinates.y[i] = y[i] - dy;
+            coordinates.z[i] = z[i] - dz;
+        }
+        sampler.noise(seed, coordinates.x, coordinates.y, coordinates.z, results, count);
+    }
+    
+    @Override
+    public void noiseColumn(long seed, double x, double z, double minY, double stepY, double[] results, int offset, int count) {
+        if(Double.doubleToRawLongBits(dy) == 0) {
+            // y - 0.0 == y for every y, so the column passes through unchanged
+            sampler.noiseColumn(seed, x - dx, z - dz, minY, stepY, results, offset, count);
+            return;
+        }
+        // (minY + i * stepY) - dy may round differently to (minY - dy) + i * stepY, so shift each y on its own
+        Coordinates coordinates = this.coordinates.get().reset(count);
+        double xs = x - dx;
+        double zs = z - dz;
+        for(int i = 0; i < count; i++) {
+            coordinates.x[i] = xs;
+            coordinates.y[i] = (minY + i * stepY) - dy;
+            coordinates.z[i] = zs;
+        }
+        if(offset == 0) {
+            sampler.noise(seed, coordinates.x, coordinates.y, coordinates.z, results, count);
+        } else {
+            sampler.noise(seed, coordinates.x, coordinates.y, coordinates.z, coordinates.values, count);
+            System.arraycopy(coordinates.values, 0, results, offset, count);
+        }
+    }
+    
+    private static final class Coordinates {
+        private double[] x = new double[0];
+        private double[] y = new double[0];
+        private double[] z = new double[0];
+        private double[] values = new double[0];
+        
+        private Coordinates reset(int count) {
+            if(x.length < count) {
+                x = new double[count];
+                y = new double[count];
+                z = new double[count];
+                values = new double[count];
+            }
+            return this;
+        }
+    }
 }
@@ -6,6 +6,7 @@ import com.dfsek.terra.api.noise.NoiseSampler;
 public abstract class BinaryArithmeticSampler implements NoiseSampler {
     private final NoiseSampler left;
     private final NoiseSampler right;
+    private final ThreadLocal<double[]> rightResults = ThreadLocal.withInitial(() -> new double[0]);
     
     protected BinaryArithmeticSampler(NoiseSampler left, NoiseSampler right) {
         this.left = left;
@@ -22,5 +23,59 @@ public abstract class BinaryArithmeticSampler implements NoiseSampler {
         return operate(left.noise(seed, x, y, z), right.noise(seed, x, y, z));
     }
     
+    @Override
+    public void noise(long seed, double[] x, double[] y, double[] results, int count) {
+        double[] rightResults = rightResults(count);
+        left.noise(seed, x, y, results, count);
+        right.noise(seed, x, y, rightResults, count);
+        operate(results, rightResults, 0, count);
+    }
+    
+    @Override
+    public void noise(long seed, double[] x, double[] y, double[] z, double[] results, int count) {
+        double[] rightResults = rightResults(count);
+        left.noise(seed, x, y, z, results, count);
+        right.noise(seed, x, y, z, rightResults, count);
+        operate(results, rightResults, 0, count);
+    }
+    
+    @Override
+    public void noiseColumn(long seed, double x, double z, double minY, double stepY, double[] results, int offset, int count) {
+        double[] rightResults = rightResults(count);
+        left.noiseColumn(seed, x, z, minY, stepY, results, offset, count);
+        right.noiseColumn(seed, x, z, minY, stepY, rightResults, 0, count);
+        operate(results, rightResults, offset, count);
+    }
+    
+    /**
+     * @return This thread's buffer for right operands, holding at least {@code count} values
+     */
+    private double[] rightResults(int count) {
+        double[] rightResults = this.rightResults.get();
+        if(rightResults.length < count) {
+            rightResults = new double[count];
+            this.rightResults.set(rightResults);
+        }
+        return rightResults;
+    }
+    
+    public NoiseSampler getLeft() {
+        return left;
+    }
+    
+    public NoiseSampler getRight() {
+        return right;
+    }
+    
     public abstract double operate(double left, double right);
+    
+    /**
+     * Operate on a batch of values, writing results back into {@code left}.
+     *
+     * @param left   Left operands, starting at {@code offset}
+     * @param right  Right operands, starting at {@code 0}
+     * @param offset Offset into {@code left}
+     * @param count  Number of values
+     */
+    public abstract void operate(double[] left, double[] right, int offset, int count);
 }
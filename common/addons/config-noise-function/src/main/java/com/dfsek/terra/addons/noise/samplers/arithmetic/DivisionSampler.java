@@ -12,4 +12,11 @@ public class DivisionSampler extends BinaryArithmeticSampler {
     public double operate(double left, double right) {
         return left / right;
     }
+    
+    @Override
+    public void operate(double[] left, double[] right, int offset, int count) {
+        for(int i = 0; i < count; i++) {
+            left[offset + i] /= right[i];
+        }
+    }
 }
@@ -14,4 +14,11 @@ public class MaxSampler extends BinaryArithmeticSampler {
     public double operate(double left, double right) {
         return FastMath.max(left, right);
     }
+    
+    @Override
+    public void operate(double[] left, double[] right, int offset, int count) {
+        for(int i = 0; i < count; i++) {
+            left[offset + i] = FastMath.max(left[offset + i], right[i]);
+        }
+    }
 }
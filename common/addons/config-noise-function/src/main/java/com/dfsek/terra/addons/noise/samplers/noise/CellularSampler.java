@@ -194,12 +194,20 @@ public class CellularSampler extends NoiseFunction {
             };
     
     
+    private static final double JITTER_2D = 0.43701595;
+    private static final double JITTER_3D = 0.39614353;
+    
     private DistanceFunction distanceFunction = DistanceFunction.EuclideanSq;
     private ReturnType returnType = ReturnType.Distance;
     private double jitterModifier = 1.0;
+    private double cellularJitter2D = JITTER_2D * jitterModifier;
+    private double cellularJitter3D = JITTER_3D * jitterModifier;
     
     private NoiseSampler noiseLookup;
     
+    private final ThreadLocal<Cells2D> cells2D = ThreadLocal.withInitial(Cells2D::new);
+    private final ThreadLocal<Cells3D> cells3D = ThreadLocal.withInitial(Cells3D::new);
+    
     public CellularSampler() {
         noiseLookup = new OpenSimplex2Sampler();
     }
@@ -210,6 +218,8 @@ public class CellularSampler extends NoiseFunction {
     
     public void setJitterModifier(double jitterModifier) {
         this.jitterModifier = jitterModifier;
+        this.cellularJitter2D = JITTER_2D * jitterModifier;
+        this.cellularJitter3D = JITTER_3D * jitterModifier;
     }
     
     public void setNoiseLookup(NoiseSampler noiseLookup) {
@@ -222,307 +232,428 @@ public class CellularSampler extends NoiseFunction {
     
     @Override
     public double getNoiseRaw(long sl, double x, double y) {
-        int seed = (int) sl;
-        int xr = fastRound(x);
-        int yr = fastRound(y);
-        
+        Cells2D cells = cells2D.get();
+        cells.locate((int) sl, fastRound(x), fastRound(y), cellularJitter2D);
+        return switch(distanceFunction) {
+            case Euclidean, EuclideanSq -> euclidean(cells, sl, x, y);
+            case Manhattan -> manhattan(cells, sl, x, y);
+            case Hybrid -> hybrid(cells, sl, x, y);
+        };
+    }
+    
+    @Override
+    public double getNoiseRaw(long sl, double x, double y, double z) {
+        Cells3D cells = cells3D.get();
+        cells.locate((int) sl, fastRound(x), fastRound(y), fastRound(z), cellularJitter3D);
+        return switch(distanceFunction) {
+            case Euclidean, EuclideanSq -> euclidean(cells, sl, x, y, z);
+            case Manhattan -> manhattan(cells, sl, x, y, z);
+            case Hybrid -> hybrid(cells, sl, x, y, z);
+        };
+    }
+    
+    /*
+     * One kernel per distance function and dimension. The closest cell is tracked by index, and only the value the
+     * return type needs is derived from it, in finish.
+     */
+    
+    private double euclidean(Cells2D cells, long sl, double x, double y) {
         double distance0 = Double.MAX_VALUE;
         double distance1 = Double.MAX_VALUE;
         double distance2 = Double.MAX_VALUE;
+        int closest = -1;
         
-        int closestHash = 0;
+        for(int i = 0; i < 9; i++) {
+            double vecX = (cells.cellX[i] - x) + cells.jitterX[i];
+            double vecY = (cells.cellY[i] - y) + cells.jitterY[i];
+            
+            double newDistance = vecX * vecX + vecY * vecY;
+            
+            distance1 = fastMax(fastMin(distance1, newDistance), distance0);
+            if(newDistance < distance0) {
+                distance0 = newDistance;
+                closest = i;
+            } else if(newDistance < distance1) {
+                distance2 = distance1;
+                distance1 = newDistance;
+            } else if(newDistance < distance2) {
+                distance2 = newDistance;
+            }
+        }
+        return finish(cells, closest, sl, x, y, distance0, distance1, distance2);
+    }
+    
+    private double manhattan(Cells2D cells, long sl, double x, double y) {
+        double distance0 = Double.MAX_VALUE;
+        double distance1 = Double.MAX_VALUE;
+        double distance2 = Double.MAX_VALUE;
+        int closest = -1;
         
-        double cellularJitter = 0.43701595 * jitterModifier;
+        for(int i = 0; i < 9; i++) {
+            double vecX = (cells.cellX[i] - x) + cells.jitterX[i];
+            double vecY = (cells.cellY[i] - y) + cells.jitterY[i];
+            
+            double newDistance = fastAbs(vecX) + fastAbs(vecY);
+            
+            distance1 = fastMax(fastMin(distance1, newDistance), distance0);
+            if(newDistance < distance0) {
+                distance0 = newDistance;
+                closest = i;
+            } else if(newDistance < distance1) {
+                distance2 = distance1;
+                distance1 = newDistance;
+            } else if(newDistance < distance2) {
+                distance2 = newDistance;
+            }
+        }
+        return finish(cells, closest, sl, x, y, distance0, distance1, distance2);
+    }
+    
+    private double hybrid(Cells2D cells, long sl, double x, double y) {
+        double distance0 = Double.MAX_VALUE;
+        double distance1 = Double.MAX_VALUE;
+        double distance2 = Double.MAX_VALUE;
+        int closest = -1;
         
-        int xPrimed = (xr - 1) * PRIME_X;
-        int yPrimedBase = (yr - 1) * PRIME_Y;
+        for(int i = 0; i < 9; i++) {
+            double vecX = (cells.cellX[i] - x) + cells.jitterX[i];
+            double vecY = (cells.cellY[i] - y) + cells.jitterY[i];
+            
+            double newDistance = (fastAbs(vecX) + fastAbs(vecY)) + (vecX * vecX + vecY * vecY);
+            
+            distance1 = fastMax(fastMin(distance1, newDistance), distance0);
+            if(newDistance < distance0) {
+                distance0 = newDistance;
+                closest = i;
+            } else if(newDistance < distance1) {
+                distance2 = distance1;
+                distance1 = newDistance;
+            } else if(newDistance < distance2) {
+                distance2 = newDistance;
+            }
+        }
+        return finish(cells, closest, sl, x, y, distance0, distance1, distance2);
+    }
+    
+    private double euclidean(Cells3D cells, long sl, double x, double y, double z) {
+        double distance0 = Double.MAX_VALUE;
+        double distance1 = Double.MAX_VALUE;
+        double distance2 = Double.MAX_VALUE;
+        int closest = -1;
         
-        double centerX = x;
-        double centerY = y;
+        for(int i = 0; i < 27; i++) {
+            double vecX = (cells.cellX[i] - x) + cells.jitterX[i];
+            double vecY = (cells.cellY[i] - y) + cells.jitterY[i];
+            double vecZ = (cells.cellZ[i] - z) + cells.jitterZ[i];
+            
+            double newDistance = vecX * vecX + vecY * vecY + vecZ * vecZ;
+            
+            if(newDistance < distance0) {
+                distance0 = newDistance;
+                closest = i;
+            } else if(newDistance < distance1) {
+                distance2 = distance1;
+                distance1 = newDistance;
+            } else if(newDistance < distance2) {
+                distance2 = newDistance;
+            }
+        }
+        return finish(cells, closest, sl, x, y, z, distance0, distance1, distance2);
+    }
+    
+    private double manhattan(Cells3D cells, long sl, double x, double y, double z) {
+        double distance0 = Double.MAX_VALUE;
+        double distance1 = Double.MAX_VALUE;
+        double distance2 = Double.MAX_VALUE;
+        int closest = -1;
         
-        switch(distanceFunction) {
-            default:
-            case Euclidean:
-            case EuclideanSq:
-                for(int xi = xr - 1; xi <= xr + 1; xi++) {
-                    int yPrimed = yPrimedBase;
-                    
-                    for(int yi = yr - 1; yi <= yr + 1; yi++) {
-                        int hash = hash(seed, xPrimed, yPrimed);
-                        int idx = hash & (255 << 1);
-                        
-                        double vecX = (xi - x) + RAND_VECS_2D[idx] * cellularJitter;
-                        double vecY = (yi - y) + RAND_VECS_2D[idx | 1] * cellularJitter;
-                        
-                        double newDistance = vecX * vecX + vecY * vecY;
-                        
-                        distance1 = fastMax(fastMin(distance1, newDistance), distance0);
-                        if(newDistance < distance0) {
-                            distance0 = newDistance;
-                            closestHash = hash;
-                            centerX = ((xi + RAND_VECS_2D[idx] * cellularJitter) / frequency);
-                            centerY = ((yi + RAND_VECS_2D[idx | 1] * cellularJitter) / frequency);
-                        } else if(newDistance < distance1) {
-                            distance2 = distance1;
-                            distance1 = newDistance;
-                        } else if(newDistance < distance2) {
-                            distance2 = newDistance;
-                        }
-                        yPrimed += PRIME_Y;
-                    }
-                    xPrimed += PRIME_X;
-                }
-                break;
-            case Manhattan:
-                for(int xi = xr - 1; xi <= xr + 1; xi++) {
-                    int yPrimed = yPrimedBase;
-                    
-                    for(int yi = yr - 1; yi <= yr + 1; yi++) {
-                        int hash = hash(seed, xPrimed, yPrimed);
-                        int idx = hash & (255 << 1);
-                        
-                        double vecX = (xi - x) + RAND_VECS_2D[idx] * cellularJitter;
-                        double vecY = (yi - y) + RAND_VECS_2D[idx | 1] * cellularJitter;
-                        
-                        double newDistance = fastAbs(vecX) + fastAbs(vecY);
-                        
-                        distance1 = fastMax(fastMin(distance1, newDistance), distance0);
-                        if(newDistance < distance0) {
-                            distance0 = newDistance;
-                            closestHash = hash;
-                            centerX = ((xi + RAND_VECS_2D[idx] * cellularJitter) / frequency);
-                            centerY = ((yi + RAND_VECS_2D[idx | 1] * cellularJitter) / frequency);
-                        } else if(newDistance < distance1) {
-                            distance2 = distance1;
-                            distance1 = newDistance;
-                        } else if(newDistance < distance2) {
-                            distance2 = newDistance;
-                        }
-                        yPrimed += PRIME_Y;
-                    }
-                    xPrimed += PRIME_X;
-                }
-                break;
-            case Hybrid:
-                for(int xi = xr - 1; xi <= xr + 1; xi++) {
-                    int yPrimed = yPrimedBase;
-                    
-                    for(int yi = yr - 1; yi <= yr + 1; yi++) {
-                        int hash = hash(seed, xPrimed, yPrimed);
-                        int idx = hash & (255 << 1);
-                        
-                        double vecX = (xi - x) + RAND_VECS_2D[idx] * cellularJitter;
-                        double vecY = (yi - y) + RAND_VECS_2D[idx | 1] * cellularJitter;
-                        
-                        double newDistance = (fastAbs(vecX) + fastAbs(vecY)) + (vecX * vecX + vecY * vecY);
-                        
-                        distance1 = fastMax(fastMin(distance1, newDistance), distance0);
-                        if(newDistance < distance0) {
-                            distance0 = newDistance;
-                            closestHash = hash;
-                            centerX = ((xi + RAND_VECS_2D[idx] * cellularJitter) / frequency);
-                            centerY = ((yi + RAND_VECS_2D[idx | 1] * cellularJitter) / frequency);
-                        } else if(newDistance < distance1) {
-                            distance2 = distance1;
-                            distance1 = newDistance;
-                        } else if(newDistance < distance2) {
-                            distance2 = newDistance;
-                        }
-                        yPrimed += PRIME_Y;
-                    }
-                    xPrimed += PRIME_X;
-                }
-                break;
+        for(int i = 0; i < 27; i++) {
+            double vecX = (cells.cellX[i] - x) + cells.jitterX[i];
+            double vecY = (cells.cellY[i] - y) + cells.jitterY[i];
+            double vecZ = (cells.cellZ[i] - z) + cells.jitterZ[i];
+            
+            double newDistance = fastAbs(vecX) + fastAbs(vecY) + fastAbs(vecZ);
+            
+            if(newDistance < distance0) {
+                distance0 = newDistance;
+                closest = i;
+            } else if(newDistance < distance1) {
+                distance2 = distance1;
+                distance1 = newDistance;
+            } else if(newDistance < distance2) {
+                distance2 = newDistance;
+            }
         }
+        return finish(cells, closest, sl, x, y, z, distance0, distance1, distance2);
+    }
+    
+    private double hybrid(Cells3D cells, long sl, double x, double y, double z) {
+        double distance0 = Double.MAX_VALUE;
+        double distance1 = Double.MAX_VALUE;
+        double distance2 = Double.MAX_VALUE;
+        int closest = -1;
         
+        for(int i = 0; i < 27; i++) {
+            double vecX = (cells.cellX[i] - x) + cells.jitterX[i];
+            double vecY = (cells.cellY[i] - y) + cells.jitterY[i];
+            double vecZ = (cells.cellZ[i] - z) + cells.jitterZ[i];
+            
+            double newDistance = (fastAbs(vecX) + fastAbs(vecY) + fastAbs(vecZ)) +
+                                 (vecX * vecX + vecY * vecY + vecZ * vecZ);
+            
+            distance1 = fastMax(fastMin(distance1, newDistance), distance0);
+            if(newDistance < distance0) {
+                distance0 = newDistance;
+                closest = i;
+            } else if(newDistance < distance1) {
+                distance2 = distance1;
+                distance1 = newDistance;
+            } else if(newDistance < distance2) {
+                distance2 = newDistance;
+            }
+        }
+        return finish(cells, closest, sl, x, y, z, distance0, distance1, distance2);
+    }
+    
+    private double finish(Cells2D cells, int closest, long sl, double x, double y, double distance0, double distance1,
+                          double distance2) {
         if(distanceFunction == DistanceFunction.Euclidean && returnType != ReturnType.CellValue) {
             distance0 = fastSqrt(distance0);
-            if(returnType != ReturnType.CellValue) {
-                distance1 = fastSqrt(distance1);
-            }
+            distance1 = fastSqrt(distance1);
         }
         
         return switch(returnType) {
-            case CellValue -> closestHash * (1 / 2147483648.0);
+            case CellValue -> closest < 0 ? 0 : cells.hashes[closest] * (1 / 2147483648.0);
             case Distance -> distance0 - 1;
             case Distance2 -> distance1 - 1;
             case Distance2Add -> (distance1 + distance0) * 0.5 - 1;
             case Distance2Sub -> distance1 - distance0 - 1;
             case Distance2Mul -> distance1 * distance0 * 0.5 - 1;
             case Distance2Div -> distance0 / distance1 - 1;
-            case NoiseLookup -> noiseLookup.noise(sl, centerX, centerY);
+            case NoiseLookup -> closest < 0
+                                ? noiseLookup.noise(sl, x, y)
+                                : noiseLookup.noise(sl, cells.centerX(closest, frequency), cells.centerY(closest, frequency));
             case Distance3 -> distance2 - 1;
             case Distance3Add -> (distance2 + distance0) * 0.5 - 1;
             case Distance3Sub -> distance2 - distance0 - 1;
             case Distance3Mul -> distance2 * distance0 - 1;
             case Distance3Div -> distance0 / distance2 - 1;
-            case Angle -> FastMath.atan2(y / frequency - centerY, x / frequency - centerX);
+            case Angle -> closest < 0
+                          ? FastMath.atan2(y / frequency - y, x / frequency - x)
+                          : FastMath.atan2(y / frequency - cells.centerY(closest, frequency),
+                                           x / frequency - cells.centerX(closest, frequency));
         };
     }
     
-    @Override
-    public double getNoiseRaw(long sl, double x, double y, double z) {
-        int seed = (int) sl;
-        int xr = fastRound(x);
-        int yr = fastRound(y);
-        int zr = fastRound(z);
-        
-        double distance0 = Double.MAX_VALUE;
-        double distance1 = Double.MAX_VALUE;
-        double distance2 = Double.MAX_VALUE;
-        int closestHash = 0;
-        
-        double cellularJitter = 0.39614353 * jitterModifier;
-        
-        int xPrimed = (xr - 1) * PRIME_X;
-        int yPrimedBase = (yr - 1) * PRIME_Y;
-        int zPrimedBase = (zr - 1) * PRIME_Z;
-        
-        double centerX = x;
-        double centerY = y;
-        double centerZ = z;
-        
-        switch(distanceFunction) {
-            case Euclidean:
-            case EuclideanSq:
-                for(int xi = xr - 1; xi <= xr + 1; xi++) {
-                    int yPrimed = yPrimedBase;
-                    
-                    for(int yi = yr - 1; yi <= yr + 1; yi++) {
-                        int zPrimed = zPrimedBase;
-                        
-                        for(int zi = zr - 1; zi <= zr + 1; zi++) {
-                            int hash = hash(seed, xPrimed, yPrimed, zPrimed);
-                            int idx = hash & (255 << 2);
-                            
-                            double vecX = (xi - x) + RAND_VECS_3D[idx] * cellularJitter;
-                            double vecY = (yi - y) + RAND_VECS_3D[idx | 1] * cellularJitter;
-                            double vecZ = (zi - z) + RAND_VECS_3D[idx | 2] * cellularJitter;
-                            
-                            double newDistance = vecX * vecX + vecY * vecY + vecZ * vecZ;
-                            
-                            if(newDistance < distance0) {
-                                distance0 = newDistance;
-                                closestHash = hash;
-                                centerX = ((xi + RAND_VECS_3D[idx] * cellularJitter) / frequency);
-                                centerY = ((yi + RAND_VECS_3D[idx | 1] * cellularJitter) / frequency);
-                                centerZ = ((zi + RAND_VECS_3D[idx | 2] * cellularJitter) / frequency);
-                            } else if(newDistance < distance1) {
-                                distance2 = distance1;
-                                distance1 = newDistance;
-                            } else if(newDistance < distance2) {
-                                distance2 = newDistance;
-                            }
-                            zPrimed += PRIME_Z;
-                        }
-                        yPrimed += PRIME_Y;
-                    }
-                    xPrimed += PRIME_X;
-                }
-                break;
-            case Manhattan:
-                for(int xi = xr - 1; xi <= xr + 1; xi++) {
-                    int yPrimed = yPrimedBase;
-                    
-                    for(int yi = yr - 1; yi <= yr + 1; yi++) {
-                        int zPrimed = zPrimedBase;
-                        
-                        for(int zi = zr - 1; zi <= zr + 1; zi++) {
-                            int hash = hash(seed, xPrimed, yPrimed, zPrimed);
-                            int idx = hash & (255 << 2);
-                            
-                            double vecX = (xi - x) + RAND_VECS_3D[idx] * cellularJitter;
-                            double vecY = (yi - y) + RAND_VECS_3D[idx | 1] * cellularJitter;
-                            double vecZ = (zi - z) + RAND_VECS_3D[idx | 2] * cellularJitter;
-                            
-                            double newDistance = fastAbs(vecX) + fastAbs(vecY) + fastAbs(vecZ);
-                            
-                            if(newDistance < distance0) {
-                                distance0 = newDistance;
-                                closestHash = hash;
-                                centerX = ((xi + RAND_VECS_3D[idx] * cellularJitter) / frequency);
-                                centerY = ((yi + RAND_VECS_3D[idx | 1] * cellularJitter) / frequency);
-                                centerZ = ((zi + RAND_VECS_3D[idx | 2] * cellularJitter) / frequency);
-                            } else if(newDistance < distance1) {
-                                distance2 = distance1;
-                                distance1 = newDistance;
-                            } else if(newDistance < distance2) {
-                                distance2 = newDistance;
-                            }
-                            zPrimed += PRIME_Z;
-                        }
-                        yPrimed += PRIME_Y;
-                    }
-                    xPrimed += PRIME_X;
-                }
-                break;
-            case Hybrid:
-                for(int xi = xr - 1; xi <= xr + 1; xi++) {
-                    int yPrimed = yPrimedBase;
-                    
-                    for(int yi = yr - 1; yi <= yr + 1; yi++) {
-                        int zPrimed = zPrimedBase;
-                        
-                        for(int zi = zr - 1; zi <= zr + 1; zi++) {
-                            int hash = hash(seed, xPrimed, yPrimed, zPrimed);
-                            int idx = hash & (255 << 2);
-                            
-                            double vecX = (xi - x) + RAND_VECS_3D[idx] * cellularJitter;
-                            double vecY = (yi - y) + RAND_VECS_3D[idx | 1] * cellularJitter;
-                            double vecZ = (zi - z) + RAND_VECS_3D[idx | 2] * cellularJitter;
-                            
-                            double newDistance = (fastAbs(vecX) + fastAbs(vecY) + fastAbs(vecZ)) +
-                                                 (vecX * vecX + vecY * vecY + vecZ * vecZ);
-                            
-                            distance1 = fastMax(fastMin(distance1, newDistance), distance0);
-                            if(newDistance < distance0) {
-                                distance0 = newDistance;
-                                closestHash = hash;
-                                centerX = ((xi + RAND_VECS_3D[idx] * cellularJitter) / frequency);
-                                centerY = ((yi + RAND_VECS_3D[idx | 1] * cellularJitter) / frequency);
-                                centerZ = ((zi + RAND_VECS_3D[idx | 2] * cellularJitter) / frequency);
-                            } else if(newDistance < distance1) {
-                                distance2 = distance1;
-                                distance1 = newDistance;
-                            } else if(newDistance < distance2) {
-                                distance2 = newDistance;
-                            }
-                            zPrimed += PRIME_Z;
-                        }
-                        yPrimed += PRIME_Y;
-                    }
-                    xPrimed += PRIME_X;
-                }
-                break;
-            default:
-                break;
-        }
-        
+    private double finish(Cells3D cells, int closest, long sl, double x, double y, double z, double distance0,
+                          double distance1, double distance2) {
         if(distanceFunction == DistanceFunction.Euclidean && returnType != ReturnType.CellValue) {
             distance0 = fastSqrt(distance0);
-            if(returnType != ReturnType.CellValue) {
-                distance1 = fastSqrt(distance1);
-            }
+            distance1 = fastSqrt(distance1);
         }
         
         return switch(returnType) {
-            case CellValue -> closestHash * (1 / 2147483648.0);
+            case CellValue -> closest < 0 ? 0 : cells.hashes[closest] * (1 / 2147483648.0);
             case Distance -> distance0 - 1;
             case Distance2 -> distance1 - 1;
             case Distance2Add -> (distance1 + distance0) * 0.5 - 1;
             case Distance2Sub -> distance1 - distance0 - 1;
             case Distance2Mul -> distance1 * distance0 * 0.5 - 1;
             case Distance2Div -> distance0 / distance1 - 1;
-            case NoiseLookup -> noiseLookup.noise(sl, centerX, centerY, centerZ);
+            case NoiseLookup -> closest < 0
+                                ? noiseLookup.noise(sl, x, y, z)
+                                : noiseLookup.noise(sl, cells.centerX(closest, frequency), cells.centerY(closest, frequency),
+                                                    cells.centerZ(closest, frequency));
             case Distance3 -> distance2 - 1;
             case Distance3Add -> (distance2 + distance0) * 0.5 - 1;
             case Distance3Sub -> distance2 - distance0 - 1;
             case Distance3Mul -> distance2 * distance0 - 1;
             case Distance3Div -> distance0 / distance2 - 1;
-            case Angle -> FastMath.atan2(y / frequency - centerY, x / frequency - centerX);
+            case Angle -> closest < 0
+                          ? FastMath.atan2(y / frequency - y, x / frequency - x)
+                          : FastMath.atan2(y / frequency - cells.centerY(closest, frequency),
+                                           x / frequency - cells.centerX(closest, frequency));
         };
     }
     
+    // The distance function is dispatched once per batch, and points in the same cell as the previous point reuse its
+    // neighbour hashes.
+    @Override
+    protected void getNoiseRaw(long seed, double[] x, double[] y, double[] results, int count) {
+        double frequency = this.frequency;
+        double jitter = cellularJitter2D;
+        Cells2D cells = cells2D.get();
+        DistanceFunction distanceFunction = this.distanceFunction;
+        for(int i = 0; i < count; i++) {
+            double xs = x[i] * frequency;
+            double ys = y[i] * frequency;
+            cells.locate((int) seed, fastRound(xs), fastRound(ys), jitter);
+            results[i] = switch(distanceFunction) {
+                case Euclidean, EuclideanSq -> euclidean(cells, seed, xs, ys);
+                case Manhattan -> manhattan(cells, seed, xs, ys);
+                case Hybrid -> hybrid(cells, seed, xs, ys);
+            };
+        }
+    }
+    
+    @Override
+    protected void getNoiseRaw(long seed, double[] x, double[] y, double[] z, double[] results, int count) {
+        double frequency = this.frequency;
+        double jitter = cellularJitter3D;
+        Cells3D cells = cells3D.get();
+        DistanceFunction distanceFunction = this.distanceFunction;
+        for(int i = 0; i < count; i++) {
+            double xs = x[i] * frequency;
+            double ys = y[i] * frequency;
+            double zs = z[i] * frequency;
+            cells.locate((int) seed, fastRound(xs), fastRound(ys), fastRound(zs), jitter);
+            results[i] = switch(distanceFunction) {
+                case Euclidean, EuclideanSq -> euclidean(cells, seed, xs, ys, zs);
+                case Manhattan -> manhattan(cells, seed, xs, ys, zs);
+                case Hybrid -> hybrid(cells, seed, xs, ys, zs);
+            };
+        }
+    }
+    
+    @Override
+    protected void getNoiseRawColumn(long seed, double x, double z, double minY, double stepY, double[] results, int offset,
+                                     int count) {
+        double frequency = this.frequency;
+        double jitter = cellularJitter3D;
+        Cells3D cells = cells3D.get();
+        DistanceFunction distanceFunction = this.distanceFunction;
+        double xs = x * frequency;
+        double zs = z * frequency;
+        int xr = fastRound(xs);
+        int zr = fastRound(zs);
+        for(int i = 0; i < count; i++) {
+            double ys = (minY + i * stepY) * frequency;
+            cells.locate((int) seed, xr, fastRound(ys), zr, jitter);
+            results[offset + i] = switch(distanceFunction) {
+                case Euclidean, EuclideanSq -> euclidean(cells, seed, xs, ys, zs);
+                case Manhattan -> manhattan(cells, seed, xs, ys, zs);
+                case Hybrid -> hybrid(cells, seed, xs, ys, zs);
+            };
+        }
+    }
+    
+    /**
+     * Hashes and jittered offsets of the feature points of the 3x3 cells around the cell a point rounds to, kept for as
+     * long as following points round to the same cell.
+     */
+    private static final class Cells2D {
+        private final int[] hashes = new int[9];
+        private final int[] cellX = new int[9];
+        private final int[] cellY = new int[9];
+        private final double[] jitterX = new double[9];
+        private final double[] jitterY = new double[9];
+        private boolean valid;
+        private int seed;
+        private int x;
+        private int y;
+        private double jitter;
+        
+        private void locate(int seed, int xr, int yr, double jitter) {
+            if(valid && xr == x && yr == y && seed == this.seed && jitter == this.jitter) return;
+            valid = true;
+            this.seed = seed;
+            this.x = xr;
+            this.y = yr;
+            this.jitter = jitter;
+            
+            int i = 0;
+            int xPrimed = (xr - 1) * PRIME_X;
+            for(int xi = xr - 1; xi <= xr + 1; xi++) {
+                int yPrimed = (yr - 1) * PRIME_Y;
+                for(int yi = yr - 1; yi <= yr + 1; yi++) {
+                    int hash = hash(seed, xPrimed, yPrimed);
+                    int idx = hash & (255 << 1);
+                    hashes[i] = hash;
+                    cellX[i] = xi;
+                    cellY[i] = yi;
+                    jitterX[i] = RAND_VECS_2D[idx] * jitter;
+                    jitterY[i] = RAND_VECS_2D[idx | 1] * jitter;
+                    i++;
+                    yPrimed += PRIME_Y;
+                }
+                xPrimed += PRIME_X;
+            }
+        }
+        
+        private double centerX(int i, double frequency) {
+            return (cellX[i] + jitterX[i]) / frequency;
+        }
+        
+        private double centerY(int i, double frequency) {
+            return (cellY[i] + jitterY[i]) / frequency;
+        }
+    }
+    
+    /**
+     * The 3x3x3 equivalent of {@link Cells2D}.
+     */
+    private static final class Cells3D {
+        private final int[] hashes = new int[27];
+        private final int[] cellX = new int[27];
+        private final int[] cellY = new int[27];
+        private final int[] cellZ = new int[27];
+        private final double[] jitterX = new double[27];
+        private final double[] jitterY = new double[27];
+        private final double[] jitterZ = new double[27];
+        private boolean valid;
+        private int seed;
+        private int x;
+        private int y;
+        private int z;
+        private double jitter;
+        
+        private void locate(int seed, int xr, int yr, int zr, double jitter) {
+            if(valid && xr == x && yr == y && zr == z && seed == this.seed && jitter == this.jitter) return;
+            valid = true;
+            this.seed = seed;
+            this.x = xr;
+            this.y = yr;
+            this.z = zr;
+            this.jitter = jitter;
+            
+            int i = 0;
+            int xPrimed = (xr - 1) * PRIME_X;
+            for(int xi = xr - 1; xi <= xr + 1; xi++) {
+                int yPrimed = (yr - 1) * PRIME_Y;
+                for(int yi = yr - 1; yi <= yr + 1; yi++) {
+                    int zPrimed = (zr - 1) * PRIME_Z;
+                    for(int zi = zr - 1; zi <= zr + 1; zi++) {
+                        int hash = hash(seed, xPrimed, yPrimed, zPrimed);
+                        int idx = hash & (255 << 2);
+                        hashes[i] = hash;
+                        cellX[i] = xi;
+                        cellY[i] = yi;
+                        cellZ[i] = zi;
+                        jitterX[i] = RAND_VECS_3D[idx] * jitter;
+                        jitterY[i] = RAND_VECS_3D[idx | 1] * jitter;
+                        jitterZ[i] = RAND_VECS_3D[idx | 2] * jitter;
+                        i++;
+                        zPrimed += PRIME_Z;
+                    }
+                    yPrimed += PRIME_Y;
+                }
+                xPrimed += PRIME_X;
+            }
+        }
+        
+        private double centerX(int i, double frequency) {
+            return (cellX[i] + jitterX[i]) / frequency;
+        }
+        
+        private double centerY(int i, double frequency) {
+            return (cellY[i] + jitterY[i]) / frequency;
+        }
+        
+        private double centerZ(int i, double frequency) {
+            return (cellZ[i] + jitterZ[i]) / frequency;
+        }
+    }
+    
     public enum DistanceFunction {
         Euclidean,
         EuclideanSq,
@@ -17,6 +17,10 @@ public class ConstantSampler extends NoiseFunction {
         this.constant = constant;
     }
     
+    public double getConstant() {
+        return constant;
+    }
+    
     @Override
     public double getNoiseRaw(long seed, double x, double y) {
         return constant;
@@ -23,6 +23,7 @@ import com.dfsek.terra.addons.noise.paralithic.noise.SeedContext;
  */
 public class ExpressionFunction extends NoiseFunction {
     private final Expression expression;
+    private final ThreadLocal<Invocation> invocations = ThreadLocal.withInitial(Invocation::new);
     
     public ExpressionFunction(Map<String, Function> functions, String eq, Map<String, Double> vars) throws ParseException {
         Parser p = new Parser();
@@ -42,11 +43,37 @@ public class ExpressionFunction extends NoiseFunction {
     
     @Override
     public double getNoiseRaw(long seed, double x, double y) {
-        return expression.evaluate(new SeedContext(seed), x, 0, y);
+        Invocation invocation = invocations.get();
+        double[] args = invocation.args;
+        args[0] = x;
+        args[1] = 0;
+        args[2] = y;
+        return expression.evaluate(invocation.context(seed), args);
     }
     
     @Override
     public double getNoiseRaw(long seed, double x, double y, double z) {
-        return expression.evaluate(new SeedContext(seed), x, y, z);
+        Invocation invocation = invocations.get();
+        double[] args = invocation.args;
+        args[0] = x;
+        args[1] = y;
+        args[2] = z;
+        return expression.evaluate(invocation.context(seed), args);
+    }
+    
+    /**
+     * Arguments and seed context reused by every evaluation on a thread, so evaluating does not allocate. An expression
+     * never evaluates itself, so they are never used by two evaluations at once.
+     */
+    private static final class Invocation {
+        private final double[] args = new double[3];
+        private SeedContext context;
+        
+        private SeedContext context(long seed) {
+            if(context == null || context.getSeed() != seed) {
+                context = new SeedContext(seed);
+            }
+            return context;
+        }
     }
 }
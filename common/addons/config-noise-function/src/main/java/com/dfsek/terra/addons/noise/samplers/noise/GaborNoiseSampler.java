@@ -9,11 +9,23 @@ package com.dfsek.terra.addons.noise.samplers.noise;
 
 import net.jafama.FastMath;
 
+import java.util.Arrays;
+
 import com.dfsek.terra.addons.noise.samplers.noise.random.WhiteNoiseSampler;
 
 
+/**
+ * Sparse convolution noise made of Gabor kernels, one set of random impulses per cell.
+ * <p>
+ * Impulse sets are remembered in a small per-thread cache, since neighbouring samples share the same cells. With
+ * {@link #setTruncate(boolean) truncation} enabled, cells whose impulses are further away than the kernel radius, where
+ * the kernel has fallen to 5% of its peak, are skipped.
+ */
 public class GaborNoiseSampler extends NoiseFunction {
+    private static final int CACHED_CELLS = 64; // Power of two
+    
     private final WhiteNoiseSampler rand;
+    private final ThreadLocal<Cells> cells = ThreadLocal.withInitial(Cells::new);
     private double k = 1.0;
     private double a = 0.1;
     private double f0 = 0.625;
@@ -22,9 +34,13 @@ public class GaborNoiseSampler extends NoiseFunction {
     private double impulseDensity = (impulsesPerKernel / (Math.PI * kernelRadius * kernelRadius));
     private double impulsesPerCell = impulseDensity * kernelRadius * kernelRadius;
     private double g = FastMath.exp(-impulsesPerCell);
+    private double gaussian = -Math.PI * (a * a);
+    private double angular = 2 * Math.PI * f0;
     
     private double omega0 = Math.PI * 0.25;
     private boolean isotropic = true;
+    private boolean truncate = false;
+    private int version; // Incremented whenever cached impulse sets go stale
     
     
     public GaborNoiseSampler() {
@@ -36,9 +52,17 @@ public class GaborNoiseSampler extends NoiseFunction {
         impulseDensity = (impulsesPerKernel / (Math.PI * kernelRadius * kernelRadius));
         impulsesPerCell = impulseDensity * kernelRadius * kernelRadius;
         g = FastMath.exp(-impulsesPerCell);
+        gaussian = -Math.PI * (a * a);
+        version++;
+    }
+    
+    private Cells cells() {
+        Cells cells = this.cells.get();
+        if(cells.version != version) cells.clear(version);
+        return cells;
     }
     
-    private double gaborNoise(long seed, double x, double y) {
+    private double gaborNoise(Cells cells, long seed, double x, double y) {
         x /= kernelRadius;
         y /= kernelRadius;
         int xi = fastFloor(x);
@@ -48,14 +72,40 @@ public class GaborNoiseSampler extends NoiseFunction {
         double noise = 0;
         for(int dx = -1; dx <= 1; dx++) {
             for(int dz = -1; dz <= 1; dz++) {
-                noise += calculateCell(seed, xi + dx, yi + dz, xf - dx, yf - dz);
+                noise += calculateCell(cells, seed, xi + dx, yi + dz, xf - dx, yf - dz);
             }
         }
         return noise;
     }
     
-    private double calculateCell(long seed, int xi, int yi, double x, double y) {
-        long mashedSeed = murmur64(31L * xi + yi) + seed;
+    private double calculateCell(Cells cells, long seed, int xi, int yi, double x, double y) {
+        if(truncate && x * x + y * y >= 1) return 0; // Every impulse of the cell is beyond the kernel radius
+        
+        int slot = cell(cells, murmur64(31L * xi + yi) + seed);
+        int impulses = cells.counts[slot];
+        double[] weights = cells.weights[slot];
+        double[] cosines = cells.cosines[slot];
+        double[] sines = cells.sines[slot];
+        
+        x *= kernelRadius;
+        y *= kernelRadius;
+        double envelope = FastMath.exp(gaussian * (x * x + y * y)); // Impulses all sit at the cell origin
+        double noise = 0;
+        for(int i = 0; i < impulses; i++) {
+            noise += weights[i] * (k * (envelope * fastCos(angular * (x * cosines[i] + y * sines[i]))));
+        }
+        return noise;
+    }
+    
+    /**
+     * Finds the impulses of a cell in the cache, generating them if they are not there.
+     *
+     * @return Slot of the cell in the cache
+     */
+    private int cell(Cells cells, long mashedSeed) {
+        int slot = (int) mashedSeed & (CACHED_CELLS - 1);
+        if(cells.counts[slot] >= 0 && cells.keys[slot] == mashedSeed) return slot;
+        cells.keys[slot] = mashedSeed;
         
         double gaussianSource = (rand.getNoiseRaw(mashedSeed++) + 1) / 2;
         int impulses = 0;
@@ -64,17 +114,17 @@ public class GaborNoiseSampler extends NoiseFunction {
             gaussianSource *= (rand.getNoiseRaw(mashedSeed++) + 1) / 2;
         }
         
-        double noise = 0;
+        cells.reset(slot, impulses);
+        double[] weights = cells.weights[slot];
+        double[] cosines = cells.cosines[slot];
+        double[] sines = cells.sines[slot];
         for(int i = 0; i < impulses; i++) {
-            noise += rand.getNoiseRaw(mashedSeed++) * gabor(isotropic ? (rand.getNoiseRaw(mashedSeed++) + 1) * Math.PI : omega0,
-                                                            x * kernelRadius, y * kernelRadius);
+            weights[i] = rand.getNoiseRaw(mashedSeed++);
+            double omega = isotropic ? (rand.getNoiseRaw(mashedSeed++) + 1) * Math.PI : omega0;
+            cosines[i] = fastCos(omega);
+            sines[i] = fastSin(omega);
         }
-        return noise;
-    }
-    
-    private double gabor(double omega_0, double x, double y) {
-        return k * (FastMath.exp(-Math.PI * (a * a) * (x * x + y * y)) * fastCos(2 * Math.PI * f0 * (x * fastCos(omega_0) + y * fastSin(
-                omega_0))));
+        return slot;
     }
     
     public void setA(double a) {
@@ -88,6 +138,7 @@ public class GaborNoiseSampler extends NoiseFunction {
     
     public void setFrequency0(double f0) {
         this.f0 = f0;
+        this.angular = 2 * Math.PI * f0;
     }
     
     public void setImpulsesPerKernel(double impulsesPerKernel) {
@@ -97,19 +148,79 @@ public class GaborNoiseSampler extends NoiseFunction {
     
     public void setIsotropic(boolean isotropic) {
         this.isotropic = isotropic;
+        version++;
     }
     
     public void setRotation(double omega0) {
         this.omega0 = Math.PI * omega0;
+        version++;
+    }
+    
+    /**
+     * Whether to skip cells further away than the kernel radius. Much faster, at the cost of small discontinuities where
+     * a cell drops out.
+     */
+    public void setTruncate(boolean truncate) {
+        this.truncate = truncate;
     }
     
     @Override
     public double getNoiseRaw(long seed, double x, double z) {
-        return gaborNoise(seed, x, z);
+        return gaborNoise(cells(), seed, x, z);
     }
     
     @Override
     public double getNoiseRaw(long seed, double x, double y, double z) {
-        return gaborNoise(seed, x, z);
+        return gaborNoise(cells(), seed, x, z);
+    }
+    
+    @Override
+    protected void getNoiseRaw(long seed, double[] x, double[] y, double[] results, int count) {
+        Cells cells = cells();
+        for(int i = 0; i < count; i++) {
+            results[i] = gaborNoise(cells, seed, x[i] * frequency, y[i] * frequency);
+        }
+    }
+    
+    @Override
+    protected void getNoiseRaw(long seed, double[] x, double[] y, double[] z, double[] results, int count) {
+        Cells cells = cells();
+        for(int i = 0; i < count; i++) {
+            results[i] = gaborNoise(cells, seed, x[i] * frequency, z[i] * frequency);
+        }
+    }
+    
+    @Override
+    protected void getNoiseRawColumn(long seed, double x, double z, double minY, double stepY, double[] results, int offset,
+                                     int count) {
+        // Gabor noise is 2D, so the whole column has the same value
+        Arrays.fill(results, offset, offset + count, gaborNoise(cells(), seed, x * frequency, z * frequency));
+    }
+    
+    /**
+     * Direct mapped cache of the impulses of recently sampled cells, keyed by the seed each cell's impulses are generated
+     * from.
+     */
+    private static final class Cells {
+        private final long[] keys = new long[CACHED_CELLS];
+        private final int[] counts = new int[CACHED_CELLS];
+        private final double[][] weights = new double[CACHED_CELLS][0];
+        private final double[][] cosines = new double[CACHED_CELLS][0];
+        private final double[][] sines = new double[CACHED_CELLS][0];
+        private int version = -1;
+        
+        private void clear(int version) {
+            Arrays.fill(counts, -1);
+            this.version = version;
+        }
+        
+        private void reset(int slot, int impulses) {
+            if(weights[slot].length < impulses) {
+                weights[slot] = new double[impulses];
+                cosines[slot] = new double[impulses];
+                sines[slot] = new double[impulses];
+            }
+            counts[slot] = impulses;
+        }
     }
 }
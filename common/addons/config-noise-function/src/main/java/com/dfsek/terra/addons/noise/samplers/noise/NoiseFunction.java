@@ -144,7 +144,59 @@ public abstract class NoiseFunction implements NoiseSampler {
         return getNoiseRaw(seed + salt, x * frequency, y * frequency, z * frequency);
     }
     
+    @Override
+    public void noise(long seed, double[] x, double[] y, double[] results, int count) {
+        getNoiseRaw(seed + salt, x, y, results, count);
+    }
+    
+    @Override
+    public void noise(long seed, double[] x, double[] y, double[] z, double[] results, int count) {
+        getNoiseRaw(seed + salt, x, y, z, results, count);
+    }
+    
+    @Override
+    public void noiseColumn(long seed, double x, double z, double minY, double stepY, double[] results, int offset, int count) {
+        getNoiseRawColumn(seed + salt, x, z, minY, stepY, results, offset, count);
+    }
+    
     public abstract double getNoiseRaw(long seed, double x, double y);
     
     public abstract double getNoiseRaw(long seed, double x, double y, double z);
+    
+    /**
+     * Bulk counterpart to {@link #getNoiseRaw(long, double, double)}. Coordinates are <b>not</b> pre-scaled; they are
+     * multiplied by the frequency as they are read so results match the scalar path exactly.
+     * <p>
+     * Subclasses override this to keep the per-point call monomorphic.
+     */
+    protected void getNoiseRaw(long seed, double[] x, double[] y, double[] results, int count) {
+        for(int i = 0; i < count; i++) {
+            results[i] = getNoiseRaw(seed, x[i] * frequency, y[i] * frequency);
+        }
+    }
+    
+    /**
+     * Bulk counterpart to {@link #getNoiseRaw(long, double, double, double)}.
+     *
+     * @see #getNoiseRaw(long, double[], double[], double[], int)
+     */
+    protected void getNoiseRaw(long seed, double[] x, double[] y, double[] z, double[] results, int count) {
+        for(int i = 0; i < count; i++) {
+            results[i] = getNoiseRaw(seed, x[i] * frequency, y[i] * frequency, z[i] * frequency);
+        }
+    }
+    
+    /**
+     * Column counterpart to {@link #getNoiseRaw(long, double, double, double)}.
+     *
+     * @see #getNoiseRaw(long, double[], double[], double[], int)
+     */
+    protected void getNoiseRawColumn(long seed, double x, double z, double minY, double stepY, double[] results, int offset,
+                                     int count) {
+        double xs = x * frequency;
+        double zs = z * frequency;
+        for(int i = 0; i < count; i++) {
+            results[offset + i] = getNoiseRaw(seed, xs, (minY + i * stepY) * frequency, zs);
+        }
+    }
 }
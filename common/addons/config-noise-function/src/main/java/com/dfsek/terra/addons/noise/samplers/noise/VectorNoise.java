@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2020-2021 Polyhedral Development
+ *
+ * The Terra Core Addons are licensed under the terms of the MIT License. For more details,
+ * reference the LICENSE file in this module's root directory.
+ */
+
+package com.dfsek.terra.addons.noise.samplers.noise;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+
+/**
+ * Lane-wise versions of the helpers in {@link NoiseFunction}, for vectorized bulk kernels.
+ * <p>
+ * Every floating point operation is the same IEEE operation, in the same order, as its scalar counterpart, so kernels
+ * built from these return bit-identical results. Integer lattice values are kept in long lanes of the same shape as the
+ * double lanes, as conversions between shapes are not intrinsified on every JDK; only their low 32 bits are meaningful,
+ * which is all 32-bit wrapping multiplication, addition and xor depend on.
+ * <p>
+ * C2 stops inlining once a method grows too large, and a vector which escapes an un-inlined call is boxed, so kernels are
+ * split into short loops over whole arrays, passing intermediate values through {@link Scratch} arrays. Only use this
+ * class if {@link VectorSupport#isEnabled()}.
+ */
+public final class VectorNoise {
+    public static final VectorSpecies<Double> DOUBLE = DoubleVector.SPECIES_PREFERRED;
+    public static final VectorSpecies<Long> LONG = VectorSpecies.of(long.class, DOUBLE.vectorShape());
+    
+    // Adding 1.5 * 2^52 rounds any double below 2^51 in magnitude to an integer held in the low mantissa bits
+    private static final double MAGIC = 0x1.8p52;
+    private static final long MAGIC_BITS = Double.doubleToRawLongBits(MAGIC);
+    private static final double INT_RANGE = 0x1p31;
+    
+    private static final int LANES = DOUBLE.length();
+    
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+    
+    private VectorNoise() {
+    
+    }
+    
+    /**
+     * @return This thread's scratch arrays, with room for at least {@code count} values.
+     */
+    public static Scratch scratch(int count) {
+        Scratch scratch = SCRATCH.get();
+        scratch.ensureCapacity(count);
+        return scratch;
+    }
+    
+    /**
+     * Scale coordinates along one axis, and split them into the primed lattice coordinate and the distance from it.
+     *
+     * @return Whether every coordinate was {@link #inRange(DoubleVector) in range}. If not, the outputs are incomplete.
+     */
+    public static boolean lattice(double[] coordinates, double frequency, int prime, double[] distance, long[] primed, int count) {
+        for(int i = 0; i < count; i += LANES) {
+            DoubleVector coordinate = DoubleVector.fromArray(DOUBLE, coordinates, i).mul(frequency);
+            if(!inRange(coordinate)) return false;
+            DoubleVector floor = fastFloor(coordinate);
+            coordinate.sub(floor).intoArray(distance, i);
+            toLong(floor).mul(prime).intoArray(primed, i);
+        }
+        return true;
+    }
+    
+    public static void interpHermite(double[] t, double[] out, int count) {
+        for(int i = 0; i < count; i += LANES) {
+            interpHermite(DoubleVector.fromArray(DOUBLE, t, i)).intoArray(out, i);
+        }
+    }
+    
+    public static void interpQuintic(double[] t, double[] out, int count) {
+        for(int i = 0; i < count; i += LANES) {
+            interpQuintic(DoubleVector.fromArray(DOUBLE, t, i)).intoArray(out, i);
+        }
+    }
+    
+    /**
+     * {@code out[outOffset + i] = lerp(a[i], b[i], t[i])}
+     */
+    public static void lerp(double[] a, double[] b, double[] t, double[] out, int outOffset, int count) {
+        for(int i = 0; i < count; i += LANES) {
+            lerp(DoubleVector.fromArray(DOUBLE, a, i), DoubleVector.fromArray(DOUBLE, b, i), DoubleVector.fromArray(DOUBLE, t, i))
+                    .intoArray(out, outOffset + i);
+        }
+    }
+    
+    public static void multiply(double[] values, double factor, int offset, int count) {
+        for(int i = 0; i < count; i += LANES) {
+            DoubleVector.fromArray(DOUBLE, values, offset + i).mul(factor).intoArray(values, offset + i);
+        }
+    }
+    
+    /**
+     * Coordinates {@code minY + i * stepY} along a column, scaled by the frequency.
+     */
+    public static void column(double minY, double stepY, double frequency, double[] out, int count) {
+        DoubleVector iota = iota();
+        for(int i = 0; i < count; i += LANES) {
+            iota.add(i).mul(stepY).add(minY).mul(frequency).intoArray(out, i);
+        }
+    }
+    
+    /**
+     * Whether every lane can go through {@link #fastFloor(DoubleVector)}, ie. is a number which fits in an int.
+     * Kernels leave anything else to the scalar code.
+     */
+    public static boolean inRange(DoubleVector f) {
+        return f.abs().compare(VectorOperators.LT, INT_RANGE).allTrue();
+    }
+    
+    /**
+     * Lane indices, for building coordinates along a column.
+     */
+    public static DoubleVector iota() {
+        return (DoubleVector) LongVector.zero(LONG).addIndex(1).convert(VectorOperators.L2D, 0);
+    }
+    
+    /**
+     * {@link NoiseFunction#fastFloor(double)} as a double, including its quirk of flooring negative integers one lower.
+     * Lanes must be {@link #inRange(DoubleVector)}.
+     */
+    public static DoubleVector fastFloor(DoubleVector f) {
+        DoubleVector rounded = f.add(MAGIC).sub(MAGIC);
+        DoubleVector floor = rounded.sub(1).blend(rounded, rounded.compare(VectorOperators.LE, f));
+        DoubleVector ceiling = rounded.add(1).blend(rounded, rounded.compare(VectorOperators.GE, f));
+        VectorMask<Double> negative = f.compare(VectorOperators.GE, 0).not(); // truncation rounds these up
+        return floor.blend(ceiling.sub(1), negative);
+    }
+    
+    /**
+     * Integral lanes, as returned by {@link #fastFloor(DoubleVector)}, to long lanes.
+     */
+    public static LongVector toLong(DoubleVector integral) {
+        return integral.add(MAGIC).reinterpretAsLongs().sub(MAGIC_BITS);
+    }
+    
+    /**
+     * The low 32 bits of each lane, as an int converted to double.
+     */
+    public static DoubleVector intToDouble(LongVector value) {
+        return (DoubleVector) signExtend(value).convert(VectorOperators.L2D, 0);
+    }
+    
+    /**
+     * Sign extend the low 32 bits of each lane, so arithmetic shifts behave like they do on ints.
+     */
+    public static LongVector signExtend(LongVector value) {
+        return value.lanewise(VectorOperators.LSHL, 32).lanewise(VectorOperators.ASHR, 32);
+    }
+    
+    public static LongVector hash(int seed, LongVector xPrimed, LongVector yPrimed) {
+        return xPrimed.lanewise(VectorOperators.XOR, seed).lanewise(VectorOperators.XOR, yPrimed).mul(0x27d4eb2d);
+    }
+    
+    public static LongVector hash(int seed, LongVector xPrimed, LongVector yPrimed, LongVector zPrimed) {
+        return xPrimed.lanewise(VectorOperators.XOR, seed)
+                      .lanewise(VectorOperators.XOR, yPrimed)
+                      .lanewise(VectorOperators.XOR, zPrimed)
+                      .mul(0x27d4eb2d);
+    }
+    
+    public static DoubleVector lerp(DoubleVector a, DoubleVector b, DoubleVector t) {
+        return a.add(t.mul(b.sub(a)));
+    }
+    
+    public static DoubleVector interpHermite(DoubleVector t) {
+        return t.mul(t).mul(t.mul(-2).add(3));
+    }
+    
+    public static DoubleVector interpQuintic(DoubleVector t) {
+        return t.mul(t).mul(t).mul(t.mul(t.mul(6).sub(15)).add(10));
+    }
+    
+    /**
+     * Per-thread intermediate arrays for kernels. Slots are only valid within a single kernel call; kernels use the lowest
+     * slots, column wrappers the highest.
+     */
+    public static final class Scratch {
+        private static final int DOUBLE_SLOTS = 16;
+        private static final int LONG_SLOTS = 4;
+        
+        private final double[][] doubles = new double[DOUBLE_SLOTS][0];
+        private final long[][] longs = new long[LONG_SLOTS][0];
+        
+        private void ensureCapacity(int count) {
+            if(doubles[0].length >= count) return;
+            int capacity = Math.max(count, doubles[0].length * 2);
+            for(int i = 0; i < DOUBLE_SLOTS; i++) {
+                doubles[i] = new double[capacity];
+            }
+            for(int i = 0; i < LONG_SLOTS; i++) {
+                longs[i] = new long[capacity];
+            }
+        }
+        
+        public double[] doubles(int slot) {
+            return doubles[slot];
+        }
+        
+        public long[] longs(int slot) {
+            return longs[slot];
+        }
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2020-2021 Polyhedral Development
+ *
+ * The Terra Core Addons are licensed under the terms of the MIT License. For more details,
+ * reference the LICENSE file in this module's root directory.
+ */
+
+package com.dfsek.terra.addons.noise.samplers.noise;
+
+import jdk.incubator.vector.DoubleVector;
+
+
+/**
+ * Decides whether bulk samples use the kernels in {@link VectorNoise}.
+ * <p>
+ * The Vector API is incubating, so it is only available if the JVM is started with
+ * {@code --add-modules jdk.incubator.vector}. Vectorized kernels can also be turned off with
+ * {@code -Dterra.noise.vector=false}. Either way, samplers return exactly the same values.
+ */
+public final class VectorSupport {
+    private static final boolean ENABLED = detect();
+    
+    private VectorSupport() {
+    
+    }
+    
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+    
+    private static boolean detect() {
+        if(!Boolean.parseBoolean(System.getProperty("terra.noise.vector", "true"))) return false;
+        // Servers must be started with --add-modules jdk.incubator.vector, otherwise samplers fall back to their scalar loops
+        if(ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) return false;
+        try {
+            return Probe.lanes() >= 2;
+        } catch(LinkageError e) {
+            return false;
+        }
+    }
+    
+    // Separate class so the Vector API is only resolved once it is known to be present
+    private static final class Probe {
+        private static int lanes() {
+            return DoubleVector.SPECIES_PREFERRED.length();
+        }
+    }
+}
@@ -28,6 +28,8 @@ public class BrownianMotionSampler extends FractalNoiseFunction {
             x *= lacunarity;
             y *= lacunarity;
             amp *= gain;
+            
+            if(canExit(sum, amp, i)) break;
         }
         
         return sum;
@@ -47,8 +49,28 @@ public class BrownianMotionSampler extends FractalNoiseFunction {
             y *= lacunarity;
             z *= lacunarity;
             amp *= gain;
+            
+            if(canExit(sum, amp, i)) break;
         }
         
         return sum;
     }
+    
+    @Override
+    protected void accumulateOctave2D(double[] noise, double[] amp, double[] sum, int offset, int count) {
+        for(int i = 0; i < count; i++) {
+            double n = noise[i];
+            sum[offset + i] += n * amp[i];
+            amp[i] *= lerp(1.0, fastMin(n + 1, 2) * 0.5, weightedStrength);
+        }
+    }
+    
+    @Override
+    protected void accumulateOctave3D(double[] noise, double[] amp, double[] sum, int offset, int count) {
+        for(int i = 0; i < count; i++) {
+            double n = noise[i];
+            sum[offset + i] += n * amp[i];
+            amp[i] *= lerp(1.0, (n + 1) * 0.5, weightedStrength);
+        }
+    }
 }
@@ -7,11 +7,16 @@
 
 package com.dfsek.terra.addons.noise.samplers.noise.fractal;
 
+import java.util.Arrays;
+
 import com.dfsek.terra.addons.noise.samplers.noise.NoiseFunction;
 import com.dfsek.terra.api.noise.NoiseSampler;
 
 
 public abstract class FractalNoiseFunction extends NoiseFunction {
+    // Slack on the remaining amplitude bounds, so rounding while summing cannot move a retired point across the threshold
+    private static final double BOUND_SLACK = 1 + 0x1p-20;
+    
     protected final NoiseSampler input;
     protected double fractalBounding = 1 / 1.75;
     protected int octaves = 3;
@@ -19,6 +24,15 @@ public abstract class FractalNoiseFunction extends NoiseFunction {
     protected double lacunarity = 2.0d;
     protected double weightedStrength = 0.0d;
     
+    private boolean earlyExit = false;
+    private double earlyExitThreshold = 0;
+    /**
+     * Bound on how far octaves {@code o} onward can move the sum, per unit of amplitude entering octave {@code o}.
+     */
+    private double[] remainingBounds = new double[0];
+    
+    private final ThreadLocal<Batch> batches = ThreadLocal.withInitial(Batch::new);
+    
     public FractalNoiseFunction(NoiseSampler input) {
         this.input = input;
         frequency = 1;
@@ -33,6 +47,20 @@ public abstract class FractalNoiseFunction extends NoiseFunction {
             amp *= gain;
         }
         fractalBounding = 1 / ampFractal;
+        calculateRemainingBounds();
+    }
+    
+    /**
+     * Each octave adds at most its amplitude while the input is within [-1, 1], then scales the amplitude by the weighting
+     * factor, at most {@code max(1, |1 - weightedStrength|)} in magnitude, and by the gain.
+     */
+    private void calculateRemainingBounds() {
+        double decay = fastAbs(gain) * Math.max(1, fastAbs(1 - weightedStrength));
+        double[] bounds = new double[Math.max(octaves, 0) + 1];
+        for(int o = octaves - 1; o >= 0; o--) {
+            bounds[o] = (1 + decay * bounds[o + 1]) * BOUND_SLACK;
+        }
+        remainingBounds = bounds;
     }
     
     public void setGain(double gain) {
@@ -51,5 +79,168 @@ public abstract class FractalNoiseFunction extends NoiseFunction {
     
     public void setWeightedStrength(double weightedStrength) {
         this.weightedStrength = weightedStrength;
+        calculateRemainingBounds();
+    }
+    
+    /**
+     * Stop sampling octaves for a point once the remaining octaves cannot move its sum across {@code threshold}, assuming
+     * the input samples values within [-1, 1]. Results then keep their side of the threshold, but not their exact value.
+     */
+    public void setEarlyExitThreshold(double threshold) {
+        this.earlyExit = true;
+        this.earlyExitThreshold = threshold;
+    }
+    
+    /**
+     * Whether a point may skip the octaves after {@code octave}.
+     *
+     * @param sum Sum after {@code octave}
+     * @param amp Amplitude entering the next octave
+     */
+    protected boolean canExit(double sum, double amp, int octave) {
+        return earlyExit && fastAbs(sum - earlyExitThreshold) > fastAbs(amp) * remainingBounds[octave + 1];
+    }
+    
+    /**
+     * Accumulate a single octave of 2D noise for a batch of points.
+     *
+     * @param noise Raw input noise for this octave
+     * @param amp   Per-point amplitude, to be updated with the octave's weighting (gain is applied afterwards)
+     * @param sum   Per-point running sum
+     */
+    protected abstract void accumulateOctave2D(double[] noise, double[] amp, double[] sum, int offset, int count);
+    
+    /**
+     * Accumulate a single octave of 3D noise for a batch of points.
+     *
+     * @see #accumulateOctave2D(double[], double[], double[], int, int)
+     */
+    protected abstract void accumulateOctave3D(double[] noise, double[] amp, double[] sum, int offset, int count);
+    
+    @Override
+    protected void getNoiseRaw(long seed, double[] x, double[] y, double[] results, int count) {
+        Batch batch = batches.get().reset(count);
+        for(int i = 0; i < count; i++) {
+            batch.xs[i] = x[i] * frequency;
+            batch.ys[i] = y[i] * frequency;
+        }
+        octaves(seed, batch, false, results, 0, count);
+    }
+    
+    @Override
+    protected void getNoiseRaw(long seed, double[] x, double[] y, double[] z, double[] results, int count) {
+        Batch batch = batches.get().reset(count);
+        for(int i = 0; i < count; i++) {
+            batch.xs[i] = x[i] * frequency;
+            batch.ys[i] = y[i] * frequency;
+            batch.zs[i] = z[i] * frequency;
+        }
+        octaves(seed, batch, true, results, 0, count);
+    }
+    
+    @Override
+    protected void getNoiseRawColumn(long seed, double x, double z, double minY, double stepY, double[] results, int offset,
+                                     int count) {
+        Batch batch = batches.get().reset(count);
+        Arrays.fill(batch.xs, 0, count, x * frequency);
+        Arrays.fill(batch.zs, 0, count, z * frequency);
+        for(int i = 0; i < count; i++) {
+            batch.ys[i] = (minY + i * stepY) * frequency;
+        }
+        octaves(seed, batch, true, results, offset, count);
+    }
+    
+    /**
+     * Sample every octave for the points in a batch. Points which exit early are written to the results and removed from
+     * the batch, so following octaves are only sampled for the rest.
+     */
+    private void octaves(long seed, Batch batch, boolean threeDimensional, double[] results, int offset, int count) {
+        double[] xs = batch.xs;
+        double[] ys = batch.ys;
+        double[] zs = batch.zs;
+        double[] amp = batch.amp;
+        double[] sum = batch.sum;
+        Arrays.fill(amp, 0, count, fractalBounding);
+        
+        int active = count;
+        for(int o = 0; o < octaves && active > 0; o++) {
+            if(threeDimensional) {
+                input.noise(seed++, xs, ys, zs, batch.noise, active);
+                accumulateOctave3D(batch.noise, amp, sum, 0, active);
+            } else {
+                input.noise(seed++, xs, ys, batch.noise, active);
+                accumulateOctave2D(batch.noise, amp, sum, 0, active);
+            }
+            
+            for(int i = 0; i < active; i++) {
+                xs[i] *= lacunarity;
+                ys[i] *= lacunarity;
+                amp[i] *= gain;
+            }
+            if(threeDimensional) {
+                for(int i = 0; i < active; i++) {
+                    zs[i] *= lacunarity;
+                }
+            }
+            
+            if(earlyExit) active = retire(batch, o, results, offset, active);
+        }
+        
+        for(int i = 0; i < active; i++) {
+            results[offset + batch.index[i]] = sum[i];
+        }
+    }
+    
+    /**
+     * Write out points which can exit after {@code octave}, and compact the rest to the front of the batch.
+     *
+     * @return Number of points still active.
+     */
+    private int retire(Batch batch, int octave, double[] results, int offset, int active) {
+        int kept = 0;
+        for(int i = 0; i < active; i++) {
+            if(canExit(batch.sum[i], batch.amp[i], octave)) {
+                results[offset + batch.index[i]] = batch.sum[i];
+            } else {
+                batch.xs[kept] = batch.xs[i];
+                batch.ys[kept] = batch.ys[i];
+                batch.zs[kept] = batch.zs[i];
+                batch.amp[kept] = batch.amp[i];
+                batch.sum[kept] = batch.sum[i];
+                batch.index[kept] = batch.index[i];
+                kept++;
+            }
+        }
+        return kept;
+    }
+    
+    /**
+     * Per-thread working arrays. Per sampler, as the input may be another fractal sampler sampling in bulk.
+     */
+    private static final class Batch {
+        private double[] xs = new double[0];
+        private double[] ys = new double[0];
+        private double[] zs = new double[0];
+        private double[] noise = new double[0];
+        private double[] amp = new double[0];
+        private double[] sum = new double[0];
+        private int[] index = new int[0];
+        
+        private Batch reset(int count) {
+            if(xs.length < count) {
+                xs = new double[count];
+                ys = new double[count];
+                zs = new double[count];
+                noise = new double[count];
+                amp = new double[count];
+                sum = new double[count];
+                index = new int[count];
+            }
+            Arrays.fill(sum, 0, count, 0);
+            for(int i = 0; i < count; i++) {
+                index[i] = i;
+            }
+            return this;
+        }
     }
 }
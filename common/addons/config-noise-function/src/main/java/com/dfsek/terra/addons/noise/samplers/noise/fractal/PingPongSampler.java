@@ -40,6 +40,8 @@ public class PingPongSampler extends FractalNoiseFunction {
             x *= lacunarity;
             y *= lacunarity;
             amp *= gain;
+            
+            if(canExit(sum, amp, i)) break;
         }
         
         return sum;
@@ -59,8 +61,24 @@ public class PingPongSampler extends FractalNoiseFunction {
             y *= lacunarity;
             z *= lacunarity;
             amp *= gain;
+            
+            if(canExit(sum, amp, i)) break;
         }
         
         return sum;
     }
+    
+    @Override
+    protected void accumulateOctave2D(double[] noise, double[] amp, double[] sum, int offset, int count) {
+        accumulateOctave3D(noise, amp, sum, offset, count);
+    }
+    
+    @Override
+    protected void accumulateOctave3D(double[] noise, double[] amp, double[] sum, int offset, int count) {
+        for(int i = 0; i < count; i++) {
+            double n = pingPong((noise[i] + 1) * pingPongStrength);
+            sum[offset + i] += (n - 0.5) * 2 * amp[i];
+            amp[i] *= lerp(1.0, n, weightedStrength);
+        }
+    }
 }
@@ -29,6 +29,8 @@ public class RidgedFractalSampler extends FractalNoiseFunction {
             x *= lacunarity;
             y *= lacunarity;
             amp *= gain;
+            
+            if(canExit(sum, amp, i)) break;
         }
         
         return sum;
@@ -48,8 +50,24 @@ public class RidgedFractalSampler extends FractalNoiseFunction {
             y *= lacunarity;
             z *= lacunarity;
             amp *= gain;
+            
+            if(canExit(sum, amp, i)) break;
         }
         
         return sum;
     }
+    
+    @Override
+    protected void accumulateOctave2D(double[] noise, double[] amp, double[] sum, int offset, int count) {
+        accumulateOctave3D(noise, amp, sum, offset, count);
+    }
+    
+    @Override
+    protected void accumulateOctave3D(double[] noise, double[] amp, double[] sum, int offset, int count) {
+        for(int i = 0; i < count; i++) {
+            double n = fastAbs(noise[i]);
+            sum[offset + i] += (n * -2 + 1) * amp[i];
+            amp[i] *= lerp(1.0, 1 - n, weightedStrength);
+        }
+    }
 }
@@ -12,9 +12,47 @@ package com.dfsek.terra.addons.noise.samplers.noise.simplex;
  */
 public class OpenSimplex2SSampler extends SimplexStyleSampler {
     @Override
-    @SuppressWarnings("NumericOverflow")
     public double getNoiseRaw(long sl, double x, double y) {
+        return noise2((int) sl, x, y);
+    }
+    
+    @Override
+    public double getNoiseRaw(long sl, double x, double y, double z) {
+        return noise3((int) sl, x, y, z);
+    }
+    
+    @Override
+    protected void getNoiseRaw(long sl, double[] x, double[] y, double[] results, int count) {
+        int seed = (int) sl;
+        double frequency = this.frequency;
+        for(int i = 0; i < count; i++) {
+            results[i] = noise2(seed, x[i] * frequency, y[i] * frequency);
+        }
+    }
+    
+    @Override
+    protected void getNoiseRaw(long sl, double[] x, double[] y, double[] z, double[] results, int count) {
         int seed = (int) sl;
+        double frequency = this.frequency;
+        for(int i = 0; i < count; i++) {
+            results[i] = noise3(seed, x[i] * frequency, y[i] * frequency, z[i] * frequency);
+        }
+    }
+    
+    @Override
+    protected void getNoiseRawColumn(long sl, double x, double z, double minY, double stepY, double[] results, int offset,
+                                     int count) {
+        int seed = (int) sl;
+        double frequency = this.frequency;
+        double xs = x * frequency;
+        double zs = z * frequency;
+        for(int i = 0; i < count; i++) {
+            results[offset + i] = noise3(seed, xs, (minY + i * stepY) * frequency, zs);
+        }
+    }
+    
+    @SuppressWarnings("NumericOverflow")
+    private static double noise2(int seed, double x, double y) {
         // 2D OpenSimplex2S case is a modified 2D simplex noise.
         
         final double SQRT3 = 1.7320508075688772935274463415059;
@@ -119,10 +157,8 @@ public class OpenSimplex2SSampler extends SimplexStyleSampler {
         return value * 18.24196194486065;
     }
     
-    @Override
     @SuppressWarnings("NumericOverflow")
-    public double getNoiseRaw(long sl, double x, double y, double z) {
-        int seed = (int) sl;
+    private static double noise3(int seed, double x, double y, double z) {
         // 3D OpenSimplex2S case uses two offset rotated cube grids.
         final double R3 = (2.0 / 3.0);
         double r = (x + y + z) * R3; // Rotation, not skew
@@ -15,7 +15,45 @@ public class OpenSimplex2Sampler extends SimplexStyleSampler {
     
     @Override
     public double getNoiseRaw(long sl, double x, double y) {
+        return noise2((int) sl, x, y);
+    }
+    
+    @Override
+    public double getNoiseRaw(long sl, double x, double y, double z) {
+        return noise3((int) sl, x, y, z);
+    }
+    
+    @Override
+    protected void getNoiseRaw(long sl, double[] x, double[] y, double[] results, int count) {
+        int seed = (int) sl;
+        double frequency = this.frequency;
+        for(int i = 0; i < count; i++) {
+            results[i] = noise2(seed, x[i] * frequency, y[i] * frequency);
+        }
+    }
+    
+    @Override
+    protected void getNoiseRaw(long sl, double[] x, double[] y, double[] z, double[] results, int count) {
         int seed = (int) sl;
+        double frequency = this.frequency;
+        for(int i = 0; i < count; i++) {
+            results[i] = noise3(seed, x[i] * frequency, y[i] * frequency, z[i] * frequency);
+        }
+    }
+    
+    @Override
+    protected void getNoiseRawColumn(long sl, double x, double z, double minY, double stepY, double[] results, int offset,
+                                     int count) {
+        int seed = (int) sl;
+        double frequency = this.frequency;
+        double xs = x * frequency;
+        double zs = z * frequency;
+        for(int i = 0; i < count; i++) {
+            results[offset + i] = noise3(seed, xs, (minY + i * stepY) * frequency, zs);
+        }
+    }
+    
+    private static double noise2(int seed, double x, double y) {
         // 2D OpenSimplex2 case uses the same algorithm as ordinary Simplex.
         final double G2 = (3 - SQRT3) / 6;
         
@@ -74,9 +112,7 @@ public class OpenSimplex2Sampler extends SimplexStyleSampler {
         return (n0 + n1 + n2) * 99.83685446303647f;
     }
     
-    @Override
-    public double getNoiseRaw(long sl, double x, double y, double z) {
-        int seed = (int) sl;
+    private static double noise3(int seed, double x, double y, double z) {
         // 3D OpenSimplex2Sampler case uses two offset rotated cube grids.
         final double R3 = (2.0 / 3.0);
         double r = (x + y + z) * R3; // Rotation, not skew
@@ -7,6 +7,16 @@
 
 package com.dfsek.terra.addons.noise.samplers.noise.simplex;
 
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+
+import java.util.Arrays;
+
+import com.dfsek.terra.addons.noise.samplers.noise.VectorNoise;
+import com.dfsek.terra.addons.noise.samplers.noise.VectorSupport;
+
+
 /**
  * NoiseSampler implementation to provide Perlin Noise.
  */
@@ -71,4 +81,174 @@ public class PerlinSampler extends SimplexStyleSampler {
         
         return lerp(yf0, yf1, zs) * 0.964921414852142333984375;
     }
+    
+    @Override
+    protected void getNoiseRaw(long sl, double[] x, double[] y, double[] results, int count) {
+        double frequency = this.frequency;
+        int i = VectorSupport.isEnabled() ? Vectorized.noise((int) sl, frequency, x, y, results, 0, count) : 0;
+        for(; i < count; i++) {
+            results[i] = getNoiseRaw(sl, x[i] * frequency, y[i] * frequency);
+        }
+    }
+    
+    @Override
+    protected void getNoiseRaw(long sl, double[] x, double[] y, double[] z, double[] results, int count) {
+        double frequency = this.frequency;
+        int i = VectorSupport.isEnabled() ? Vectorized.noise((int) sl, frequency, x, y, z, results, 0, count) : 0;
+        for(; i < count; i++) {
+            results[i] = getNoiseRaw(sl, x[i] * frequency, y[i] * frequency, z[i] * frequency);
+        }
+    }
+    
+    @Override
+    protected void getNoiseRawColumn(long sl, double x, double z, double minY, double stepY, double[] results, int offset,
+                                     int count) {
+        double frequency = this.frequency;
+        double xs = x * frequency;
+        double zs = z * frequency;
+        int i = VectorSupport.isEnabled()
+                ? Vectorized.noiseColumn((int) sl, frequency, xs, zs, minY, stepY, results, offset, count)
+                : 0;
+        for(; i < count; i++) {
+            results[offset + i] = getNoiseRaw(sl, xs, (minY + i * stepY) * frequency, zs);
+        }
+    }
+    
+    /**
+     * Vector API kernels, lane-for-lane identical to the scalar methods. Each returns how many values it computed; the
+     * remainder is left to the scalar path, as is everything if any coordinate is out of int range.
+     */
+    private static final class Vectorized {
+        private static int noise(int seed, double frequency, double[] x, double[] y, double[] results, int offset, int count) {
+            int bound = VectorNoise.DOUBLE.loopBound(count);
+            VectorNoise.Scratch scratch = VectorNoise.scratch(bound);
+            double[] xd0 = scratch.doubles(0);
+            double[] yd0 = scratch.doubles(1);
+            long[] x0 = scratch.longs(0);
+            long[] y0 = scratch.longs(1);
+            if(!VectorNoise.lattice(x, frequency, PRIME_X, xd0, x0, bound) ||
+               !VectorNoise.lattice(y, frequency, PRIME_Y, yd0, y0, bound)) return 0;
+            double[] xs = scratch.doubles(2);
+            double[] ys = scratch.doubles(3);
+            VectorNoise.interpQuintic(xd0, xs, bound);
+            VectorNoise.interpQuintic(yd0, ys, bound);
+            
+            double[] xf0 = scratch.doubles(4);
+            double[] xf1 = scratch.doubles(5);
+            double[] corner = scratch.doubles(6);
+            long[] hashes = scratch.longs(2);
+            gradCoord(seed, x0, 0, y0, 0, xd0, yd0, xf0, hashes, bound);
+            gradCoord(seed, x0, 1, y0, 0, xd0, yd0, corner, hashes, bound);
+            VectorNoise.lerp(xf0, corner, xs, xf0, 0, bound);
+            gradCoord(seed, x0, 0, y0, 1, xd0, yd0, xf1, hashes, bound);
+            gradCoord(seed, x0, 1, y0, 1, xd0, yd0, corner, hashes, bound);
+            VectorNoise.lerp(xf1, corner, xs, xf1, 0, bound);
+            
+            VectorNoise.lerp(xf0, xf1, ys, results, offset, bound);
+            VectorNoise.multiply(results, 1.4247691104677813, offset, bound);
+            return bound;
+        }
+        
+        private static int noise(int seed, double frequency, double[] x, double[] y, double[] z, double[] results, int offset,
+                                 int count) {
+            int bound = VectorNoise.DOUBLE.loopBound(count);
+            VectorNoise.Scratch scratch = VectorNoise.scratch(bound);
+            double[] xd0 = scratch.doubles(0);
+            double[] yd0 = scratch.doubles(1);
+            double[] zd0 = scratch.doubles(2);
+            long[] x0 = scratch.longs(0);
+            long[] y0 = scratch.longs(1);
+            long[] z0 = scratch.longs(2);
+            if(!VectorNoise.lattice(x, frequency, PRIME_X, xd0, x0, bound) ||
+               !VectorNoise.lattice(y, frequency, PRIME_Y, yd0, y0, bound) ||
+               !VectorNoise.lattice(z, frequency, PRIME_Z, zd0, z0, bound)) return 0;
+            double[] xs = scratch.doubles(3);
+            double[] ys = scratch.doubles(4);
+            double[] zs = scratch.doubles(5);
+            VectorNoise.interpQuintic(xd0, xs, bound);
+            VectorNoise.interpQuintic(yd0, ys, bound);
+            VectorNoise.interpQuintic(zd0, zs, bound);
+            
+            double[] xf00 = scratch.doubles(6);
+            double[] xf10 = scratch.doubles(7);
+            double[] xf01 = scratch.doubles(8);
+            double[] xf11 = scratch.doubles(9);
+            double[] corner = scratch.doubles(10);
+            long[] hashes = scratch.longs(3);
+            gradCoord(seed, x0, 0, y0, 0, z0, 0, xd0, yd0, zd0, xf00, hashes, bound);
+            gradCoord(seed, x0, 1, y0, 0, z0, 0, xd0, yd0, zd0, corner, hashes, bound);
+            VectorNoise.lerp(xf00, corner, xs, xf00, 0, bound);
+            gradCoord(seed, x0, 0, y0, 1, z0, 0, xd0, yd0, zd0, xf10, hashes, bound);
+            gradCoord(seed, x0, 1, y0, 1, z0, 0, xd0, yd0, zd0, corner, hashes, bound);
+            VectorNoise.lerp(xf10, corner, xs, xf10, 0, bound);
+            gradCoord(seed, x0, 0, y0, 0, z0, 1, xd0, yd0, zd0, xf01, hashes, bound);
+            gradCoord(seed, x0, 1, y0, 0, z0, 1, xd0, yd0, zd0, corner, hashes, bound);
+            VectorNoise.lerp(xf01, corner, xs, xf01, 0, bound);
+            gradCoord(seed, x0, 0, y0, 1, z0, 1, xd0, yd0, zd0, xf11, hashes, bound);
+            gradCoord(seed, x0, 1, y0, 1, z0, 1, xd0, yd0, zd0, corner, hashes, bound);
+            VectorNoise.lerp(xf11, corner, xs, xf11, 0, bound);
+            
+            VectorNoise.lerp(xf00, xf10, ys, xf00, 0, bound);
+            VectorNoise.lerp(xf01, xf11, ys, xf01, 0, bound);
+            VectorNoise.lerp(xf00, xf01, zs, results, offset, bound);
+            VectorNoise.multiply(results, 0.964921414852142333984375, offset, bound);
+            return bound;
+        }
+        
+        private static int noiseColumn(int seed, double frequency, double xs, double zs, double minY, double stepY,
+                                       double[] results, int offset, int count) {
+            int bound = VectorNoise.DOUBLE.loopBound(count);
+            VectorNoise.Scratch scratch = VectorNoise.scratch(bound);
+            double[] x = scratch.doubles(13);
+            double[] y = scratch.doubles(14);
+            double[] z = scratch.doubles(15);
+            Arrays.fill(x, 0, bound, xs);
+            VectorNoise.column(minY, stepY, frequency, y, bound);
+            Arrays.fill(z, 0, bound, zs);
+            return noise(seed, 1, x, y, z, results, offset, bound); // already scaled, and multiplying by 1 is exact
+        }
+        
+        /**
+         * Gradient of the corner {@code cx, cy} cells above the lattice point, dotted with the distance from it. Hashes are
+         * vectorized; gradients are looked up and dotted in scalar code, as gathers are slower than scalar loads here.
+         */
+        private static void gradCoord(int seed, long[] x0, int cx, long[] y0, int cy, double[] xd0, double[] yd0, double[] out,
+                                      long[] hashes, int count) {
+            int dx = cx * PRIME_X;
+            int dy = cy * PRIME_Y;
+            for(int i = 0; i < count; i += VectorNoise.DOUBLE.length()) {
+                LongVector xPrimed = LongVector.fromArray(VectorNoise.LONG, x0, i).add(dx);
+                LongVector yPrimed = LongVector.fromArray(VectorNoise.LONG, y0, i).add(dy);
+                LongVector hash = VectorNoise.hash(seed, xPrimed, yPrimed);
+                hash.lanewise(VectorOperators.XOR, VectorNoise.signExtend(hash).lanewise(VectorOperators.ASHR, 15))
+                    .lanewise(VectorOperators.AND, 127 << 1)
+                    .intoArray(hashes, i);
+            }
+            for(int i = 0; i < count; i++) {
+                int hash = (int) hashes[i];
+                out[i] = (xd0[i] - cx) * GRADIENTS_2_D[hash] + (yd0[i] - cy) * GRADIENTS_2_D[hash | 1];
+            }
+        }
+        
+        private static void gradCoord(int seed, long[] x0, int cx, long[] y0, int cy, long[] z0, int cz, double[] xd0, double[] yd0,
+                                      double[] zd0, double[] out, long[] hashes, int count) {
+            int dx = cx * PRIME_X;
+            int dy = cy * PRIME_Y;
+            int dz = cz * PRIME_Z;
+            for(int i = 0; i < count; i += VectorNoise.DOUBLE.length()) {
+                LongVector xPrimed = LongVector.fromArray(VectorNoise.LONG, x0, i).add(dx);
+                LongVector yPrimed = LongVector.fromArray(VectorNoise.LONG, y0, i).add(dy);
+                LongVector zPrimed = LongVector.fromArray(VectorNoise.LONG, z0, i).add(dz);
+                LongVector hash = VectorNoise.hash(seed, xPrimed, yPrimed, zPrimed);
+                hash.lanewise(VectorOperators.XOR, VectorNoise.signExtend(hash).lanewise(VectorOperators.ASHR, 15))
+                    .lanewise(VectorOperators.AND, 63 << 2)
+                    .intoArray(hashes, i);
+            }
+            for(int i = 0; i < count; i++) {
+                int hash = (int) hashes[i];
+                out[i] = (xd0[i] - cx) * GRADIENTS_3D[hash] + (yd0[i] - cy) * GRADIENTS_3D[hash | 1] +
+                         (zd0[i] - cz) * GRADIENTS_3D[hash | 2];
+            }
+        }
+    }
 }
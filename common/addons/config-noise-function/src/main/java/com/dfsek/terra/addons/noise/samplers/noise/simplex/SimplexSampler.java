@@ -59,7 +59,45 @@ public class SimplexSampler extends SimplexStyleSampler {
     
     @Override
     public double getNoiseRaw(long sl, double x, double y) {
+        return noise2((int) sl, x, y);
+    }
+    
+    @Override
+    public double getNoiseRaw(long sl, double x, double y, double z) {
+        return noise3((int) sl, x, y, z);
+    }
+    
+    @Override
+    protected void getNoiseRaw(long sl, double[] x, double[] y, double[] results, int count) {
+        int seed = (int) sl;
+        double frequency = this.frequency;
+        for(int i = 0; i < count; i++) {
+            results[i] = noise2(seed, x[i] * frequency, y[i] * frequency);
+        }
+    }
+    
+    @Override
+    protected void getNoiseRaw(long sl, double[] x, double[] y, double[] z, double[] results, int count) {
         int seed = (int) sl;
+        double frequency = this.frequency;
+        for(int i = 0; i < count; i++) {
+            results[i] = noise3(seed, x[i] * frequency, y[i] * frequency, z[i] * frequency);
+        }
+    }
+    
+    @Override
+    protected void getNoiseRawColumn(long sl, double x, double z, double minY, double stepY, double[] results, int offset,
+                                     int count) {
+        int seed = (int) sl;
+        double frequency = this.frequency;
+        double xs = x * frequency;
+        double zs = z * frequency;
+        for(int i = 0; i < count; i++) {
+            results[offset + i] = noise3(seed, xs, (minY + i * stepY) * frequency, zs);
+        }
+    }
+    
+    private static double noise2(int seed, double x, double y) {
         double t = (x + y) * F2;
         int i = fastFloor(x + t);
         int j = fastFloor(y + t);
@@ -114,9 +152,7 @@ public class SimplexSampler extends SimplexStyleSampler {
         return 50 * (n0 + n1 + n2);
     }
     
-    @Override
-    public double getNoiseRaw(long sl, double x, double y, double z) {
-        int seed = (int) sl;
+    private static double noise3(int seed, double x, double y, double z) {
         double t = (x + y + z) * F3;
         int i = fastFloor(x + t);
         int j = fastFloor(y + t);
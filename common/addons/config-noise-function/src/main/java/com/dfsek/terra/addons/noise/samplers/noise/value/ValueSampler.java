@@ -7,6 +7,16 @@
 
 package com.dfsek.terra.addons.noise.samplers.noise.value;
 
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+
+import java.util.Arrays;
+
+import com.dfsek.terra.addons.noise.samplers.noise.VectorNoise;
+import com.dfsek.terra.addons.noise.samplers.noise.VectorSupport;
+
+
 public class ValueSampler extends ValueStyleNoise {
     @Override
     public double getNoiseRaw(long sl, double x, double y) {
@@ -56,4 +66,145 @@ public class ValueSampler extends ValueStyleNoise {
         
         return lerp(yf0, yf1, zs);
     }
+    
+    @Override
+    protected void getNoiseRaw(long sl, double[] x, double[] y, double[] results, int count) {
+        double frequency = this.frequency;
+        int i = VectorSupport.isEnabled() ? Vectorized.noise((int) sl, frequency, x, y, results, 0, count) : 0;
+        for(; i < count; i++) {
+            results[i] = getNoiseRaw(sl, x[i] * frequency, y[i] * frequency);
+        }
+    }
+    
+    @Override
+    protected void getNoiseRaw(long sl, double[] x, double[] y, double[] z, double[] results, int count) {
+        double frequency = this.frequency;
+        int i = VectorSupport.isEnabled() ? Vectorized.noise((int) sl, frequency, x, y, z, results, 0, count) : 0;
+        for(; i < count; i++) {
+            results[i] = getNoiseRaw(sl, x[i] * frequency, y[i] * frequency, z[i] * frequency);
+        }
+    }
+    
+    @Override
+    protected void getNoiseRawColumn(long sl, double x, double z, double minY, double stepY, double[] results, int offset,
+                                     int count) {
+        double frequency = this.frequency;
+        double xs = x * frequency;
+        double zs = z * frequency;
+        int i = VectorSupport.isEnabled()
+                ? Vectorized.noiseColumn((int) sl, frequency, xs, zs, minY, stepY, results, offset, count)
+                : 0;
+        for(; i < count; i++) {
+            results[offset + i] = getNoiseRaw(sl, xs, (minY + i * stepY) * frequency, zs);
+        }
+    }
+    
+    /**
+     * Vector API kernels, lane-for-lane identical to the scalar methods. Each returns how many values it computed; the
+     * remainder is left to the scalar path, as is everything if any coordinate is out of int range.
+     */
+    private static final class Vectorized {
+        private static int noise(int seed, double frequency, double[] x, double[] y, double[] results, int offset, int count) {
+            int bound = VectorNoise.DOUBLE.loopBound(count);
+            VectorNoise.Scratch scratch = VectorNoise.scratch(bound);
+            double[] xs = scratch.doubles(0);
+            double[] ys = scratch.doubles(1);
+            long[] x0 = scratch.longs(0);
+            long[] y0 = scratch.longs(1);
+            if(!VectorNoise.lattice(x, frequency, PRIME_X, xs, x0, bound) ||
+               !VectorNoise.lattice(y, frequency, PRIME_Y, ys, y0, bound)) return 0;
+            VectorNoise.interpHermite(xs, xs, bound);
+            VectorNoise.interpHermite(ys, ys, bound);
+            
+            double[] xf0 = scratch.doubles(2);
+            double[] xf1 = scratch.doubles(3);
+            double[] corner = scratch.doubles(4);
+            valCoord(seed, x0, 0, y0, 0, xf0, bound);
+            valCoord(seed, x0, PRIME_X, y0, 0, corner, bound);
+            VectorNoise.lerp(xf0, corner, xs, xf0, 0, bound);
+            valCoord(seed, x0, 0, y0, PRIME_Y, xf1, bound);
+            valCoord(seed, x0, PRIME_X, y0, PRIME_Y, corner, bound);
+            VectorNoise.lerp(xf1, corner, xs, xf1, 0, bound);
+            
+            VectorNoise.lerp(xf0, xf1, ys, results, offset, bound);
+            return bound;
+        }
+        
+        private static int noise(int seed, double frequency, double[] x, double[] y, double[] z, double[] results, int offset,
+                                 int count) {
+            int bound = VectorNoise.DOUBLE.loopBound(count);
+            VectorNoise.Scratch scratch = VectorNoise.scratch(bound);
+            double[] xs = scratch.doubles(0);
+            double[] ys = scratch.doubles(1);
+            double[] zs = scratch.doubles(2);
+            long[] x0 = scratch.longs(0);
+            long[] y0 = scratch.longs(1);
+            long[] z0 = scratch.longs(2);
+            if(!VectorNoise.lattice(x, frequency, PRIME_X, xs, x0, bound) ||
+               !VectorNoise.lattice(y, frequency, PRIME_Y, ys, y0, bound) ||
+               !VectorNoise.lattice(z, frequency, PRIME_Z, zs, z0, bound)) return 0;
+            VectorNoise.interpHermite(xs, xs, bound);
+            VectorNoise.interpHermite(ys, ys, bound);
+            VectorNoise.interpHermite(zs, zs, bound);
+            
+            double[] xf00 = scratch.doubles(3);
+            double[] xf10 = scratch.doubles(4);
+            double[] xf01 = scratch.doubles(5);
+            double[] xf11 = scratch.doubles(6);
+            double[] corner = scratch.doubles(7);
+            valCoord(seed, x0, 0, y0, 0, z0, 0, xf00, bound);
+            valCoord(seed, x0, PRIME_X, y0, 0, z0, 0, corner, bound);
+            VectorNoise.lerp(xf00, corner, xs, xf00, 0, bound);
+            valCoord(seed, x0, 0, y0, PRIME_Y, z0, 0, xf10, bound);
+            valCoord(seed, x0, PRIME_X, y0, PRIME_Y, z0, 0, corner, bound);
+            VectorNoise.lerp(xf10, corner, xs, xf10, 0, bound);
+            valCoord(seed, x0, 0, y0, 0, z0, PRIME_Z, xf01, bound);
+            valCoord(seed, x0, PRIME_X, y0, 0, z0, PRIME_Z, corner, bound);
+            VectorNoise.lerp(xf01, corner, xs, xf01, 0, bound);
+            valCoord(seed, x0, 0, y0, PRIME_Y, z0, PRIME_Z, xf11, bound);
+            valCoord(seed, x0, PRIME_X, y0, PRIME_Y, z0, PRIME_Z, corner, bound);
+            VectorNoise.lerp(xf11, corner, xs, xf11, 0, bound);
+            
+            VectorNoise.lerp(xf00, xf10, ys, xf00, 0, bound);
+            VectorNoise.lerp(xf01, xf11, ys, xf01, 0, bound);
+            VectorNoise.lerp(xf00, xf01, zs, results, offset, bound);
+            return bound;
+        }
+        
+        private static int noiseColumn(int seed, double frequency, double xs, double zs, double minY, double stepY,
+                                       double[] results, int offset, int count) {
+            int bound = VectorNoise.DOUBLE.loopBound(count);
+            VectorNoise.Scratch scratch = VectorNoise.scratch(bound);
+            double[] x = scratch.doubles(13);
+            double[] y = scratch.doubles(14);
+            double[] z = scratch.doubles(15);
+            Arrays.fill(x, 0, bound, xs);
+            VectorNoise.column(minY, stepY, frequency, y, bound);
+            Arrays.fill(z, 0, bound, zs);
+            return noise(seed, 1, x, y, z, results, offset, bound); // already scaled, and multiplying by 1 is exact
+        }
+        
+        private static void valCoord(int seed, long[] x, int dx, long[] y, int dy, double[] out, int count) {
+            for(int i = 0; i < count; i += VectorNoise.DOUBLE.length()) {
+                LongVector xPrimed = LongVector.fromArray(VectorNoise.LONG, x, i).add(dx);
+                LongVector yPrimed = LongVector.fromArray(VectorNoise.LONG, y, i).add(dy);
+                valCoord(VectorNoise.hash(seed, xPrimed, yPrimed)).intoArray(out, i);
+            }
+        }
+        
+        private static void valCoord(int seed, long[] x, int dx, long[] y, int dy, long[] z, int dz, double[] out, int count) {
+            for(int i = 0; i < count; i += VectorNoise.DOUBLE.length()) {
+                LongVector xPrimed = LongVector.fromArray(VectorNoise.LONG, x, i).add(dx);
+                LongVector yPrimed = LongVector.fromArray(VectorNoise.LONG, y, i).add(dy);
+                LongVector zPrimed = LongVector.fromArray(VectorNoise.LONG, z, i).add(dz);
+                valCoord(VectorNoise.hash(seed, xPrimed, yPrimed, zPrimed)).intoArray(out, i);
+            }
+        }
+        
+        private static DoubleVector valCoord(LongVector hash) {
+            hash = hash.mul(hash);
+            hash = hash.lanewise(VectorOperators.XOR, hash.lanewise(VectorOperators.LSHL, 19));
+            return VectorNoise.intToDouble(hash).mul(1 / 2147483648.0);
+        }
+    }
 }
@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2020-2021 Polyhedral Development
+ *
+ * The Terra Core Addons are licensed under the terms of the MIT License. For more details,
+ * reference the LICENSE file in this module's root directory.
+ */
+
+package noise;
+
+import com.dfsek.paralithic.eval.tokenizer.ParseException;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import com.dfsek.terra.addons.noise.normalizer.ClampNormalizer;
+import com.dfsek.terra.addons.noise.normalizer.ExpressionNormalizer;
+import com.dfsek.terra.addons.noise.normalizer.LinearNormalizer;
+import com.dfsek.terra.addons.noise.normalizer.NormalNormalizer;
+import com.dfsek.terra.addons.noise.normalizer.PosterizationNormalizer;
+import com.dfsek.terra.addons.noise.normalizer.ProbabilityNormalizer;
+import com.dfsek.terra.addons.noise.normalizer.ScaleNormalizer;
+import com.dfsek.terra.addons.noise.samplers.DomainWarpedSampler;
+import com.dfsek.terra.addons.noise.samplers.ImageSampler;
+import com.dfsek.terra.addons.noise.samplers.KernelSampler;
+import com.dfsek.terra.addons.noise.samplers.LinearHeightmapSampler;
+import com.dfsek.terra.addons.noise.samplers.MemoizedSampler;
+import com.dfsek.terra.addons.noise.samplers.TranslateSampler;
+import com.dfsek.terra.addons.noise.samplers.arithmetic.AdditionSampler;
+import com.dfsek.terra.addons.noise.samplers.arithmetic.DivisionSampler;
+import com.dfsek.terra.addons.noise.samplers.arithmetic.MaxSampler;
+import com.dfsek.terra.addons.noise.samplers.arithmetic.MinSampler;
+import com.dfsek.terra.addons.noise.samplers.arithmetic.MultiplicationSampler;
+import com.dfsek.terra.addons.noise.samplers.arithmetic.SubtractionSampler;
+import com.dfsek.terra.addons.noise.samplers.noise.CellularSampler;
+import com.dfsek.terra.addons.noise.samplers.noise.ConstantSampler;
+import com.dfsek.terra.addons.noise.samplers.noise.DistanceSampler;
+import com.dfsek.terra.addons.noise.samplers.noise.ExpressionFunction;
+import com.dfsek.terra.addons.noise.samplers.noise.GaborNoiseSampler;
+import com.dfsek.terra.addons.noise.samplers.noise.NoiseFunction;
+import com.dfsek.terra.addons.noise.samplers.noise.fractal.BrownianMotionSampler;
+import com.dfsek.terra.addons.noise.samplers.noise.fractal.PingPongSampler;
+import com.dfsek.terra.addons.noise.samplers.noise.fractal.RidgedFractalSampler;
+import com.dfsek.terra.addons.noise.samplers.noise.random.GaussianNoiseSampler;
+import com.dfsek.terra.addons.noise.samplers.noise.random.PositiveWhiteNoiseSampler;
+import com.dfsek.terra.addons.noise.samplers.noise.random.WhiteNoiseSampler;
+import com.dfsek.terra.addons.noise.samplers.noise.simplex.OpenSimplex2SSampler;
+import com.dfsek.terra.addons.noise.samplers.noise.simplex.OpenSimplex2Sampler;
+import com.dfsek.terra.addons.noise.samplers.noise.simplex.PerlinSampler;
+import com.dfsek.terra.addons.noise.samplers.noise.simplex.SimplexSampler;
+import com.dfsek.terra.addons.noise.samplers.noise.value.ValueCubicSampler;
+import com.dfsek.terra.addons.noise.samplers.noise.value.ValueSampler;
+import com.dfsek.terra.api.noise.NoiseSampler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+
+/**
+ * Bulk and column samples of every sampler type and wrapper must be bit-identical to single samples.
+ */
+public class BulkConsistencyTest {
+    private static final int COUNT = 97;
+    private static final long[] SEEDS = { 0, 2403, -5719384021L };
+    
+    private static <T extends NoiseFunction> T leaf(T sampler) {
+        sampler.setFrequency(0.0213);
+        sampler.setSalt(11);
+        return sampler;
+    }
+    
+    private static Map<String, NoiseSampler> samplers() throws ParseException {
+        Map<String, NoiseSampler> samplers = new LinkedHashMap<>();
+        samplers.put("Perlin", leaf(new PerlinSampler()));
+        samplers.put("Value", leaf(new ValueSampler()));
+        samplers.put("ValueCubic", leaf(new ValueCubicSampler()));
+        samplers.put("OpenSimplex2", leaf(new OpenSimplex2Sampler()));
+        samplers.put("OpenSimplex2S", leaf(new OpenSimplex2SSampler()));
+        samplers.put("Simplex", leaf(new SimplexSampler()));
+        samplers.put("WhiteNoise", leaf(new WhiteNoiseSampler()));
+        samplers.put("PositiveWhiteNoise", leaf(new PositiveWhiteNoiseSampler()));
+        samplers.put("Gaussian", leaf(new GaussianNoiseSampler()));
+        samplers.put("Gabor", leaf(new GaborNoiseSampler()));
+        samplers.put("Constant", new ConstantSampler(0.37));
+        samplers.put("Distance", new DistanceSampler(DistanceSampler.DistanceFunction.Euclidean, 3, -2, 5, true, 200));
+        samplers.put("Expression", new ExpressionFunction(Map.of(), "x * 0.5 + y - z", Map.of()));
+        
+        CellularSampler cellular = leaf(new CellularSampler());
+        cellular.setReturnType(CellularSampler.ReturnType.Distance2Div);
+        samplers.put("Cellular", cellular);
+        CellularSampler lookup = leaf(new CellularSampler());
+        lookup.setReturnType(CellularSampler.ReturnType.NoiseLookup);
+        lookup.setNoiseLookup(leaf(new OpenSimplex2Sampler()));
+        samplers.put("CellularLookup", lookup);
+        
+        NoiseSampler simplex = leaf(new OpenSimplex2Sampler());
+        NoiseSampler perlin = leaf(new PerlinSampler());
+        
+        samplers.put("BrownianMotion", new BrownianMotionSampler(simplex));
+        samplers.put("RidgedFractal", new RidgedFractalSampler(simplex));
+        samplers.put("PingPong", new PingPongSampler(perlin));
+        
+        samplers.put("Clamp", new ClampNormalizer(simplex, -0.3, 0.4));
+        samplers.put("Linear", new LinearNormalizer(simplex, -2, 3));
+        samplers.put("Normal", new NormalNormalizer(simplex, 64, 0, 0.5));
+        samplers.put("Posterization", new PosterizationNormalizer(simplex, 5));
+        samplers.put("Probability", new ProbabilityNormalizer(simplex));
+        samplers.put("Scale", new ScaleNormalizer(simplex, 3.5));
+        samplers.put("ExpressionNormalizer", new ExpressionNormalizer(simplex, Map.of(), "in * in - 0.25", Map.of()));
+        samplers.put("NestedNormalizers", new ScaleNormalizer(new ClampNormalizer(new LinearNormalizer(perlin, -1, 2), 0, 1), 2));
+        
+        samplers.put("Addition", new AdditionSampler(simplex, perlin));
+        samplers.put("Subtraction", new SubtractionSampler(simplex, perlin));
+        samplers.put("Multiplication", new MultiplicationSampler(simplex, perlin));
+        samplers.put("Division", new DivisionSampler(simplex, new AdditionSampler(perlin, new ConstantSampler(2))));
+        samplers.put("Min", new MinSampler(simplex, perlin));
+        samplers.put("Max", new MaxSampler(simplex, perlin));
+        
+        samplers.put("Image", new ImageSampler(image(), ImageSampler.Channel.GRAYSCALE, 0.5));
+        samplers.put("DomainWarp", new DomainWarpedSampler(simplex, perlin, 12));
+        KernelSampler kernel = new KernelSampler(new double[][]{ { 0.25, 0.5, 0.25 }, { 0.5, 1, 0.5 }, { 0.25, 0, 0.25 } }, simplex);
+        kernel.setFrequency(0.5);
+        samplers.put("Kernel", kernel);
+        samplers.put("Translate", new TranslateSampler(simplex, 17.5, -3, 1024));
+        samplers.put("LinearHeightmap", new LinearHeightmapSampler(simplex, 8, 64));
+        samplers.put("Memoized", new MemoizedSampler(simplex));
+        return samplers;
+    }
+    
+    private static BufferedImage image() {
+        Random random = new Random(3);
+        BufferedImage image = new BufferedImage(17, 23, BufferedImage.TYPE_INT_RGB);
+        for(int x = 0; x < image.getWidth(); x++) {
+            for(int y = 0; y < image.getHeight(); y++) {
+                image.setRGB(x, y, random.nextInt(0x1000000));
+            }
+        }
+        return image;
+    }
+    
+    private static double[] coordinates(Random random) {
+        double[] coordinates = new double[COUNT];
+        for(int i = 0; i < COUNT; i++) {
+            coordinates[i] = i % 3 == 0 ? random.nextInt(128) - 64 : (random.nextDouble() - 0.5) * 2000;
+        }
+        return coordinates;
+    }
+    
+    private static void assertBits(double expected, double actual, String name, int index) {
+        assertEquals(Double.doubleToLongBits(expected), Double.doubleToLongBits(actual), name + " at index " + index);
+    }
+    
+    @Test
+    public void bulk2D() throws ParseException {
+        Random random = new Random(0);
+        double[] x = coordinates(random);
+        double[] z = coordinates(random);
+        double[] results = new double[COUNT];
+        for(Map.Entry<String, NoiseSampler> entry : samplers().entrySet()) {
+            NoiseSampler sampler = entry.getValue();
+            for(long seed : SEEDS) {
+                sampler.noise(seed, x, z, results, COUNT);
+                for(int i = 0; i < COUNT; i++) {
+                    assertBits(sampler.noise(seed, x[i], z[i]), results[i], entry.getKey() + " 2D", i);
+                }
+            }
+        }
+    }
+    
+    @Test
+    public void bulk3D() throws ParseException {
+        Random random = new Random(1);
+        double[] x = coordinates(random);
+        double[] y = coordinates(random);
+        double[] z = coordinates(random);
+        double[] results = new double[COUNT];
+        for(Map.Entry<String, NoiseSampler> entry : samplers().entrySet()) {
+            NoiseSampler sampler = entry.getValue();
+            for(long seed : SEEDS) {
+                sampler.noise(seed, x, y, z, results, COUNT);
+                for(int i = 0; i < COUNT; i++) {
+                    assertBits(sampler.noise(seed, x[i], y[i], z[i]), results[i], entry.getKey() + " 3D", i);
+                }
+            }
+        }
+    }
+    
+    @Test
+    public void column() throws ParseException {
+        int offset = 5;
+        double[] results = new double[offset + COUNT];
+        for(Map.Entry<String, NoiseSampler> entry : samplers().entrySet()) {
+            NoiseSampler sampler = entry.getValue();
+            for(long seed : SEEDS) {
+                sampler.noiseColumn(seed, 141.25, -903, -64, 0.75, results, offset, COUNT);
+                for(int i = 0; i < COUNT; i++) {
+                    assertBits(sampler.noise(seed, 141.25, -64 + i * 0.75, -903), results[offset + i], entry.getKey() + " column", i);
+                }
+            }
+        }
+    }
+}
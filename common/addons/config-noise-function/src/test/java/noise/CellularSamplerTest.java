@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2020-2021 Polyhedral Development
+ *
+ * The Terra Core Addons are licensed under the terms of the MIT License. For more details,
+ * reference the LICENSE file in this module's root directory.
+ */
+
+package noise;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import com.dfsek.terra.addons.noise.samplers.noise.CellularSampler;
+import com.dfsek.terra.addons.noise.samplers.noise.CellularSampler.DistanceFunction;
+import com.dfsek.terra.addons.noise.samplers.noise.CellularSampler.ReturnType;
+import com.dfsek.terra.addons.noise.samplers.noise.simplex.PerlinSampler;
+import com.dfsek.terra.api.noise.NoiseSampler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+
+/**
+ * Every distance function and return type of {@link CellularSampler} must be bit-identical to
+ * {@link ReferenceCellularSampler}, in single, bulk and column samples.
+ */
+public class CellularSamplerTest {
+    private static final int COUNT = 300;
+    private static final long[] SEEDS = { 0, 2403, -5719384021L, Long.MAX_VALUE };
+    private static final double[] JITTERS = { 1, 0.35, 2.5 };
+    
+    private static NoiseSampler lookup() {
+        PerlinSampler lookup = new PerlinSampler();
+        lookup.setFrequency(0.013);
+        return lookup;
+    }
+    
+    private static CellularSampler sampler(DistanceFunction distance, ReturnType returnType, double jitter) {
+        CellularSampler sampler = new CellularSampler();
+        sampler.setFrequency(0.031);
+        sampler.setSalt(7);
+        sampler.setDistanceFunction(distance);
+        sampler.setReturnType(returnType);
+        sampler.setJitterModifier(jitter);
+        sampler.setNoiseLookup(lookup());
+        return sampler;
+    }
+    
+    private static ReferenceCellularSampler reference(DistanceFunction distance, ReturnType returnType, double jitter) {
+        ReferenceCellularSampler sampler = new ReferenceCellularSampler();
+        sampler.setFrequency(0.031);
+        sampler.setSalt(7);
+        sampler.setDistanceFunction(distance);
+        sampler.setReturnType(returnType);
+        sampler.setJitterModifier(jitter);
+        sampler.setNoiseLookup(lookup());
+        return sampler;
+    }
+    
+    /*
+     * Mostly arbitrary positions, with some on whole and half cells where rounding to the nearest cell is a tie.
+     */
+    private static double[] coordinates(Random random) {
+        double[] coordinates = new double[COUNT];
+        for(int i = 0; i < COUNT; i++) {
+            coordinates[i] = switch(i % 4) {
+                case 0 -> (random.nextInt(256) - 128) / 0.031;
+                case 1 -> (random.nextInt(256) - 127.5) / 0.031;
+                default -> (random.nextDouble() - 0.5) * 20000;
+            };
+        }
+        return coordinates;
+    }
+    
+    private static void assertBits(double expected, double actual, String name, int index) {
+        assertEquals(Double.doubleToLongBits(expected), Double.doubleToLongBits(actual), name + " at index " + index);
+    }
+    
+    @Test
+    public void single2D() {
+        Random random = new Random(0);
+        double[] x = coordinates(random);
+        double[] z = coordinates(random);
+        for(DistanceFunction distance : DistanceFunction.values()) {
+            for(ReturnType returnType : ReturnType.values()) {
+                for(double jitter : JITTERS) {
+                    CellularSampler sampler = sampler(distance, returnType, jitter);
+                    ReferenceCellularSampler reference = reference(distance, returnType, jitter);
+                    String name = distance + " " + returnType + " jitter " + jitter + " 2D";
+                    for(long seed : SEEDS) {
+                        for(int i = 0; i < COUNT; i++) {
+                            assertBits(reference.noise(seed, x[i], z[i]), sampler.noise(seed, x[i], z[i]), name, i);
+                        }
+                    }
+                }
+            }
+        }
+    }
+    
+    @Test
+    public void single3D() {
+        Random random = new Random(1);
+        double[] x = coordinates(random);
+        double[] y = coordinates(random);
+        double[] z = coordinates(random);
+        for(DistanceFunction distance : DistanceFunction.values()) {
+            for(ReturnType returnType : ReturnType.values()) {
+                for(double jitter : JITTERS) {
+                    CellularSampler sampler = sampler(distance, returnType, jitter);
+                    ReferenceCellularSampler reference = reference(distance, returnType, jitter);
+                    String name = distance + " " + returnType + " jitter " + jitter + " 3D";
+                    for(long seed : SEEDS) {
+                        for(int i = 0; i < COUNT; i++) {
+                            assertBits(reference.noise(seed, x[i], y[i], z[i]), sampler.noise(seed, x[i], y[i], z[i]), name, i);
+                        }
+                    }
+                }
+            }
+        }
+    }
+    
+    @Test
+    public void bulk() {
+        Random random = new Random(2);
+        double[] x = coordinates(random);
+        double[] y = coordinates(random);
+        double[] z = coordinates(random);
+        double[] results = new double[COUNT];
+        for(DistanceFunction distance : DistanceFunction.values()) {
+            for(ReturnType returnType : ReturnType.values()) {
+                for(double jitter : JITTERS) {
+                    CellularSampler sampler = sampler(distance, returnType, jitter);
+                    ReferenceCellularSampler reference = reference(distance, returnType, jitter);
+                    String name = distance + " " + returnType + " jitter " + jitter;
+                    for(long seed : SEEDS) {
+                        sampler.noise(seed, x, z, results, COUNT);
+                        for(int i = 0; i < COUNT; i++) {
+                            assertBits(reference.noise(seed, x[i], z[i]), results[i], name + " bulk 2D", i);
+                        }
+                        sampler.noise(seed, x, y, z, results, COUNT);
+                        for(int i = 0; i < COUNT; i++) {
+                            assertBits(reference.noise(seed, x[i], y[i], z[i]), results[i], name + " bulk 3D", i);
+                        }
+                    }
+                }
+            }
+        }
+    }
+    
+    @Test
+    public void column() {
+        int offset = 3;
+        double[] results = new double[offset + COUNT];
+        for(DistanceFunction distance : DistanceFunction.values()) {
+            for(ReturnType returnType : ReturnType.values()) {
+                for(double jitter : JITTERS) {
+                    CellularSampler sampler = sampler(distance, returnType, jitter);
+                    ReferenceCellularSampler reference = reference(distance, returnType, jitter);
+                    String name = distance + " " + returnType + " jitter " + jitter + " column";
+                    for(long seed : SEEDS) {
+                        for(double[] column : new double[][]{ { 141.25, -903 }, { 0, 0 }, { -48 / 0.031, 16.5 / 0.031 } }) {
+                            sampler.noiseColumn(seed, column[0], column[1], -64, 0.75, results, offset, COUNT);
+                            for(int i = 0; i < COUNT; i++) {
+                                assertBits(reference.noise(seed, column[0], -64 + i * 0.75, column[1]), results[offset + i], name, i);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2020-2021 Polyhedral Development
+ *
+ * The Terra Core Addons are licensed under the terms of the MIT License. For more details,
+ * reference the LICENSE file in this module's root directory.
+ */
+
+package noise;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import com.dfsek.terra.addons.noise.samplers.noise.fractal.BrownianMotionSampler;
+import com.dfsek.terra.addons.noise.samplers.noise.fractal.FractalNoiseFunction;
+import com.dfsek.terra.addons.noise.samplers.noise.fractal.PingPongSampler;
+import com.dfsek.terra.addons.noise.samplers.noise.fractal.RidgedFractalSampler;
+import com.dfsek.terra.addons.noise.samplers.noise.simplex.OpenSimplex2Sampler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+public class FractalEarlyExitTest {
+    private static final int COUNT = 384;
+    private static final double THRESHOLD = 0.1;
+    
+    private static FractalNoiseFunction[] samplers(boolean earlyExit, double weightedStrength) {
+        OpenSimplex2Sampler input = new OpenSimplex2Sampler();
+        input.setFrequency(0.02);
+        FractalNoiseFunction[] samplers = {
+                new BrownianMotionSampler(input),
+                new RidgedFractalSampler(input),
+                new PingPongSampler(input)
+        };
+        for(FractalNoiseFunction sampler : samplers) {
+            sampler.setOctaves(6);
+            sampler.setWeightedStrength(weightedStrength);
+            if(earlyExit) sampler.setEarlyExitThreshold(THRESHOLD);
+        }
+        return samplers;
+    }
+    
+    @Test
+    public void bulkMatchesSingle() {
+        Random random = new Random(0);
+        double[] x = new double[COUNT];
+        double[] y = new double[COUNT];
+        double[] z = new double[COUNT];
+        for(int i = 0; i < COUNT; i++) {
+            x[i] = (random.nextDouble() - 0.5) * 2000;
+            y[i] = (random.nextDouble() - 0.5) * 2000;
+            z[i] = (random.nextDouble() - 0.5) * 2000;
+        }
+        double[] results = new double[COUNT];
+        for(boolean earlyExit : new boolean[]{ false, true }) {
+            for(FractalNoiseFunction sampler : samplers(earlyExit, 0.5)) {
+                sampler.noise(3, x, z, results, COUNT);
+                for(int i = 0; i < COUNT; i++) {
+                    assertEquals(Double.doubleToLongBits(sampler.noise(3, x[i], z[i])), Double.doubleToLongBits(results[i]),
+                                 sampler.getClass().getSimpleName() + " 2D at index " + i);
+                }
+                sampler.noise(3, x, y, z, results, COUNT);
+                for(int i = 0; i < COUNT; i++) {
+                    assertEquals(Double.doubleToLongBits(sampler.noise(3, x[i], y[i], z[i])), Double.doubleToLongBits(results[i]),
+                                 sampler.getClass().getSimpleName() + " 3D at index " + i);
+                }
+            }
+        }
+    }
+    
+    @Test
+    public void earlyExitKeepsSide() {
+        for(double weightedStrength : new double[]{ -0.5, 0, 0.5, 3 }) {
+            FractalNoiseFunction[] exact = samplers(false, weightedStrength);
+            FractalNoiseFunction[] early = samplers(true, weightedStrength);
+            double[] expected = new double[COUNT];
+            double[] actual = new double[COUNT];
+            for(int s = 0; s < exact.length; s++) {
+                for(int column = 0; column < 16; column++) {
+                    exact[s].noiseColumn(7, column * 37, column * -11, -64, 1, expected, 0, COUNT);
+                    early[s].noiseColumn(7, column * 37, column * -11, -64, 1, actual, 0, COUNT);
+                    for(int i = 0; i < COUNT; i++) {
+                        assertTrue(expected[i] > THRESHOLD == actual[i] > THRESHOLD,
+                                   early[s].getClass().getSimpleName() + " crossed the threshold at index " + i);
+                    }
+                }
+            }
+        }
+    }
+}
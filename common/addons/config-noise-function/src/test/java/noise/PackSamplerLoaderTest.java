@@ -0,0 +1,284 @@
+/*
+ * Copyright (c) 2020-2021 Polyhedral Development
+ *
+ * The Terra Core Addons are licensed under the terms of the MIT License. For more details,
+ * reference the LICENSE file in this module's root directory.
+ */
+
+package noise;
+
+import com.dfsek.tectonic.api.config.template.ConfigTemplate;
+import com.dfsek.tectonic.api.config.template.annotations.Value;
+import com.dfsek.tectonic.api.config.template.object.ObjectTemplate;
+import com.dfsek.tectonic.api.depth.DepthTracker;
+import com.dfsek.tectonic.api.loader.ConfigLoader;
+import com.dfsek.tectonic.impl.MapConfiguration;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.AnnotatedType;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import com.dfsek.terra.addons.noise.compiler.CompiledSampler;
+import com.dfsek.terra.addons.noise.config.PackSamplerLoader;
+import com.dfsek.terra.addons.noise.config.templates.BinaryArithmeticTemplate;
+import com.dfsek.terra.addons.noise.config.templates.MemoizedSamplerTemplate;
+import com.dfsek.terra.addons.noise.config.templates.noise.CellularNoiseTemplate;
+import com.dfsek.terra.addons.noise.config.templates.noise.ConstantNoiseTemplate;
+import com.dfsek.terra.addons.noise.config.templates.noise.SimpleNoiseTemplate;
+import com.dfsek.terra.addons.noise.config.templates.normalizer.LinearNormalizerTemplate;
+import com.dfsek.terra.addons.noise.samplers.MemoizedSampler;
+import com.dfsek.terra.addons.noise.samplers.arithmetic.AdditionSampler;
+import com.dfsek.terra.addons.noise.samplers.arithmetic.BinaryArithmeticSampler;
+import com.dfsek.terra.addons.noise.samplers.noise.CellularSampler;
+import com.dfsek.terra.addons.noise.samplers.noise.simplex.OpenSimplex2Sampler;
+import com.dfsek.terra.addons.noise.samplers.noise.simplex.PerlinSampler;
+import com.dfsek.terra.api.noise.NoiseSampler;
+import com.dfsek.terra.api.registry.Registry;
+import com.dfsek.terra.api.registry.key.RegistryKey;
+import com.dfsek.terra.api.util.reflection.TypeKey;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+public class PackSamplerLoaderTest {
+    private static final long[] SEEDS = { 0, 2403, -5719384021L };
+    
+    private static Map<String, Object> config(Object... entries) {
+        Map<String, Object> config = new LinkedHashMap<>();
+        for(int i = 0; i < entries.length; i += 2) {
+            config.put((String) entries[i], entries[i + 1]);
+        }
+        return config;
+    }
+    
+    private static Map<String, Object> simplex(int salt) {
+        return config("type", "OPEN_SIMPLEX_2", "frequency", 0.02, "salt", salt);
+    }
+    
+    private static Map<String, Object> add(Map<String, Object> left, Map<String, Object> right) {
+        return config("type", "ADD", "left", left, "right", right);
+    }
+    
+    /*
+     * Configs which all differ from each other, most only in a single value somewhere in the tree.
+     */
+    private static List<Map<String, Object>> distinctConfigs() {
+        return List.of(
+                simplex(0),
+                simplex(1),
+                config("type", "OPEN_SIMPLEX_2", "frequency", 0.03, "salt", 0),
+                config("type", "OPEN_SIMPLEX_2", "frequency", 0.02, "salt", 0, "dimensions", 3),
+                config("type", "PERLIN", "frequency", 0.02, "salt", 0),
+                config("type", "CELLULAR", "frequency", 0.02, "salt", 0, "lookup", simplex(0)),
+                config("type", "CELLULAR", "frequency", 0.02, "salt", 0, "lookup", simplex(1)),
+                add(simplex(0), simplex(1)),
+                add(simplex(1), simplex(0)),
+                add(simplex(0), add(simplex(1), simplex(2))),
+                add(simplex(0), add(simplex(1), simplex(3))),
+                add(simplex(0), add(simplex(1), config("type", "CONSTANT", "value", 0.5))),
+                add(simplex(0), add(simplex(1), config("type", "CONSTANT", "value", 0.25))),
+                config("type", "LINEAR", "sampler", simplex(0), "min", -1.0, "max", 1.0),
+                config("type", "LINEAR", "sampler", simplex(0), "min", -1.0, "max", 2.0),
+                config("type", "MEMOIZED", "sampler", simplex(0)),
+                config("type", "MEMOIZED", "sampler", simplex(1))
+                      );
+    }
+    
+    private static Registry<Supplier<ObjectTemplate<NoiseSampler>>> registry() {
+        Map<String, Supplier<ObjectTemplate<NoiseSampler>>> templates = new LinkedHashMap<>();
+        templates.put("OPEN_SIMPLEX_2", () -> new SimpleNoiseTemplate(OpenSimplex2Sampler::new));
+        templates.put("PERLIN", () -> new SimpleNoiseTemplate(PerlinSampler::new));
+        templates.put("CELLULAR", CellularNoiseTemplate::new);
+        templates.put("CONSTANT", ConstantNoiseTemplate::new);
+        templates.put("LINEAR", LinearNormalizerTemplate::new);
+        templates.put("MEMOIZED", MemoizedSamplerTemplate::new);
+        templates.put("ADD", () -> new BinaryArithmeticTemplate<>(AdditionSampler::new));
+        return new TemplateRegistry(templates);
+    }
+    
+    private static ConfigLoader configLoader(PackSamplerLoader samplerLoader) {
+        ConfigLoader loader = new ConfigLoader();
+        loader.registerLoader(CellularSampler.DistanceFunction.class,
+                              (type, o, configLoader, depthTracker) -> CellularSampler.DistanceFunction.valueOf((String) o))
+              .registerLoader(CellularSampler.ReturnType.class,
+                              (type, o, configLoader, depthTracker) -> CellularSampler.ReturnType.valueOf((String) o))
+              .registerLoader(NoiseSampler.class, samplerLoader);
+        return loader;
+    }
+    
+    private static NoiseSampler load(ConfigLoader loader, Map<String, Object> config) {
+        return loader.load(new SamplerHolder(), new MapConfiguration(Map.of("sampler", config))).sampler;
+    }
+    
+    private static void assertSamplesEqual(NoiseSampler expected, NoiseSampler actual, String name) {
+        Random random = new Random(0);
+        for(long seed : SEEDS) {
+            for(int i = 0; i < 200; i++) {
+                double x = (random.nextDouble() - 0.5) * 2000;
+                double y = (random.nextDouble() - 0.5) * 2000;
+                double z = (random.nextDouble() - 0.5) * 2000;
+                assertEquals(Double.doubleToLongBits(expected.noise(seed, x, z)), Double.doubleToLongBits(actual.noise(seed, x, z)),
+                             name + " 2D at " + x + ", " + z);
+                assertEquals(Double.doubleToLongBits(expected.noise(seed, x, y, z)),
+                             Double.doubleToLongBits(actual.noise(seed, x, y, z)), name + " 3D at " + x + ", " + y + ", " + z);
+            }
+        }
+    }
+    
+    @Test
+    public void testEqualConfigsShareInstance() {
+        PackSamplerLoader samplerLoader = new PackSamplerLoader(registry(), true, false);
+        ConfigLoader loader = configLoader(samplerLoader);
+        
+        NoiseSampler first = load(loader, add(simplex(0), add(simplex(1), simplex(2))));
+        NoiseSampler second = load(loader, add(simplex(0), add(simplex(1), simplex(2)))); // equal, but not the same map
+        assertSame(first, second);
+        
+        // subtrees are shared with equal configs elsewhere
+        NoiseSampler simplex = load(loader, simplex(1));
+        NoiseSampler nested = ((BinaryArithmeticSampler) ((BinaryArithmeticSampler) first).getRight()).getLeft();
+        assertSame(simplex, nested);
+        assertSame(((BinaryArithmeticSampler) first).getLeft(), load(loader, config("type", "OPEN_SIMPLEX_2", "salt", 0,
+                                                                                    "frequency", 0.02)));
+        
+        assertEquals(5 + 3, samplerLoader.getRequested()); // every sampler in the first tree, then only the top of each
+        assertEquals(5, samplerLoader.getLoaded());
+    }
+    
+    @Test
+    public void testDifferentConfigsDoNotShare() {
+        ConfigLoader loader = configLoader(new PackSamplerLoader(registry(), true, false));
+        List<NoiseSampler> samplers = distinctConfigs().stream().map(config -> load(loader, config)).collect(Collectors.toList());
+        for(int i = 0; i < samplers.size(); i++) {
+            for(int j = 0; j < samplers.size(); j++) {
+                if(i != j) assertNotSame(samplers.get(i), samplers.get(j), "configs " + i + " and " + j);
+            }
+        }
+    }
+    
+    @Test
+    public void testSharedSamplersMatchSeparateSamplers() {
+        ConfigLoader deduplicating = configLoader(new PackSamplerLoader(registry(), true, false));
+        ConfigLoader separate = configLoader(new PackSamplerLoader(registry(), false, false));
+        ConfigLoader compiling = configLoader(new PackSamplerLoader(registry(), true, true));
+        
+        // load every config first, so later configs reuse subtrees loaded by earlier ones
+        List<Map<String, Object>> configs = distinctConfigs();
+        List<NoiseSampler> shared = configs.stream().map(config -> load(deduplicating, config)).collect(Collectors.toList());
+        List<NoiseSampler> compiled = configs.stream().map(config -> load(compiling, config)).collect(Collectors.toList());
+        for(int i = 0; i < configs.size(); i++) {
+            NoiseSampler expected = load(separate, configs.get(i));
+            assertSamplesEqual(expected, shared.get(i), "config " + i);
+            assertTrue(compiled.get(i) instanceof CompiledSampler);
+            assertSamplesEqual(expected, compiled.get(i), "compiled config " + i);
+        }
+    }
+    
+    @Test
+    public void testMemoizedMatchesWrappedSampler() {
+        ConfigLoader loader = configLoader(new PackSamplerLoader(registry(), true, false));
+        Map<String, Object> wrapped = config("type", "CELLULAR", "frequency", 0.05, "salt", 3, "return", "Distance2Div");
+        NoiseSampler sampler = load(loader, wrapped);
+        NoiseSampler memoized = load(loader, config("type", "MEMOIZED", "sampler", wrapped));
+        assertTrue(memoized instanceof MemoizedSampler);
+        
+        // runs of mostly whole blocks within one chunk, revisiting columns, switching seed halfway through some runs
+        Random random = new Random(1);
+        for(int run = 0; run < 300; run++) {
+            int chunkX = random.nextInt(4) - 2;
+            int chunkZ = random.nextInt(4) - 2;
+            for(int i = 0; i < 100; i++) {
+                long seed = SEEDS[(run + (i < 50 || run % 2 == 0 ? 0 : 1)) % SEEDS.length];
+                double x = (chunkX << 4) + random.nextInt(16);
+                double z = (chunkZ << 4) + random.nextInt(16);
+                if(i % 7 == 0) x += random.nextDouble();
+                assertEquals(Double.doubleToLongBits(sampler.noise(seed, x, z)), Double.doubleToLongBits(memoized.noise(seed, x, z)),
+                             "2D at " + x + ", " + z + " with seed " + seed);
+                assertEquals(Double.doubleToLongBits(sampler.noise(seed, x, i, z)),
+                             Double.doubleToLongBits(memoized.noise(seed, x, i, z)),
+                             "3D at " + x + ", " + i + ", " + z + " with seed " + seed);
+            }
+        }
+    }
+    
+    private static final class SamplerHolder implements ConfigTemplate {
+        @Value("sampler")
+        private NoiseSampler sampler;
+    }
+    
+    
+    /*
+     * Just enough of a registry to look templates up by ID.
+     */
+    private static final class TemplateRegistry implements Registry<Supplier<ObjectTemplate<NoiseSampler>>> {
+        private final Map<RegistryKey, Supplier<ObjectTemplate<NoiseSampler>>> templates = new LinkedHashMap<>();
+        
+        private TemplateRegistry(Map<String, Supplier<ObjectTemplate<NoiseSampler>>> templates) {
+            templates.forEach((id, template) -> this.templates.put(RegistryKey.of("test", id), template));
+        }
+        
+        @Override
+        public Optional<Supplier<ObjectTemplate<NoiseSampler>>> get(@NotNull RegistryKey key) {
+            return Optional.ofNullable(templates.get(key));
+        }
+        
+        @Override
+        public boolean contains(@NotNull RegistryKey key) {
+            return templates.containsKey(key);
+        }
+        
+        @Override
+        public void forEach(@NotNull Consumer<Supplier<ObjectTemplate<NoiseSampler>>> consumer) {
+            templates.values().forEach(consumer);
+        }
+        
+        @Override
+        public void forEach(@NotNull BiConsumer<RegistryKey, Supplier<ObjectTemplate<NoiseSampler>>> consumer) {
+            templates.forEach(consumer);
+        }
+        
+        @Override
+        public @NotNull Collection<Supplier<ObjectTemplate<NoiseSampler>>> entries() {
+            return templates.values();
+        }
+        
+        @Override
+        public @NotNull Set<RegistryKey> keys() {
+            return templates.keySet();
+        }
+        
+        @Override
+        public TypeKey<Supplier<ObjectTemplate<NoiseSampler>>> getType() {
+            return new TypeKey<>() {
+            };
+        }
+        
+        @Override
+        public Map<RegistryKey, Supplier<ObjectTemplate<NoiseSampler>>> getMatches(String id) {
+            return templates.entrySet()
+                            .stream()
+                            .filter(entry -> entry.getKey().getID().equals(id))
+                            .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+        }
+        
+        @Override
+        public Supplier<ObjectTemplate<NoiseSampler>> load(@NotNull AnnotatedType t, @NotNull Object c, @NotNull ConfigLoader loader,
+                                                           DepthTracker depthTracker) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2020-2021 Polyhedral Development
+ *
+ * The Terra Core Addons are licensed under the terms of the MIT License. For more details,
+ * reference the LICENSE file in this module's root directory.
+ */
+
+package noise;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import com.dfsek.terra.addons.noise.compiler.CompiledSampler;
+import com.dfsek.terra.addons.noise.compiler.SamplerCompiler;
+import com.dfsek.terra.addons.noise.normalizer.ClampNormalizer;
+import com.dfsek.terra.addons.noise.normalizer.LinearNormalizer;
+import com.dfsek.terra.addons.noise.normalizer.PosterizationNormalizer;
+import com.dfsek.terra.addons.noise.normalizer.ScaleNormalizer;
+import com.dfsek.terra.addons.noise.samplers.TranslateSampler;
+import com.dfsek.terra.addons.noise.samplers.arithmetic.AdditionSampler;
+import com.dfsek.terra.addons.noise.samplers.arithmetic.DivisionSampler;
+import com.dfsek.terra.addons.noise.samplers.arithmetic.MaxSampler;
+import com.dfsek.terra.addons.noise.samplers.arithmetic.MinSampler;
+import com.dfsek.terra.addons.noise.samplers.arithmetic.MultiplicationSampler;
+import com.dfsek.terra.addons.noise.samplers.arithmetic.SubtractionSampler;
+import com.dfsek.terra.addons.noise.samplers.noise.ConstantSampler;
+import com.dfsek.terra.addons.noise.samplers.noise.simplex.OpenSimplex2Sampler;
+import com.dfsek.terra.addons.noise.samplers.noise.simplex.PerlinSampler;
+import com.dfsek.terra.api.noise.NoiseSampler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+
+/**
+ * Compiled samplers must return bit-identical values to the trees they were compiled from.
+ */
+public class SamplerCompilerTest {
+    private static final int COUNT = 500;
+    private static final long[] SEEDS = { 0, 2403, -5719384021L };
+    
+    private static NoiseSampler simplex() {
+        OpenSimplex2Sampler sampler = new OpenSimplex2Sampler();
+        sampler.setFrequency(0.0213);
+        return sampler;
+    }
+    
+    private static NoiseSampler perlin() {
+        PerlinSampler sampler = new PerlinSampler();
+        sampler.setFrequency(0.047);
+        sampler.setSalt(5);
+        return sampler;
+    }
+    
+    private static Map<String, NoiseSampler> trees() {
+        NoiseSampler simplex = simplex();
+        NoiseSampler hidden = new HiddenSampler();
+        ConstantSampler three = new ConstantSampler(3);
+        ConstantSampler zero = new ConstantSampler(0);
+        
+        Map<String, NoiseSampler> trees = new LinkedHashMap<>();
+        trees.put("Leaf", simplex);
+        trees.put("Constant", three);
+        
+        trees.put("Add constant right", new AdditionSampler(simplex, three));
+        trees.put("Add constant left", new AdditionSampler(three, simplex));
+        trees.put("Subtract constant right", new SubtractionSampler(simplex, three));
+        trees.put("Subtract constant left", new SubtractionSampler(three, simplex));
+        trees.put("Divide constant right", new DivisionSampler(simplex, three));
+        trees.put("Divide constant left", new DivisionSampler(three, simplex));
+        trees.put("Divide by zero", new DivisionSampler(simplex, zero));
+        trees.put("Multiply by one", new MultiplicationSampler(new ConstantSampler(1), simplex));
+        trees.put("Multiply by negative zero", new MultiplicationSampler(simplex, new ConstantSampler(-0.0)));
+        trees.put("Min and max", new MaxSampler(new MinSampler(simplex, perlin()), new ConstantSampler(-0.2)));
+        trees.put("Folded constants", new AdditionSampler(new DivisionSampler(three, new ConstantSampler(7)),
+                                                         new ScaleNormalizer(new SubtractionSampler(zero, three), 0.1)));
+        
+        trees.put("Nested normalizers", new ScaleNormalizer(new ClampNormalizer(new LinearNormalizer(simplex, -1, 2), 0, 1), 2));
+        trees.put("Normalizer over arithmetic", new PosterizationNormalizer(new SubtractionSampler(perlin(), simplex), 7));
+        trees.put("Normalizer over constant", new LinearNormalizer(three, -5, 5));
+        
+        trees.put("Translate", new TranslateSampler(simplex, 17.5, -3, 1024.25));
+        trees.put("Nested translate", new TranslateSampler(new AdditionSampler(new TranslateSampler(perlin(), -0.1, 0.3, 9), simplex),
+                                                           0.7, 12, -40));
+        trees.put("Translate constant", new TranslateSampler(three, 1, 2, 3));
+        
+        trees.put("Non-public leaf", hidden);
+        trees.put("Non-public leaf in tree", new DivisionSampler(new TranslateSampler(hidden, 2, 3, 4),
+                                                                 new ScaleNormalizer(hidden, 3)));
+        trees.put("Anonymous leaf", new AdditionSampler(new NoiseSampler() {
+            @Override
+            public double noise(long seed, double x, double y) {
+                return x * y + seed;
+            }
+            
+            @Override
+            public double noise(long seed, double x, double y, double z) {
+                return x * y - z + seed;
+            }
+        }, simplex));
+        trees.put("Nested compiled", new AdditionSampler(SamplerCompiler.compile(new MultiplicationSampler(simplex, three)),
+                                                         new ConstantSampler(0.5)));
+        return trees;
+    }
+    
+    private static double[] coordinates(Random random) {
+        double[] coordinates = new double[COUNT];
+        for(int i = 0; i < COUNT; i++) {
+            coordinates[i] = i % 3 == 0 ? random.nextInt(128) - 64 : (random.nextDouble() - 0.5) * 2000;
+        }
+        return coordinates;
+    }
+    
+    private static void assertBits(double expected, double actual, String name, int index) {
+        assertEquals(Double.doubleToLongBits(expected), Double.doubleToLongBits(actual), name + " at index " + index);
+    }
+    
+    @Test
+    public void compiled2D() {
+        Random random = new Random(0);
+        double[] x = coordinates(random);
+        double[] z = coordinates(random);
+        for(Map.Entry<String, NoiseSampler> entry : trees().entrySet()) {
+            NoiseSampler tree = entry.getValue();
+            CompiledSampler compiled = SamplerCompiler.compile(tree);
+            for(long seed : SEEDS) {
+                for(int i = 0; i < COUNT; i++) {
+                    assertBits(tree.noise(seed, x[i], z[i]), compiled.noise(seed, x[i], z[i]), entry.getKey() + " 2D", i);
+                }
+            }
+        }
+    }
+    
+    @Test
+    public void compiled3D() {
+        Random random = new Random(1);
+        double[] x = coordinates(random);
+        double[] y = coordinates(random);
+        double[] z = coordinates(random);
+        for(Map.Entry<String, NoiseSampler> entry : trees().entrySet()) {
+            NoiseSampler tree = entry.getValue();
+            CompiledSampler compiled = SamplerCompiler.compile(tree);
+            for(long seed : SEEDS) {
+                for(int i = 0; i < COUNT; i++) {
+                    assertBits(tree.noise(seed, x[i], y[i], z[i]), compiled.noise(seed, x[i], y[i], z[i]), entry.getKey() + " 3D", i);
+                }
+            }
+        }
+    }
+    
+    @Test
+    public void compiledBulk() {
+        Random random = new Random(2);
+        double[] x = coordinates(random);
+        double[] y = coordinates(random);
+        double[] z = coordinates(random);
+        double[] expected = new double[COUNT];
+        double[] actual = new double[COUNT];
+        for(Map.Entry<String, NoiseSampler> entry : trees().entrySet()) {
+            NoiseSampler tree = entry.getValue();
+            CompiledSampler compiled = SamplerCompiler.compile(tree);
+            for(long seed : SEEDS) {
+                tree.noise(seed, x, z, expected, COUNT);
+                compiled.noise(seed, x, z, actual, COUNT);
+                for(int i = 0; i < COUNT; i++) {
+                    assertBits(expected[i], actual[i], entry.getKey() + " bulk 2D", i);
+                }
+                tree.noise(seed, x, y, z, expected, COUNT);
+                compiled.noise(seed, x, y, z, actual, COUNT);
+                for(int i = 0; i < COUNT; i++) {
+                    assertBits(expected[i], actual[i], entry.getKey() + " bulk 3D", i);
+                }
+                tree.noiseColumn(seed, 141.25, -903, -64, 0.75, expected, 0, COUNT);
+                compiled.noiseColumn(seed, 141.25, -903, -64, 0.75, actual, 0, COUNT);
+                for(int i = 0; i < COUNT; i++) {
+                    assertBits(expected[i], actual[i], entry.getKey() + " column", i);
+                }
+            }
+        }
+    }
+    
+    @Test
+    public void compiledIsNotRecompiled() {
+        CompiledSampler compiled = SamplerCompiler.compile(simplex());
+        assertSame(compiled, SamplerCompiler.compile(compiled));
+    }
+    
+    /*
+     * Not public, so the compiler cannot look up its methods on the exact class.
+     */
+    private static final class HiddenSampler implements NoiseSampler {
+        @Override
+        public double noise(long seed, double x, double y) {
+            return Math.sin(x * 0.1 + seed) * Math.cos(y * 0.07);
+        }
+        
+        @Override
+        public double noise(long seed, double x, double y, double z) {
+            return Math.sin(x * 0.1 + seed) * Math.cos(y * 0.07) - z * 1e-3;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2020-2021 Polyhedral Development
+ *
+ * The Terra Core Addons are licensed under the terms of the MIT License. For more details,
+ * reference the LICENSE file in this module's root directory.
+ */
+
+package noise;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import com.dfsek.terra.addons.noise.samplers.noise.NoiseFunction;
+import com.dfsek.terra.addons.noise.samplers.noise.simplex.OpenSimplex2SSampler;
+import com.dfsek.terra.addons.noise.samplers.noise.simplex.OpenSimplex2Sampler;
+import com.dfsek.terra.addons.noise.samplers.noise.simplex.PerlinSampler;
+import com.dfsek.terra.addons.noise.samplers.noise.simplex.SimplexSampler;
+import com.dfsek.terra.addons.noise.samplers.noise.value.ValueSampler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+
+/**
+ * Bulk samples, vectorized or not, must be bit-identical to single samples.
+ */
+public class VectorDeterminismTest {
+    private static final int COUNT = 131; // not a multiple of any vector length, so the scalar tail runs too
+    private static final long[] SEEDS = { 0, 2403, -5719384021L, Long.MAX_VALUE };
+    
+    private static NoiseFunction[] samplers() {
+        NoiseFunction[] samplers = {
+                new PerlinSampler(),
+                new ValueSampler(),
+                new OpenSimplex2Sampler(),
+                new OpenSimplex2SSampler(),
+                new SimplexSampler()
+        };
+        for(NoiseFunction sampler : samplers) {
+            sampler.setFrequency(0.0137);
+            sampler.setSalt(7);
+        }
+        return samplers;
+    }
+    
+    private static double[] coordinates(Random random) {
+        double[] coordinates = new double[COUNT];
+        for(int i = 0; i < COUNT; i++) {
+            coordinates[i] = switch(i % 4) {
+                case 0 -> random.nextInt(64) - 32; // integer lattice points
+                case 1 -> (random.nextDouble() - 0.5) * 1000;
+                case 2 -> (random.nextDouble() - 0.5) * 1.0E9; // hashes overflow
+                default -> -random.nextDouble() / 1000; // just below zero, floors to -1
+            };
+        }
+        return coordinates;
+    }
+    
+    private static double[] outOfRange(Random random) {
+        double[] coordinates = coordinates(random);
+        coordinates[COUNT / 2] = 1.0E13; // lattice coordinate does not fit in an int
+        return coordinates;
+    }
+    
+    @Test
+    public void bulk2D() {
+        Random random = new Random(0);
+        double[] x = coordinates(random);
+        double[] z = coordinates(random);
+        double[] results = new double[COUNT];
+        for(NoiseFunction sampler : samplers()) {
+            for(long seed : SEEDS) {
+                sampler.noise(seed, x, z, results, COUNT);
+                for(int i = 0; i < COUNT; i++) {
+                    assertEquals(Double.doubleToLongBits(sampler.noise(seed, x[i], z[i])), Double.doubleToLongBits(results[i]),
+                                 sampler.getClass().getSimpleName() + " at index " + i);
+                }
+            }
+        }
+    }
+    
+    @Test
+    public void bulk3D() {
+        Random random = new Random(1);
+        double[] x = coordinates(random);
+        double[] y = coordinates(random);
+        double[] z = coordinates(random);
+        double[] results = new double[COUNT];
+        for(NoiseFunction sampler : samplers()) {
+            for(long seed : SEEDS) {
+                sampler.noise(seed, x, y, z, results, COUNT);
+                for(int i = 0; i < COUNT; i++) {
+                    assertEquals(Double.doubleToLongBits(sampler.noise(seed, x[i], y[i], z[i])), Double.doubleToLongBits(results[i]),
+                                 sampler.getClass().getSimpleName() + " at index " + i);
+                }
+            }
+        }
+    }
+    
+    @Test
+    public void outOfRange() {
+        Random random = new Random(2);
+        double[] x = outOfRange(random);
+        double[] z = coordinates(random);
+        double[] results = new double[COUNT];
+        for(NoiseFunction sampler : samplers()) {
+            sampler.noise(0, x, z, results, COUNT);
+            for(int i = 0; i < COUNT; i++) {
+                assertEquals(Double.doubleToLongBits(sampler.noise(0, x[i], z[i])), Double.doubleToLongBits(results[i]),
+                             sampler.getClass().getSimpleName() + " at index " + i);
+            }
+        }
+    }
+    
+    @Test
+    public void column() {
+        int offset = 3;
+        double[] results = new double[offset + COUNT];
+        for(NoiseFunction sampler : samplers()) {
+            for(long seed : SEEDS) {
+                sampler.noiseColumn(seed, -37.5, 1021, -64, 0.25, results, offset, COUNT);
+                for(int i = 0; i < COUNT; i++) {
+                    double expected = sampler.noise(seed, -37.5, -64 + i * 0.25, 1021);
+                    assertEquals(Double.doubleToLongBits(expected), Double.doubleToLongBits(results[offset + i]),
+                                 sampler.getClass().getSimpleName() + " at index " + i);
+                }
+            }
+        }
+    }
+}
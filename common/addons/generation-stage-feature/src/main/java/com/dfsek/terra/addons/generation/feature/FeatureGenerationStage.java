@@ -8,15 +8,18 @@
 package com.dfsek.terra.addons.generation.feature;
 
 import java.util.Collections;
+import java.util.List;
 import java.util.Random;
 
 import com.dfsek.terra.addons.generation.feature.config.BiomeFeatures;
 import com.dfsek.terra.api.Platform;
 import com.dfsek.terra.api.properties.PropertyKey;
 import com.dfsek.terra.api.registry.key.StringIdentifiable;
+import com.dfsek.terra.api.structure.feature.Feature;
 import com.dfsek.terra.api.util.Rotation;
 import com.dfsek.terra.api.util.vector.Vector3Int;
 import com.dfsek.terra.api.world.WritableWorld;
+import com.dfsek.terra.api.world.biome.generation.BiomeChunkSnapshot;
 import com.dfsek.terra.api.world.chunk.generation.ProtoWorld;
 import com.dfsek.terra.api.world.chunk.generation.stage.GenerationStage;
 import com.dfsek.terra.api.world.chunk.generation.util.Column;
@@ -27,7 +30,7 @@ public class FeatureGenerationStage implements GenerationStage, StringIdentifiab
     
     private final String id;
     
-    private final String profile;
+    private final int profile;
     
     private final int resolution;
     private final PropertyKey<BiomeFeatures> biomeFeaturesKey;
@@ -35,7 +38,7 @@ public class FeatureGenerationStage implements GenerationStage, StringIdentifiab
     public FeatureGenerationStage(Platform platform, String id, int resolution, PropertyKey<BiomeFeatures> biomeFeaturesKey) {
         this.platform = platform;
         this.id = id;
-        this.profile = "feature_stage:" + id;
+        this.profile = platform.getProfiler().register("feature_stage:" + id);
         this.resolution = resolution;
         this.biomeFeaturesKey = biomeFeaturesKey;
     }
@@ -47,12 +50,14 @@ public class FeatureGenerationStage implements GenerationStage, StringIdentifiab
         int cx = world.centerChunkX() << 4;
         int cz = world.centerChunkZ() << 4;
         long seed = world.getSeed();
+        BiomeChunkSnapshot biomes = world.getBiomeProvider()
+                                         .getChunkSnapshot(world.centerChunkX(), world.centerChunkZ(), seed, world.getMinHeight(),
+                                                           world.getMaxHeight(), 0);
         for(int chunkX = 0; chunkX < 16; chunkX += resolution) {
             for(int chunkZ = 0; chunkZ < 16; chunkZ += resolution) {
                 int tx = cx + chunkX;
                 int tz = cz + chunkZ;
-                world.getBiomeProvider()
-                     .getColumn(tx, tz, world)
+                biomes.getColumn(tx, tz)
                      .forRanges(resolution, (min, max, biome) -> {
                          for(int subChunkX = 0; subChunkX < resolution; subChunkX++) {
                              for(int subChunkZ = 0; subChunkZ < resolution; subChunkZ++) {
@@ -60,24 +65,24 @@ public class FeatureGenerationStage implements GenerationStage, StringIdentifiab
                                  int z = subChunkZ + tz;
                                  long coordinateSeed = (seed * 31 + x) * 31 + z;
                                  Column<WritableWorld> column = world.column(x, z);
-                                 biome.getContext()
-                                      .get(biomeFeaturesKey)
-                                      .getFeatures()
-                                      .getOrDefault(this, Collections.emptyList())
-                                      .forEach(feature -> {
-                                          platform.getProfiler().push(feature.getID());
-                                          if(feature.getDistributor().matches(x, z, seed)) {
-                                              feature.getLocator()
-                                                     .getSuitableCoordinates(column.clamp(min, max))
-                                                     .forEach(y -> feature.getStructure(world, x, y, z)
-                                                                          .generate(Vector3Int.of(x, y, z),
-                                                                                    world,
-                                                                                    new Random(coordinateSeed * 31 + y),
-                                                                                    Rotation.NONE)
-                                                             );
-                                          }
-                                          platform.getProfiler().pop(feature.getID());
-                                      });
+                                 BiomeFeatures biomeFeatures = biome.getContext().get(biomeFeaturesKey);
+                                 List<Feature> features = biomeFeatures.getFeatures().getOrDefault(this, Collections.emptyList());
+                                 int[] profiles = biomeFeatures.getProfiles(this);
+                                 for(int i = 0; i < features.size(); i++) {
+                                     Feature feature = features.get(i);
+                                     platform.getProfiler().push(profiles[i]);
+                                     if(feature.getDistributor().matches(x, z, seed)) {
+                                         feature.getLocator()
+                                                .getSuitableCoordinates(column.clamp(min, max))
+                                                .forEach(y -> feature.getStructure(world, x, y, z)
+                                                                     .generate(Vector3Int.of(x, y, z),
+                                                                               world,
+                                                                               new Random(coordinateSeed * 31 + y),
+                                                                               Rotation.NONE)
+                                                        );
+                                     }
+                                     platform.getProfiler().pop(profiles[i]);
+                                 }
                              }
                          }
                      });
@@ -7,22 +7,41 @@
 
 package com.dfsek.terra.addons.generation.feature.config;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import com.dfsek.terra.addons.generation.feature.FeatureGenerationStage;
+import com.dfsek.terra.api.profiler.Profiler;
 import com.dfsek.terra.api.properties.Properties;
 import com.dfsek.terra.api.structure.feature.Feature;
 
 
 public class BiomeFeatures implements Properties {
+    private static final int[] NO_PROFILES = new int[0];
+    
     private final Map<FeatureGenerationStage, List<Feature>> features;
+    private final Map<FeatureGenerationStage, int[]> profiles = new HashMap<>();
     
-    public BiomeFeatures(Map<FeatureGenerationStage, List<Feature>> features) {
+    public BiomeFeatures(Map<FeatureGenerationStage, List<Feature>> features, Profiler profiler) {
         this.features = features;
+        features.forEach((stage, stageFeatures) -> {
+            int[] stageProfiles = new int[stageFeatures.size()];
+            for(int i = 0; i < stageProfiles.length; i++) {
+                stageProfiles[i] = profiler.register(stageFeatures.get(i).getID());
+            }
+            profiles.put(stage, stageProfiles);
+        });
     }
     
     public Map<FeatureGenerationStage, List<Feature>> getFeatures() {
         return features;
     }
+    
+    /**
+     * @return Profiler frame IDs of the features generated by a stage, in the same order as {@link #getFeatures()}.
+     */
+    public int[] getProfiles(FeatureGenerationStage stage) {
+        return profiles.getOrDefault(stage, NO_PROFILES);
+    }
 }
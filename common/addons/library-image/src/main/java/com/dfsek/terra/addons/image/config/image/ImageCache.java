@@ -10,26 +10,33 @@ import com.dfsek.terra.addons.image.image.Image;
 import com.dfsek.terra.api.config.ConfigPack;
 import com.dfsek.terra.api.config.Loader;
 import com.dfsek.terra.api.properties.Properties;
+import com.dfsek.terra.api.util.cache.CacheCounter;
+import com.dfsek.terra.api.util.cache.CacheMetrics;
 
 
 /*
  * Cache prevents configs from loading the same image multiple times into memory
  */
-record ImageCache(ConcurrentHashMap<String, Image> map) implements Properties {
+record ImageCache(ConcurrentHashMap<String, Image> map, CacheCounter counter) implements Properties {
     public static Image load(String path, ConfigPack pack, Loader files) throws IOException {
         ImageCache cache;
         if(!pack.getContext().has(ImageCache.class)) {
-            cache = new ImageCache(new ConcurrentHashMap<>());
+            cache = new ImageCache(new ConcurrentHashMap<>(), new CacheCounter());
             pack.getContext().put(cache);
+            CacheMetrics.register("image", cache, ImageCache::stats);
         } else {
             cache = pack.getContext().get(ImageCache.class);
         }
         
         if(cache.map.containsKey(path)) {
+            cache.counter.hit();
             return cache.map.get(path);
         } else {
+            cache.counter.miss();
             try {
+                long start = System.nanoTime();
                 BufferedImageWrapper image = new BufferedImageWrapper(ImageIO.read(files.get(path)));
+                cache.counter.load(System.nanoTime() - start);
                 cache.map.put(path, image);
                 return image;
             } catch(IllegalArgumentException e) {
@@ -43,4 +50,12 @@ record ImageCache(ConcurrentHashMap<String, Image> map) implements Properties {
             }
         }
     }
+    
+    private CacheMetrics.Stats stats() {
+        long bytes = 0;
+        for(Image image : map.values()) {
+            bytes += (long) image.getWidth() * image.getHeight() * 4;
+        }
+        return counter.stats(map.size(), bytes);
+    }
 }
@@ -54,7 +54,7 @@ public class StructureScript implements Structure, Keyed<StructureScript> {
     private final Executable block;
     private final RegistryKey id;
     
-    private final String profile;
+    private final int profile;
     private final Platform platform;
     
     @SuppressWarnings("rawtypes")
@@ -68,7 +68,7 @@ public class StructureScript implements Structure, Keyed<StructureScript> {
             throw new RuntimeException(e);
         }
         this.id = id;
-        this.profile = "terrascript_direct:" + id;
+        this.profile = platform.getProfiler().register("terrascript_direct:" + id);
         
         //noinspection unchecked
         functionRegistry.forEach((key, function) -> parser.registerFunction(key.getID(), function)); // Register registry functions.
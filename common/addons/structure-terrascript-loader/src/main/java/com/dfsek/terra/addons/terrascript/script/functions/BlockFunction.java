@@ -25,16 +25,20 @@ import com.dfsek.terra.addons.terrascript.tokenizer.Position;
 import com.dfsek.terra.api.Platform;
 import com.dfsek.terra.api.block.state.BlockState;
 import com.dfsek.terra.api.util.RotationUtil;
+import com.dfsek.terra.api.util.cache.CacheCounter;
+import com.dfsek.terra.api.util.cache.CacheMetrics;
 import com.dfsek.terra.api.util.vector.Vector2;
 import com.dfsek.terra.api.util.vector.Vector3;
 
 
 public class BlockFunction implements Function<Void> {
     private static final Logger logger = LoggerFactory.getLogger(BlockFunction.class);
+    private static final long ENTRY_BYTES = 64; // map node and key string, states themselves are shared
     protected final Returnable<Number> x, y, z;
     protected final Returnable<String> blockData;
     protected final Platform platform;
     private final Map<String, BlockState> data = new ConcurrentHashMap<>();
+    private final CacheCounter counter = new CacheCounter();
     private final Returnable<Boolean> overwrite;
     private final Position position;
     
@@ -47,6 +51,10 @@ public class BlockFunction implements Function<Void> {
         this.overwrite = overwrite;
         this.platform = platform;
         this.position = position;
+        if(!(this instanceof Constant)) { // constant blocks never look up states
+            CacheMetrics.register("terrascript.block_state", this,
+                                  function -> function.counter.stats(function.data.size(), function.data.size() * ENTRY_BYTES));
+        }
     }
     
     @Override
@@ -85,7 +93,17 @@ public class BlockFunction implements Function<Void> {
     }
     
     protected BlockState getBlockState(ImplementationArguments arguments, Scope scope) {
-        return data.computeIfAbsent(blockData.apply(arguments, scope), platform.getWorldHandle()::createBlockState);
+        String key = blockData.apply(arguments, scope);
+        BlockState state = data.get(key);
+        if(state == null) {
+            counter.miss();
+            long start = System.nanoTime();
+            state = data.computeIfAbsent(key, platform.getWorldHandle()::createBlockState);
+            counter.load(System.nanoTime() - start);
+        } else {
+            counter.hit();
+        }
+        return state;
     }
     
     
@@ -30,4 +30,8 @@ public interface PluginConfig {
     int getMaxRecursion();
     
     int getProviderCache();
+    
+    int getPipelineChunkCache();
+    
+    boolean isPipelineChunkPrefetch();
 }
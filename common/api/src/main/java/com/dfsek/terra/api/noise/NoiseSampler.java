@@ -8,6 +8,8 @@
 package com.dfsek.terra.api.noise;
 
 
+import java.util.Arrays;
+
 import com.dfsek.terra.api.util.vector.Vector2;
 import com.dfsek.terra.api.util.vector.Vector2Int;
 import com.dfsek.terra.api.util.vector.Vector3;
@@ -26,6 +28,22 @@ public interface NoiseSampler {
             public double noise(long seed, double x, double y, double z) {
                 return 0;
             }
+            
+            @Override
+            public void noise(long seed, double[] x, double[] y, double[] results, int count) {
+                Arrays.fill(results, 0, count, 0);
+            }
+            
+            @Override
+            public void noise(long seed, double[] x, double[] y, double[] z, double[] results, int count) {
+                Arrays.fill(results, 0, count, 0);
+            }
+            
+            @Override
+            public void noiseColumn(long seed, double x, double z, double minY, double stepY, double[] results, int offset,
+                                    int count) {
+                Arrays.fill(results, offset, offset + count, 0);
+            }
         };
     }
     
@@ -57,4 +75,60 @@ public interface NoiseSampler {
     default double noise(long seed, int x, int y, int z) {
         return noise(seed, (double) x, y, z);
     }
+    
+    /**
+     * Sample 2D noise at many points at once.
+     * <p>
+     * Results must be identical to calling {@link #noise(long, double, double)} for each point. Implementations
+     * override this to evaluate all points in a tight loop rather than paying a dispatch per point.
+     *
+     * @param seed    Seed
+     * @param x       X coordinates
+     * @param y       Y coordinates
+     * @param results Array to write results to
+     * @param count   Number of points to sample
+     */
+    default void noise(long seed, double[] x, double[] y, double[] results, int count) {
+        for(int i = 0; i < count; i++) {
+            results[i] = noise(seed, x[i], y[i]);
+        }
+    }
+    
+    /**
+     * Sample 3D noise at many points at once.
+     * <p>
+     * Results must be identical to calling {@link #noise(long, double, double, double)} for each point.
+     *
+     * @param seed    Seed
+     * @param x       X coordinates
+     * @param y       Y coordinates
+     * @param z       Z coordinates
+     * @param results Array to write results to
+     * @param count   Number of points to sample
+     */
+    default void noise(long seed, double[] x, double[] y, double[] z, double[] results, int count) {
+        for(int i = 0; i < count; i++) {
+            results[i] = noise(seed, x[i], y[i], z[i]);
+        }
+    }
+    
+    /**
+     * Sample 3D noise along a vertical column, at {@code y = minY + i * stepY} for each {@code i} in {@code [0, count)}.
+     * <p>
+     * Results must be identical to calling {@link #noise(long, double, double, double)} for each point.
+     *
+     * @param seed    Seed
+     * @param x       X coordinate of the column
+     * @param z       Z coordinate of the column
+     * @param minY    Y coordinate of the first sample
+     * @param stepY   Distance between samples
+     * @param results Array to write results to
+     * @param offset  Index in {@code results} to write the first sample to
+     * @param count   Number of samples
+     */
+    default void noiseColumn(long seed, double x, double z, double minY, double stepY, double[] results, int offset, int count) {
+        for(int i = 0; i < count; i++) {
+            results[offset + i] = noise(seed, x, minY + i * stepY, z);
+        }
+    }
 }
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2020-2021 Polyhedral Development
+ *
+ * The Terra API is licensed under the terms of the MIT License. For more details,
+ * reference the LICENSE file in the common/api directory.
+ */
+
+package com.dfsek.terra.api.profiler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+
+/**
+ * A histogram of non-negative values, such as durations in nanoseconds, using a bounded amount of memory.
+ * <p>
+ * Values are counted in log-linear buckets: every power of two is split into 32 equal buckets, so percentiles are
+ * accurate to within about 3%. Values below 64 are counted exactly, and values of 2<sup>40</sup> (about 18 minutes in
+ * nanoseconds) and up share the last bucket. Count, sum, min and max are always exact.
+ * <p>
+ * Buckets are allocated one power of two at a time, when a value in that range is first recorded. Recorded values
+ * usually span only a few powers of two, so most histograms stay small.
+ * <p>
+ * Not thread safe. Reading a histogram while another thread records into it gives approximate results.
+ */
+public final class Histogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final long LIMIT = 1L << 40;
+    private static final int BUCKETS = index(LIMIT - 1) + 1;
+    private static final int ROWS = (BUCKETS + SUB_BUCKETS - 1) >>> SUB_BUCKET_BITS;
+    
+    private final long[][] counts = new long[ROWS][]; // SUB_BUCKETS buckets per row, null until one is recorded
+    private long count;
+    private long sum;
+    private long min = Long.MAX_VALUE;
+    private long max;
+    
+    private static int index(long value) {
+        if(value < SUB_BUCKETS * 2) return (int) value;
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (shift << SUB_BUCKET_BITS) + (int) (value >>> shift);
+    }
+    
+    private static long highestEquivalent(int index) {
+        if(index < SUB_BUCKETS * 2) return index;
+        int shift = (index >>> SUB_BUCKET_BITS) - 1;
+        long lowest = (long) ((index & (SUB_BUCKETS - 1)) + SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+    
+    /**
+     * Record a value. Negative values are recorded as 0.
+     */
+    public void record(long value) {
+        if(value < 0) value = 0;
+        int index = value >= LIMIT ? BUCKETS - 1 : index(value);
+        long[] row = counts[index >>> SUB_BUCKET_BITS];
+        if(row == null) {
+            row = new long[SUB_BUCKETS];
+            counts[index >>> SUB_BUCKET_BITS] = row;
+        }
+        row[index & (SUB_BUCKETS - 1)]++;
+        count++;
+        sum += value;
+        if(value < min) min = value;
+        if(value > max) max = value;
+    }
+    
+    /**
+     * Add every value recorded in another histogram to this one.
+     */
+    public void add(Histogram other) {
+        for(int i = 0; i < ROWS; i++) {
+            long[] otherRow = other.counts[i];
+            if(otherRow == null) continue;
+            if(counts[i] == null) {
+                counts[i] = otherRow.clone();
+            } else {
+                for(int j = 0; j < SUB_BUCKETS; j++) {
+                    counts[i][j] += otherRow[j];
+                }
+            }
+        }
+        count += other.count;
+        sum += other.sum;
+        if(other.min < min) min = other.min;
+        if(other.max > max) max = other.max;
+    }
+    
+    public void reset() {
+        for(long[] row : counts) {
+            if(row != null) Arrays.fill(row, 0);
+        }
+        count = 0;
+        sum = 0;
+        min = Long.MAX_VALUE;
+        max = 0;
+    }
+    
+    public long count() {
+        return count;
+    }
+    
+    public long sum() {
+        return sum;
+    }
+    
+    public long min() {
+        return count == 0 ? 0 : min;
+    }
+    
+    public long max() {
+        return max;
+    }
+    
+    public double mean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+    
+    /**
+     * Get the value below which a percentage of recorded values fall.
+     *
+     * @param percentile Percentage, from 0 to 100.
+     *
+     * @return The highest value counted in the same bucket as the value at the percentile, clamped to the recorded
+     *         min and max. 0 if nothing has been recorded.
+     */
+    public long percentile(double percentile) {
+        if(count == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100 * count));
+        long seen = 0;
+        for(int i = 0; i < ROWS; i++) {
+            long[] row = counts[i];
+            if(row == null) continue;
+            for(int j = 0; j < SUB_BUCKETS; j++) {
+                seen += row[j];
+                if(seen >= rank) {
+                    return Math.max(min(), Math.min(max, highestEquivalent((i << SUB_BUCKET_BITS) + j)));
+                }
+            }
+        }
+        return max;
+    }
+    
+    /**
+     * @return Every recorded value, in ascending order, rounded the same way as {@link #percentile(double)}.
+     */
+    List<Long> values() {
+        List<Long> values = new ArrayList<>((int) Math.min(count, Integer.MAX_VALUE - 8));
+        for(int i = 0; i < ROWS; i++) {
+            long[] row = counts[i];
+            if(row == null) continue;
+            for(int j = 0; j < SUB_BUCKETS; j++) {
+                long value = Math.max(min(), Math.min(max, highestEquivalent((i << SUB_BUCKET_BITS) + j)));
+                for(long k = 0; k < row[j]; k++) {
+                    values.add(value);
+                }
+            }
+        }
+        return values;
+    }
+}
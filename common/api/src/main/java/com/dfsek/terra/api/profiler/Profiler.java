@@ -7,6 +7,8 @@
 
 package com.dfsek.terra.api.profiler;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.Map;
 
 
@@ -26,6 +28,32 @@ public interface Profiler {
      */
     void pop(String frame);
     
+    /**
+     * Register a frame ahead of time. Pushing and popping a frame by its ID
+     * skips looking it up by name, so frames entered often should be registered once
+     * and referred to by ID.
+     *
+     * @param frame Name of frame.
+     *
+     * @return ID of frame. The same name always has the same ID.
+     */
+    int register(String frame);
+    
+    /**
+     * Push a registered frame to this profiler.
+     *
+     * @param frame ID of frame, from {@link #register(String)}.
+     */
+    void push(int frame);
+    
+    /**
+     * Pop a registered frame from this profiler.
+     *
+     * @param frame ID of frame, from {@link #register(String)}.
+     *              Must match ID at the top of the profiler stack.
+     */
+    void pop(int frame);
+    
     /**
      * Start profiling.
      */
@@ -47,4 +75,21 @@ public interface Profiler {
      * @return Profiler data.
      */
     Map<String, Timings> getTimings();
+    
+    /**
+     * Write the profiler data in the collapsed stack format read by flame graph tools.
+     * Each line is a stack of frames separated by {@code ;}, followed by the total time
+     * in nanoseconds spent in the last frame of the stack, excluding frames pushed within it.
+     *
+     * @param writer Writer to write to.
+     */
+    void writeCollapsedStacks(Writer writer) throws IOException;
+    
+    /**
+     * Write the profiler data as a JSON report, with the sample count, total, min, mean,
+     * max and percentile times of every frame, nested by stack.
+     *
+     * @param writer Writer to write to.
+     */
+    void writeJson(Writer writer) throws IOException;
 }
@@ -19,26 +19,46 @@ import java.util.Set;
 public class Timings {
     private final Map<String, Timings> subItems = new HashMap<>();
     
-    private final List<Long> timings = new ArrayList<>();
+    private final Histogram timings = new Histogram();
     
     public void addTime(long time) {
-        timings.add(time);
+        timings.record(time);
+    }
+    
+    /**
+     * Add every time recorded in a histogram to these timings.
+     */
+    public void addTimes(Histogram times) {
+        timings.add(times);
     }
     
     public double average() {
-        return (double) timings.stream().reduce(0L, Long::sum) / timings.size();
+        return timings.mean();
     }
     
     public long max() {
-        return timings.stream().mapToLong(Long::longValue).max().orElse(0L);
+        return timings.max();
     }
     
     public long min() {
-        return timings.stream().mapToLong(Long::longValue).min().orElse(0L);
+        return timings.min();
     }
     
     public double sum() {
-        return timings.stream().mapToDouble(Long::doubleValue).sum();
+        return timings.sum();
+    }
+    
+    public long count() {
+        return timings.count();
+    }
+    
+    /**
+     * @param percentile Percentage, from 0 to 100.
+     *
+     * @return Time below which that percentage of samples fall, accurate to within about 3%.
+     */
+    public long percentile(double percentile) {
+        return timings.percentile(percentile);
     }
     
     @Override
@@ -50,7 +70,8 @@ public class Timings {
         StringBuilder builder = new StringBuilder();
         
         builder.append((double) min() / 1000000).append("ms min / ").append(average() / 1000000).append("ms avg / ")
-               .append((double) max() / 1000000).append("ms max (").append(timings.size()).append(" samples, ")
+               .append((double) percentile(50) / 1000000).append("ms p50 / ").append((double) percentile(99) / 1000000)
+               .append("ms p99 / ").append((double) max() / 1000000).append("ms max (").append(count()).append(" samples, ")
                .append((sum() / parent.sum()) * 100).append("% of parent)");
         
         List<String> frames = new ArrayList<>();
@@ -71,10 +92,32 @@ public class Timings {
         return builder.toString();
     }
     
-    public List<Long> getTimings() {
+    /**
+     * @return Histogram of the times recorded in this frame.
+     */
+    public Histogram getHistogram() {
         return timings;
     }
     
+    /**
+     * @return Times recorded in this frame, in ascending order.
+     *
+     * @deprecated Individual times are no longer kept, so the returned times are rounded to the precision of
+     *         {@link #getHistogram()}, and building the list costs memory proportional to {@link #count()}. Use
+     *         {@link #getHistogram()} instead.
+     */
+    @Deprecated
+    public List<Long> getTimings() {
+        return timings.values();
+    }
+    
+    /**
+     * @return Timings of the frames pushed within this frame, by name.
+     */
+    public Map<String, Timings> getSubItems() {
+        return Collections.unmodifiableMap(subItems);
+    }
+    
     public Timings getSubItem(String id) {
         return subItems.computeIfAbsent(id, s -> new Timings());
     }
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2020-2021 Polyhedral Development
+ *
+ * The Terra API is licensed under the terms of the MIT License. For more details,
+ * reference the LICENSE file in the common/api directory.
+ */
+
+package com.dfsek.terra.api.util.cache;
+
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Thread safe counters of the hits, misses, evictions and load time of a cache, for reporting to {@link CacheMetrics}.
+ */
+public final class CacheCounter {
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder loadTime = new LongAdder();
+    
+    public void hit() {
+        hits.increment();
+    }
+    
+    public void miss() {
+        misses.increment();
+    }
+    
+    public void eviction() {
+        evictions.increment();
+    }
+    
+    /**
+     * @param nanos Time spent loading a missing value, in nanoseconds.
+     */
+    public void load(long nanos) {
+        loadTime.add(nanos);
+    }
+    
+    /**
+     * @param size           Number of entries in the cache.
+     * @param estimatedBytes Estimated memory used by the cache, in bytes.
+     */
+    public CacheMetrics.Stats stats(long size, long estimatedBytes) {
+        return new CacheMetrics.Stats(hits.sum(), misses.sum(), evictions.sum(), loadTime.sum(), size, estimatedBytes);
+    }
+}
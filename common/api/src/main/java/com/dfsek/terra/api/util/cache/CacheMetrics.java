@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2020-2021 Polyhedral Development
+ *
+ * The Terra API is licensed under the terms of the MIT License. For more details,
+ * reference the LICENSE file in the common/api directory.
+ */
+
+package com.dfsek.terra.api.util.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+
+/**
+ * Registry of the statistics of Terra's caches, so they can be sized from data rather than guesses.
+ * <p>
+ * Caches register under a name describing what they cache. Instances sharing a name, such as one cache per config pack
+ * or world, are reported together. Caches are only weakly referenced, so registering one does not keep it alive.
+ */
+public final class CacheMetrics {
+    private static final List<Entry<?>> ENTRIES = new ArrayList<>(); // guarded by itself
+    private static int purgeAt = 64;
+    
+    private CacheMetrics() {
+    }
+    
+    /**
+     * Register a cache.
+     *
+     * @param name  Name to report the cache under.
+     * @param cache Cache to report.
+     * @param stats Function getting the current statistics of the cache. Must not reference the cache itself, or it will
+     *              never be collected.
+     */
+    public static <T> void register(String name, T cache, Function<? super T, Stats> stats) {
+        synchronized(ENTRIES) {
+            if(ENTRIES.size() >= purgeAt) {
+                ENTRIES.removeIf(entry -> entry.cache.get() == null);
+                purgeAt = Math.max(64, ENTRIES.size() * 2);
+            }
+            ENTRIES.add(new Entry<>(name, new WeakReference<>(cache), stats));
+        }
+    }
+    
+    /**
+     * Register a Caffeine cache. The cache must be built with {@code recordStats()}.
+     *
+     * @param name          Name to report the cache under.
+     * @param cache         Cache to report.
+     * @param bytesPerEntry Estimated memory used by each entry, in bytes.
+     */
+    public static void register(String name, Cache<?, ?> cache, long bytesPerEntry) {
+        register(name, cache, c -> {
+            com.github.benmanes.caffeine.cache.stats.CacheStats stats = c.stats();
+            long size = c.estimatedSize();
+            return new Stats(stats.hitCount(), stats.missCount(), stats.evictionCount(), stats.totalLoadTime(), size,
+                             size * bytesPerEntry);
+        });
+    }
+    
+    /**
+     * @return Current statistics of every registered cache still in use, combined by name and sorted by name.
+     */
+    public static Map<String, Stats> snapshot() {
+        Map<String, Stats> snapshot = new TreeMap<>();
+        synchronized(ENTRIES) {
+            Iterator<Entry<?>> iterator = ENTRIES.iterator();
+            while(iterator.hasNext()) {
+                Entry<?> entry = iterator.next();
+                Stats stats = entry.current();
+                if(stats == null) {
+                    iterator.remove();
+                } else {
+                    snapshot.merge(entry.name, stats, Stats::plus);
+                }
+            }
+        }
+        return snapshot;
+    }
+    
+    /**
+     * Statistics of a cache, or of several combined.
+     *
+     * @param hits           Number of lookups which found a cached value.
+     * @param misses         Number of lookups which had to load a value.
+     * @param evictions      Number of entries removed to make room for others.
+     * @param loadTime       Total time spent loading values, in nanoseconds.
+     * @param size           Number of entries currently cached.
+     * @param estimatedBytes Estimated memory currently used, in bytes.
+     */
+    public record Stats(long hits, long misses, long evictions, long loadTime, long size, long estimatedBytes) {
+        public Stats plus(Stats other) {
+            return new Stats(hits + other.hits, misses + other.misses, evictions + other.evictions, loadTime + other.loadTime,
+                             size + other.size, estimatedBytes + other.estimatedBytes);
+        }
+        
+        public long requests() {
+            return hits + misses;
+        }
+        
+        /**
+         * @return Fraction of lookups which found a cached value, or 0 if there have been none.
+         */
+        public double hitRate() {
+            return requests() == 0 ? 0 : (double) hits / requests();
+        }
+        
+        /**
+         * @return Mean time to load a missing value, in nanoseconds.
+         */
+        public double averageLoadTime() {
+            return misses == 0 ? 0 : (double) loadTime / misses;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("%.1f%% hit rate (%d hits, %d misses), %d evictions, %.3fms avg load, %d entries, ~%d KiB",
+                                 hitRate() * 100, hits, misses, evictions, averageLoadTime() / 1000000, size, estimatedBytes / 1024);
+        }
+    }
+    
+    
+    private record Entry<T>(String name, WeakReference<T> cache, Function<? super T, Stats> stats) {
+        /**
+         * @return Statistics of the cache, or null if it has been collected.
+         */
+        private Stats current() {
+            T cache = this.cache.get();
+            return cache == null ? null : stats.apply(cache);
+        }
+    }
+}
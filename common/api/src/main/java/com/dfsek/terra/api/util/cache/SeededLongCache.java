@@ -0,0 +1,261 @@
+/*
+ * Copyright (c) 2020-2021 Polyhedral Development
+ *
+ * The Terra API is licensed under the terms of the MIT License. For more details,
+ * reference the LICENSE file in the common/api directory.
+ */
+
+package com.dfsek.terra.api.util.cache;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
+
+
+/**
+ * A fixed size, thread safe cache of values keyed by a primitive {@code long} and a seed.
+ * <p>
+ * Entries are split between independently locked segments, each of which is a set-associative table: a key may only be
+ * stored in one of {@value #WAYS} slots, chosen by its hash. When all of them are full, an entry is evicted with the
+ * clock algorithm, skipping entries which have been read since the clock last passed them.
+ * <p>
+ * Lookups which hit the cache do not allocate, and in the absence of concurrent writes to the same segment do not lock.
+ * Caches created with a name report their statistics to {@link CacheMetrics}.
+ *
+ * @param <T> Type of cached values
+ */
+public class SeededLongCache<T> {
+    private static final int WAYS = 8;
+    private static final int MAX_SEGMENTS = 16;
+    
+    private final Segment[] segments;
+    private final int segmentMask;
+    private final int setMask;
+    private final Loader<T> loader;
+    private final CacheCounter counter = new CacheCounter();
+    private final long bytesPerValue;
+    
+    /**
+     * @param capacity Minimum number of entries to hold. Rounded up to a power of two.
+     * @param loader   Function to compute values missing from the cache. Must not return null.
+     */
+    public SeededLongCache(int capacity, Loader<T> loader) {
+        this(capacity, 0, loader);
+    }
+    
+    private SeededLongCache(int capacity, long bytesPerValue, Loader<T> loader) {
+        this.loader = loader;
+        this.bytesPerValue = bytesPerValue;
+        
+        int size = Integer.highestOneBit(Math.max(capacity, WAYS) - 1) << 1;
+        int segmentCount = Math.max(1, Math.min(MAX_SEGMENTS, size / (WAYS * 64)));
+        int sets = size / (segmentCount * WAYS);
+        
+        this.segments = new Segment[segmentCount];
+        for(int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(sets * WAYS);
+        }
+        this.segmentMask = segmentCount - 1;
+        this.setMask = sets - 1;
+    }
+    
+    /**
+     * @param name     Name to report statistics to {@link CacheMetrics} under.
+     * @param capacity Minimum number of entries to hold. Rounded up to a power of two.
+     * @param loader   Function to compute values missing from the cache. Must not return null.
+     */
+    public SeededLongCache(String name, int capacity, Loader<T> loader) {
+        this(name, capacity, 0, loader);
+    }
+    
+    /**
+     * @param name          Name to report statistics to {@link CacheMetrics} under.
+     * @param capacity      Minimum number of entries to hold. Rounded up to a power of two.
+     * @param bytesPerValue Estimated memory used by each cached value, in bytes, for reporting.
+     * @param loader        Function to compute values missing from the cache. Must not return null.
+     */
+    public SeededLongCache(String name, int capacity, long bytesPerValue, Loader<T> loader) {
+        this(capacity, bytesPerValue, loader);
+        CacheMetrics.register(name, this, cache -> cache.counter.stats(cache.size(), cache.estimatedBytes()));
+    }
+    
+    private static int hash(long key, long seed) {
+        long h = (key ^ (seed * 0x9E3779B97F4A7C15L)) * 0xBF58476D1CE4E5B9L;
+        h ^= h >>> 31;
+        h *= 0x94D049BB133111EBL;
+        return (int) (h ^ (h >>> 32));
+    }
+    
+    /**
+     * Gets the value for a key, computing and caching it if it is absent.
+     */
+    @SuppressWarnings("unchecked")
+    public T get(long key, long seed) {
+        int hash = hash(key, seed);
+        Segment segment = segments[(hash >>> 24) & segmentMask];
+        int set = (hash & setMask) * WAYS;
+        
+        Object value = segment.find(key, seed, set, true);
+        if(value == null) {
+            counter.miss();
+            long start = System.nanoTime();
+            value = loader.load(key, seed);
+            counter.load(System.nanoTime() - start);
+            if(segment.insert(key, seed, set, value)) counter.eviction();
+        } else {
+            counter.hit();
+        }
+        return (T) value;
+    }
+    
+    /**
+     * @return Whether a value for the key is cached. Does not count as a use of the entry.
+     */
+    public boolean contains(long key, long seed) {
+        int hash = hash(key, seed);
+        Segment segment = segments[(hash >>> 24) & segmentMask];
+        return segment.find(key, seed, (hash & setMask) * WAYS, false) != null;
+    }
+    
+    /**
+     * Computes and caches the value for a key ahead of time, if it is absent. Preloads are not counted as hits or misses,
+     * so statistics reflect only values which were actually requested.
+     */
+    public void preload(long key, long seed) {
+        int hash = hash(key, seed);
+        Segment segment = segments[(hash >>> 24) & segmentMask];
+        int set = (hash & setMask) * WAYS;
+        
+        if(segment.find(key, seed, set, false) != null) return;
+        if(segment.insert(key, seed, set, loader.load(key, seed))) counter.eviction();
+    }
+    
+    /**
+     * Removes every entry from the cache.
+     */
+    public void clear() {
+        for(Segment segment : segments) {
+            segment.clear();
+        }
+    }
+    
+    /**
+     * @return Number of entries in the cache. Not exact while other threads are writing to it.
+     */
+    public int size() {
+        int size = 0;
+        for(Segment segment : segments) {
+            for(Object value : segment.values) {
+                if(value != null) size++;
+            }
+        }
+        return size;
+    }
+    
+    private long estimatedBytes() {
+        long slots = (long) segments.length * segments[0].values.length;
+        // key, seed, compressed value reference and referenced flag
+        return slots * (Long.BYTES * 2 + 4 + 1) + size() * bytesPerValue;
+    }
+    
+    @FunctionalInterface
+    public interface Loader<T> {
+        T load(long key, long seed);
+    }
+    
+    
+    private static final class Segment {
+        private final StampedLock lock = new StampedLock();
+        
+        private final long[] keys;
+        private final long[] seeds;
+        private final Object[] values; // null where the slot is empty
+        private final boolean[] referenced;
+        
+        private final int[] hands; // clock hand of each set
+        
+        private Segment(int slots) {
+            this.keys = new long[slots];
+            this.seeds = new long[slots];
+            this.values = new Object[slots];
+            this.referenced = new boolean[slots];
+            this.hands = new int[slots / WAYS];
+        }
+        
+        /**
+         * @param reference Whether to mark the entry as used, protecting it from the next pass of the clock
+         */
+        private Object find(long key, long seed, int set, boolean reference) {
+            long stamp = lock.tryOptimisticRead();
+            int slot = scan(key, seed, set);
+            Object value = slot < 0 ? null : values[slot];
+            if(!lock.validate(stamp)) {
+                stamp = lock.readLock();
+                try {
+                    slot = scan(key, seed, set);
+                    value = slot < 0 ? null : values[slot];
+                } finally {
+                    lock.unlockRead(stamp);
+                }
+            }
+            if(value != null && reference) {
+                referenced[slot] = true; // only a hint for eviction, so racing with writers is harmless
+            }
+            return value;
+        }
+        
+        private int scan(long key, long seed, int set) {
+            for(int slot = set; slot < set + WAYS; slot++) {
+                if(keys[slot] == key && seeds[slot] == seed && values[slot] != null) {
+                    return slot;
+                }
+            }
+            return -1;
+        }
+        
+        /**
+         * @return Whether an entry was evicted to make room.
+         */
+        private boolean insert(long key, long seed, int set, Object value) {
+            long stamp = lock.writeLock();
+            try {
+                if(scan(key, seed, set) >= 0) return false; // loaded concurrently by another thread
+                
+                int slot = -1;
+                for(int i = set; i < set + WAYS; i++) {
+                    if(values[i] == null) {
+                        slot = i;
+                        break;
+                    }
+                }
+                if(slot < 0) {
+                    int hand = hands[set / WAYS];
+                    while(referenced[set + hand]) {
+                        referenced[set + hand] = false;
+                        hand = (hand + 1) & (WAYS - 1);
+                    }
+                    slot = set + hand;
+                    hands[set / WAYS] = (hand + 1) & (WAYS - 1);
+                }
+                
+                boolean evicted = values[slot] != null;
+                keys[slot] = key;
+                seeds[slot] = seed;
+                values[slot] = value;
+                referenced[slot] = false;
+                return evicted;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+        
+        private void clear() {
+            long stamp = lock.writeLock();
+            try {
+                Arrays.fill(values, null);
+                Arrays.fill(referenced, false);
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+    }
+}
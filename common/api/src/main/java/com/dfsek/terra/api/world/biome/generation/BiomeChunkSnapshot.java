@@ -0,0 +1,249 @@
+package com.dfsek.terra.api.world.biome.generation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import com.dfsek.terra.api.util.Column;
+import com.dfsek.terra.api.util.function.IntIntObjConsumer;
+import com.dfsek.terra.api.world.biome.Biome;
+
+
+/**
+ * The biomes of a single chunk plus a border around it, resolved once and shared by everything generating that chunk.
+ * <p>
+ * Columns are resolved lazily, the first time they are requested, and stored as runs of identical biomes produced by
+ * {@link BiomeProvider#forBiomeRuns(int, int, long, int, int, IntIntObjConsumer)}, so they have the same vertical
+ * resolution as the provider. Requests outside of the snapshot fall through to the {@link BiomeProvider}.
+ */
+public class BiomeChunkSnapshot {
+    private final BiomeProvider provider;
+    private final int chunkX;
+    private final int chunkZ;
+    private final long seed;
+    private final int min;
+    private final int max;
+    private final int border;
+    
+    private final int originX;
+    private final int originZ;
+    private final int width;
+    
+    private final BiomeRunColumn[] columns;
+    private final Optional<?>[] baseBiomes;
+    
+    /**
+     * @param provider Provider to resolve biomes from
+     * @param chunkX   Chunk X coordinate
+     * @param chunkZ   Chunk Z coordinate
+     * @param seed     World seed
+     * @param min      Minimum Y coordinate (inclusive)
+     * @param max      Maximum Y coordinate (exclusive)
+     * @param border   Number of columns to include on each side of the chunk. The snapshot covers
+     *                 {@code [chunk origin - border, chunk origin + 16 + border]} on each axis.
+     */
+    public BiomeChunkSnapshot(BiomeProvider provider, int chunkX, int chunkZ, long seed, int min, int max, int border) {
+        this.provider = provider;
+        this.chunkX = chunkX;
+        this.chunkZ = chunkZ;
+        this.seed = seed;
+        this.min = min;
+        this.max = max;
+        this.border = border;
+        this.originX = (chunkX << 4) - border;
+        this.originZ = (chunkZ << 4) - border;
+        this.width = 17 + 2 * border;
+        this.columns = new BiomeRunColumn[width * width];
+        this.baseBiomes = new Optional<?>[width * width];
+    }
+    
+    private int index(int x, int z) {
+        int localX = x - originX;
+        int localZ = z - originZ;
+        if(localX < 0 || localZ < 0 || localX >= width || localZ >= width) return -1;
+        return localX + localZ * width;
+    }
+    
+    /**
+     * Gets the biome column at a pair of world coordinates.
+     */
+    public Column<Biome> getColumn(int x, int z) {
+        int index = index(x, z);
+        if(index < 0) return provider.getColumn(x, z, seed, min, max);
+        
+        // Racing threads may both resolve a column; they produce identical, immutable results.
+        BiomeRunColumn column = columns[index];
+        if(column == null) {
+            column = BiomeRunColumn.resolve(provider, x, z, seed, min, max);
+            columns[index] = column;
+        }
+        return column;
+    }
+    
+    /**
+     * Gets the biome at a set of world coordinates.
+     */
+    public Biome getBiome(int x, int y, int z) {
+        if(y < min || y >= max) return provider.getBiome(x, y, z, seed);
+        return getColumn(x, z).get(y);
+    }
+    
+    /**
+     * Gets the base biome at a pair of world coordinates.
+     *
+     * @see BiomeProvider#getBaseBiome(int, int, long)
+     */
+    @SuppressWarnings("unchecked")
+    public Optional<Biome> getBaseBiome(int x, int z) {
+        int index = index(x, z);
+        if(index < 0) return provider.getBaseBiome(x, z, seed);
+        
+        Optional<Biome> biome = (Optional<Biome>) baseBiomes[index];
+        if(biome == null) {
+            biome = provider.getBaseBiome(x, z, seed);
+            baseBiomes[index] = biome;
+        }
+        return biome;
+    }
+    
+    /**
+     * Gets whether this snapshot contains everything another with the given parameters would.
+     */
+    public boolean covers(int chunkX, int chunkZ, long seed, int min, int max, int border) {
+        return this.chunkX == chunkX && this.chunkZ == chunkZ && this.seed == seed && this.min <= min && this.max >= max &&
+               this.border >= border;
+    }
+    
+    public int getChunkX() {
+        return chunkX;
+    }
+    
+    public int getChunkZ() {
+        return chunkZ;
+    }
+    
+    public long getSeed() {
+        return seed;
+    }
+    
+    public int getMinY() {
+        return min;
+    }
+    
+    public int getMaxY() {
+        return max;
+    }
+    
+    public int getBorder() {
+        return border;
+    }
+    
+    /**
+     * @return Rough estimate of the memory used by this snapshot once every column has been resolved, in bytes.
+     */
+    public long estimatedBytes() {
+        return estimatedBytes(border);
+    }
+    
+    /**
+     * @return Rough estimate of the memory used by a snapshot with the given border once every column has been resolved,
+     *         in bytes.
+     */
+    public static long estimatedBytes(int border) {
+        long width = 17 + 2L * border;
+        return width * width * 104; // two array slots and a column of a few biome runs per column
+    }
+    
+    public BiomeProvider getProvider() {
+        return provider;
+    }
+    
+    
+    /**
+     * A column stored as runs of identical biomes.
+     */
+    private static final class BiomeRunColumn implements Column<Biome> {
+        private final int x;
+        private final int z;
+        private final int min;
+        private final int max;
+        private final int[] runMins;
+        private final Biome[] biomes;
+        
+        private final BiomeProvider provider;
+        private final long seed;
+        
+        private BiomeRunColumn(int x, int z, int min, int max, int[] runMins, Biome[] biomes, BiomeProvider provider, long seed) {
+            this.x = x;
+            this.z = z;
+            this.min = min;
+            this.max = max;
+            this.runMins = runMins;
+            this.biomes = biomes;
+            this.provider = provider;
+            this.seed = seed;
+        }
+        
+        private static BiomeRunColumn resolve(BiomeProvider provider, int x, int z, long seed, int min, int max) {
+            List<Integer> runMins = new ArrayList<>();
+            List<Biome> biomes = new ArrayList<>();
+            provider.forBiomeRuns(x, z, seed, min, max, (runMin, runMax, biome) -> {
+                runMins.add(runMin);
+                biomes.add(biome);
+            });
+            
+            int[] mins = new int[runMins.size()];
+            for(int i = 0; i < mins.length; i++) {
+                mins[i] = runMins.get(i);
+            }
+            return new BiomeRunColumn(x, z, min, max, mins, biomes.toArray(new Biome[0]), provider, seed);
+        }
+        
+        @Override
+        public int getMinY() {
+            return min;
+        }
+        
+        @Override
+        public int getMaxY() {
+            return max;
+        }
+        
+        @Override
+        public int getX() {
+            return x;
+        }
+        
+        @Override
+        public int getZ() {
+            return z;
+        }
+        
+        @Override
+        public Biome get(int y) {
+            if(y < min || y >= max) return provider.getBiome(x, y, z, seed);
+            int low = 0;
+            int high = runMins.length - 1;
+            while(low < high) {
+                int mid = (low + high + 1) >>> 1;
+                if(runMins[mid] <= y) {
+                    low = mid;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return biomes[low];
+        }
+        
+        /*
+         * Runs are already at the provider's resolution, so they are passed on as they are whatever resolution is asked
+         * for. Probing them at a coarser resolution could only lose detail.
+         */
+        @Override
+        public void forRanges(int resolution, IntIntObjConsumer<Biome> consumer) {
+            for(int i = 0; i < runMins.length; i++) {
+                consumer.accept(runMins[i], i + 1 < runMins.length ? runMins[i + 1] : max, biomes[i]);
+            }
+        }
+    }
+}
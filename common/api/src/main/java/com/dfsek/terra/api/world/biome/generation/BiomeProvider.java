@@ -14,6 +14,7 @@ import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 import com.dfsek.terra.api.util.Column;
+import com.dfsek.terra.api.util.function.IntIntObjConsumer;
 import com.dfsek.terra.api.util.vector.Vector3;
 import com.dfsek.terra.api.util.vector.Vector3Int;
 import com.dfsek.terra.api.world.biome.Biome;
@@ -76,6 +77,41 @@ public interface BiomeProvider {
         return new BiomeColumn(this, min, max, x, z, seed);
     }
     
+    /**
+     * Passes each run of identical biomes in a column to a consumer, from the bottom up.
+     * <p>
+     * The default probes the column every {@link #resolution()} blocks. Providers which know the shape of their columns
+     * override this to produce runs without probing.
+     *
+     * @param x        X coordinate
+     * @param z        Z coordinate
+     * @param seed     World seed
+     * @param min      Minimum Y coordinate (inclusive)
+     * @param max      Maximum Y coordinate (exclusive)
+     * @param consumer Consumer accepting the minimum (inclusive) and maximum (exclusive) Y coordinates of each run, and its
+     *                 biome
+     */
+    default void forBiomeRuns(int x, int z, long seed, int min, int max, IntIntObjConsumer<Biome> consumer) {
+        getColumn(x, z, seed, min, max).forRanges(resolution(), consumer);
+    }
+    
+    /**
+     * Gets a snapshot of the biomes in a chunk, to be shared by everything generating it.
+     *
+     * @param chunkX Chunk X coordinate
+     * @param chunkZ Chunk Z coordinate
+     * @param seed   World seed
+     * @param min    Minimum Y coordinate (inclusive)
+     * @param max    Maximum Y coordinate (exclusive)
+     * @param border Number of columns needed on each side of the chunk
+     *
+     * @return A snapshot containing at least the requested area. Implementations may return a previously created snapshot
+     *         which covers it.
+     */
+    default BiomeChunkSnapshot getChunkSnapshot(int chunkX, int chunkZ, long seed, int min, int max, int border) {
+        return new BiomeChunkSnapshot(this, chunkX, chunkZ, seed, min, max, border);
+    }
+    
     /**
      * Get all biomes this {@link BiomeProvider} is capable of generating in the world.
      * <p>
@@ -1,12 +1,11 @@
 package com.dfsek.terra.api.world.biome.generation;
 
-import com.github.benmanes.caffeine.cache.Caffeine;
-import com.github.benmanes.caffeine.cache.LoadingCache;
-import com.github.benmanes.caffeine.cache.Scheduler;
-
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
 
 import com.dfsek.terra.api.Handle;
+import com.dfsek.terra.api.util.cache.SeededLongCache;
+import com.dfsek.terra.api.util.function.IntIntObjConsumer;
 import com.dfsek.terra.api.world.biome.Biome;
 
 
@@ -18,24 +17,47 @@ import com.dfsek.terra.api.world.biome.Biome;
 public class CachingBiomeProvider implements BiomeProvider, Handle {
     protected final BiomeProvider delegate;
     private final int res;
-    private final LoadingCache<SeededVector3, Biome> cache;
-    private final LoadingCache<SeededVector2, Optional<Biome>> baseCache;
+    private final SeededLongCache<Biome> cache;
+    private final SeededLongCache<Optional<Biome>> baseCache;
+    // Keyed by chunk. Holds the newest snapshot of each chunk, which is replaced if a request needs more than it covers.
+    private final SeededLongCache<AtomicReference<BiomeChunkSnapshot>> snapshots =
+            new SeededLongCache<>("biome_provider.chunk_snapshot", 64, BiomeChunkSnapshot.estimatedBytes(2),
+                                  (key, seed) -> new AtomicReference<>());
     
     protected CachingBiomeProvider(BiomeProvider delegate) {
         this.delegate = delegate;
         this.res = delegate.resolution();
-        this.cache = Caffeine
-                .newBuilder()
-                .scheduler(Scheduler.disabledScheduler())
-                .initialCapacity(98304)
-                .maximumSize(98304) // 1 full chunk (high res)
-                .build(vec -> delegate.getBiome(vec.x * res, vec.y * res, vec.z * res, vec.seed));
-
-        this.baseCache = Caffeine
-                .newBuilder()
-                .maximumSize(256) // 1 full chunk (high res)
-                .build(vec -> delegate.getBaseBiome(vec.x * res, vec.z * res, vec.seed));
-
+        this.cache = new SeededLongCache<>("biome_provider.biome", 98304, // 1 full chunk (high res)
+                                           (key, seed) -> delegate.getBiome(unpackX(key) * res, unpackY(key) * res,
+                                                                            unpackZ(key) * res, seed));
+        
+        this.baseCache = new SeededLongCache<>("biome_provider.base_biome", 256, // 1 full chunk (high res)
+                                               (key, seed) -> delegate.getBaseBiome((int) (key >> 32) * res, (int) key * res,
+                                                                                    seed));
+    }
+    
+    /*
+     * 3D keys pack X and Z into 26 bits each and Y into 12 bits, enough for any world Minecraft can load. Coordinates
+     * outside of that range bypass the cache.
+     */
+    private static boolean fits(int x, int y, int z) {
+        return x == (x << 6) >> 6 && z == (z << 6) >> 6 && y == (y << 20) >> 20;
+    }
+    
+    private static long pack(int x, int y, int z) {
+        return ((long) x << 38) | (((long) z & 0x3FFFFFFL) << 12) | (y & 0xFFFL);
+    }
+    
+    private static int unpackX(long key) {
+        return (int) (key >> 38);
+    }
+    
+    private static int unpackY(long key) {
+        return (int) ((key << 52) >> 52);
+    }
+    
+    private static int unpackZ(long key) {
+        return (int) ((key << 26) >> 38);
     }
     
     @Override
@@ -45,12 +67,36 @@ public class CachingBiomeProvider implements BiomeProvider, Handle {
     
     @Override
     public Biome getBiome(int x, int y, int z, long seed) {
-        return cache.get(new SeededVector3(x / res, y / res, z / res, seed));
+        int cx = x / res;
+        int cy = y / res;
+        int cz = z / res;
+        if(!fits(cx, cy, cz)) return delegate.getBiome(cx * res, cy * res, cz * res, seed);
+        return cache.get(pack(cx, cy, cz), seed);
     }
     
     @Override
     public Optional<Biome> getBaseBiome(int x, int z, long seed) {
-        return baseCache.get(new SeededVector2(x / res, z / res, seed));
+        return baseCache.get(((long) (x / res) << 32) | ((z / res) & 0xFFFFFFFFL), seed);
+    }
+    
+    /*
+     * Runs come straight from the delegate, which knows the shape of its columns. Snapshots, which are the only users of
+     * runs here, already cache them.
+     */
+    @Override
+    public void forBiomeRuns(int x, int z, long seed, int min, int max, IntIntObjConsumer<Biome> consumer) {
+        delegate.forBiomeRuns(x, z, seed, min, max, consumer);
+    }
+    
+    @Override
+    public BiomeChunkSnapshot getChunkSnapshot(int chunkX, int chunkZ, long seed, int min, int max, int border) {
+        AtomicReference<BiomeChunkSnapshot> slot = snapshots.get(((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL), seed);
+        BiomeChunkSnapshot snapshot = slot.get();
+        if(snapshot == null || !snapshot.covers(chunkX, chunkZ, seed, min, max, border)) {
+            snapshot = new BiomeChunkSnapshot(this, chunkX, chunkZ, seed, min, max, border);
+            slot.set(snapshot);
+        }
+        return snapshot;
     }
     
     @Override
@@ -62,40 +108,4 @@ public class CachingBiomeProvider implements BiomeProvider, Handle {
     public int resolution() {
         return delegate.resolution();
     }
-    
-    private record SeededVector3(int x, int y, int z, long seed) {
-        @Override
-        public boolean equals(Object obj) {
-            if(obj instanceof SeededVector3 that) {
-                return this.y == that.y && this.z == that.z && this.x == that.x && this.seed == that.seed;
-            }
-            return false;
-        }
-        
-        @Override
-        public int hashCode() {
-            int code = x;
-            code = 31 * code + y;
-            code = 31 * code + z;
-            return 31 * code + ((int) (seed ^ (seed >>> 32)));
-        }
-    }
-
-
-    private record SeededVector2(int x, int z, long seed) {
-        @Override
-        public boolean equals(Object obj) {
-            if(obj instanceof SeededVector2 that) {
-                return this.z == that.z && this.x == that.x && this.seed == that.seed;
-            }
-            return false;
-        }
-        
-        @Override
-        public int hashCode() {
-            int code = x;
-            code = 31 * code + z;
-            return 31 * code + ((int) (seed ^ (seed >>> 32)));
-        }
-    }
 }
@@ -9,6 +9,8 @@ package com.dfsek.terra.api.world.chunk.generation;
 
 import org.jetbrains.annotations.NotNull;
 
+import java.util.function.Predicate;
+
 import com.dfsek.terra.api.block.state.BlockState;
 import com.dfsek.terra.api.util.vector.Vector3;
 import com.dfsek.terra.api.util.vector.Vector3Int;
@@ -31,5 +33,37 @@ public interface ChunkGenerator {
         return getBlock(world, vector3.getX(), vector3.getY(), vector3.getZ(), biomeProvider);
     }
     
+    /**
+     * Gets every block in a column, as {@link #getBlock(WorldProperties, int, int, int, BiomeProvider)} would.
+     * <p>
+     * The default implementation queries each block separately. Generators which can compute a whole column in one pass
+     * should override this.
+     *
+     * @return The blocks in the column, indexed by {@code y - world.getMinHeight()}.
+     */
+    default BlockState[] getColumn(WorldProperties world, int x, int z, BiomeProvider biomeProvider) {
+        int min = world.getMinHeight();
+        BlockState[] column = new BlockState[world.getMaxHeight() - min];
+        for(int y = world.getMaxHeight() - 1; y >= min; y--) {
+            column[y - min] = getBlock(world, x, y, z, biomeProvider);
+        }
+        return column;
+    }
+    
+    /**
+     * Gets the Y coordinate directly above the highest block in a column which matches a predicate.
+     * <p>
+     * The default implementation queries each block separately, from the top of the world down. Generators which can
+     * compute a whole column in one pass should override this.
+     *
+     * @return The Y coordinate above the highest matching block, or the world's minimum height if no block matches.
+     */
+    default int getSurfaceHeight(WorldProperties world, int x, int z, BiomeProvider biomeProvider, Predicate<BlockState> predicate) {
+        for(int y = world.getMaxHeight() - 1; y >= world.getMinHeight(); y--) {
+            if(predicate.test(getBlock(world, x, y, z, biomeProvider))) return y + 1;
+        }
+        return world.getMinHeight();
+    }
+    
     Palette getPalette(int x, int y, int z, WorldProperties world, BiomeProvider biomeProvider);
 }
@@ -0,0 +1,76 @@
+package profiler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import com.dfsek.terra.api.profiler.Histogram;
+import com.dfsek.terra.api.profiler.Timings;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+public class HistogramTest {
+    @Test
+    public void testSmallValuesAreExact() {
+        Histogram histogram = new Histogram();
+        for(int i = 1; i <= 50; i++) {
+            histogram.record(i);
+        }
+        assertEquals(50, histogram.count());
+        assertEquals(1, histogram.min());
+        assertEquals(50, histogram.max());
+        assertEquals(25, histogram.percentile(50));
+        assertEquals(50, histogram.percentile(100));
+        assertEquals(25.5, histogram.mean());
+    }
+    
+    @Test
+    public void testPercentilesWithinPrecision() {
+        Random random = new Random(0);
+        long[] values = new long[100000];
+        Histogram histogram = new Histogram();
+        for(int i = 0; i < values.length; i++) {
+            values[i] = (long) Math.exp(random.nextDouble() * 25); // up to tens of milliseconds in nanoseconds
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+        for(double percentile : new double[]{ 1, 10, 50, 90, 99, 99.9 }) {
+            long exact = values[(int) Math.ceil(percentile / 100 * values.length) - 1];
+            long approximate = histogram.percentile(percentile);
+            assertTrue(approximate >= exact && approximate <= exact * 1.04 + 1,
+                       percentile + "th percentile: expected " + exact + ", got " + approximate);
+        }
+        assertEquals(values[0], histogram.min());
+        assertEquals(values[values.length - 1], histogram.max());
+    }
+    
+    @Test
+    public void testAdd() {
+        Histogram a = new Histogram();
+        Histogram b = new Histogram();
+        a.record(10);
+        b.record(1000000);
+        b.record(-5);
+        a.add(b);
+        assertEquals(3, a.count());
+        assertEquals(0, a.min());
+        assertEquals(1000000, a.max());
+        assertEquals(1000010, a.sum());
+    }
+    
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testTimingsList() {
+        Timings timings = new Timings();
+        timings.addTime(40);
+        timings.addTime(3);
+        timings.addTime(1000);
+        timings.addTime(3);
+        assertEquals(List.of(3L, 3L, 40L, 1000L), timings.getTimings());
+        assertEquals(4, timings.getHistogram().count());
+        assertEquals(1046, timings.getHistogram().sum());
+    }
+}
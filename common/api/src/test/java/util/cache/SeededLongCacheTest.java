@@ -0,0 +1,110 @@
+package util.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import com.dfsek.terra.api.util.cache.CacheMetrics;
+import com.dfsek.terra.api.util.cache.SeededLongCache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+public class SeededLongCacheTest {
+    @Test
+    public void testLoadsOnce() {
+        AtomicInteger loads = new AtomicInteger();
+        SeededLongCache<String> cache = new SeededLongCache<>(1024, (key, seed) -> {
+            loads.incrementAndGet();
+            return key + ":" + seed;
+        });
+        
+        assertEquals("5:2", cache.get(5, 2));
+        assertEquals("5:2", cache.get(5, 2));
+        assertEquals(1, loads.get());
+        
+        assertEquals("5:3", cache.get(5, 3));
+        assertEquals("-5:2", cache.get(-5, 2));
+        assertEquals(3, loads.get());
+    }
+    
+    @Test
+    public void testEviction() {
+        AtomicInteger loads = new AtomicInteger();
+        SeededLongCache<Long> cache = new SeededLongCache<>(64, (key, seed) -> {
+            loads.incrementAndGet();
+            return key;
+        });
+        
+        for(long key = 0; key < 10000; key++) {
+            assertEquals(key, (long) cache.get(key, 0));
+        }
+        assertEquals(10000, loads.get());
+        
+        for(long key = 0; key < 10000; key++) {
+            assertEquals(key, (long) cache.get(key, 0));
+        }
+        assertTrue(loads.get() > 10000);
+    }
+    
+    @Test
+    public void testConcurrentAccess() {
+        SeededLongCache<Long> cache = new SeededLongCache<>(256, (key, seed) -> key * 31 + seed);
+        LongStream.range(0, 200000).parallel().forEach(i -> {
+            long key = i % 1000;
+            assertEquals(key * 31 + 7, (long) cache.get(key, 7));
+        });
+    }
+    
+    @Test
+    public void testClear() {
+        AtomicInteger loads = new AtomicInteger();
+        SeededLongCache<Long> cache = new SeededLongCache<>(64, (key, seed) -> {
+            loads.incrementAndGet();
+            return key;
+        });
+        cache.get(1, 0);
+        cache.clear();
+        cache.get(1, 0);
+        assertEquals(2, loads.get());
+    }
+    
+    @Test
+    public void testPreload() {
+        AtomicInteger loads = new AtomicInteger();
+        SeededLongCache<Long> cache = new SeededLongCache<>("test.seeded_long_cache_preload", 64, (key, seed) -> {
+            loads.incrementAndGet();
+            return key;
+        });
+        assertFalse(cache.contains(1, 0));
+        cache.preload(1, 0);
+        cache.preload(1, 0);
+        assertTrue(cache.contains(1, 0));
+        assertFalse(cache.contains(1, 1));
+        assertEquals(1, loads.get());
+        
+        assertEquals(1, (long) cache.get(1, 0));
+        assertEquals(1, loads.get());
+        
+        CacheMetrics.Stats stats = CacheMetrics.snapshot().get("test.seeded_long_cache_preload");
+        assertEquals(1, stats.hits());
+        assertEquals(0, stats.misses()); // preloads are not lookups
+    }
+    
+    @Test
+    public void testMetrics() {
+        SeededLongCache<Long> cache = new SeededLongCache<>("test.seeded_long_cache", 64, (key, seed) -> key);
+        for(long key = 0; key < 100; key++) {
+            cache.get(key, 0);
+            cache.get(key, 0);
+        }
+        
+        CacheMetrics.Stats stats = CacheMetrics.snapshot().get("test.seeded_long_cache");
+        assertEquals(100, stats.hits());
+        assertEquals(100, stats.misses());
+        assertTrue(stats.size() <= 64);
+        assertEquals(100 - stats.size(), stats.evictions()); // every entry not still cached was evicted
+        assertEquals(0.5, stats.hitRate());
+    }
+}
@@ -0,0 +1,38 @@
+dependencies {
+    implementation(project(":platforms:cli"))
+    implementation(project(":common:addons:config-noise-function"))
+    
+    implementation("org.openjdk.jmh", "jmh-core", Versions.Benchmarks.jmh)
+    annotationProcessor("org.openjdk.jmh", "jmh-generator-annprocess", Versions.Benchmarks.jmh)
+}
+
+val runDir = file("$buildDir/run")
+
+val compileAddons = tasks.create("compileAddons") {
+    forSubProjects(":common:addons") {
+        afterEvaluate {
+            dependsOn(getJarTask())
+        }
+    }
+}
+
+val copyBenchmarkPack = tasks.register<Sync>("copyBenchmarkPack") {
+    from(file("pack"))
+    into(File(runDir, "packs/benchmark"))
+}
+
+/*
+ * Runs every benchmark. JMH options can be passed with -Pjmh="<options>", e.g. -Pjmh="NoiseSamplerBenchmark -f 1".
+ */
+val jmh = tasks.register<JavaExec>("jmh") {
+    group = "terra"
+    dependsOn(copyBenchmarkPack)
+    
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("org.openjdk.jmh.Main")
+    workingDir = runDir
+    
+    (findProperty("jmh") as String?)?.let { args = it.split(" ").filter(String::isNotBlank) }
+}
+
+addonDir(File(runDir, "addons"), jmh.get())
@@ -0,0 +1,35 @@
+package com.dfsek.terra.benchmarks;
+
+import com.dfsek.terra.api.config.ConfigPack;
+import com.dfsek.terra.api.event.events.platform.PlatformInitializationEvent;
+import com.dfsek.terra.cli.CLIPlatform;
+
+
+/**
+ * Loads the benchmark pack on a headless CLI platform.
+ * <p>
+ * The pack is read from {@code packs/benchmark} and addons from {@code addons} in the working directory, both of which
+ * are set up by the {@code jmh} Gradle task.
+ */
+public final class BenchmarkPack {
+    /**
+     * Seed used by every benchmark, so results are comparable across runs.
+     */
+    public static final long SEED = 2403L;
+    
+    private static ConfigPack pack;
+    
+    private BenchmarkPack() {
+    }
+    
+    public static synchronized ConfigPack get() {
+        if(pack == null) {
+            CLIPlatform platform = new CLIPlatform();
+            platform.getEventManager().callEvent(new PlatformInitializationEvent());
+            pack = platform.getConfigRegistry()
+                           .getByID("BENCHMARK")
+                           .orElseThrow(() -> new IllegalStateException("Benchmark pack is not loaded. Run benchmarks with the jmh task."));
+        }
+        return pack;
+    }
+}
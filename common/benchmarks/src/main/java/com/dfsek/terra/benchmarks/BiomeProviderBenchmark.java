@@ -0,0 +1,84 @@
+package com.dfsek.terra.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+import com.dfsek.terra.api.world.biome.generation.BiomeChunkSnapshot;
+import com.dfsek.terra.api.world.biome.generation.BiomeProvider;
+
+
+/**
+ * Looks up the biome of every column of a chunk, moving to a new chunk each invocation, through the pack's pipeline
+ * biome provider directly, through a {@link com.dfsek.terra.api.world.biome.generation.CachingBiomeProvider}, and
+ * through chunk snapshots of the caching provider.
+ * <p>
+ * Results are per column.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BiomeProviderBenchmark {
+    private static final int ROW = 64;
+    private static final int Y = 64;
+    
+    private BiomeProvider pipeline;
+    private BiomeProvider caching;
+    private int index;
+    
+    @Setup
+    public void setup() {
+        pipeline = BenchmarkPack.get().getBiomeProvider();
+        caching = pipeline.caching();
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(256)
+    public void pipelineGetBiome(Blackhole blackhole) {
+        getBiomes(pipeline, index++, blackhole);
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(256)
+    public void cachingGetBiome(Blackhole blackhole) {
+        getBiomes(caching, index++, blackhole);
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(256)
+    public void cachingChunkSnapshot(Blackhole blackhole) {
+        int chunk = index++;
+        int chunkX = chunk % ROW;
+        int chunkZ = chunk / ROW;
+        BiomeChunkSnapshot snapshot = caching.getChunkSnapshot(chunkX, chunkZ, BenchmarkPack.SEED, -64, 320, 0);
+        for(int x = 0; x < 16; x++) {
+            for(int z = 0; z < 16; z++) {
+                blackhole.consume(snapshot.getBiome((chunkX << 4) + x, Y, (chunkZ << 4) + z));
+            }
+        }
+    }
+    
+    private static void getBiomes(BiomeProvider provider, int chunk, Blackhole blackhole) {
+        int originX = (chunk % ROW) << 4;
+        int originZ = (chunk / ROW) << 4;
+        for(int x = 0; x < 16; x++) {
+            for(int z = 0; z < 16; z++) {
+                blackhole.consume(provider.getBiome(originX + x, Y, originZ + z, BenchmarkPack.SEED));
+            }
+        }
+    }
+}
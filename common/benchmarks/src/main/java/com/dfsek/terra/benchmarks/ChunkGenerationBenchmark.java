@@ -0,0 +1,57 @@
+package com.dfsek.terra.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import com.dfsek.terra.api.world.biome.generation.BiomeProvider;
+import com.dfsek.terra.api.world.chunk.generation.ChunkGenerator;
+import com.dfsek.terra.cli.world.CLIWorld;
+import com.dfsek.terra.cli.world.chunk.CLIChunk;
+
+
+/**
+ * Generates base terrain into fresh {@link CLIChunk}s. Chunks are generated in rows of 64, never revisiting a chunk, so
+ * generator caches behave as they would when generating a world.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChunkGenerationBenchmark {
+    private static final int ROW = 64;
+    
+    private CLIWorld world;
+    private ChunkGenerator generator;
+    private BiomeProvider biomeProvider;
+    private int index;
+    
+    @Setup
+    public void setup() {
+        world = new CLIWorld(0, BenchmarkPack.SEED, 320, -64, BenchmarkPack.get(), 1);
+        generator = world.getGenerator();
+        biomeProvider = world.getBiomeProvider();
+    }
+    
+    @Benchmark
+    public CLIChunk generateChunkData() {
+        int x = index % ROW;
+        int z = index / ROW;
+        index++;
+        
+        CLIChunk chunk = new CLIChunk(x, z, world);
+        generator.generateChunkData(chunk, world, biomeProvider, x, z);
+        return chunk;
+    }
+}
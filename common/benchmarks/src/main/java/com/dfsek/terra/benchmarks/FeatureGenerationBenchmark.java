@@ -0,0 +1,54 @@
+package com.dfsek.terra.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import com.dfsek.terra.cli.world.CLIWorld;
+
+
+/**
+ * Populates chunks with the feature generation stage, the only stage in the benchmark pack.
+ * <p>
+ * Every iteration generates base terrain for a fresh area of {@value #SIZE}x{@value #SIZE} chunks plus a 1 chunk
+ * border, then populates each chunk in it exactly once, so no chunk is populated twice.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, batchSize = FeatureGenerationBenchmark.SIZE * FeatureGenerationBenchmark.SIZE)
+@Measurement(iterations = 10, batchSize = FeatureGenerationBenchmark.SIZE * FeatureGenerationBenchmark.SIZE)
+@Fork(1)
+public class FeatureGenerationBenchmark {
+    static final int SIZE = 8;
+    
+    private CLIWorld world;
+    private int index;
+    
+    @Setup(Level.Iteration)
+    public void setup() {
+        world = new CLIWorld(0, BenchmarkPack.SEED, 320, -64, BenchmarkPack.get(), 1);
+        for(int x = -1; x <= SIZE; x++) {
+            for(int z = -1; z <= SIZE; z++) {
+                world.generateBase(x, z);
+            }
+        }
+        index = 0;
+    }
+    
+    @Benchmark
+    public void populate() {
+        world.populate(index % SIZE, (index / SIZE) % SIZE);
+        index++;
+    }
+}
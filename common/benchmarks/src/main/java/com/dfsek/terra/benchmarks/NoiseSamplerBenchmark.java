@@ -0,0 +1,199 @@
+package com.dfsek.terra.benchmarks;
+
+import com.dfsek.paralithic.eval.tokenizer.ParseException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.image.BufferedImage;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import com.dfsek.terra.addons.noise.compiler.SamplerCompiler;
+import com.dfsek.terra.addons.noise.normalizer.ClampNormalizer;
+import com.dfsek.terra.addons.noise.normalizer.ExpressionNormalizer;
+import com.dfsek.terra.addons.noise.normalizer.LinearNormalizer;
+import com.dfsek.terra.addons.noise.normalizer.NormalNormalizer;
+import com.dfsek.terra.addons.noise.normalizer.PosterizationNormalizer;
+import com.dfsek.terra.addons.noise.normalizer.ProbabilityNormalizer;
+import com.dfsek.terra.addons.noise.normalizer.ScaleNormalizer;
+import com.dfsek.terra.addons.noise.samplers.DomainWarpedSampler;
+import com.dfsek.terra.addons.noise.samplers.ImageSampler;
+import com.dfsek.terra.addons.noise.samplers.KernelSampler;
+import com.dfsek.terra.addons.noise.samplers.LinearHeightmapSampler;
+import com.dfsek.terra.addons.noise.samplers.TranslateSampler;
+import com.dfsek.terra.addons.noise.samplers.arithmetic.AdditionSampler;
+import com.dfsek.terra.addons.noise.samplers.arithmetic.DivisionSampler;
+import com.dfsek.terra.addons.noise.samplers.arithmetic.MaxSampler;
+import com.dfsek.terra.addons.noise.samplers.arithmetic.MinSampler;
+import com.dfsek.terra.addons.noise.samplers.arithmetic.MultiplicationSampler;
+import com.dfsek.terra.addons.noise.samplers.arithmetic.SubtractionSampler;
+import com.dfsek.terra.addons.noise.samplers.noise.CellularSampler;
+import com.dfsek.terra.addons.noise.samplers.noise.ConstantSampler;
+import com.dfsek.terra.addons.noise.samplers.noise.DistanceSampler;
+import com.dfsek.terra.addons.noise.samplers.noise.ExpressionFunction;
+import com.dfsek.terra.addons.noise.samplers.noise.GaborNoiseSampler;
+import com.dfsek.terra.addons.noise.samplers.noise.NoiseFunction;
+import com.dfsek.terra.addons.noise.samplers.noise.fractal.BrownianMotionSampler;
+import com.dfsek.terra.addons.noise.samplers.noise.fractal.PingPongSampler;
+import com.dfsek.terra.addons.noise.samplers.noise.fractal.RidgedFractalSampler;
+import com.dfsek.terra.addons.noise.samplers.noise.random.GaussianNoiseSampler;
+import com.dfsek.terra.addons.noise.samplers.noise.random.PositiveWhiteNoiseSampler;
+import com.dfsek.terra.addons.noise.samplers.noise.random.WhiteNoiseSampler;
+import com.dfsek.terra.addons.noise.samplers.noise.simplex.OpenSimplex2SSampler;
+import com.dfsek.terra.addons.noise.samplers.noise.simplex.OpenSimplex2Sampler;
+import com.dfsek.terra.addons.noise.samplers.noise.simplex.PerlinSampler;
+import com.dfsek.terra.addons.noise.samplers.noise.simplex.SimplexSampler;
+import com.dfsek.terra.addons.noise.samplers.noise.value.ValueCubicSampler;
+import com.dfsek.terra.addons.noise.samplers.noise.value.ValueSampler;
+import com.dfsek.terra.api.noise.NoiseSampler;
+
+
+/**
+ * Samples every type of {@link NoiseSampler} registered by the noise addon, by the name it is configured with.
+ * <p>
+ * Samplers which wrap others wrap OpenSimplex2 noise. Points move along a fixed path so that no two consecutive samples
+ * are at the same position. Results are per sample.
+ * <p>
+ * Forks have the Vector API available, so bulk samples use vectorized kernels where a sampler has them. Compare with the
+ * scalar paths with {@code -jvmArgsAppend -Dterra.noise.vector=false}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "--add-modules", "jdk.incubator.vector" })
+public class NoiseSamplerBenchmark {
+    private static final int COLUMN = 384;
+    
+    @Param({
+            "OPEN_SIMPLEX_2", "OPEN_SIMPLEX_2S", "PERLIN", "SIMPLEX", "VALUE", "VALUE_CUBIC", "GABOR", "GABOR_TRUNCATED", "CELLULAR",
+            "WHITE_NOISE", "POSITIVE_WHITE_NOISE", "GAUSSIAN", "DISTANCE", "CONSTANT", "EXPRESSION",
+            "FBM", "PING_PONG", "RIDGED", "DOMAIN_WARP", "KERNEL", "LINEAR_HEIGHTMAP", "TRANSLATE", "IMAGE",
+            "ADD", "SUB", "MUL", "DIV", "MAX", "MIN",
+            "LINEAR", "NORMAL", "CLAMP", "PROBABILITY", "SCALE", "POSTERIZATION", "EXPRESSION_NORMALIZER"
+    })
+    public String type;
+    
+    /**
+     * Whether to compile the sampler, as packs with {@code noise.compile} enabled do. Compare with
+     * {@code -p compiled=true}.
+     */
+    @Param("false")
+    public boolean compiled;
+    
+    private NoiseSampler sampler;
+    private final double[] column = new double[COLUMN];
+    private int index;
+    
+    private static NoiseSampler simplex() {
+        OpenSimplex2Sampler sampler = new OpenSimplex2Sampler();
+        sampler.setFrequency(0.01);
+        return sampler;
+    }
+    
+    private static <T extends NoiseFunction> T frequency(T function) {
+        function.setFrequency(0.01);
+        return function;
+    }
+    
+    private static BufferedImage image() {
+        BufferedImage image = new BufferedImage(256, 256, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(BenchmarkPack.SEED);
+        for(int x = 0; x < image.getWidth(); x++) {
+            for(int z = 0; z < image.getHeight(); z++) {
+                image.setRGB(x, z, random.nextInt(0xFFFFFF));
+            }
+        }
+        return image;
+    }
+    
+    private static NoiseSampler create(String type) throws ParseException {
+        return switch(type) {
+            case "OPEN_SIMPLEX_2" -> simplex();
+            case "OPEN_SIMPLEX_2S" -> frequency(new OpenSimplex2SSampler());
+            case "PERLIN" -> frequency(new PerlinSampler());
+            case "SIMPLEX" -> frequency(new SimplexSampler());
+            case "VALUE" -> frequency(new ValueSampler());
+            case "VALUE_CUBIC" -> frequency(new ValueCubicSampler());
+            case "GABOR" -> frequency(new GaborNoiseSampler());
+            case "GABOR_TRUNCATED" -> {
+                GaborNoiseSampler sampler = frequency(new GaborNoiseSampler());
+                sampler.setTruncate(true);
+                yield sampler;
+            }
+            case "CELLULAR" -> frequency(new CellularSampler());
+            case "WHITE_NOISE" -> new WhiteNoiseSampler();
+            case "POSITIVE_WHITE_NOISE" -> new PositiveWhiteNoiseSampler();
+            case "GAUSSIAN" -> new GaussianNoiseSampler();
+            case "DISTANCE" -> new DistanceSampler(DistanceSampler.DistanceFunction.Euclidean, 0, 0, 0, true, 256);
+            case "CONSTANT" -> new ConstantSampler(0.5);
+            case "EXPRESSION" -> new ExpressionFunction(Map.of(), "x * a + y * y * b - z", Map.of("a", 0.25, "b", 0.5));
+            case "FBM" -> new BrownianMotionSampler(simplex());
+            case "PING_PONG" -> new PingPongSampler(simplex());
+            case "RIDGED" -> new RidgedFractalSampler(simplex());
+            case "DOMAIN_WARP" -> new DomainWarpedSampler(simplex(), frequency(new OpenSimplex2Sampler()), 16);
+            case "KERNEL" -> new KernelSampler(new double[][]{
+                    { 0.0625, 0.125, 0.0625 },
+                    { 0.125, 0.25, 0.125 },
+                    { 0.0625, 0.125, 0.0625 }
+            }, simplex());
+            case "LINEAR_HEIGHTMAP" -> new LinearHeightmapSampler(simplex(), 16, 64);
+            case "TRANSLATE" -> new TranslateSampler(simplex(), 100, 0, -100);
+            case "IMAGE" -> new ImageSampler(image(), ImageSampler.Channel.RED, 1);
+            case "ADD" -> new AdditionSampler(simplex(), simplex());
+            case "SUB" -> new SubtractionSampler(simplex(), simplex());
+            case "MUL" -> new MultiplicationSampler(simplex(), simplex());
+            case "DIV" -> new DivisionSampler(simplex(), new ConstantSampler(2));
+            case "MAX" -> new MaxSampler(simplex(), simplex());
+            case "MIN" -> new MinSampler(simplex(), simplex());
+            case "LINEAR" -> new LinearNormalizer(simplex(), -0.5, 0.5);
+            case "NORMAL" -> new NormalNormalizer(simplex(), 16384, 0, 0.25);
+            case "CLAMP" -> new ClampNormalizer(simplex(), -0.5, 0.5);
+            case "PROBABILITY" -> new ProbabilityNormalizer(simplex());
+            case "SCALE" -> new ScaleNormalizer(simplex(), 2);
+            case "POSTERIZATION" -> new PosterizationNormalizer(simplex(), 4);
+            case "EXPRESSION_NORMALIZER" -> new ExpressionNormalizer(simplex(), Map.of(), "in * in * in", Map.of());
+            default -> throw new IllegalArgumentException("Unknown sampler type: " + type);
+        };
+    }
+    
+    @Setup
+    public void setup() throws ParseException {
+        sampler = compiled ? SamplerCompiler.compile(create(type)) : create(type);
+    }
+    
+    @Benchmark
+    public double noise2D() {
+        int i = index++;
+        return sampler.noise(BenchmarkPack.SEED, i * 0.7, i * 0.3);
+    }
+    
+    @Benchmark
+    public double noise3D() {
+        int i = index++;
+        return sampler.noise(BenchmarkPack.SEED, i * 0.7, (i & 255) - 64, i * 0.3);
+    }
+    
+    /**
+     * A full column of a chunk through the bulk path, as sampled by the noise 3D chunk generator.
+     */
+    @Benchmark
+    @OperationsPerInvocation(COLUMN)
+    public double[] noiseColumn() {
+        int i = index++;
+        sampler.noiseColumn(BenchmarkPack.SEED, i * 0.7, i * 0.3, -64, 1, column, 0, COLUMN);
+        return column;
+    }
+}
@@ -0,0 +1,103 @@
+package com.dfsek.terra.benchmarks;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import com.dfsek.terra.api.util.cache.SeededLongCache;
+
+
+/**
+ * Compares {@link SeededLongCache} to the Caffeine cache {@code CachingBiomeProvider} used before it, configured the
+ * same way and keyed by an allocated record as it was.
+ * <p>
+ * Keys are drawn at random from a working set which either fits in the cache, or is larger than it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SeededLongCacheBenchmark {
+    private static final int CAPACITY = 98304; // same as CachingBiomeProvider
+    private static final Object[] VALUES = new Object[1024];
+    
+    static {
+        for(int i = 0; i < VALUES.length; i++) {
+            VALUES[i] = new Object();
+        }
+    }
+    
+    @Param({ "16384", "1048576" })
+    public int keys;
+    
+    private SeededLongCache<Object> cache;
+    private LoadingCache<SeededKey, Object> caffeine;
+    
+    private static Object load(long key, long seed) {
+        return VALUES[(int) ((key ^ seed) & (VALUES.length - 1))];
+    }
+    
+    @Setup(Level.Iteration)
+    public void setup() {
+        cache = new SeededLongCache<>(CAPACITY, SeededLongCacheBenchmark::load);
+        caffeine = Caffeine
+                .newBuilder()
+                .scheduler(Scheduler.disabledScheduler())
+                .initialCapacity(CAPACITY)
+                .maximumSize(CAPACITY)
+                .build(key -> load(key.key(), key.seed()));
+    }
+    
+    @Benchmark
+    public Object seededLongCache(Cursor cursor) {
+        return cache.get(cursor.next(keys), BenchmarkPack.SEED);
+    }
+    
+    @Benchmark
+    public Object caffeine(Cursor cursor) {
+        return caffeine.get(new SeededKey(cursor.next(keys), BenchmarkPack.SEED));
+    }
+    
+    @Benchmark
+    @Threads(4)
+    public Object seededLongCacheContended(Cursor cursor) {
+        return cache.get(cursor.next(keys), BenchmarkPack.SEED);
+    }
+    
+    @Benchmark
+    @Threads(4)
+    public Object caffeineContended(Cursor cursor) {
+        return caffeine.get(new SeededKey(cursor.next(keys), BenchmarkPack.SEED));
+    }
+    
+    @State(Scope.Thread)
+    public static class Cursor {
+        private long state = 1;
+        
+        long next(int keys) {
+            state = state * 6364136223846793005L + 1442695040888963407L;
+            return (state >>> 33) % keys;
+        }
+    }
+    
+    
+    private record SeededKey(long key, long seed) {
+    }
+}
@@ -67,6 +67,14 @@ public class PluginConfigImpl implements ConfigTemplate, PluginConfig {
     @Default
     private int providerCache = 32;
     
+    @Value("cache.pipeline-chunk")
+    @Default
+    private int pipelineChunkCache = 64;
+    
+    @Value("cache.pipeline-prefetch")
+    @Default
+    private boolean pipelineChunkPrefetch = true;
+    
     @Value("dump-default")
     @Default
     private boolean dumpDefaultData = true;
@@ -137,4 +145,14 @@ public class PluginConfigImpl implements ConfigTemplate, PluginConfig {
     public int getProviderCache() {
         return providerCache;
     }
+    
+    @Override
+    public int getPipelineChunkCache() {
+        return pipelineChunkCache;
+    }
+    
+    @Override
+    public boolean isPipelineChunkPrefetch() {
+        return pipelineChunkPrefetch;
+    }
 }
@@ -0,0 +1,132 @@
+/*
+ * This file is part of Terra.
+ *
+ * Terra is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Terra is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Terra.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package com.dfsek.terra.profiler;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.dfsek.terra.api.profiler.Timings;
+
+
+/**
+ * Writes profiler timings out in formats read by other tools. Frames are written in order of name, so reports of
+ * different runs can be compared directly.
+ */
+final class ProfileWriter {
+    private static final double[] PERCENTILES = { 50, 90, 99, 99.9 };
+    
+    private ProfileWriter() {
+    }
+    
+    static void writeCollapsedStacks(Map<String, Timings> timings, Writer writer) throws IOException {
+        for(Map.Entry<String, Timings> entry : new TreeMap<>(timings).entrySet()) {
+            writeCollapsedStack(collapsedName(entry.getKey()), entry.getValue(), writer);
+        }
+    }
+    
+    private static void writeCollapsedStack(String stack, Timings timings, Writer writer) throws IOException {
+        long self = timings.getHistogram().sum();
+        for(Timings child : timings.getSubItems().values()) {
+            self -= child.getHistogram().sum();
+        }
+        if(self > 0) {
+            writer.append(stack).append(' ').append(Long.toString(self)).append('\n');
+        }
+        for(Map.Entry<String, Timings> entry : new TreeMap<>(timings.getSubItems()).entrySet()) {
+            writeCollapsedStack(stack + ';' + collapsedName(entry.getKey()), entry.getValue(), writer);
+        }
+    }
+    
+    private static String collapsedName(String frame) {
+        return frame.replace(';', '_').replace(' ', '_').replace('\n', '_');
+    }
+    
+    static void writeJson(Map<String, Timings> timings, Writer writer) throws IOException {
+        writer.append("{\n  \"unit\": \"ns\",\n  \"frames\": ");
+        writeJsonFrames(timings, writer, "  ");
+        writer.append("\n}\n");
+    }
+    
+    private static void writeJsonFrames(Map<String, Timings> frames, Writer writer, String indent) throws IOException {
+        if(frames.isEmpty()) {
+            writer.append("[]");
+            return;
+        }
+        writer.append("[\n");
+        boolean first = true;
+        for(Map.Entry<String, Timings> entry : new TreeMap<>(frames).entrySet()) {
+            if(!first) writer.append(",\n");
+            first = false;
+            writeJsonFrame(entry.getKey(), entry.getValue(), writer, indent + "  ");
+        }
+        writer.append('\n').append(indent).append(']');
+    }
+    
+    private static void writeJsonFrame(String name, Timings timings, Writer writer, String indent) throws IOException {
+        String fieldIndent = indent + "  ";
+        writer.append(indent).append("{\n");
+        writer.append(fieldIndent).append("\"name\": ");
+        writeJsonString(name, writer);
+        writer.append(",\n");
+        writeJsonField("count", timings.count(), writer, fieldIndent);
+        writeJsonField("total", timings.getHistogram().sum(), writer, fieldIndent);
+        writeJsonField("min", timings.min(), writer, fieldIndent);
+        writer.append(fieldIndent).append("\"mean\": ").append(Double.toString(timings.average())).append(",\n");
+        writeJsonField("max", timings.max(), writer, fieldIndent);
+        writer.append(fieldIndent).append("\"percentiles\": {");
+        for(int i = 0; i < PERCENTILES.length; i++) {
+            if(i > 0) writer.append(',');
+            writer.append(" \"").append(percentileName(PERCENTILES[i])).append("\": ")
+                  .append(Long.toString(timings.percentile(PERCENTILES[i])));
+        }
+        writer.append(" },\n");
+        writer.append(fieldIndent).append("\"children\": ");
+        writeJsonFrames(timings.getSubItems(), writer, fieldIndent);
+        writer.append('\n').append(indent).append('}');
+    }
+    
+    private static String percentileName(double percentile) {
+        return percentile == Math.rint(percentile) ? "p" + (long) percentile : "p" + Double.toString(percentile);
+    }
+    
+    private static void writeJsonField(String name, long value, Writer writer, String indent) throws IOException {
+        writer.append(indent).append('"').append(name).append("\": ").append(Long.toString(value)).append(",\n");
+    }
+    
+    private static void writeJsonString(String string, Writer writer) throws IOException {
+        writer.append('"');
+        for(int i = 0; i < string.length(); i++) {
+            char c = string.charAt(i);
+            switch(c) {
+                case '"' -> writer.append("\\\"");
+                case '\\' -> writer.append("\\\\");
+                case '\n' -> writer.append("\\n");
+                case '\r' -> writer.append("\\r");
+                case '\t' -> writer.append("\\t");
+                default -> {
+                    if(c < 0x20) writer.append(String.format("\\u%04x", (int) c));
+                    else writer.append(c);
+                }
+            }
+        }
+        writer.append('"');
+    }
+}
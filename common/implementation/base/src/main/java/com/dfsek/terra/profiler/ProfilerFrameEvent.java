@@ -0,0 +1,45 @@
+/*
+ * This file is part of Terra.
+ *
+ * Terra is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Terra is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Terra.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package com.dfsek.terra.profiler;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+
+/**
+ * Flight Recorder event covering a frame timed by the profiler, such as a generation stage or feature. Only emitted
+ * while the profiler is running and a recording has the event enabled.
+ */
+@Name("com.dfsek.terra.ProfilerFrame")
+@Label("Terra Profiler Frame")
+@Category({ "Terra", "Profiler" })
+@Description("A frame timed by the Terra profiler, such as a generation stage or feature")
+@StackTrace(false)
+final class ProfilerFrameEvent extends Event {
+    @Label("Frame")
+    String frame;
+    
+    @Label("Stack")
+    @Description("Frames the frame was pushed within, separated by semicolons")
+    String stack;
+}
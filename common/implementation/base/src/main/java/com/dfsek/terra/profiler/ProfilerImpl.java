@@ -15,33 +15,62 @@
  * along with Terra.  If not, see <https://www.gnu.org/licenses/>.
  */
 
+
 package com.dfsek.terra.profiler;
 
+import jdk.jfr.EventType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Stack;
+import java.util.concurrent.ConcurrentHashMap;
 
+import com.dfsek.terra.api.profiler.Histogram;
 import com.dfsek.terra.api.profiler.Profiler;
 import com.dfsek.terra.api.profiler.Timings;
-import com.dfsek.terra.api.util.mutable.MutableInteger;
 import com.dfsek.terra.profiler.exception.MalformedStackException;
 
 
+/**
+ * Frame names are interned into integer IDs, and each distinct stack of frames into a node ID, so pushing and popping
+ * only touch primitive arrays. Each thread records into its own histograms, which are merged when timings are queried.
+ * <p>
+ * While a Flight Recorder recording has {@link ProfilerFrameEvent} enabled, every frame is also emitted as an event.
+ */
 public class ProfilerImpl implements Profiler {
     private static final Logger logger = LoggerFactory.getLogger(ProfilerImpl.class);
     
-    private static final ThreadLocal<Stack<Frame>> THREAD_STACK = ThreadLocal.withInitial(Stack::new);
-    private static final ThreadLocal<Map<String, List<Long>>> TIMINGS = ThreadLocal.withInitial(HashMap::new);
-    private static final ThreadLocal<Boolean> SAFE = ThreadLocal.withInitial(() -> false);
-    private static final ThreadLocal<MutableInteger> STACK_SIZE = ThreadLocal.withInitial(() -> new MutableInteger(0));
+    private static final int ROOT = -1; // parent node of top level frames
+    private static final EventType FRAME_EVENT = EventType.getEventType(ProfilerFrameEvent.class);
     private static boolean instantiated = false;
-    private final List<Map<String, List<Long>>> accessibleThreadMaps = new ArrayList<>();
+    
+    private final Map<String, Integer> frameIds = new ConcurrentHashMap<>();
+    private final List<String> frameNames = new ArrayList<>();
+    
+    private final Map<Long, Integer> nodeIds = new HashMap<>(); // guarded by nodeFrames
+    private final List<Integer> nodeParents = new ArrayList<>();
+    private final List<Integer> nodeFrames = new ArrayList<>();
+    // written before a node's ID is handed out, so any thread holding the ID can read its entry
+    private volatile String[] nodeNames = new String[64];
+    private volatile String[] nodePaths = new String[64];
+    
+    private final List<ThreadProfile> threadProfiles = new ArrayList<>();
+    private final ThreadLocal<ThreadProfile> threadProfile = ThreadLocal.withInitial(() -> {
+        ThreadProfile profile = new ThreadProfile();
+        synchronized(threadProfiles) {
+            threadProfiles.add(profile);
+        }
+        return profile;
+    });
+    
     private volatile boolean running = false;
+    private volatile int session = 0; // incremented on every start, so threads drop frames pushed before it
     
     public ProfilerImpl() {
         if(instantiated)
@@ -49,49 +78,96 @@ public class ProfilerImpl implements Profiler {
         instantiated = true;
     }
     
+    private static long nodeKey(int parent, int frame) {
+        return ((long) (parent + 1) << 32) | frame;
+    }
+    
+    private static long[] filledKeys(int size) {
+        long[] keys = new long[size];
+        Arrays.fill(keys, -1L);
+        return keys;
+    }
+    
+    @Override
+    public int register(String frame) {
+        Integer id = frameIds.get(frame);
+        if(id != null) return id;
+        synchronized(frameNames) {
+            return frameIds.computeIfAbsent(frame, name -> {
+                frameNames.add(name);
+                return frameNames.size() - 1;
+            });
+        }
+    }
+    
     @Override
     public void push(String frame) {
-        if(running) {
-            STACK_SIZE.get().increment();
-            if(SAFE.get()) {
-                Stack<Frame> stack = THREAD_STACK.get();
-                stack.push(new Frame(stack.isEmpty() ? frame : stack.peek().getId() + "." + frame));
-            } else SAFE.set(false);
-        } else SAFE.set(false);
+        if(running) push(register(frame));
     }
     
     @Override
     public void pop(String frame) {
+        if(running) pop(register(frame));
+    }
+    
+    @Override
+    public void push(int frame) {
         if(running) {
-            MutableInteger size = STACK_SIZE.get();
-            size.decrement();
-            if(SAFE.get()) {
-                long time = System.nanoTime();
-                Stack<Frame> stack = THREAD_STACK.get();
-                
-                Map<String, List<Long>> timingsMap = TIMINGS.get();
+            ThreadProfile profile = threadProfile.get();
+            int session = this.session;
+            if(profile.session != session) { // frames pushed before profiling (re)started can't be timed
+                profile.session = session;
+                profile.depth = 0;
+            }
+            profile.push(frame, System.nanoTime());
+        }
+    }
+    
+    @Override
+    public void pop(int frame) {
+        if(running) {
+            long time = System.nanoTime();
+            ThreadProfile profile = threadProfile.get();
+            if(profile.session != session || profile.depth == 0) return; // pushed before profiling started
+            
+            int top = profile.frames[profile.depth - 1];
+            if(top != frame) throw new MalformedStackException("Expected " + frameName(frame) + ", found " + frameName(top));
+            profile.pop(time);
+        }
+    }
+    
+    private String frameName(int frame) {
+        synchronized(frameNames) {
+            return frame >= 0 && frame < frameNames.size() ? frameNames.get(frame) : "<unregistered frame " + frame + ">";
+        }
+    }
+    
+    private int node(int parent, int frame) {
+        synchronized(nodeFrames) {
+            return nodeIds.computeIfAbsent(nodeKey(parent, frame), key -> {
+                int node = nodeFrames.size();
+                nodeParents.add(parent);
+                nodeFrames.add(frame);
                 
-                if(timingsMap.isEmpty()) {
-                    synchronized(accessibleThreadMaps) {
-                        accessibleThreadMaps.add(timingsMap);
-                    }
+                String[] names = nodeNames;
+                String[] paths = nodePaths;
+                if(node == names.length) {
+                    names = Arrays.copyOf(names, node * 2);
+                    paths = Arrays.copyOf(paths, node * 2);
                 }
-                
-                Frame top = stack.pop();
-                if(!stack.isEmpty() ? !top.getId().endsWith("." + frame) : !top.getId().equals(frame))
-                    throw new MalformedStackException("Expected " + frame + ", found " + top);
-                
-                List<Long> timings = timingsMap.computeIfAbsent(top.getId(), id -> new ArrayList<>());
-                
-                timings.add(time - top.getStart());
-            }
-            if(size.get() == 0) SAFE.set(true);
+                names[node] = frameName(frame);
+                paths[node] = parent == ROOT ? names[node] : paths[parent] + ';' + names[node];
+                nodeNames = names;
+                nodePaths = paths;
+                return node;
+            });
         }
     }
     
     @Override
     public void start() {
         logger.info("Starting Terra profiler");
+        session++;
         running = true;
     }
     
@@ -104,22 +180,156 @@ public class ProfilerImpl implements Profiler {
     @Override
     public void reset() {
         logger.info("Resetting Terra profiler");
-        accessibleThreadMaps.forEach(Map::clear);
+        synchronized(threadProfiles) {
+            for(ThreadProfile profile : threadProfiles) {
+                for(Histogram histogram : profile.histograms) {
+                    if(histogram != null) histogram.reset();
+                }
+            }
+        }
     }
     
     @Override
     public Map<String, Timings> getTimings() {
+        int[] parents;
+        String[] names;
+        synchronized(nodeFrames) {
+            parents = new int[nodeFrames.size()];
+            names = new String[nodeFrames.size()];
+            for(int i = 0; i < parents.length; i++) {
+                parents[i] = nodeParents.get(i);
+                names[i] = frameName(nodeFrames.get(i));
+            }
+        }
+        
         Map<String, Timings> map = new HashMap<>();
-        synchronized(accessibleThreadMaps) {
-            accessibleThreadMaps.forEach(smap -> smap.forEach((key, list) -> {
-                String[] keys = key.split("\\.");
-                Timings timings = map.computeIfAbsent(keys[0], id -> new Timings());
-                for(int i = 1; i < keys.length; i++) {
-                    timings = timings.getSubItem(keys[i]);
+        Timings[] nodeTimings = new Timings[parents.length];
+        synchronized(threadProfiles) {
+            for(ThreadProfile profile : threadProfiles) {
+                Histogram[] histograms = profile.histograms;
+                for(int node = 0; node < histograms.length && node < parents.length; node++) {
+                    if(histograms[node] != null && histograms[node].count() > 0) {
+                        timings(node, parents, names, nodeTimings, map).addTimes(histograms[node]);
+                    }
                 }
-                new ArrayList<>(list).forEach(timings::addTime);
-            }));
+            }
         }
         return map;
     }
+    
+    @Override
+    public void writeCollapsedStacks(Writer writer) throws IOException {
+        ProfileWriter.writeCollapsedStacks(getTimings(), writer);
+    }
+    
+    @Override
+    public void writeJson(Writer writer) throws IOException {
+        ProfileWriter.writeJson(getTimings(), writer);
+    }
+    
+    private static Timings timings(int node, int[] parents, String[] names, Timings[] nodeTimings, Map<String, Timings> roots) {
+        Timings timings = nodeTimings[node];
+        if(timings == null) {
+            timings = parents[node] == ROOT
+                      ? roots.computeIfAbsent(names[node], name -> new Timings())
+                      : timings(parents[node], parents, names, nodeTimings, roots).getSubItem(names[node]);
+            nodeTimings[node] = timings;
+        }
+        return timings;
+    }
+    
+    /**
+     * The stack and recorded timings of one thread. Only ever modified by that thread.
+     */
+    private final class ThreadProfile {
+        private int session = -1;
+        private int depth = 0;
+        private int[] frames = new int[16];
+        private int[] nodes = new int[16];
+        private long[] starts = new long[16];
+        private ProfilerFrameEvent[] events = new ProfilerFrameEvent[16];
+        
+        private volatile Histogram[] histograms = new Histogram[16]; // indexed by node
+        
+        // node IDs of child frames, cached per thread so resolving them doesn't need to lock
+        private long[] childKeys = filledKeys(64);
+        private int[] childNodes = new int[64];
+        private int children = 0;
+        
+        private void push(int frame, long time) {
+            if(depth == frames.length) {
+                frames = Arrays.copyOf(frames, depth * 2);
+                nodes = Arrays.copyOf(nodes, depth * 2);
+                starts = Arrays.copyOf(starts, depth * 2);
+                events = Arrays.copyOf(events, depth * 2);
+            }
+            frames[depth] = frame;
+            nodes[depth] = child(depth == 0 ? ROOT : nodes[depth - 1], frame);
+            starts[depth] = time;
+            ProfilerFrameEvent event = null;
+            if(FRAME_EVENT.isEnabled()) {
+                event = new ProfilerFrameEvent();
+                event.begin();
+            }
+            events[depth] = event;
+            depth++;
+        }
+        
+        private void pop(long time) {
+            depth--;
+            int node = nodes[depth];
+            Histogram[] histograms = this.histograms;
+            if(node >= histograms.length) {
+                histograms = Arrays.copyOf(histograms, Math.max(node + 1, histograms.length * 2));
+                this.histograms = histograms;
+            }
+            Histogram histogram = histograms[node];
+            if(histogram == null) {
+                histogram = new Histogram();
+                histograms[node] = histogram;
+            }
+            histogram.record(time - starts[depth]);
+            
+            ProfilerFrameEvent event = events[depth];
+            if(event != null) {
+                event.end();
+                if(event.shouldCommit()) {
+                    event.frame = nodeNames[node];
+                    event.stack = nodePaths[node];
+                    event.commit();
+                }
+            }
+        }
+        
+        private int child(int parent, int frame) {
+            long key = nodeKey(parent, frame);
+            int mask = childKeys.length - 1;
+            int slot = Long.hashCode(key * 0x9E3779B97F4A7C15L) & mask;
+            while(childKeys[slot] != -1L) {
+                if(childKeys[slot] == key) return childNodes[slot];
+                slot = (slot + 1) & mask;
+            }
+            int node = node(parent, frame);
+            childKeys[slot] = key;
+            childNodes[slot] = node;
+            if(++children * 2 > childKeys.length) rehash();
+            return node;
+        }
+        
+        private void rehash() {
+            long[] oldKeys = childKeys;
+            int[] oldNodes = childNodes;
+            childKeys = filledKeys(oldKeys.length * 2);
+            childNodes = new int[oldKeys.length * 2];
+            int mask = childKeys.length - 1;
+            for(int i = 0; i < oldKeys.length; i++) {
+                if(oldKeys[i] != -1L) {
+                    int slot = Long.hashCode(oldKeys[i] * 0x9E3779B97F4A7C15L) & mask;
+                    while(childKeys[slot] != -1L) slot = (slot + 1) & mask;
+                    childKeys[slot] = oldKeys[i];
+                    childNodes[slot] = oldNodes[i];
+                }
+            }
+        }
+    }
 }
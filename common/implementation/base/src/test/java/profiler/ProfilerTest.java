@@ -19,9 +19,14 @@ package profiler;
 
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.io.StringWriter;
+
 import com.dfsek.terra.api.profiler.Profiler;
 import com.dfsek.terra.profiler.ProfilerImpl;
 
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 
 public class ProfilerTest {
     private static final Profiler PROFILER = new ProfilerImpl();
@@ -79,4 +84,25 @@ public class ProfilerTest {
         
         PROFILER.getTimings().forEach((id, timings) -> System.out.println(id + ": " + timings.toString()));
     }
+    
+    @Test
+    public void testExport() throws InterruptedException, IOException {
+        PROFILER.reset();
+        PROFILER.start();
+        PROFILER.push("export");
+        PROFILER.push("export_child");
+        Thread.sleep(1);
+        PROFILER.pop("export_child");
+        PROFILER.pop("export");
+        PROFILER.stop();
+        
+        StringWriter collapsed = new StringWriter();
+        PROFILER.writeCollapsedStacks(collapsed);
+        assertTrue(collapsed.toString().contains("export;export_child "), collapsed.toString());
+        
+        StringWriter json = new StringWriter();
+        PROFILER.writeJson(json);
+        assertTrue(json.toString().contains("\"name\": \"export_child\""), json.toString());
+        assertTrue(json.toString().contains("\"p99\""), json.toString());
+    }
 }
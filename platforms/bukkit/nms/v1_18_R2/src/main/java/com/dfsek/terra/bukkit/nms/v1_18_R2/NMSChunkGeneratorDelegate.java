@@ -16,6 +16,7 @@ import net.minecraft.world.level.biome.Biome;
 import net.minecraft.world.level.biome.BiomeManager;
 import net.minecraft.world.level.biome.Climate;
 import net.minecraft.world.level.biome.Climate.Sampler;
+import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.level.chunk.ChunkAccess;
 import net.minecraft.world.level.chunk.ChunkGenerator;
 import net.minecraft.world.level.levelgen.GenerationStep;
@@ -104,17 +105,14 @@ public class NMSChunkGeneratorDelegate extends ChunkGenerator {
     
     @Override
     public @NotNull NoiseColumn getBaseColumn(int x, int z, LevelHeightAccessor height) {
-        /*
-        BlockState[] array = new BlockState[height.getHeight()];
         WorldProperties properties = new NMSWorldProperties(seed, height);
-        BiomeProvider biomeProvider = pack.getBiomeProvider().caching(properties);
-        for(int y = properties.getMaxHeight() - 1; y >= properties.getMinHeight(); y--) {
-            array[y - properties.getMinHeight()] = ((CraftBlockData) delegate.getBlock(properties, x, y, z, biomeProvider)
-                                                                             .getHandle()).getState();
+        BiomeProvider biomeProvider = pack.getBiomeProvider();
+        com.dfsek.terra.api.block.state.BlockState[] column = delegate.getColumn(properties, x, z, biomeProvider);
+        BlockState[] array = new BlockState[column.length];
+        for(int i = 0; i < column.length; i++) {
+            array[i] = ((CraftBlockData) column[i].getHandle()).getState();
         }
         return new NoiseColumn(getMinY(), array);
-         */
-        return vanilla.getBaseColumn(x, z, height);
     }
     
     @Override // withSeed
@@ -145,13 +143,9 @@ public class NMSChunkGeneratorDelegate extends ChunkGenerator {
     @Override
     public int getBaseHeight(int x, int z, Heightmap.@NotNull Types heightmap, @NotNull LevelHeightAccessor world) {
         WorldProperties properties = new NMSWorldProperties(seed, world);
-        int y = properties.getMaxHeight();
         BiomeProvider biomeProvider = pack.getBiomeProvider();
-        while(y >= getMinY() && !heightmap.isOpaque().test(
-                ((CraftBlockData) delegate.getBlock(properties, x, y - 1, z, biomeProvider).getHandle()).getState())) {
-            y--;
-        }
-        return y;
+        return delegate.getSurfaceHeight(properties, x, z, biomeProvider,
+                                         state -> heightmap.isOpaque().test(((CraftBlockData) state.getHandle()).getState()));
     }
     
     @Nullable
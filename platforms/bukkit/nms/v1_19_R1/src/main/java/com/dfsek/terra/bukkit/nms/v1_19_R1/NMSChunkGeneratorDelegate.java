@@ -168,29 +168,21 @@ public class NMSChunkGeneratorDelegate extends ChunkGenerator {
     @Override
     public int getBaseHeight(int x, int z, @NotNull Types heightmap, @NotNull LevelHeightAccessor world, @NotNull RandomState noiseConfig) {
         WorldProperties properties = new NMSWorldProperties(seed, world);
-        int y = properties.getMaxHeight();
         BiomeProvider biomeProvider = pack.getBiomeProvider();
-        while(y >= getMinY() && !heightmap.isOpaque().test(
-                ((CraftBlockData) delegate.getBlock(properties, x, y - 1, z, biomeProvider).getHandle()).getState())) {
-            y--;
-        }
-        return y;
+        return delegate.getSurfaceHeight(properties, x, z, biomeProvider,
+                                         state -> heightmap.isOpaque().test(((CraftBlockData) state.getHandle()).getState()));
     }
     
     @Override
     public @NotNull NoiseColumn getBaseColumn(int x, int z, @NotNull LevelHeightAccessor world, @NotNull RandomState noiseConfig) {
-        /*
-        BlockState[] array = new BlockState[world.getHeight()];
         WorldProperties properties = new NMSWorldProperties(seed, world);
-        BiomeProvider biomeProvider = pack.getBiomeProvider().caching(properties);
-        for(int y = properties.getMaxHeight() - 1; y >= properties.getMinHeight(); y--) {
-            array[y - properties.getMinHeight()] = ((CraftBlockData) delegate.getBlock(properties, x, y, z, biomeProvider)
-                                                                             .getHandle()).getState();
+        BiomeProvider biomeProvider = pack.getBiomeProvider();
+        com.dfsek.terra.api.block.state.BlockState[] column = delegate.getColumn(properties, x, z, biomeProvider);
+        BlockState[] array = new BlockState[column.length];
+        for(int i = 0; i < column.length; i++) {
+            array[i] = ((CraftBlockData) column[i].getHandle()).getState();
         }
         return new NoiseColumn(getMinY(), array);
-
-         */
-        return vanilla.getBaseColumn(x, z, world, noiseConfig);
     }
 
     @Override
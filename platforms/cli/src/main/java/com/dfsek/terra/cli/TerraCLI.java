@@ -1,45 +1,107 @@
 package com.dfsek.terra.cli;
 
-import net.querz.mca.MCAUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
 
 import com.dfsek.terra.api.config.ConfigPack;
 import com.dfsek.terra.api.event.events.platform.PlatformInitializationEvent;
-import com.dfsek.terra.api.util.vector.Vector2Int;
+import com.dfsek.terra.api.profiler.Profiler;
+import com.dfsek.terra.api.util.cache.CacheMetrics;
 import com.dfsek.terra.cli.world.CLIWorld;
 
 
 public final class TerraCLI {
     private static final Logger LOGGER = LoggerFactory.getLogger(TerraCLI.class);
     
-    public static void main(String... args) {
+    /**
+     * Arguments are passed as {@code --name=value} or {@code --name value}:
+     * <ul>
+     *     <li>{@code pack} - ID of the config pack to generate with. Defaults to {@code OVERWORLD}.</li>
+     *     <li>{@code seed} - World seed. Defaults to {@code 2}.</li>
+     *     <li>{@code radius} - Radius, in chunks, of the square area around the origin to generate. Defaults to {@code 32}.</li>
+     *     <li>{@code threads} - Number of generation threads. Defaults to one less than the number of processors.</li>
+     *     <li>{@code profile} - Directory to write profiling results to, as {@code profile.collapsed} and
+     *     {@code profile.json}. Generation is only profiled if this is set.</li>
+     * </ul>
+     */
+    public static void main(String... args) throws IOException {
         LOGGER.info("Starting Terra CLI...");
         
+        Map<String, String> arguments = parseArguments(args);
+        String packID = arguments.getOrDefault("pack", "OVERWORLD");
+        long seed = Long.parseLong(arguments.getOrDefault("seed", "2"));
+        int radius = Integer.parseInt(arguments.getOrDefault("radius", "32"));
+        int threads = Integer.parseInt(
+                arguments.getOrDefault("threads", Integer.toString(Math.max(1, Runtime.getRuntime().availableProcessors() - 1))));
+        
         CLIPlatform platform = new CLIPlatform();
         platform.getEventManager().callEvent(new PlatformInitializationEvent());
         
-        ConfigPack generate = platform.getConfigRegistry().getByID("OVERWORLD").orElseThrow(); // TODO: make this a cli argument
+        ConfigPack generate = platform.getConfigRegistry()
+                                      .getByID(packID)
+                                      .orElseThrow(() -> new IllegalArgumentException("No such config pack: " + packID));
         
-        CLIWorld world = new CLIWorld(2, 2, 384, -64, generate);
+        LOGGER.info("Generating pack {} with seed {}, radius {} on {} threads", packID, seed, radius, threads);
         
-        world.generate();
+        CLIWorld world = new CLIWorld(radius, seed, 384, -64, generate, threads);
+        
+        Profiler profiler = platform.getProfiler();
+        String profile = arguments.get("profile");
+        if(profile != null) profiler.start();
+        
+        try {
+            world.generate();
+        } catch(IllegalStateException | UncheckedIOException e) { // already logged by the scheduler or region writer
+            LOGGER.error("Generation failed, output is incomplete.");
+            System.exit(1);
+        }
+        
+        if(profile != null) {
+            profiler.stop();
+            writeProfile(profiler, Path.of(profile));
+        }
+        
+        CacheMetrics.snapshot().forEach((name, stats) -> LOGGER.info("Cache {}: {}", name, stats));
         
-        world.serialize().parallel().forEach(mcaFile -> {
-            Vector2Int pos = mcaFile.getLeft();
-            String name = MCAUtil.createNameFromRegionLocation(pos.getX(), pos.getZ());
-            LOGGER.info("Writing region ({}, {}) to {}", pos.getX(), pos.getZ(), name);
-            
-            try {
-                MCAUtil.write(mcaFile.getRight(), name);
-            } catch(IOException e) {
-                e.printStackTrace();
-            }
-            LOGGER.info("Wrote region to file.");
-        });
         LOGGER.info("Done.");
         System.exit(0);
     }
+    
+    private static void writeProfile(Profiler profiler, Path directory) throws IOException {
+        Files.createDirectories(directory);
+        try(Writer writer = Files.newBufferedWriter(directory.resolve("profile.collapsed"), StandardCharsets.UTF_8)) {
+            profiler.writeCollapsedStacks(writer);
+        }
+        try(Writer writer = Files.newBufferedWriter(directory.resolve("profile.json"), StandardCharsets.UTF_8)) {
+            profiler.writeJson(writer);
+        }
+        LOGGER.info("Wrote profiling results to {}", directory.toAbsolutePath());
+    }
+    
+    private static Map<String, String> parseArguments(String... args) {
+        Map<String, String> arguments = new HashMap<>();
+        for(int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if(!arg.startsWith("--")) throw new IllegalArgumentException("Unexpected argument: " + arg);
+            arg = arg.substring(2);
+            int split = arg.indexOf('=');
+            if(split >= 0) {
+                arguments.put(arg.substring(0, split), arg.substring(split + 1));
+            } else if(i + 1 < args.length) {
+                arguments.put(arg, args[++i]);
+            } else {
+                throw new IllegalArgumentException("Missing value for argument: " + arg);
+            }
+        }
+        return arguments;
+    }
 }
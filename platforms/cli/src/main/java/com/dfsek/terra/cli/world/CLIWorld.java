@@ -1,117 +1,107 @@
 package com.dfsek.terra.cli.world;
 
-import com.google.common.collect.Streams;
 import net.jafama.FastMath;
-import net.querz.mca.MCAFile;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicLong;
-import java.util.stream.Stream;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.dfsek.terra.api.block.entity.BlockEntity;
 import com.dfsek.terra.api.block.state.BlockState;
 import com.dfsek.terra.api.config.ConfigPack;
 import com.dfsek.terra.api.entity.Entity;
 import com.dfsek.terra.api.entity.EntityType;
-import com.dfsek.terra.api.util.generic.pair.Pair;
-import com.dfsek.terra.api.util.vector.Vector2Int;
 import com.dfsek.terra.api.util.vector.Vector3;
 import com.dfsek.terra.api.world.ServerWorld;
 import com.dfsek.terra.api.world.biome.generation.BiomeProvider;
 import com.dfsek.terra.api.world.chunk.generation.ChunkGenerator;
 import com.dfsek.terra.api.world.chunk.generation.ProtoWorld;
-import com.dfsek.terra.cli.NBTSerializable;
 import com.dfsek.terra.cli.world.chunk.CLIChunk;
 
 
-public class CLIWorld implements ServerWorld, NBTSerializable<Stream<Pair<Vector2Int, MCAFile>>> {
+public class CLIWorld implements ServerWorld {
     private static final Logger LOGGER = LoggerFactory.getLogger(CLIWorld.class);
-    private final Region[] regions;
-    private final Region[] negativeRegions;
-    private final int size;
+    private static final int WRITE_QUEUE_SIZE = 4;
+    
+    private final Map<Long, Region> regions = new ConcurrentHashMap<>();
+    private final Set<Long> written = ConcurrentHashMap.newKeySet();
+    private final int radius;
+    private final int threads;
     private final long seed;
     private final int maxHeight;
     private final int minHeight;
     private final ChunkGenerator chunkGenerator;
     private final BiomeProvider biomeProvider;
     private final ConfigPack pack;
-    private final AtomicInteger amount = new AtomicInteger(0);
-    
-    private final ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors() - 1);
     
-    public CLIWorld(int size,
+    /**
+     * @param radius  Radius, in chunks, of the square area around the origin to generate
+     * @param threads Number of threads to generate with
+     */
+    public CLIWorld(int radius,
                     long seed,
                     int maxHeight,
                     int minHeight,
-                    ConfigPack pack) {
-        this.size = size;
+                    ConfigPack pack,
+                    int threads) {
+        this.radius = radius;
+        this.threads = threads;
         this.maxHeight = maxHeight;
         this.minHeight = minHeight;
         this.seed = seed;
         this.chunkGenerator = pack.getGeneratorProvider().newInstance(pack);
         this.biomeProvider = pack.getBiomeProvider();
         this.pack = pack;
-        
-        
-        size += 1;
-        this.regions = new Region[size * size];
-        this.negativeRegions = new Region[size * size];
-        for(int x = 0; x < size; x++) {
-            for(int z = 0; z < size; z++) {
-                regions[x + z * size] = new Region(this, x, z);
-                negativeRegions[x + z * size] = new Region(this, x, z);
-            }
-        }
     }
     
+    private static long key(int x, int z) {
+        return ((long) x << 32) | (z & 0xFFFFFFFFL);
+    }
+    
+    /**
+     * Generates the world, writing each region to disk as soon as it is complete.
+     */
     public void generate() {
-        int sizeChunks = size * 32;
-        List<Future<?>> futures = new ArrayList<>();
-        final AtomicLong start = new AtomicLong(System.nanoTime());
-        for(int x = 0; x < sizeChunks; x++) {
-            for(int z = 0; z < sizeChunks; z++) {
-                int finalX = x;
-                int finalZ = z;
-                futures.add(executor.submit(() -> {
-                    try {
-                        int num = amount.getAndIncrement();
-                        CLIChunk chunk = getChunkAt(finalX, finalZ);
-                        BiomeProvider cachingBiomeProvider = pack.getBiomeProvider();
-                        chunkGenerator.generateChunkData(chunk, this, cachingBiomeProvider, finalX, finalZ);
-                        CLIProtoWorld protoWorld = new CLIProtoWorld(this, cachingBiomeProvider, finalX, finalZ);
-                        pack.getStages().forEach(stage -> stage.populate(protoWorld));
-                        if(num % 240 == 239) {
-                            long time = System.nanoTime();
-                            double cps = num / ((double) (time - start.get()) / 1000000000);
-                            LOGGER.info("Generating chunk at ({}, {}), generated {} chunks at {}cps", finalX, finalZ, num, cps);
-                            amount.set(0);
-                            start.set(System.nanoTime());
-                        }
-                    } catch(Exception e) {
-                        e.printStackTrace();
-                    }
-                }));
+        try(RegionWriter writer = new RegionWriter(WRITE_QUEUE_SIZE)) {
+            new GenerationScheduler(this, threads, (x, z) -> write(writer, x, z)).generate(-radius, -radius, radius, radius);
+            
+            for(Region region : regions.values()) { // only blocks placed in already written regions should remain
+                if(written.contains(key(region.getX(), region.getZ()))) {
+                    LOGGER.warn("Discarding blocks placed in region ({}, {}) after it was written", region.getX(), region.getZ());
+                } else {
+                    writer.write(region);
+                }
             }
+            regions.clear();
         }
-        
-        for(Future<?> future : futures) {
-            try {
-                future.get();
-            } catch(InterruptedException | ExecutionException e) {
-                e.printStackTrace();
-            }
+    }
+    
+    private void write(RegionWriter writer, int x, int z) {
+        long key = key(x, z);
+        Region region = regions.remove(key);
+        if(region != null) {
+            written.add(key);
+            writer.write(region);
         }
     }
     
+    /**
+     * Generates base terrain for a chunk.
+     */
+    public void generateBase(int x, int z) {
+        chunkGenerator.generateChunkData(getChunkAt(x, z), this, biomeProvider, x, z);
+    }
+    
+    /**
+     * Runs every generation stage of the pack on a chunk. Its neighbours must already have base terrain.
+     */
+    public void populate(int x, int z) {
+        CLIProtoWorld protoWorld = new CLIProtoWorld(this, biomeProvider, x, z);
+        pack.getStages().forEach(stage -> stage.populate(protoWorld));
+    }
+    
     @Override
     public Object getHandle() {
         return this;
@@ -170,9 +160,7 @@ public class CLIWorld implements ServerWorld, NBTSerializable<Stream<Pair<Vector
     }
     
     public Region getRegion(int x, int z) {
-        int key = x + z * size;
-        if(key >= 0) return regions[key];
-        else return negativeRegions[-key];
+        return regions.computeIfAbsent(key(x, z), key -> new Region(this, x, z));
     }
     
     @Override
@@ -216,13 +204,6 @@ public class CLIWorld implements ServerWorld, NBTSerializable<Stream<Pair<Vector
         return null;
     }
     
-    @Override
-    public Stream<Pair<Vector2Int, MCAFile>> serialize() {
-        return Streams
-                .concat(Arrays.stream(regions), Arrays.stream(negativeRegions))
-                .map(region -> Pair.of(Vector2Int.of(region.getX(), region.getZ()), region.serialize()));
-    }
-    
     private static final class CLIProtoWorld implements ProtoWorld {
         private final CLIWorld delegate;
         private final BiomeProvider biomeProvider;
@@ -0,0 +1,194 @@
+package com.dfsek.terra.cli.world;
+
+import net.jafama.FastMath;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+
+/**
+ * Generates an area of a {@link CLIWorld} one region at a time.
+ * <p>
+ * Each region is generated in two phases. First, base terrain is generated for every chunk of the region plus a 1 chunk
+ * border, so that every chunk to populate has its full 3x3 neighbourhood. Then chunks are populated in 9 passes, one
+ * for each position within a 3x3 grid, so chunks populated at the same time never share neighbours.
+ * <p>
+ * Regions are generated in order, keeping the caches of the biome provider and generator hot, and the number of tasks
+ * queued at once is bounded. Once a region and every region around it has been populated, nothing will modify it again,
+ * and it is handed to a callback to be written out.
+ */
+final class GenerationScheduler {
+    private static final Logger LOGGER = LoggerFactory.getLogger(GenerationScheduler.class);
+    
+    private final CLIWorld world;
+    private final ExecutorService executor;
+    private final Semaphore inFlight;
+    
+    private final BiConsumer<Integer, Integer> regionComplete;
+    
+    // only accessed by the scheduling thread
+    private final Set<Long> generated = new HashSet<>(); // chunks with base terrain
+    private final Set<Long> populated = new HashSet<>(); // regions
+    private int minRegionX, minRegionZ, maxRegionX, maxRegionZ;
+    
+    private final AtomicInteger amount = new AtomicInteger(0);
+    private final AtomicLong start = new AtomicLong(System.nanoTime());
+    
+    /**
+     * @param regionComplete Called with the coordinates of each region once it is complete. Regions outside the
+     *                       generated area which only contain its border of base terrain are included.
+     */
+    GenerationScheduler(CLIWorld world, int threads, BiConsumer<Integer, Integer> regionComplete) {
+        this.world = world;
+        this.regionComplete = regionComplete;
+        this.executor = Executors.newFixedThreadPool(threads);
+        this.inFlight = new Semaphore(threads * 4);
+    }
+    
+    private static long key(int x, int z) {
+        return ((long) x << 32) | (z & 0xFFFFFFFFL);
+    }
+    
+    /**
+     * Generates and populates every chunk in an area, blocking until it is complete.
+     *
+     * @param minX Minimum chunk X coordinate (inclusive)
+     * @param minZ Minimum chunk Z coordinate (inclusive)
+     * @param maxX Maximum chunk X coordinate (exclusive)
+     * @param maxZ Maximum chunk Z coordinate (exclusive)
+     *
+     * @throws IllegalStateException if any chunk fails to generate. Regions completed before the failure have already
+     *                               been passed to the callback.
+     */
+    void generate(int minX, int minZ, int maxX, int maxZ) {
+        minRegionX = FastMath.floorDiv(minX, 32);
+        minRegionZ = FastMath.floorDiv(minZ, 32);
+        maxRegionX = FastMath.floorDiv(maxX - 1, 32);
+        maxRegionZ = FastMath.floorDiv(maxZ - 1, 32);
+        try {
+            for(int regionZ = minRegionZ; regionZ <= maxRegionZ; regionZ++) {
+                for(int regionX = minRegionX; regionX <= maxRegionX; regionX++) {
+                    int fromX = FastMath.max(minX, regionX << 5);
+                    int fromZ = FastMath.max(minZ, regionZ << 5);
+                    int toX = FastMath.min(maxX, (regionX + 1) << 5);
+                    int toZ = FastMath.min(maxZ, (regionZ + 1) << 5);
+                    
+                    LOGGER.info("Generating region ({}, {})", regionX, regionZ);
+                    generateBase(fromX - 1, fromZ - 1, toX + 1, toZ + 1);
+                    populate(fromX, fromZ, toX, toZ);
+                    
+                    populated.add(key(regionX, regionZ));
+                    for(int x = regionX - 1; x <= regionX + 1; x++) {
+                        for(int z = regionZ - 1; z <= regionZ + 1; z++) {
+                            if(isComplete(x, z)) regionComplete.accept(x, z);
+                        }
+                    }
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+    
+    /*
+     * Populating a chunk may modify its neighbours, which can be in adjacent regions. A region is complete when every
+     * region of the generated area around it has been populated.
+     */
+    private boolean isComplete(int regionX, int regionZ) {
+        for(int x = FastMath.max(regionX - 1, minRegionX); x <= FastMath.min(regionX + 1, maxRegionX); x++) {
+            for(int z = FastMath.max(regionZ - 1, minRegionZ); z <= FastMath.min(regionZ + 1, maxRegionZ); z++) {
+                if(!populated.contains(key(x, z))) return false;
+            }
+        }
+        return true;
+    }
+    
+    private void generateBase(int fromX, int fromZ, int toX, int toZ) {
+        List<Future<?>> tasks = new ArrayList<>();
+        for(int x = fromX; x < toX; x++) {
+            for(int z = fromZ; z < toZ; z++) {
+                if(generated.add(key(x, z))) {
+                    int finalX = x;
+                    int finalZ = z;
+                    tasks.add(submit(() -> {
+                        world.generateBase(finalX, finalZ);
+                        logProgress(finalX, finalZ);
+                    }, finalX, finalZ));
+                }
+            }
+        }
+        await(tasks);
+    }
+    
+    private void populate(int fromX, int fromZ, int toX, int toZ) {
+        for(int offsetX = 0; offsetX < 3; offsetX++) {
+            for(int offsetZ = 0; offsetZ < 3; offsetZ++) {
+                List<Future<?>> tasks = new ArrayList<>();
+                for(int x = fromX; x < toX; x++) {
+                    if(FastMath.floorMod(x, 3) != offsetX) continue;
+                    for(int z = fromZ; z < toZ; z++) {
+                        if(FastMath.floorMod(z, 3) != offsetZ) continue;
+                        int finalX = x;
+                        int finalZ = z;
+                        tasks.add(submit(() -> world.populate(finalX, finalZ), finalX, finalZ));
+                    }
+                }
+                await(tasks);
+            }
+        }
+    }
+    
+    private Future<?> submit(Runnable task, int x, int z) {
+        inFlight.acquireUninterruptibly();
+        return executor.submit(() -> {
+            try {
+                task.run();
+            } catch(RuntimeException e) {
+                throw new IllegalStateException("Failed to generate chunk at (" + x + ", " + z + ")", e);
+            } finally {
+                inFlight.release();
+            }
+        });
+    }
+    
+    /*
+     * Fails on the first failed task, so regions around a chunk which failed to generate are never written.
+     */
+    private void await(List<Future<?>> tasks) {
+        for(Future<?> task : tasks) {
+            try {
+                task.get();
+            } catch(ExecutionException e) {
+                LOGGER.error("Generation failed", e.getCause());
+                throw new IllegalStateException("Generation failed", e.getCause());
+            } catch(InterruptedException e) {
+                Thread.currentThread().interrupt();
+                LOGGER.error("Interrupted while waiting for generation", e);
+                throw new IllegalStateException("Interrupted while waiting for generation", e);
+            }
+        }
+    }
+    
+    private void logProgress(int x, int z) {
+        int num = amount.incrementAndGet();
+        if(num % 240 == 0) {
+            long time = System.nanoTime();
+            double cps = num / ((double) (time - start.get()) / 1000000000);
+            LOGGER.info("Generating chunk at ({}, {}), generated {} chunks at {}cps", x, z, num, cps);
+            amount.set(0);
+            start.set(System.nanoTime());
+        }
+    }
+}
@@ -22,8 +22,13 @@ public class Region implements NBTSerializable<MCAFile> {
         int key = x + z * 32;
         CLIChunk chunk = chunks[key];
         if(chunk == null) {
-            chunk = new CLIChunk(x, z, world);
-            chunks[key] = chunk;
+            synchronized(chunks) {
+                chunk = chunks[key];
+                if(chunk == null) {
+                    chunk = new CLIChunk(x, z, world);
+                    chunks[key] = chunk;
+                }
+            }
         }
         return chunk;
     }
@@ -31,19 +36,14 @@ public class Region implements NBTSerializable<MCAFile> {
     @Override
     public MCAFile serialize() {
         MCAFile mcaFile = new MCAFile(x, z);
-        int count = 0;
         for(int cx = 0; cx < 32; cx++) {
             for(int cz = 0; cz < 32; cz++) {
                 CLIChunk chunk = chunks[cx + cz * 32];
                 if(chunk != null) {
-                    count++;
                     mcaFile.setChunk(cx + cz * 32, chunk.serialize());
                 }
             }
         }
-        if(count > 0) {
-            mcaFile.cleanupPalettesAndBlockStates();
-        }
         return mcaFile;
     }
     
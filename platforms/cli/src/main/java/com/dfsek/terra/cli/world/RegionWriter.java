@@ -0,0 +1,74 @@
+package com.dfsek.terra.cli.world;
+
+import net.querz.mca.MCAUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Writes completed regions to disk on a background thread.
+ * <p>
+ * At most {@code capacity} regions may be waiting to be written at once. Further calls to {@link #write(Region)} block
+ * until the writer catches up, so generation can never get far ahead of the disk.
+ * <p>
+ * A region which fails to write is logged and the remaining regions are still written. The first failure is rethrown
+ * by {@link #close()}.
+ */
+final class RegionWriter implements AutoCloseable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RegionWriter.class);
+    
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final Semaphore queued;
+    private volatile IOException failure; // only written by the writer thread
+    
+    RegionWriter(int capacity) {
+        this.queued = new Semaphore(capacity);
+    }
+    
+    /**
+     * Queues a region to be written. The region must not be modified afterwards.
+     */
+    void write(Region region) {
+        queued.acquireUninterruptibly();
+        executor.execute(() -> {
+            try {
+                String name = MCAUtil.createNameFromRegionLocation(region.getX(), region.getZ());
+                LOGGER.info("Writing region ({}, {}) to {}", region.getX(), region.getZ(), name);
+                MCAUtil.write(region.serialize(), name);
+            } catch(IOException e) {
+                LOGGER.error("Failed to write region ({}, {})", region.getX(), region.getZ(), e);
+                if(failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            } finally {
+                queued.release();
+            }
+        });
+    }
+    
+    /**
+     * Blocks until every queued region has been written.
+     *
+     * @throws UncheckedIOException if any region failed to write
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for regions to be written", e);
+        }
+        if(failure != null) throw new UncheckedIOException("Failed to write regions", failure);
+    }
+}
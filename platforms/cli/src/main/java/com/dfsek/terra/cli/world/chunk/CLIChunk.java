@@ -16,7 +16,7 @@ import static com.dfsek.terra.cli.handle.CLIWorldHandle.getAIR;
 public class CLIChunk implements Chunk, ProtoChunk, NBTSerializable<net.querz.mca.Chunk> {
     private final int x;
     private final int z;
-    private final CLIBlockState[][][] blocks;
+    private final PalettedSection[] sections; // lazily created, null sections contain only air
     private final int minHeight;
     private final int maxHeight;
     private final CLIWorld world;
@@ -27,7 +27,7 @@ public class CLIChunk implements Chunk, ProtoChunk, NBTSerializable<net.querz.mc
         this.minHeight = world.getMinHeight();
         this.maxHeight = world.getMaxHeight();
         this.world = world;
-        this.blocks = new CLIBlockState[16][16][maxHeight - minHeight];
+        this.sections = new PalettedSection[(maxHeight - minHeight + 15) >> 4];
     }
     
     @Override
@@ -37,14 +37,21 @@ public class CLIChunk implements Chunk, ProtoChunk, NBTSerializable<net.querz.mc
     
     @Override
     public void setBlock(int x, int y, int z, BlockState data, boolean physics) {
-        blocks[x][z][y - minHeight] = (CLIBlockState) data;
+        int index = (y - minHeight) >> 4;
+        PalettedSection section = sections[index];
+        if(section == null) {
+            if(data.isAir()) return;
+            section = new PalettedSection();
+            sections[index] = section;
+        }
+        section.set(x, (y - minHeight) & 15, z, (CLIBlockState) data);
     }
     
     @Override
     public @NotNull CLIBlockState getBlock(int x, int y, int z) {
-        CLIBlockState blockState = blocks[x][z][y - minHeight];
-        if(blockState == null) return getAIR();
-        return blockState;
+        PalettedSection section = sections[(y - minHeight) >> 4];
+        if(section == null) return getAIR();
+        return section.get(x, (y - minHeight) & 15, z);
     }
     
     @Override
@@ -65,17 +72,11 @@ public class CLIChunk implements Chunk, ProtoChunk, NBTSerializable<net.querz.mc
     @Override
     public net.querz.mca.Chunk serialize() {
         net.querz.mca.Chunk chunk = net.querz.mca.Chunk.newChunk(2230);
-        for(int x = 0; x < blocks.length; x++) {
-            for(int z = 0; z < blocks[x].length; z++) {
-                for(int y = 0; y < blocks[z][z].length; y++) {
-                    int yi = y + minHeight;
-                    if(yi < 0 || yi >= 256) continue;
-                    CLIBlockState blockState = blocks[x][z][y];
-                    if(blockState != null) {
-                        chunk.setBlockStateAt(x, yi, z, blockState.getNbt(), false);
-                    }
-                }
-            }
+        for(int i = 0; i < sections.length; i++) {
+            PalettedSection section = sections[i];
+            int sectionY = (minHeight >> 4) + i;
+            if(section == null || section.isEmpty() || sectionY < 0 || sectionY >= 16) continue; // 1.15 sections span y 0 to 255
+            chunk.setSection(sectionY, section.toSection());
         }
         chunk.setStatus("features");
         return chunk;
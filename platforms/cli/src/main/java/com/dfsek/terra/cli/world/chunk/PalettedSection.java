@@ -0,0 +1,162 @@
+package com.dfsek.terra.cli.world.chunk;
+
+import net.querz.mca.Section;
+import net.querz.nbt.tag.CompoundTag;
+import net.querz.nbt.tag.ListTag;
+
+import com.dfsek.terra.cli.block.CLIBlockState;
+
+import static com.dfsek.terra.cli.handle.CLIWorldHandle.getAIR;
+
+
+/**
+ * A 16x16x16 section of blocks, stored as a palette of states and indices into it packed into longs.
+ * <p>
+ * Indices are ordered YZX and packed the same way as the 1.15 chunk format: {@code max(4, ceil(log2(palette size)))}
+ * bits each, with values allowed to span two longs. This lets the packed data be written out as is. Sections containing
+ * a single state store no indices at all.
+ * <p>
+ * Not thread safe.
+ */
+final class PalettedSection {
+    private static final int SIZE = 16 * 16 * 16;
+    private static final int MIN_BITS = 4;
+    
+    private CLIBlockState[] palette = new CLIBlockState[1]; // null means the block has never been set
+    private int[] counts = { SIZE }; // number of blocks using each palette entry
+    private int paletteSize = 1;
+    private int bits = 0;
+    private long[] data; // null while the section is uniform
+    
+    private static int index(int x, int y, int z) {
+        return (y << 8) | (z << 4) | x;
+    }
+    
+    private static int bitsFor(int paletteSize) {
+        return Math.max(MIN_BITS, 32 - Integer.numberOfLeadingZeros(paletteSize - 1));
+    }
+    
+    public CLIBlockState get(int x, int y, int z) {
+        CLIBlockState state = data == null ? palette[0] : palette[read(data, bits, index(x, y, z))];
+        return state == null ? getAIR() : state;
+    }
+    
+    public void set(int x, int y, int z, CLIBlockState state) {
+        if(data == null) {
+            if(palette[0] == state) return;
+            bits = MIN_BITS;
+            data = new long[SIZE * MIN_BITS / 64];
+        }
+        int index = index(x, y, z);
+        int old = read(data, bits, index);
+        if(palette[old] == state) return;
+        
+        int id = paletteId(state);
+        if(bitsFor(paletteSize) != bits) {
+            data = repack(data, bits, bitsFor(paletteSize), null);
+            bits = bitsFor(paletteSize);
+        }
+        write(data, bits, index, id);
+        
+        counts[old]--;
+        if(++counts[id] == SIZE) { // overwritten entirely with one state, drop the indices
+            palette = new CLIBlockState[]{ state };
+            counts = new int[]{ SIZE };
+            paletteSize = 1;
+            bits = 0;
+            data = null;
+        }
+    }
+    
+    /**
+     * @return Whether this section contains only air.
+     */
+    public boolean isEmpty() {
+        return data == null && (palette[0] == null || palette[0].isAir());
+    }
+    
+    /**
+     * Creates a 1.15 section with this section's contents. Palette entries no longer in use are left out.
+     */
+    public Section toSection() {
+        Section section = Section.newSection();
+        ListTag<CompoundTag> nbtPalette = section.getPalette();
+        nbtPalette.clear();
+        
+        if(data == null) {
+            nbtPalette.add(nbt(palette[0]));
+            section.setBlockStates(new long[SIZE * MIN_BITS / 64]);
+            return section;
+        }
+        
+        int[] remap = new int[paletteSize];
+        int used = 0;
+        for(int i = 0; i < paletteSize; i++) {
+            if(counts[i] > 0) {
+                remap[i] = used++;
+                nbtPalette.add(nbt(palette[i]));
+            }
+        }
+        section.setBlockStates(used == paletteSize ? data.clone() : repack(data, bits, bitsFor(used), remap));
+        return section;
+    }
+    
+    private static CompoundTag nbt(CLIBlockState state) {
+        return state == null ? getAIR().getNbt() : state.getNbt();
+    }
+    
+    private int paletteId(CLIBlockState state) {
+        for(int i = 0; i < paletteSize; i++) {
+            if(palette[i] == state) return i;
+        }
+        for(int i = 0; i < paletteSize; i++) { // reuse entries no longer in use before growing
+            if(counts[i] == 0) {
+                palette[i] = state;
+                return i;
+            }
+        }
+        if(paletteSize == palette.length) {
+            CLIBlockState[] grownPalette = new CLIBlockState[palette.length * 2];
+            System.arraycopy(palette, 0, grownPalette, 0, paletteSize);
+            palette = grownPalette;
+            int[] grownCounts = new int[counts.length * 2];
+            System.arraycopy(counts, 0, grownCounts, 0, paletteSize);
+            counts = grownCounts;
+        }
+        palette[paletteSize] = state;
+        return paletteSize++;
+    }
+    
+    private static long[] repack(long[] data, int bits, int newBits, int[] remap) {
+        long[] packed = new long[SIZE * newBits / 64];
+        for(int i = 0; i < SIZE; i++) {
+            int value = read(data, bits, i);
+            write(packed, newBits, i, remap == null ? value : remap[value]);
+        }
+        return packed;
+    }
+    
+    private static int read(long[] data, int bits, int index) {
+        int bit = index * bits;
+        int word = bit >>> 6;
+        int offset = bit & 63;
+        long mask = (1L << bits) - 1;
+        long value = data[word] >>> offset;
+        if(offset + bits > 64) {
+            value |= data[word + 1] << (64 - offset);
+        }
+        return (int) (value & mask);
+    }
+    
+    private static void write(long[] data, int bits, int index, int value) {
+        int bit = index * bits;
+        int word = bit >>> 6;
+        int offset = bit & 63;
+        long mask = (1L << bits) - 1;
+        data[word] = (data[word] & ~(mask << offset)) | ((long) value << offset);
+        if(offset + bits > 64) {
+            int spill = 64 - offset;
+            data[word + 1] = (data[word + 1] & ~(mask >>> spill)) | ((long) value >>> spill);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.dfsek.terra.cli.world.chunk;
+
+import net.querz.mca.Section;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import com.dfsek.terra.cli.block.CLIBlockState;
+
+import static com.dfsek.terra.cli.handle.CLIWorldHandle.getAIR;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+public class PalettedSectionTest {
+    private static CLIBlockState[] states(int count) {
+        CLIBlockState[] states = new CLIBlockState[count];
+        for(int i = 0; i < count; i++) {
+            states[i] = new CLIBlockState("minecraft:test_" + i + "[level=" + i + "]");
+        }
+        return states;
+    }
+    
+    private static CLIBlockState[][][] airVolume() {
+        CLIBlockState[][][] volume = new CLIBlockState[16][16][16];
+        for(CLIBlockState[][] plane : volume) {
+            for(CLIBlockState[] row : plane) {
+                Arrays.fill(row, getAIR());
+            }
+        }
+        return volume;
+    }
+    
+    /*
+     * Checks every block through get, and through the exported section as Minecraft would read it.
+     */
+    private static void assertContents(CLIBlockState[][][] expected, PalettedSection section) {
+        Section exported = section.toSection();
+        for(int x = 0; x < 16; x++) {
+            for(int y = 0; y < 16; y++) {
+                for(int z = 0; z < 16; z++) {
+                    String at = " at (" + x + ", " + y + ", " + z + ")";
+                    assertSame(expected[x][y][z], section.get(x, y, z), "get" + at);
+                    assertEquals(expected[x][y][z].getNbt(), exported.getBlockStateAt(x, y, z), "exported" + at);
+                }
+            }
+        }
+    }
+    
+    private static void fillRandomly(CLIBlockState[][][] expected, PalettedSection section, CLIBlockState[] states, Random random,
+                                     int count) {
+        for(int i = 0; i < count; i++) {
+            int x = random.nextInt(16);
+            int y = random.nextInt(16);
+            int z = random.nextInt(16);
+            CLIBlockState state = states[random.nextInt(states.length)];
+            section.set(x, y, z, state);
+            expected[x][y][z] = state;
+        }
+    }
+    
+    @Test
+    public void testUnsetSectionIsAir() {
+        PalettedSection section = new PalettedSection();
+        assertTrue(section.isEmpty());
+        assertContents(airVolume(), section);
+        assertEquals(1, section.toSection().getPalette().size());
+    }
+    
+    @Test
+    public void testRandomStates() {
+        // 4 bits, 5 bits (values span two longs), 6 bits and 9 bits
+        for(int stateCount : new int[]{ 2, 17, 33, 300 }) {
+            Random random = new Random(stateCount);
+            CLIBlockState[] states = states(stateCount);
+            CLIBlockState[][][] expected = airVolume();
+            PalettedSection section = new PalettedSection();
+            
+            fillRandomly(expected, section, states, random, 12000);
+            assertFalse(section.isEmpty());
+            assertContents(expected, section);
+        }
+    }
+    
+    @Test
+    public void testBitsGrowWithPalette() {
+        CLIBlockState[] states = states(40);
+        CLIBlockState[][][] expected = airVolume();
+        PalettedSection section = new PalettedSection();
+        // every new state is added over blocks already holding other states, so indices are repacked 4 -> 5 -> 6 bits
+        for(int i = 0; i < states.length; i++) {
+            for(int j = 0; j < 100; j++) {
+                int index = (i * 97 + j * 41) & 4095;
+                section.set(index & 15, index >> 8, (index >> 4) & 15, states[i]);
+                expected[index & 15][index >> 8][(index >> 4) & 15] = states[i];
+            }
+            assertContents(expected, section);
+        }
+    }
+    
+    @Test
+    public void testReusesUnusedPaletteEntries() {
+        Random random = new Random(2);
+        CLIBlockState[] states = states(24);
+        CLIBlockState[][][] expected = airVolume();
+        PalettedSection section = new PalettedSection();
+        fillRandomly(expected, section, Arrays.copyOf(states, 16), random, 8000);
+        
+        // replace every block of a few states, freeing their palette entries, then add new states which reuse them
+        CLIBlockState kept = states[15];
+        for(int round = 0; round < 8; round++) {
+            CLIBlockState removed = states[round];
+            CLIBlockState added = states[16 + round];
+            for(int x = 0; x < 16; x++) {
+                for(int y = 0; y < 16; y++) {
+                    for(int z = 0; z < 16; z++) {
+                        if(expected[x][y][z] == removed) {
+                            section.set(x, y, z, kept);
+                            expected[x][y][z] = kept;
+                        }
+                    }
+                }
+            }
+            fillRandomly(expected, section, new CLIBlockState[]{ added }, random, 300);
+            assertContents(expected, section);
+            assertEquals(distinct(expected), section.toSection().getPalette().size());
+        }
+    }
+    
+    @Test
+    public void testCollapsesToUniform() {
+        Random random = new Random(3);
+        CLIBlockState[] states = states(20);
+        CLIBlockState[][][] expected = airVolume();
+        PalettedSection section = new PalettedSection();
+        fillRandomly(expected, section, states, random, 5000);
+        
+        CLIBlockState fill = states[7];
+        for(int x = 0; x < 16; x++) {
+            for(int y = 0; y < 16; y++) {
+                for(int z = 0; z < 16; z++) {
+                    section.set(x, y, z, fill);
+                    expected[x][y][z] = fill;
+                }
+            }
+        }
+        assertContents(expected, section);
+        Section exported = section.toSection();
+        assertEquals(1, exported.getPalette().size());
+        for(long word : exported.getBlockStates()) {
+            assertEquals(0, word);
+        }
+        
+        // setting blocks again after collapsing starts a new palette
+        section.set(4, 5, 6, states[0]);
+        expected[4][5][6] = states[0];
+        section.set(15, 15, 15, getAIR());
+        expected[15][15][15] = getAIR();
+        assertContents(expected, section);
+    }
+    
+    private static int distinct(CLIBlockState[][][] volume) {
+        return (int) Arrays.stream(volume)
+                           .flatMap(Arrays::stream)
+                           .flatMap(Arrays::stream)
+                           .distinct()
+                           .count();
+    }
+}
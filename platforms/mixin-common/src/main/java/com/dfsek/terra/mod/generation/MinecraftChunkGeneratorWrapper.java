@@ -183,22 +183,18 @@ public class MinecraftChunkGeneratorWrapper extends net.minecraft.world.gen.chun
     public int getHeight(int x, int z, Type heightmap, HeightLimitView height, NoiseConfig noiseConfig) {
         WorldProperties properties = MinecraftAdapter.adapt(height, SeedHack.getSeed(noiseConfig.getMultiNoiseSampler()));
         BiomeProvider biomeProvider = pack.getBiomeProvider();
-        int min = height.getBottomY();
-        for(int y = height.getTopY() - 1; y >= min; y--) {
-            if(heightmap
-                    .getBlockPredicate()
-                    .test((BlockState) delegate.getBlock(properties, x, y, z, biomeProvider))) return y + 1;
-        }
-        return min;
+        return delegate.getSurfaceHeight(properties, x, z, biomeProvider,
+                                         state -> heightmap.getBlockPredicate().test((BlockState) state));
     }
     
     @Override
     public VerticalBlockSample getColumnSample(int x, int z, HeightLimitView height, NoiseConfig noiseConfig) {
-        BlockState[] array = new BlockState[height.getHeight()];
         WorldProperties properties = MinecraftAdapter.adapt(height, SeedHack.getSeed(noiseConfig.getMultiNoiseSampler()));
         BiomeProvider biomeProvider = pack.getBiomeProvider();
-        for(int y = height.getTopY() - 1; y >= height.getBottomY(); y--) {
-            array[y - height.getBottomY()] = (BlockState) delegate.getBlock(properties, x, y, z, biomeProvider);
+        com.dfsek.terra.api.block.state.BlockState[] column = delegate.getColumn(properties, x, z, biomeProvider);
+        BlockState[] array = new BlockState[column.length];
+        for(int i = 0; i < column.length; i++) {
+            array[i] = (BlockState) column[i];
         }
         return new VerticalBlockSample(height.getBottomY(), array);
     }
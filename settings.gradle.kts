@@ -14,6 +14,8 @@ includeImmediateChildren(file("common/api"), "API")
 
 includeImmediateChildren(file("common/implementation"), "implementation")
 
+include(":common:benchmarks")
+
 includeImmediateChildren(file("common/addons"), "addon")
 
 includeImmediateChildren(file("platforms"), "platform")